@@ -9,11 +9,17 @@ import com.dexels.navajo.script.api.Mappable;
 import com.dexels.navajo.script.api.MappableException;
 import com.dexels.navajo.script.api.UserException;
 
+import kharybdys.roborally.game.persistence.AiPlayerDatabaseAccess;
 import kharybdys.roborally.game.persistence.EndOfRoundDatabaseAccess;
 import kharybdys.roborally.game.persistence.GameFactory;
+import kharybdys.roborally.game.persistence.GameHistoryDatabaseAccess;
 import kharybdys.roborally.game.persistence.PhaseCalculationDatabaseAccess;
 import kharybdys.roborally.game.Bot;
 import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.PhaseEngine;
+import kharybdys.roborally.game.UndoJournal;
+import kharybdys.roborally.game.board.BoardElement;
+import kharybdys.roborally.game.movement.MovementBuffer;
 
 public class RoboRallyGameAdapter implements Mappable {
 
@@ -66,14 +72,34 @@ public class RoboRallyGameAdapter implements Mappable {
 			{
 		        EndOfRoundDatabaseAccess endOfRound = new EndOfRoundDatabaseAccess();
 		        endOfRound.initialize( access, transactionContext, game );
-				// Shuffle and deal movement cards
-				endOfRound.initializeCardsForNextRound();
-				// set us on round 1
-				game.nextRound();
-				// save the game
-		        endOfRound.saveGame();
-		        
-		        endOfRound.close();
+		        try
+		        {
+					// Shuffle and deal movement cards
+					endOfRound.initializeCardsForNextRound();
+					// set us on round 1
+			        UndoJournal journal = game.getUndoJournal();
+			        journal.begin();
+					game.nextRound();
+					// save the game
+			        try
+			        {
+			        	endOfRound.saveGame();
+			        	// the first checkpoint of the game, to replay its history from
+			        	saveCheckpoint( game.getCurrentRound(), 0 );
+			        	// the bots played by the server program their registers with the cards just dealt
+			        	programAiBots();
+			        }
+			        catch( UserException | RuntimeException e )
+			        {
+			        	journal.rollback();
+			        	throw e;
+			        }
+			        journal.commit();
+		        }
+		        finally
+		        {
+		        	endOfRound.close();
+		        }
 			}
 		}
 	}
@@ -96,40 +122,130 @@ public class RoboRallyGameAdapter implements Mappable {
 			{
 		        logger.info( "Calculating next round for game {}", game );
 		        
-		        for ( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+		        // the game stays cached, so undo what was calculated in memory if the round fails halfway
+		        UndoJournal journal = game.getUndoJournal();
+		        journal.begin();
+		        int round = game.getCurrentRound();
+		        try
 		        {
-		            processOnePhase( phase );
-		            logger.info( "Processed phase " + phase + " for game " + game );
+			        PhaseCalculationDatabaseAccess phaseCalculation = new PhaseCalculationDatabaseAccess();
+			        phaseCalculation.initialize( access, transactionContext, game );
+			        try
+			        {
+			        	// the cards of the whole round at once, kept in the bots' registers for the end of the round as well
+			        	phaseCalculation.loadRegisters( round );
+				        for ( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+				        {
+				            processOnePhase( phaseCalculation, round, phase );
+				            logger.info( "Processed phase " + phase + " for game " + game );
+				        }
+			        }
+			        finally
+			        {
+			        	phaseCalculation.close();
+			        }
+			        
+			        EndOfRoundDatabaseAccess endOfRound = new EndOfRoundDatabaseAccess();
+			        endOfRound.initialize( access, transactionContext, game );
+			        try
+			        {
+				        // repair bots where applicable & revive bots where applicable, the same way the history of the game is replayed
+				        game.getPhaseEngine().processEndOfRound();
+				        
+				        // divvy out option cards to bots on option sites
+				        
+				        // copy movement cards to next round where applicable & handle locked registers, then shuffle and deal the rest
+				        endOfRound.initializeCardsForNextRound();
+				        
+				        // on to phase 1 of the next round, so the cached game can calculate that one as well
+				        game.nextRound();
+				        
+				        // save the game
+				        endOfRound.saveGame();
+				        // the checkpoint holds the start of the next round, so the end of this round included
+				        if( GameHistoryDatabaseAccess.isCheckpointRound( round + 1 ) )
+				        {
+				        	saveCheckpoint( round + 1, 0 );
+				        }
+				        // the bots played by the server program their registers with the cards just dealt
+				        programAiBots();
+			        }
+			        finally
+			        {
+			        	endOfRound.close();
+			        }
 		        }
-		        
-		        EndOfRoundDatabaseAccess endOfRound = new EndOfRoundDatabaseAccess();
-		        endOfRound.initialize( access, transactionContext, game );
-
-		        // repair bots where applicable & divvy out option cards to bots on those board elements 
-		        
-		        // revive bots where applicable
-		        
-		        // save the game
-		        endOfRound.saveGame();
+		        catch( UserException | RuntimeException e )
+		        {
+		        	logger.warn( "Calculating next round for game {} failed, rolling back {} changes", game, journal.size() );
+		        	journal.rollback();
+		        	throw e;
+		        }
+		        journal.commit();
 		        
 		        // determine whether someone has won, if so set the game to FINISHED and stop there.
-		        
-		        // copy movement cards to next round where applicable & handle locked registers
-		         
-				// Shuffle and deal movement cards for the new round
 			}
 		}
 	}
 	
-	private void processOnePhase(int phase) throws UserException 
-	{
-		PhaseCalculationDatabaseAccess phaseCalculation = new PhaseCalculationDatabaseAccess();
-		phaseCalculation.initialize( access, transactionContext, game );
-		// process bot movement
-		// process board movement
-		// process lasers shot, board then robots
-		// process archivemarkers and flags touched
+	private void programAiBots() throws UserException
+	{
+		AiPlayerDatabaseAccess aiPlayers = new AiPlayerDatabaseAccess();
+		aiPlayers.initialize( access, transactionContext, game );
+		try
+		{
+			aiPlayers.programAiBots();
+		}
+		finally
+		{
+			aiPlayers.close();
+		}
+	}
+
+	private void saveCheckpoint( int round, int phase ) throws UserException
+	{
+		GameHistoryDatabaseAccess history = new GameHistoryDatabaseAccess();
+		history.initialize( access, transactionContext, game );
+		try
+		{
+			history.saveCheckpoint( round, phase );
+		}
+		finally
+		{
+			history.close();
+		}
+	}
+
+	private void processOnePhase( PhaseCalculationDatabaseAccess phaseCalculation, int round, int phase ) throws UserException 
+	{
+		PhaseEngine engine = game.getPhaseEngine();
+		MovementBuffer movements = engine.getRegisterBuffer();
+		for( Bot bot : game.getBots() )
+		{
+			if( bot.getLocation() != null )
+			{
+				movements.clear();
+				phaseCalculation.addMovements( bot, phase, movements );
+				engine.setRegister( bot, phase, movements );
+			}
+		}
+		// process bot movement, board movement, lasers shot and archivemarkers and flags touched
+		engine.processPhase( phase );
 		
+		for( int event = 0; event < engine.getNrOfEvents(); event++ )
+		{
+			BoardElement location = game.getGrid().getElement( engine.getEventCell( event ) );
+			phaseCalculation.logGameEvent( round, 
+					                       phase, 
+					                       engine.getEventType( event ), 
+					                       engine.getEventActor( event ), 
+					                       engine.getEventVictim( event ), 
+					                       location == null ? null : "( " + location.getXCoordinate() + ", " + location.getYCoordinate() + " )" );
+		}
+		if( phase < Game.MAX_PHASE )
+		{
+			game.nextPhase();
+		}
 	}
 
 	public Integer getPowerDown() 
@@ -24,9 +24,8 @@ public final class CreatePreviewImage extends FunctionInterface {
 		String scenarioName = getStringOperand( 0 );
 		try 
 		{
-			ImplementedScenario scenario = ImplementedScenario.valueOf( scenarioName );
 			// zero bots (preview image), factor 4 (TODO: make factor an optional input)
-			return new Binary( scenario.getPreviewImage( 0, Game.DEFAULT_FACTOR ) );
+			return new Binary( ImplementedScenario.getPreviewImage( scenarioName, 0, Game.DEFAULT_FACTOR ) );
 			
 		}
 		catch( IllegalArgumentException e )
@@ -24,8 +24,7 @@ public final class GetNrOfFlags extends FunctionInterface {
 		String scenarioName = getStringOperand( 0 );
 		try 
 		{
-			ImplementedScenario scenario = ImplementedScenario.valueOf( scenarioName );
-			return scenario.getNrOfFlags();
+			return ImplementedScenario.getNrOfFlags( scenarioName );
 			
 		}
 		catch( IllegalArgumentException e )
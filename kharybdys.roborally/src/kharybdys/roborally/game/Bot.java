@@ -1,11 +1,16 @@
 package kharybdys.roborally.game;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
 
 import kharybdys.roborally.game.board.AbstractMovingElement;
 import kharybdys.roborally.game.board.BoardElement;
 import kharybdys.roborally.game.definition.Direction;
 import kharybdys.roborally.game.movement.Movement;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
 import kharybdys.roborally.game.options.OptionCardDefinition;
 
 /**
@@ -19,14 +24,24 @@ public class Bot extends AbstractMovingElement {
     // number of the highest flag touched
 	private Integer latestFlag = 0;
     private Direction facingDirection;
+    // the movement cards programmed in the round being calculated, per register ( phase - 1 ), with the option card used per register, see loadRegister
+    private final List<Collection<MovementCardDefinition>> registers = new ArrayList<Collection<MovementCardDefinition>>( Game.MAX_PHASE );
+    private final String[] registerOptionCards = new String[Game.MAX_PHASE];
+    // the movement cards kept in hand on a FLYWHEEL in that round
+    private final Collection<MovementCardDefinition> reservedCards = EnumSet.noneOf( MovementCardDefinition.class );
 
 
     public Bot( Integer id, Integer damage, Integer lives, Integer latestFlag, Integer orderNumber, Direction facingDirection ) 
     {
 		super( id, orderNumber );
+		this.damage = damage;
 		this.lives = lives;
 		this.latestFlag = latestFlag;
 		this.facingDirection = facingDirection;
+		for( int register = 0; register < Game.MAX_PHASE; register++ )
+		{
+			registers.add( EnumSet.noneOf( MovementCardDefinition.class ) );
+		}
 	}
 
     public Integer getDamage() {
@@ -42,22 +57,98 @@ public class Bot extends AbstractMovingElement {
         }
     }
 
+    public void setDamage( Integer damage ) 
+    {
+        this.damage = damage;
+    }
+
     public Direction getFacingDirection() 
     {
         return facingDirection;
     }
 
+    public void setFacingDirection( Direction facingDirection ) 
+    {
+        this.facingDirection = facingDirection;
+    }
+
 
 	public int getLatestFlag() 
 	{
 		return latestFlag;
 	}
 
+	public void setLatestFlag( Integer latestFlag ) 
+	{
+		this.latestFlag = latestFlag;
+	}
+
 	public boolean hasOptionCard( OptionCardDefinition optionCard ) 
 	{
 		// TODO Implement this method
 		return false;
 	}
+
+	/**
+	 * Empties the registers, before loading the movement cards of another round
+	 */
+	public void clearRegisters()
+	{
+		for( int register = 0; register < Game.MAX_PHASE; register++ )
+		{
+			registers.get( register ).clear();
+			registerOptionCards[register] = null;
+		}
+		reservedCards.clear();
+	}
+
+	/**
+	 * Loads a movement card of the round being calculated
+	 * 
+	 * @param phase          The phase the card is programmed for, null if the card is still in hand
+	 * @param card           The card
+	 * @param usesOptionCard The name of the option card used with the card, null if none
+	 */
+	public void loadRegister( Integer phase, MovementCardDefinition card, String usesOptionCard )
+	{
+		if( phase != null )
+		{
+			registers.get( phase - 1 ).add( card );
+			registerOptionCards[phase - 1] = usesOptionCard;
+		}
+		else if( OptionCardDefinition.FLYWHEEL.name().equals( usesOptionCard ) )
+		{
+			reservedCards.add( card );
+		}
+	}
+
+	/**
+	 * @param phase The phase
+	 * 
+	 * @return The movement cards programmed for the given phase
+	 */
+	public Collection<MovementCardDefinition> getRegister( int phase )
+	{
+		return registers.get( phase - 1 );
+	}
+
+	/**
+	 * @param phase The phase
+	 * 
+	 * @return The name of the option card used with the movement cards of the given phase, null if none
+	 */
+	public String getRegisterOptionCard( int phase )
+	{
+		return registerOptionCards[phase - 1];
+	}
+
+	/**
+	 * @return The movement cards kept in hand on a FLYWHEEL, available to the bot next round
+	 */
+	public Collection<MovementCardDefinition> getReservedCards()
+	{
+		return reservedCards;
+	}
 	
     @Override
     public void paintElement(Graphics g, int baseX, int baseY, int size, int factor) 
@@ -101,7 +192,10 @@ public class Bot extends AbstractMovingElement {
     {
         super.processDeath();
 
-		currentLocation.setBot( null );
+		if( getGame() != null )
+		{
+			getGame().placeBot( this, null );
+		}
 		currentLocation = null;
 
 		this.lives-- ;
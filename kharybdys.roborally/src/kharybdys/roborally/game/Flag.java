@@ -22,7 +22,10 @@ public class Flag extends AbstractMovingElement {
     {
         super.processDeath();
 
-		currentLocation.setFlag( null );
+		if( getGame() != null )
+		{
+			getGame().placeFlag( this, null );
+		}
 		currentLocation = null;
 		
 		// TODO: Flags resurrect at the end of a phase instead of at the end of a turn
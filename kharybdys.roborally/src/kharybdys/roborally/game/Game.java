@@ -17,7 +17,10 @@ import org.slf4j.LoggerFactory;
 import kharybdys.roborally.game.board.AbstractBoardElement;
 import kharybdys.roborally.game.board.AbstractMovingElement;
 import kharybdys.roborally.game.board.BoardElement;
-import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.board.BoardOccupancy;
+import kharybdys.roborally.game.board.BoardTemplate;
+import kharybdys.roborally.game.board.LaserBeam;
 
 /**
  *	Models everything a game has to know
@@ -31,40 +34,62 @@ public class Game {
 	private int ySize;
     private Collection<Flag> flags;
     private Collection<Bot> bots;
-    private Collection<BoardElement> laserMounts;
-    // rootElement is the element at coordinates 0, 0
-    private BoardElement rootElement;
+    // the board itself, shared with all other games on the same board
+    private BoardTemplate template;
+    private BoardGrid grid;
+    // the bots and flags per cell of the board, indexed by ( y * xSize + x )
+    private Bot[] botsByCell;
+    private Flag[] flagsByCell;
+    // the same, as bitboards for fast set based queries
+    private BoardOccupancy botOccupancy;
+    private BoardOccupancy flagOccupancy;
+    // scratch space for firing the board lasers: damage per cell and the cells hit
+    private int[] laserDamage;
+    private int[] laserHits;
+    // resolves the phases, created when first needed
+    private PhaseEngine phaseEngine;
+    // records the changes of the round being calculated, created when first needed
+    private UndoJournal undoJournal;
     private Integer currentRound = 0;
     private Integer currentPhase = 1;
     private Integer id = 0;
+    // the seed the movement cards are dealt with, see MovementDeck
+    private long deckSeed;
 
 
 	private static final Logger logger = LoggerFactory.getLogger( Game.class );
 
     public Game( Integer id, Integer currentRound, 
-    		int xSize, int ySize, 
-    		BoardElement rootElement, 
+    		BoardTemplate template, 
     		Collection<Bot> bots, 
-    		Collection<Flag> flags,
-			Collection<BoardElement> laserMounts ) 
+    		Collection<Flag> flags ) 
     {
     	this.id = id;
     	this.currentRound = currentRound;
-    	this.xSize = xSize;
-    	this.ySize = ySize;
-    	this.rootElement = rootElement;
+    	this.deckSeed = id == null ? 0L : id;
+    	this.template = template;
+    	this.grid = template.getGrid();
+    	this.xSize = grid.getXSize();
+    	this.ySize = grid.getYSize();
     	this.bots = bots;
     	this.flags = flags;
-    	this.laserMounts = laserMounts;
+    	this.botsByCell = new Bot[grid.getSize()];
+    	this.flagsByCell = new Flag[grid.getSize()];
+    	this.botOccupancy = new BoardOccupancy( xSize, ySize );
+    	this.flagOccupancy = new BoardOccupancy( xSize, ySize );
+    	this.laserDamage = new int[grid.getSize()];
+    	this.laserHits = new int[template.getLaserBeams().size()];
     	
-    	for( AbstractMovingElement b : bots )
+    	for( Bot b : bots )
     	{
     		b.setGame( this );
+    		placeBot( b, b.getLocation() );
     	}
     	
-    	for( AbstractMovingElement f : flags)
+    	for( Flag f : flags)
     	{
     		f.setGame( this );
+    		placeFlag( f, f.getLocation() );
     	}
 	}
 
@@ -93,16 +118,9 @@ public class Game {
 
     public void paint( Graphics g, int factor ) 
     {
-        BoardElement currentRowStart = rootElement;
-        while( currentRowStart != null )
+        for( int index = 0; index < grid.getSize(); index++ )
         {
-            BoardElement currentElement = currentRowStart;
-            while( currentElement != null )
-            {
-            	currentElement.paint(g, factor);
-            	currentElement = currentElement.getNeighbour( Direction.EAST );
-            }
-            currentRowStart = currentRowStart.getNeighbour( Direction.SOUTH );
+        	grid.getElement( index ).paint( g, factor );
         }
         // paint flags first then bots so the bots actually show
         for ( AbstractMovingElement flag : flags ) 
@@ -131,6 +149,18 @@ public class Game {
 		this.currentRound++ ;
 	}
 	
+	/**
+	 * Resets the round and phase, for rolling back a round ( see {@link UndoJournal} )
+	 * 
+	 * @param round The round
+	 * @param phase The phase
+	 */
+	void setRoundAndPhase( int round, int phase )
+	{
+		this.currentRound = round;
+		this.currentPhase = phase;
+	}
+
 	public Collection<AbstractMovingElement> getBotsAndFlags() 
 	{
         List<AbstractMovingElement> botsAndFlags = new ArrayList<AbstractMovingElement>();
@@ -139,6 +169,196 @@ public class Game {
         return botsAndFlags;
 	}
 
+	/**
+	 * Moves the given bot to the given location, null meaning the bot is removed from the board
+	 * 
+	 * @param bot      The bot to move
+	 * @param location The new location of the bot
+	 */
+	public void placeBot( Bot bot, BoardElement location )
+	{
+		int newIndex = location == null ? BoardGrid.NO_CELL : location.getIndex();
+		if( newIndex != BoardGrid.NO_CELL && botsByCell[newIndex] != null && ! botsByCell[newIndex].equals( bot ) )
+		{
+			logger.warn( "Replacing bot {} with bot {} at boardElement {}", botsByCell[newIndex], bot, location );
+			throw new UnsupportedOperationException( "Cannot replace one bot with another at a boardElement" ); 
+		}
+		if( bot.getLocation() != null && botsByCell[bot.getLocation().getIndex()] == bot )
+		{
+			botsByCell[bot.getLocation().getIndex()] = null;
+			botOccupancy.release( bot.getLocation().getIndex() );
+		}
+		if( newIndex != BoardGrid.NO_CELL )
+		{
+			botsByCell[newIndex] = bot;
+			botOccupancy.occupy( newIndex );
+		}
+		bot.setLocation( location );
+	}
+
+	/**
+	 * Moves the given flag to the given location, null meaning the flag is removed from the board
+	 * 
+	 * @param flag     The flag to move
+	 * @param location The new location of the flag
+	 */
+	public void placeFlag( Flag flag, BoardElement location )
+	{
+		int newIndex = location == null ? BoardGrid.NO_CELL : location.getIndex();
+		if( newIndex != BoardGrid.NO_CELL && flagsByCell[newIndex] != null && ! flagsByCell[newIndex].equals( flag ) )
+		{
+			logger.warn( "Replacing flag {} with flag {} at boardElement {}", flagsByCell[newIndex], flag, location );
+			throw new UnsupportedOperationException( "Cannot replace one flag with another at a boardElement" ); 
+		}
+		if( flag.getLocation() != null && flagsByCell[flag.getLocation().getIndex()] == flag )
+		{
+			flagsByCell[flag.getLocation().getIndex()] = null;
+			flagOccupancy.release( flag.getLocation().getIndex() );
+		}
+		if( newIndex != BoardGrid.NO_CELL )
+		{
+			flagsByCell[newIndex] = flag;
+			flagOccupancy.occupy( newIndex );
+		}
+		flag.setLocation( location );
+	}
+
+	/**
+	 * Returns the bot on the cell with the given index, null if none (or NO_CELL)
+	 * 
+	 * @param index The index of the cell
+	 * 
+	 * @return The bot on that cell
+	 */
+	public Bot getBotAt( int index )
+	{
+		return index == BoardGrid.NO_CELL ? null : botsByCell[index];
+	}
+
+	/**
+	 * Returns the flag on the cell with the given index, null if none (or NO_CELL)
+	 * 
+	 * @param index The index of the cell
+	 * 
+	 * @return The flag on that cell
+	 */
+	public Flag getFlagAt( int index )
+	{
+		return index == BoardGrid.NO_CELL ? null : flagsByCell[index];
+	}
+
+	/**
+	 * Finds the bot hit by the given board laser, being the first bot along its beam ( the mount cell included )
+	 * 
+	 * @param beam The laser beam to fire
+	 * 
+	 * @return The bot getting hit, null if none
+	 */
+	public Bot findLaserTarget( LaserBeam beam )
+	{
+		return getBotAt( botOccupancy.findFirst( beam ) );
+	}
+
+	/**
+	 * Fires all board lasers at once and damages the bots getting hit. 
+	 * Targets are determined before any damage is done, so a bot dying of its damage does not uncover the bot behind it.
+	 */
+	public void fireBoardLasers()
+	{
+		List<LaserBeam> beams = template.getLaserBeams();
+		int nrOfHits = 0;
+		for( int i = 0; i < beams.size(); i++ )
+		{
+			LaserBeam beam = beams.get( i );
+			int target = botOccupancy.findFirst( beam );
+			if( target != BoardGrid.NO_CELL )
+			{
+				if( laserDamage[target] == 0 )
+				{
+					laserHits[nrOfHits++] = target;
+				}
+				laserDamage[target] += beam.getStrength();
+			}
+		}
+		for( int i = 0; i < nrOfHits; i++ )
+		{
+			int target = laserHits[i];
+			Bot bot = botsByCell[target];
+			int damage = laserDamage[target];
+			laserDamage[target] = 0;
+			logger.debug( "Board laser(s) hit bot {} for {} damage", bot, damage );
+			bot.takeDamage( damage );
+		}
+	}
+
+	/**
+	 * Returns the engine resolving the phases of this game, with its buffers allocated once for this game
+	 * 
+	 * @return The phase engine
+	 */
+	public PhaseEngine getPhaseEngine()
+	{
+		if( phaseEngine == null )
+		{
+			phaseEngine = new PhaseEngine( this );
+		}
+		return phaseEngine;
+	}
+
+	/**
+	 * Returns the journal recording the changes of the round being calculated, so they can be rolled back
+	 * 
+	 * @return The undo journal
+	 */
+	public UndoJournal getUndoJournal()
+	{
+		if( undoJournal == null )
+		{
+			undoJournal = new UndoJournal( this );
+		}
+		return undoJournal;
+	}
+
+	/**
+	 * Returns the bitboard of the cells occupied by bots
+	 * 
+	 * @return The bot occupancy
+	 */
+	public BoardOccupancy getBotOccupancy()
+	{
+		return botOccupancy;
+	}
+
+	/**
+	 * Returns the bitboard of the cells occupied by flags
+	 * 
+	 * @return The flag occupancy
+	 */
+	public BoardOccupancy getFlagOccupancy()
+	{
+		return flagOccupancy;
+	}
+
+	/**
+	 * Returns the (shared) template of the board this game is played on
+	 * 
+	 * @return The board template
+	 */
+	public BoardTemplate getBoardTemplate()
+	{
+		return template;
+	}
+
+	/**
+	 * Returns the grid representing the board of this game
+	 * 
+	 * @return The board grid
+	 */
+	public BoardGrid getGrid()
+	{
+		return grid;
+	}
+
 	public Bot getBot( Integer botId ) 
 	{
 		Optional<Bot> bot = bots.stream().filter( b -> b.getId().equals( botId ) ).findFirst();
@@ -169,6 +389,21 @@ public class Game {
 		return currentRound;
 	}
 
+	/**
+	 * Returns the seed the movement cards of this game are dealt with, by default its id, so the cards dealt can be reproduced
+	 * 
+	 * @return The seed
+	 */
+	public long getDeckSeed()
+	{
+		return deckSeed;
+	}
+
+	public void setDeckSeed( long deckSeed )
+	{
+		this.deckSeed = deckSeed;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -0,0 +1,699 @@
+package kharybdys.roborally.game;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import kharybdys.roborally.game.board.BoardElement;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.board.BoardTemplate;
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.PackedMovement;
+
+/**
+ * Compact value holding everything that changes during a game ( bots, flags, archive markers, registers ) in primitive arrays,
+ * over the shared and immutable {@link BoardTemplate}. Meant for everything that has to try out game states without touching
+ * the {@link Game} and its objects: previews, AI evaluation, rollback.
+ *
+ * Forking is copy-on-write: a fork shares the arrays with its origin, and each of the two copies a group of arrays
+ * ( bots, flags or registers ) the first time it changes that group. Copying from another state and applying to a game are linear in the number of bots and flags.
+ *
+ * Bots and flags are identified by slot, the slots following their order numbers ( see {@link #getBotsInSlotOrder(Game)} ).
+ * Cells are indices into the {@link BoardGrid}, NO_CELL for bots and flags not on the board.
+ * Not thread safe, but forks can be handed to other threads.
+ */
+public final class GameState
+{
+
+	// the fields of a bot, stored per slot in a single array
+	private static final int CELL = 0;
+	private static final int FACING = 1;
+	private static final int DAMAGE = 2;
+	private static final int LIVES = 3;
+	private static final int LATEST_FLAG = 4;
+	private static final int ARCHIVE = 5;
+	private static final int DIED = 6;
+	private static final int BOT_FIELDS = 7;
+
+	// the fields of a flag, stored per slot in a single array
+	private static final int FLAG_CELL = 0;
+	private static final int FLAG_ARCHIVE = 1;
+	private static final int FLAG_FIELDS = 2;
+
+	// the version of the checkpoint format, see toCheckpoint()
+	private static final int CHECKPOINT_VERSION = 1;
+
+	private static final int REGISTER_SIZE = Game.MAX_PHASE * PhaseEngine.MAX_MOVEMENTS;
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final BoardTemplate template;
+	private final int[] botNumbers;
+	private final int[] flagNumbers;
+
+	private int round;
+	private int phase;
+
+	private int[] bots;
+	private boolean botsShared = false;
+	private int[] flags;
+	private boolean flagsShared = false;
+	// per slot and phase, the packed movements with their direction relative to the facing of the bot, and their number
+	private long[] registers;
+	private int[] registerCounts;
+	private boolean registersShared = false;
+
+	/**
+	 * Creates a state without any bots or flags on the board and with empty registers
+	 *
+	 * @param template    The board
+	 * @param botNumbers  The order numbers of the bots, by slot
+	 * @param flagNumbers The order numbers of the flags, by slot
+	 */
+	public GameState( BoardTemplate template, int[] botNumbers, int[] flagNumbers )
+	{
+		this.template = template;
+		this.botNumbers = botNumbers.clone();
+		this.flagNumbers = flagNumbers.clone();
+		this.round = 0;
+		this.phase = 1;
+		this.bots = new int[botNumbers.length * BOT_FIELDS];
+		this.flags = new int[flagNumbers.length * FLAG_FIELDS];
+		this.registers = new long[botNumbers.length * REGISTER_SIZE];
+		this.registerCounts = new int[botNumbers.length * Game.MAX_PHASE];
+		for( int slot = 0; slot < botNumbers.length; slot++ )
+		{
+			bots[slot * BOT_FIELDS + CELL] = BoardGrid.NO_CELL;
+			bots[slot * BOT_FIELDS + ARCHIVE] = BoardGrid.NO_CELL;
+		}
+		for( int slot = 0; slot < flagNumbers.length; slot++ )
+		{
+			flags[slot * FLAG_FIELDS + FLAG_CELL] = BoardGrid.NO_CELL;
+			flags[slot * FLAG_FIELDS + FLAG_ARCHIVE] = BoardGrid.NO_CELL;
+		}
+	}
+
+	/**
+	 * Creates a fork of the given state, sharing its arrays until either of them changes
+	 */
+	private GameState( GameState origin )
+	{
+		this.template = origin.template;
+		this.botNumbers = origin.botNumbers;
+		this.flagNumbers = origin.flagNumbers;
+		this.round = origin.round;
+		this.phase = origin.phase;
+		this.bots = origin.bots;
+		this.flags = origin.flags;
+		this.registers = origin.registers;
+		this.registerCounts = origin.registerCounts;
+		this.botsShared = true;
+		this.flagsShared = true;
+		this.registersShared = true;
+	}
+
+	/**
+	 * Captures the current state of the given game. The registers are left empty, they live in the database until the phase is resolved.
+	 *
+	 * @param game The game
+	 *
+	 * @return The state of the game
+	 */
+	public static GameState of( Game game )
+	{
+		Bot[] bots = getBotsInSlotOrder( game );
+		Flag[] flags = getFlagsInSlotOrder( game );
+		int[] botNumbers = new int[bots.length];
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			botNumbers[slot] = bots[slot].getOrderNumber();
+		}
+		int[] flagNumbers = new int[flags.length];
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			flagNumbers[slot] = flags[slot].getOrderNumber();
+		}
+
+		GameState state = new GameState( game.getBoardTemplate(), botNumbers, flagNumbers );
+		state.round = game.getCurrentRound();
+		state.phase = game.getCurrentPhase();
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			Bot bot = bots[slot];
+			int base = slot * BOT_FIELDS;
+			state.bots[base + CELL] = getIndex( bot.getLocation() );
+			state.bots[base + FACING] = bot.getFacingDirection().ordinal();
+			state.bots[base + DAMAGE] = bot.getDamage();
+			state.bots[base + LIVES] = bot.getLives();
+			state.bots[base + LATEST_FLAG] = bot.getLatestFlag();
+			state.bots[base + ARCHIVE] = getIndex( bot.getArchiveMarker() );
+			state.bots[base + DIED] = Boolean.TRUE.equals( bot.getDiedThisTurn() ) ? 1 : 0;
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			Flag flag = flags[slot];
+			state.flags[slot * FLAG_FIELDS + FLAG_CELL] = getIndex( flag.getLocation() );
+			state.flags[slot * FLAG_FIELDS + FLAG_ARCHIVE] = getIndex( flag.getArchiveMarker() );
+		}
+		return state;
+	}
+
+	/**
+	 * Writes this state to the bots and flags of the given game, which should be the game it was captured from.
+	 * Everything is taken off the board first, so bots can be placed on each other's previous cells. The registers, round and phase are not written.
+	 *
+	 * @param game The game
+	 */
+	public void applyTo( Game game )
+	{
+		Bot[] gameBots = getBotsInSlotOrder( game );
+		Flag[] gameFlags = getFlagsInSlotOrder( game );
+		if( gameBots.length != botNumbers.length || gameFlags.length != flagNumbers.length )
+		{
+			throw new IllegalArgumentException( "Cannot apply a state of " + botNumbers.length + " bots and " + flagNumbers.length + " flags to " + game );
+		}
+		BoardGrid grid = template.getGrid();
+		for( Bot bot : gameBots )
+		{
+			game.placeBot( bot, null );
+		}
+		for( int slot = 0; slot < gameBots.length; slot++ )
+		{
+			Bot bot = gameBots[slot];
+			int base = slot * BOT_FIELDS;
+			game.placeBot( bot, getElement( grid, bots[base + CELL] ) );
+			bot.setFacingDirection( DIRECTIONS[bots[base + FACING]] );
+			bot.setDamage( bots[base + DAMAGE] );
+			bot.setLives( bots[base + LIVES] );
+			bot.setLatestFlag( bots[base + LATEST_FLAG] );
+			bot.setArchiveMarker( getElement( grid, bots[base + ARCHIVE] ) );
+			bot.setDiedThisTurn( bots[base + DIED] != 0 );
+		}
+		for( Flag flag : gameFlags )
+		{
+			game.placeFlag( flag, null );
+		}
+		for( int slot = 0; slot < gameFlags.length; slot++ )
+		{
+			game.placeFlag( gameFlags[slot], getElement( grid, flags[slot * FLAG_FIELDS + FLAG_CELL] ) );
+			gameFlags[slot].setArchiveMarker( getElement( grid, flags[slot * FLAG_FIELDS + FLAG_ARCHIVE] ) );
+		}
+	}
+
+	/**
+	 * Returns a fork of this state: a state equal to this one, which can be changed independently.
+	 * Does not copy anything until either of the two changes.
+	 *
+	 * @return The fork
+	 */
+	public GameState fork()
+	{
+		botsShared = true;
+		flagsShared = true;
+		registersShared = true;
+		return new GameState( this );
+	}
+
+	/**
+	 * Makes this state equal to the given state ( eg to restore a snapshot taken by {@link #fork()} ), reusing the arrays of this state where possible
+	 *
+	 * @param other A state of the same game
+	 */
+	public void copyFrom( GameState other )
+	{
+		if( other.template != template || other.botNumbers.length != botNumbers.length || other.flagNumbers.length != flagNumbers.length )
+		{
+			throw new IllegalArgumentException( "Cannot copy a state of another game" );
+		}
+		round = other.round;
+		phase = other.phase;
+		if( bots != other.bots )
+		{
+			bots = copyInto( other.bots, bots, botsShared );
+			botsShared = false;
+		}
+		if( flags != other.flags )
+		{
+			flags = copyInto( other.flags, flags, flagsShared );
+			flagsShared = false;
+		}
+		if( registers != other.registers )
+		{
+			registers = registersShared ? other.registers.clone() : copyInto( other.registers, registers );
+			registerCounts = copyInto( other.registerCounts, registerCounts, registersShared );
+			registersShared = false;
+		}
+	}
+
+	private static int[] copyInto( int[] source, int[] target, boolean shared )
+	{
+		if( shared )
+		{
+			return source.clone();
+		}
+		System.arraycopy( source, 0, target, 0, source.length );
+		return target;
+	}
+
+	private static long[] copyInto( long[] source, long[] target )
+	{
+		System.arraycopy( source, 0, target, 0, source.length );
+		return target;
+	}
+
+	/**
+	 * Encodes the round, phase, bots and flags of this state in a compact form, to be stored as checkpoint of the game.
+	 * The registers are left out, they are logged in the database anyway.
+	 *
+	 * @return The encoded state
+	 */
+	public byte[] toCheckpoint()
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( 16 + botNumbers.length * 12 + flagNumbers.length * 6 );
+		try( DataOutputStream out = new DataOutputStream( bytes ) )
+		{
+			out.writeByte( CHECKPOINT_VERSION );
+			out.writeInt( round );
+			out.writeByte( phase );
+			out.writeShort( botNumbers.length );
+			out.writeShort( flagNumbers.length );
+			for( int slot = 0; slot < botNumbers.length; slot++ )
+			{
+				int base = slot * BOT_FIELDS;
+				out.writeShort( botNumbers[slot] );
+				out.writeShort( bots[base + CELL] );
+				out.writeByte( bots[base + FACING] );
+				out.writeByte( bots[base + DAMAGE] );
+				out.writeByte( bots[base + LIVES] );
+				out.writeByte( bots[base + LATEST_FLAG] );
+				out.writeShort( bots[base + ARCHIVE] );
+				out.writeByte( bots[base + DIED] );
+			}
+			for( int slot = 0; slot < flagNumbers.length; slot++ )
+			{
+				out.writeShort( flagNumbers[slot] );
+				out.writeShort( flags[slot * FLAG_FIELDS + FLAG_CELL] );
+				out.writeShort( flags[slot * FLAG_FIELDS + FLAG_ARCHIVE] );
+			}
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( "Cannot encode a state in memory", e );
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decodes a state encoded by {@link #toCheckpoint()}. The registers are empty.
+	 *
+	 * @param template   The board of the game the state was taken from
+	 * @param checkpoint The encoded state
+	 *
+	 * @return The state
+	 */
+	public static GameState fromCheckpoint( BoardTemplate template, byte[] checkpoint )
+	{
+		try( DataInputStream in = new DataInputStream( new ByteArrayInputStream( checkpoint ) ) )
+		{
+			int version = in.readByte();
+			if( version != CHECKPOINT_VERSION )
+			{
+				throw new IllegalArgumentException( "Cannot decode a checkpoint of version " + version );
+			}
+			int round = in.readInt();
+			int phase = in.readByte();
+			int[] botNumbers = new int[in.readShort()];
+			int[] flagNumbers = new int[in.readShort()];
+			int[] bots = new int[botNumbers.length * BOT_FIELDS];
+			for( int slot = 0; slot < botNumbers.length; slot++ )
+			{
+				int base = slot * BOT_FIELDS;
+				botNumbers[slot] = in.readShort();
+				bots[base + CELL] = in.readShort();
+				bots[base + FACING] = in.readByte();
+				bots[base + DAMAGE] = in.readByte();
+				bots[base + LIVES] = in.readByte();
+				bots[base + LATEST_FLAG] = in.readByte();
+				bots[base + ARCHIVE] = in.readShort();
+				bots[base + DIED] = in.readByte();
+			}
+			int[] flags = new int[flagNumbers.length * FLAG_FIELDS];
+			for( int slot = 0; slot < flagNumbers.length; slot++ )
+			{
+				flagNumbers[slot] = in.readShort();
+				flags[slot * FLAG_FIELDS + FLAG_CELL] = in.readShort();
+				flags[slot * FLAG_FIELDS + FLAG_ARCHIVE] = in.readShort();
+			}
+
+			GameState state = new GameState( template, botNumbers, flagNumbers );
+			state.setRoundAndPhase( round, phase );
+			state.bots = bots;
+			state.flags = flags;
+			return state;
+		}
+		catch( IOException e )
+		{
+			throw new IllegalArgumentException( "Cannot decode a truncated checkpoint", e );
+		}
+	}
+
+	public BoardTemplate getBoardTemplate()
+	{
+		return template;
+	}
+
+	public int getRound()
+	{
+		return round;
+	}
+
+	public int getPhase()
+	{
+		return phase;
+	}
+
+	/**
+	 * Sets the round and phase the state is in
+	 *
+	 * @param round The round
+	 * @param phase The phase ( 1 - MAX_PHASE )
+	 */
+	public void setRoundAndPhase( int round, int phase )
+	{
+		this.round = round;
+		this.phase = phase;
+	}
+
+	public int getNrOfBots()
+	{
+		return botNumbers.length;
+	}
+
+	public int getNrOfFlags()
+	{
+		return flagNumbers.length;
+	}
+
+	public int getBotNumber( int slot )
+	{
+		return botNumbers[slot];
+	}
+
+	public int getFlagNumber( int slot )
+	{
+		return flagNumbers[slot];
+	}
+
+	public int getBotCell( int slot )
+	{
+		return bots[slot * BOT_FIELDS + CELL];
+	}
+
+	/**
+	 * Returns the facing of the given bot
+	 *
+	 * @param slot The slot of the bot
+	 *
+	 * @return The direction ordinal
+	 */
+	public int getBotFacing( int slot )
+	{
+		return bots[slot * BOT_FIELDS + FACING];
+	}
+
+	public int getBotDamage( int slot )
+	{
+		return bots[slot * BOT_FIELDS + DAMAGE];
+	}
+
+	public int getBotLives( int slot )
+	{
+		return bots[slot * BOT_FIELDS + LIVES];
+	}
+
+	public int getBotLatestFlag( int slot )
+	{
+		return bots[slot * BOT_FIELDS + LATEST_FLAG];
+	}
+
+	public int getBotArchive( int slot )
+	{
+		return bots[slot * BOT_FIELDS + ARCHIVE];
+	}
+
+	/**
+	 * @param slot The slot of the bot
+	 *
+	 * @return Whether the bot died this round
+	 */
+	public boolean hasBotDied( int slot )
+	{
+		return bots[slot * BOT_FIELDS + DIED] != 0;
+	}
+
+	/**
+	 * Returns the number of steps, ignoring walls, from the given bot to the next flag it has to touch
+	 *
+	 * @param slot The slot of the bot
+	 *
+	 * @return The distance, 0 when it touched the last flag, MAX_VALUE when it is not on the board
+	 */
+	public int getDistanceToNextFlag( int slot )
+	{
+		int cell = getBotCell( slot );
+		if( cell == BoardGrid.NO_CELL )
+		{
+			return Integer.MAX_VALUE;
+		}
+		int nextFlag = getBotLatestFlag( slot ) + 1;
+		for( int flag = 0; flag < flagNumbers.length; flag++ )
+		{
+			if( flagNumbers[flag] == nextFlag && getFlagCell( flag ) != BoardGrid.NO_CELL )
+			{
+				int xSize = template.getGrid().getXSize();
+				int flagCell = getFlagCell( flag );
+				return Math.abs( cell % xSize - flagCell % xSize ) + Math.abs( cell / xSize - flagCell / xSize );
+			}
+		}
+		return 0;
+	}
+
+	public int getFlagCell( int slot )
+	{
+		return flags[slot * FLAG_FIELDS + FLAG_CELL];
+	}
+
+	public int getFlagArchive( int slot )
+	{
+		return flags[slot * FLAG_FIELDS + FLAG_ARCHIVE];
+	}
+
+	/**
+	 * Places the given bot. Unlike the {@link Game} this does not check whether another bot is already on the cell.
+	 *
+	 * @param slot   The slot of the bot
+	 * @param cell   The cell, NO_CELL to take the bot off the board
+	 * @param facing The facing ( direction ordinal )
+	 */
+	public void placeBot( int slot, int cell, int facing )
+	{
+		int[] values = writableBots();
+		values[slot * BOT_FIELDS + CELL] = cell;
+		values[slot * BOT_FIELDS + FACING] = facing;
+	}
+
+	public void setBotDamage( int slot, int damage )
+	{
+		writableBots()[slot * BOT_FIELDS + DAMAGE] = damage;
+	}
+
+	public void setBotLives( int slot, int lives )
+	{
+		writableBots()[slot * BOT_FIELDS + LIVES] = lives;
+	}
+
+	public void setBotLatestFlag( int slot, int latestFlag )
+	{
+		writableBots()[slot * BOT_FIELDS + LATEST_FLAG] = latestFlag;
+	}
+
+	public void setBotArchive( int slot, int cell )
+	{
+		writableBots()[slot * BOT_FIELDS + ARCHIVE] = cell;
+	}
+
+	public void setBotDied( int slot, boolean died )
+	{
+		writableBots()[slot * BOT_FIELDS + DIED] = died ? 1 : 0;
+	}
+
+	/**
+	 * Lets the given bot die, the same way as {@link Bot#processDeath()}: it leaves the board, loses a life and restarts with 2 damage facing north
+	 *
+	 * @param slot The slot of the bot
+	 */
+	public void killBot( int slot )
+	{
+		int[] values = writableBots();
+		int base = slot * BOT_FIELDS;
+		values[base + CELL] = BoardGrid.NO_CELL;
+		values[base + FACING] = Direction.NORTH.ordinal();
+		values[base + DAMAGE] = 2;
+		values[base + LIVES]--;
+		values[base + DIED] = 1;
+	}
+
+	/**
+	 * Places the given flag
+	 *
+	 * @param slot The slot of the flag
+	 * @param cell The cell, NO_CELL to take the flag off the board
+	 */
+	public void placeFlag( int slot, int cell )
+	{
+		writableFlags()[slot * FLAG_FIELDS + FLAG_CELL] = cell;
+	}
+
+	public void setFlagArchive( int slot, int cell )
+	{
+		writableFlags()[slot * FLAG_FIELDS + FLAG_ARCHIVE] = cell;
+	}
+
+	/**
+	 * Empties the registers of all bots
+	 */
+	public void clearRegisters()
+	{
+		if( registersShared )
+		{
+			registers = new long[registers.length];
+			registerCounts = new int[registerCounts.length];
+			registersShared = false;
+		}
+		else
+		{
+			Arrays.fill( registerCounts, 0 );
+		}
+	}
+
+	/**
+	 * Sets the register of the given bot for the given phase. Like {@link PhaseEngine#setRegister(Bot, int, MovementBuffer)}
+	 * the movements are taken relative to the current facing of the bot, so should be set at the start of the round or the phase.
+	 *
+	 * @param slot      The slot of the bot
+	 * @param phase     The phase ( 1 - MAX_PHASE )
+	 * @param movements The packed movements
+	 */
+	public void setRegister( int slot, int phase, MovementBuffer movements )
+	{
+		if( movements.size() > PhaseEngine.MAX_MOVEMENTS )
+		{
+			throw new IllegalArgumentException( "Cannot handle more than " + PhaseEngine.MAX_MOVEMENTS + " movements in a single phase, got " + movements.size() );
+		}
+		writableRegisters();
+		int facing = getBotFacing( slot );
+		int base = slot * REGISTER_SIZE + ( phase - 1 ) * PhaseEngine.MAX_MOVEMENTS;
+		for( int i = 0; i < movements.size(); i++ )
+		{
+			long movement = movements.get( i );
+			registers[base + i] = PackedMovement.withDirection( movement, PackedMovement.getDirectionOrdinal( movement ) - facing );
+		}
+		registerCounts[slot * Game.MAX_PHASE + phase - 1] = movements.size();
+	}
+
+	/**
+	 * @param slot  The slot of the bot
+	 * @param phase The phase ( 1 - MAX_PHASE )
+	 *
+	 * @return The number of movements in the register of the given bot for the given phase
+	 */
+	public int getRegisterCount( int slot, int phase )
+	{
+		return registerCounts[slot * Game.MAX_PHASE + phase - 1];
+	}
+
+	/**
+	 * Returns a movement of a register, its direction relative to the facing of the bot when the register was set
+	 *
+	 * @param slot     The slot of the bot
+	 * @param phase    The phase ( 1 - MAX_PHASE )
+	 * @param position The position in the register ( 0 - register count - 1 )
+	 *
+	 * @return The packed movement
+	 */
+	public long getRegisterMovement( int slot, int phase, int position )
+	{
+		return registers[slot * REGISTER_SIZE + ( phase - 1 ) * PhaseEngine.MAX_MOVEMENTS + position];
+	}
+
+	private int[] writableBots()
+	{
+		if( botsShared )
+		{
+			bots = bots.clone();
+			botsShared = false;
+		}
+		return bots;
+	}
+
+	private int[] writableFlags()
+	{
+		if( flagsShared )
+		{
+			flags = flags.clone();
+			flagsShared = false;
+		}
+		return flags;
+	}
+
+	private void writableRegisters()
+	{
+		if( registersShared )
+		{
+			registers = registers.clone();
+			registerCounts = registerCounts.clone();
+			registersShared = false;
+		}
+	}
+
+	/**
+	 * Returns the bots of the given game by slot, in order of their order numbers
+	 *
+	 * @param game The game
+	 *
+	 * @return The bots
+	 */
+	static Bot[] getBotsInSlotOrder( Game game )
+	{
+		Bot[] bots = game.getBots().toArray( new Bot[0] );
+		Arrays.sort( bots, ( bot1, bot2 ) -> bot1.getOrderNumber().compareTo( bot2.getOrderNumber() ) );
+		return bots;
+	}
+
+	/**
+	 * Returns the flags of the given game by slot, in order of their order numbers
+	 *
+	 * @param game The game
+	 *
+	 * @return The flags
+	 */
+	static Flag[] getFlagsInSlotOrder( Game game )
+	{
+		Flag[] flags = game.getFlags().toArray( new Flag[0] );
+		Arrays.sort( flags, ( flag1, flag2 ) -> flag1.getOrderNumber().compareTo( flag2.getOrderNumber() ) );
+		return flags;
+	}
+
+	private static int getIndex( BoardElement element )
+	{
+		return element == null ? BoardGrid.NO_CELL : element.getIndex();
+	}
+
+	private static BoardElement getElement( BoardGrid grid, int cell )
+	{
+		return cell == BoardGrid.NO_CELL ? null : grid.getElement( cell );
+	}
+}
@@ -0,0 +1,1219 @@
+package kharybdys.roborally.game;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import kharybdys.roborally.game.board.BasicElementType;
+import kharybdys.roborally.game.board.BoardCellType;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.board.BoardOccupancy;
+import kharybdys.roborally.game.board.BoardTransitionTable;
+import kharybdys.roborally.game.board.ConveyorNetwork;
+import kharybdys.roborally.game.board.LaserBeam;
+import kharybdys.roborally.game.board.ObstacleTable;
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.Movement;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.MovementSorter;
+import kharybdys.roborally.game.movement.PackedMovement;
+import kharybdys.roborally.game.movement.Movement.MovementType;
+
+/**
+ * Resolves the phases of a game: bot movement, board movement ( conveyors, pushers, rotators ), lasers and flags.
+ *
+ * Works on primitive copies of the bots and flags, held in buffers allocated once per game: the state of the game objects
+ * is copied in at the start of a phase and written back at the end. Resolving a phase does not allocate any objects.
+ * The registers ( the movements of every bot per phase ) are set beforehand, see {@link #setRegister(Bot, int, Collection)}.
+ * What happened during the last phase can be read back as events, to be logged.
+ *
+ * A phase can also be resolved on a {@link GameState} of the game instead, using the registers of that state and leaving the game untouched.
+ */
+public class PhaseEngine
+{
+
+	/**
+	 * Maximum number of movements in a single register ( Fourth Gear moves 4 squares )
+	 */
+	public static final int MAX_MOVEMENTS = 4;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final GameEventType[] EVENT_TYPES = GameEventType.values();
+	private static final int INITIAL_EVENT_CAPACITY = 64;
+	private static final int NONE = -1;
+
+	private final Game game;
+	private final BoardGrid grid;
+	private final ObstacleTable obstacles;
+	private final ConveyorNetwork conveyors;
+	private final BoardTransitionTable transitions;
+	private final List<LaserBeam> beams;
+
+	// the bots, by slot; the slots follow the order numbers of the bots
+	private final Bot[] bots;
+	private final int[] botCells;
+	private final int[] botFacings;
+	private final int[] botStartFacings;
+	private final int[] botDamage;
+	private final int[] botLatestFlags;
+	private final int[] botArchives;
+	private final boolean[] botOnBoard;
+	private final boolean[] botDied;
+	// per cell, the slot of the bot on it
+	private final int[] botAt;
+	private final BoardOccupancy occupancy;
+
+	// the flags, by slot
+	private final Flag[] flags;
+	private final int[] flagCells;
+	private final int[] flagNumbers;
+	private final boolean[] flagOnBoard;
+	private final boolean[] flagDied;
+	private final int[] flagAt;
+
+	// the registers, by ( slot * MAX_PHASE + phase - 1 ), as packed movements with their direction relative to the facing of the bot
+	private final int[] registerPriorities;
+	private final int[] registerCounts;
+	private final long[] registerMovements;
+	// the registers of the phase being resolved, by slot
+	private final int[] phasePriorities;
+	private final int[] phaseCounts;
+	private final long[] phaseMovements;
+
+	// scratch space
+	private final MovementBuffer registerBuffer;
+	private final MovementBuffer phaseOrder;
+	private final MovementSorter sorter;
+	private final SimultaneousMoveResolver moveResolver;
+	private final PushChainResolver pushChain;
+	private final int[] chain;
+	private final int[] targets;
+	private final int[] targetFacings;
+	private final int[] pushedCells;
+	private final int[] flagTargets;
+	private final int[] flagTargetFacings;
+	private final int[] laserDamage;
+	private final int[] stalls;
+	// per cell, the rider that passes it during board movement, valid if claimStamps holds the current stamp
+	private final int[] claimStamps;
+	private final int[] claimants;
+	private int claimStamp = 0;
+
+	// the events of the last phase
+	private int[] eventTypes = new int[INITIAL_EVENT_CAPACITY];
+	private int[] eventActors = new int[INITIAL_EVENT_CAPACITY];
+	private int[] eventVictims = new int[INITIAL_EVENT_CAPACITY];
+	private int[] eventCells = new int[INITIAL_EVENT_CAPACITY];
+	private int nrOfEvents = 0;
+
+	/**
+	 * Allocates the buffers for the given game. The bots and flags of the game should not change afterwards.
+	 *
+	 * @param game The game to resolve the phases of
+	 */
+	public PhaseEngine( Game game )
+	{
+		this.game = game;
+		this.grid = game.getGrid();
+		this.obstacles = game.getBoardTemplate().getObstacleTable();
+		this.conveyors = game.getBoardTemplate().getConveyorNetwork();
+		this.transitions = game.getBoardTemplate().getTransitionTable();
+		this.beams = game.getBoardTemplate().getLaserBeams();
+
+		this.bots = GameState.getBotsInSlotOrder( game );
+		int nrOfBots = bots.length;
+		this.botCells = new int[nrOfBots];
+		this.botFacings = new int[nrOfBots];
+		this.botStartFacings = new int[nrOfBots];
+		this.botDamage = new int[nrOfBots];
+		this.botLatestFlags = new int[nrOfBots];
+		this.botArchives = new int[nrOfBots];
+		this.botOnBoard = new boolean[nrOfBots];
+		this.botDied = new boolean[nrOfBots];
+		this.botAt = new int[grid.getSize()];
+		this.occupancy = new BoardOccupancy( grid.getXSize(), grid.getYSize() );
+
+		this.flags = GameState.getFlagsInSlotOrder( game );
+		int nrOfFlags = flags.length;
+		this.flagCells = new int[nrOfFlags];
+		this.flagNumbers = new int[nrOfFlags];
+		this.flagOnBoard = new boolean[nrOfFlags];
+		this.flagDied = new boolean[nrOfFlags];
+		this.flagAt = new int[grid.getSize()];
+		for( int slot = 0; slot < nrOfFlags; slot++ )
+		{
+			flagNumbers[slot] = flags[slot].getOrderNumber();
+		}
+
+		this.registerPriorities = new int[nrOfBots * Game.MAX_PHASE];
+		this.registerCounts = new int[nrOfBots * Game.MAX_PHASE];
+		this.registerMovements = new long[nrOfBots * Game.MAX_PHASE * MAX_MOVEMENTS];
+		this.phasePriorities = new int[nrOfBots];
+		this.phaseCounts = new int[nrOfBots];
+		this.phaseMovements = new long[nrOfBots * MAX_MOVEMENTS];
+
+		this.registerBuffer = new MovementBuffer( MAX_MOVEMENTS );
+		this.phaseOrder = new MovementBuffer( nrOfBots );
+		this.sorter = new MovementSorter( nrOfBots );
+		this.chain = new int[nrOfBots];
+		this.targets = new int[nrOfBots];
+		this.targetFacings = new int[nrOfBots];
+		this.pushedCells = new int[nrOfBots];
+		this.flagTargets = new int[nrOfFlags];
+		this.flagTargetFacings = new int[nrOfFlags];
+		this.laserDamage = new int[nrOfBots];
+		this.stalls = new int[Math.max( nrOfBots, nrOfFlags )];
+		this.claimStamps = new int[grid.getSize()];
+		this.claimants = new int[grid.getSize()];
+		this.moveResolver = new SimultaneousMoveResolver( grid, Math.max( nrOfBots, nrOfFlags ) );
+		this.pushChain = new PushChainResolver( grid, obstacles, nrOfBots );
+	}
+
+	/**
+	 * Returns the buffer to gather the movements of a register in before setting it, see {@link #setRegister(Bot, int, MovementBuffer)}.
+	 * Allocated once for this engine, so emptied by every caller first.
+	 *
+	 * @return The buffer, holding up to MAX_MOVEMENTS movements
+	 */
+	public MovementBuffer getRegisterBuffer()
+	{
+		return registerBuffer;
+	}
+
+	/**
+	 * Empties the registers of all bots
+	 */
+	public void clearRegisters()
+	{
+		Arrays.fill( registerCounts, 0 );
+	}
+
+	/**
+	 * Sets the register of the given bot for the given phase.
+	 * The movements are taken relative to the current facing of the bot, so should be set at the start of the round or the phase.
+	 *
+	 * @param bot       The bot
+	 * @param phase     The phase ( 1 - MAX_PHASE )
+	 * @param movements The movements, as given by the {@link kharybdys.roborally.game.movement.MovementCardTransformer}, empty for no movement
+	 */
+	public void setRegister( Bot bot, int phase, Collection<Movement> movements )
+	{
+		checkRegisterSize( movements.size() );
+		int register = getSlot( bot ) * Game.MAX_PHASE + phase - 1;
+		int count = 0;
+		for( Movement movement : movements )
+		{
+			registerMovements[register * MAX_MOVEMENTS + count++] = PackedMovement.pack( movement, bot.getOrderNumber() );
+		}
+		finishRegister( bot, register, count );
+	}
+
+	/**
+	 * Sets the register of the given bot for the given phase from packed movements, without allocating.
+	 * The movements are taken relative to the current facing of the bot, so should be set at the start of the round or the phase.
+	 *
+	 * @param bot       The bot
+	 * @param phase     The phase ( 1 - MAX_PHASE )
+	 * @param movements The packed movements, as written by the {@link kharybdys.roborally.game.movement.MovementCardTransformer}
+	 */
+	public void setRegister( Bot bot, int phase, MovementBuffer movements )
+	{
+		checkRegisterSize( movements.size() );
+		int register = getSlot( bot ) * Game.MAX_PHASE + phase - 1;
+		for( int i = 0; i < movements.size(); i++ )
+		{
+			registerMovements[register * MAX_MOVEMENTS + i] = movements.get( i );
+		}
+		finishRegister( bot, register, movements.size() );
+	}
+
+	private void checkRegisterSize( int size )
+	{
+		if( size > MAX_MOVEMENTS )
+		{
+			throw new IllegalArgumentException( "Cannot handle more than " + MAX_MOVEMENTS + " movements in a single phase, got " + size );
+		}
+	}
+
+	/**
+	 * Turns the directions of the movements just stored into directions relative to the facing of the bot and determines the priority
+	 */
+	private void finishRegister( Bot bot, int register, int count )
+	{
+		int facing = bot.getFacingDirection().ordinal();
+		int priority = 0;
+		for( int i = register * MAX_MOVEMENTS; i < register * MAX_MOVEMENTS + count; i++ )
+		{
+			long movement = registerMovements[i];
+			registerMovements[i] = PackedMovement.withDirection( movement, PackedMovement.getDirectionOrdinal( movement ) - facing );
+			priority = Math.max( priority, PackedMovement.getPriority( movement ) );
+		}
+		registerCounts[register] = count;
+		registerPriorities[register] = priority;
+	}
+
+	private int getSlot( Bot bot )
+	{
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			if( bots[slot] == bot )
+			{
+				return slot;
+			}
+		}
+		throw new IllegalArgumentException( "Bot " + bot + " is not part of " + game );
+	}
+
+	/**
+	 * Resolves the given phase: bot movement, board movement, lasers and flags, and updates the bots and flags of the game
+	 *
+	 * @param phase The phase ( 1 - MAX_PHASE )
+	 */
+	public void processPhase( int phase )
+	{
+		load();
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int register = slot * Game.MAX_PHASE + phase - 1;
+			System.arraycopy( registerMovements, register * MAX_MOVEMENTS, phaseMovements, slot * MAX_MOVEMENTS, MAX_MOVEMENTS );
+			phaseCounts[slot] = registerCounts[register];
+			phasePriorities[slot] = registerPriorities[register];
+		}
+		resolve( phase );
+		store();
+	}
+
+	/**
+	 * Resolves the phase the given state is in, using the registers of the state, and updates the state.
+	 * The game itself is not changed, nor are the registers set on this engine. The state is not moved on to the next phase.
+	 *
+	 * @param state A state of the game of this engine
+	 */
+	public void processPhase( GameState state )
+	{
+		checkState( state );
+		int phase = state.getPhase();
+		load( state );
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int count = state.getRegisterCount( slot, phase );
+			int priority = 0;
+			for( int i = 0; i < count; i++ )
+			{
+				long movement = state.getRegisterMovement( slot, phase, i );
+				phaseMovements[slot * MAX_MOVEMENTS + i] = movement;
+				priority = Math.max( priority, PackedMovement.getPriority( movement ) );
+			}
+			phaseCounts[slot] = count;
+			phasePriorities[slot] = priority;
+		}
+		resolve( phase );
+		store( state );
+	}
+
+	private void checkState( GameState state )
+	{
+		if( state.getBoardTemplate() != game.getBoardTemplate() || state.getNrOfBots() != bots.length || state.getNrOfFlags() != flags.length )
+		{
+			throw new IllegalArgumentException( "Cannot resolve a state of another game than " + game );
+		}
+	}
+
+	/**
+	 * Resolves the end of the round on the game, after its last phase: the bots on a repair or option site repair a point of damage,
+	 * then the bots that died with lives left and the flags that left the board return on their archive marker, unless another one is on it.
+	 * Changes are recorded in the {@link UndoJournal} of the game.
+	 */
+	public void processEndOfRound()
+	{
+		UndoJournal journal = game.getUndoJournal();
+		journal.startFrame();
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			Bot bot = bots[slot];
+			if( bot.getLocation() != null )
+			{
+				if( isRepairSite( bot.getLocation().getIndex() ) && bot.getDamage() > 0 )
+				{
+					journal.recordBot( slot );
+					bot.setDamage( bot.getDamage() - 1 );
+				}
+			}
+			else if( bot.getLives() > 0 && bot.getArchiveMarker() != null && game.getBotAt( bot.getArchiveMarker().getIndex() ) == null )
+			{
+				journal.recordBot( slot );
+				bot.processReincarnation();
+			}
+			if( Boolean.TRUE.equals( bot.getDiedThisTurn() ) )
+			{
+				journal.recordBot( slot );
+				bot.setDiedThisTurn( false );
+			}
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			Flag flag = flags[slot];
+			if( flag.getLocation() == null && flag.getArchiveMarker() != null && game.getFlagAt( flag.getArchiveMarker().getIndex() ) == null )
+			{
+				journal.recordFlag( slot );
+				flag.processReincarnation();
+				flag.setDiedThisTurn( false );
+			}
+		}
+	}
+
+	/**
+	 * Resolves the end of the round on the given state, the same way as {@link #processEndOfRound()} does on the game.
+	 * The state is not moved on to the next round.
+	 *
+	 * @param state A state of the game of this engine, after the last phase of its round
+	 */
+	public void processEndOfRound( GameState state )
+	{
+		checkState( state );
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int cell = state.getBotCell( slot );
+			int archive = state.getBotArchive( slot );
+			if( cell != BoardGrid.NO_CELL )
+			{
+				if( isRepairSite( cell ) && state.getBotDamage( slot ) > 0 )
+				{
+					state.setBotDamage( slot, state.getBotDamage( slot ) - 1 );
+				}
+			}
+			else if( state.getBotLives( slot ) > 0 && archive != BoardGrid.NO_CELL && ! hasBotAt( state, archive ) )
+			{
+				state.placeBot( slot, archive, state.getBotFacing( slot ) );
+			}
+			if( state.hasBotDied( slot ) )
+			{
+				state.setBotDied( slot, false );
+			}
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			int archive = state.getFlagArchive( slot );
+			if( state.getFlagCell( slot ) == BoardGrid.NO_CELL && archive != BoardGrid.NO_CELL && ! hasFlagAt( state, archive ) )
+			{
+				state.placeFlag( slot, archive );
+			}
+		}
+	}
+
+	private boolean isRepairSite( int cell )
+	{
+		BasicElementType type = grid.getBasicElementType( cell );
+		return type == BasicElementType.REPAIR || type == BasicElementType.OPTION;
+	}
+
+	private static boolean hasBotAt( GameState state, int cell )
+	{
+		for( int slot = 0; slot < state.getNrOfBots(); slot++ )
+		{
+			if( state.getBotCell( slot ) == cell )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasFlagAt( GameState state, int cell )
+	{
+		for( int slot = 0; slot < state.getNrOfFlags(); slot++ )
+		{
+			if( state.getFlagCell( slot ) == cell )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Resolves the given phase on the buffers, the registers of the phase having been loaded
+	 */
+	private void resolve( int phase )
+	{
+		moveBots();
+		if( ! moveBoardByTable( phase ) )
+		{
+			moveConveyors( true );
+			moveConveyors( false );
+			activatePushers( phase );
+			rotateGears();
+		}
+		fireLasers();
+		touchFlags();
+	}
+
+	/**
+	 * Copies the state of the bots and flags of the game into the buffers
+	 */
+	private void load()
+	{
+		nrOfEvents = 0;
+		Arrays.fill( botAt, NONE );
+		Arrays.fill( flagAt, NONE );
+		occupancy.clear();
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			Bot bot = bots[slot];
+			botOnBoard[slot] = bot.getLocation() != null;
+			botDied[slot] = false;
+			botCells[slot] = botOnBoard[slot] ? bot.getLocation().getIndex() : BoardGrid.NO_CELL;
+			botFacings[slot] = bot.getFacingDirection().ordinal();
+			botStartFacings[slot] = botFacings[slot];
+			botDamage[slot] = bot.getDamage();
+			botLatestFlags[slot] = bot.getLatestFlag();
+			botArchives[slot] = bot.getArchiveMarker() == null ? BoardGrid.NO_CELL : bot.getArchiveMarker().getIndex();
+			if( botOnBoard[slot] )
+			{
+				botAt[botCells[slot]] = slot;
+				occupancy.occupy( botCells[slot] );
+			}
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			Flag flag = flags[slot];
+			flagOnBoard[slot] = flag.getLocation() != null;
+			flagDied[slot] = false;
+			flagCells[slot] = flagOnBoard[slot] ? flag.getLocation().getIndex() : BoardGrid.NO_CELL;
+			if( flagOnBoard[slot] )
+			{
+				flagAt[flagCells[slot]] = slot;
+			}
+		}
+	}
+
+	/**
+	 * Copies the given state into the buffers
+	 */
+	private void load( GameState state )
+	{
+		nrOfEvents = 0;
+		Arrays.fill( botAt, NONE );
+		Arrays.fill( flagAt, NONE );
+		occupancy.clear();
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			botCells[slot] = state.getBotCell( slot );
+			botOnBoard[slot] = botCells[slot] != BoardGrid.NO_CELL;
+			botDied[slot] = false;
+			botFacings[slot] = state.getBotFacing( slot );
+			botStartFacings[slot] = botFacings[slot];
+			botDamage[slot] = state.getBotDamage( slot );
+			botLatestFlags[slot] = state.getBotLatestFlag( slot );
+			botArchives[slot] = state.getBotArchive( slot );
+			if( botOnBoard[slot] )
+			{
+				botAt[botCells[slot]] = slot;
+				occupancy.occupy( botCells[slot] );
+			}
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			flagCells[slot] = state.getFlagCell( slot );
+			flagOnBoard[slot] = flagCells[slot] != BoardGrid.NO_CELL;
+			flagDied[slot] = false;
+			if( flagOnBoard[slot] )
+			{
+				flagAt[flagCells[slot]] = slot;
+			}
+		}
+	}
+
+	/**
+	 * Writes the buffers back to the given state, the same way as {@link #store()} does for the game
+	 */
+	private void store( GameState state )
+	{
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			if( ! botOnBoard[slot] )
+			{
+				continue;
+			}
+			if( botDied[slot] )
+			{
+				state.killBot( slot );
+				continue;
+			}
+			state.placeBot( slot, botCells[slot], botFacings[slot] );
+			state.setBotLatestFlag( slot, botLatestFlags[slot] );
+			state.setBotArchive( slot, botArchives[slot] );
+			state.setBotDamage( slot, botDamage[slot] );
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			if( flagOnBoard[slot] )
+			{
+				state.placeFlag( slot, flagCells[slot] );
+			}
+		}
+	}
+
+	/**
+	 * Writes the buffers back to the bots and flags of the game.
+	 * Everything is taken off the board first, so bots can be placed on each other's previous cells.
+	 */
+	private void store()
+	{
+		UndoJournal journal = game.getUndoJournal();
+		if( journal.isRecording() )
+		{
+			journal.startFrame();
+			for( int slot = 0; slot < bots.length; slot++ )
+			{
+				if( botOnBoard[slot] )
+				{
+					journal.recordBot( slot );
+				}
+			}
+			for( int slot = 0; slot < flags.length; slot++ )
+			{
+				if( flagOnBoard[slot] || flagDied[slot] )
+				{
+					journal.recordFlag( slot );
+				}
+			}
+		}
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			if( botOnBoard[slot] )
+			{
+				game.placeBot( bots[slot], null );
+			}
+		}
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			if( ! botOnBoard[slot] )
+			{
+				continue;
+			}
+			Bot bot = bots[slot];
+			if( botDied[slot] )
+			{
+				bot.processDeath();
+				continue;
+			}
+			game.placeBot( bot, grid.getElement( botCells[slot] ) );
+			bot.setFacingDirection( DIRECTIONS[botFacings[slot]] );
+			bot.setLatestFlag( botLatestFlags[slot] );
+			if( botArchives[slot] != BoardGrid.NO_CELL )
+			{
+				bot.setArchiveMarker( grid.getElement( botArchives[slot] ) );
+			}
+			if( botDamage[slot] > bot.getDamage() )
+			{
+				bot.takeDamage( botDamage[slot] - bot.getDamage() );
+			}
+		}
+
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			if( flagOnBoard[slot] )
+			{
+				game.placeFlag( flags[slot], null );
+			}
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			if( flagDied[slot] )
+			{
+				flags[slot].processDeath();
+			}
+			else if( flagOnBoard[slot] )
+			{
+				game.placeFlag( flags[slot], grid.getElement( flagCells[slot] ) );
+			}
+		}
+	}
+
+	/**
+	 * Moves the bots according to their registers, highest priority first
+	 */
+	private void moveBots()
+	{
+		phaseOrder.clear();
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			if( botCells[slot] != BoardGrid.NO_CELL && phaseCounts[slot] != 0 )
+			{
+				phaseOrder.add( PackedMovement.pack( null, 0, MovementType.ROBOT_MOVEMENT, 0, phasePriorities[slot], slot ) );
+			}
+		}
+		// highest priority first, ties in order of the bots
+		sorter.sortByPriorityDescending( phaseOrder );
+
+		for( int i = 0; i < phaseOrder.size(); i++ )
+		{
+			int slot = PackedMovement.getEntity( phaseOrder.get( i ) );
+			for( int m = 0; m < phaseCounts[slot] && botCells[slot] != BoardGrid.NO_CELL; m++ )
+			{
+				long movement = phaseMovements[slot * MAX_MOVEMENTS + m];
+				boolean blocked = false;
+				if( PackedMovement.hasDirection( movement ) )
+				{
+					int direction = ( botStartFacings[slot] + PackedMovement.getDirectionOrdinal( movement ) ) & 3;
+					int squares = PackedMovement.getSquares( movement );
+					for( int square = 0; square < squares && ! blocked && botCells[slot] != BoardGrid.NO_CELL; square++ )
+					{
+						blocked = ! push( slot, direction, true );
+					}
+				}
+				botFacings[slot] = ( botFacings[slot] + PackedMovement.getTurnSteps( movement ) ) & 3;
+				if( blocked )
+				{
+					// the rest of the movement is lost
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves the given bot one square in the given direction, pushing the bots in front of it along.
+	 * The whole chain is determined first and then moved at once, see {@link PushChainResolver}.
+	 *
+	 * @param slot           The slot of the bot to move
+	 * @param direction      The direction ( ordinal )
+	 * @param robotMovement  Whether the bot moves itself ( as opposed to being pushed by a pusher ), for the events
+	 *
+	 * @return Whether the bot moved, false if a wall blocked it or the bots in front of it
+	 */
+	private boolean push( int slot, int direction, boolean robotMovement )
+	{
+		if( ! pushChain.scan( botCells[slot], direction, botAt ) )
+		{
+			if( robotMovement )
+			{
+				if( pushChain.getLength() == 0 )
+				{
+					addEvent( GameEventType.BOT_HITS_WALL, slot, NONE, botCells[slot] );
+				}
+				else
+				{
+					addEvent( GameEventType.BOT_HITS_UNMOVABLE_BOT, slot, pushChain.getBot( 0 ), pushChain.getFrontCell() );
+				}
+			}
+			return false;
+		}
+		int length = pushChain.getLength();
+
+		// the events, front of the chain first
+		if( robotMovement )
+		{
+			for( int i = length - 1; i >= 0; i-- )
+			{
+				addEvent( GameEventType.BOT_PUSHES, slot, pushChain.getBot( i ), pushChain.getCell( i ) );
+			}
+		}
+
+		// take the chain off the board, then put it back one step further
+		int moving = length;
+		if( pushChain.isFrontDying() )
+		{
+			kill( length == 0 ? slot : pushChain.getBot( length - 1 ), GameEventType.BOT_DIES_HOLE );
+			if( length == 0 )
+			{
+				return true;
+			}
+			moving--;
+		}
+		int pusherCell = botCells[slot];
+		removeBot( slot );
+		for( int i = 0; i < moving; i++ )
+		{
+			removeBot( pushChain.getBot( i ) );
+		}
+		for( int i = 0; i < moving; i++ )
+		{
+			placeBot( pushChain.getBot( i ), pushChain.getNextCell( pushChain.getCell( i ) ) );
+		}
+		placeBot( slot, pushChain.getNextCell( pusherCell ) );
+		return true;
+	}
+
+	/**
+	 * Moves the bots and flags by the board ( conveyors, pushers, rotators ) using the precomputed transition table,
+	 * which is only possible if no two bots ( or two flags ) touch the same cell during board movement.
+	 * Otherwise nothing is changed and the board movement has to be resolved step by step.
+	 *
+	 * @param phase The phase
+	 *
+	 * @return Whether the board movement was done
+	 */
+	private boolean moveBoardByTable( int phase )
+	{
+		if( ! claimPaths( botCells, bots.length, phase ) || ! claimPaths( flagCells, flags.length, phase ) )
+		{
+			return false;
+		}
+
+		// take all moving bots off the board first, so they can move onto each other's cells
+		int moving = 0;
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int cell = botCells[slot];
+			if( cell == BoardGrid.NO_CELL )
+			{
+				continue;
+			}
+			int transition = transitions.getTransition( cell, botFacings[slot], phase );
+			if( BoardTransitionTable.isDying( transition ) )
+			{
+				kill( slot, GameEventType.BOT_DIES_HOLE );
+				continue;
+			}
+			botFacings[slot] = BoardTransitionTable.getFacing( transition );
+			targets[slot] = BoardTransitionTable.getCell( transition );
+			if( targets[slot] != cell )
+			{
+				removeBot( slot );
+				chain[moving++] = slot;
+			}
+		}
+		for( int i = 0; i < moving; i++ )
+		{
+			placeBot( chain[i], targets[chain[i]] );
+		}
+
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			int cell = flagCells[slot];
+			flagTargets[slot] = cell == BoardGrid.NO_CELL ? cell : BoardTransitionTable.getCell( transitions.getTransition( cell, 0, phase ) );
+			if( flagTargets[slot] != cell )
+			{
+				flagAt[cell] = NONE;
+			}
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			if( flagTargets[slot] != flagCells[slot] )
+			{
+				moveFlag( slot, flagTargets[slot] );
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Claims all cells the given riders touch during board movement
+	 *
+	 * @return Whether all riders could claim their cells, false if two riders touch the same cell
+	 */
+	private boolean claimPaths( int[] cells, int count, int phase )
+	{
+		claimStamp++;
+		for( int slot = 0; slot < count; slot++ )
+		{
+			int cell = cells[slot];
+			if( cell == BoardGrid.NO_CELL )
+			{
+				continue;
+			}
+			if( ! claim( cell, slot )
+				|| ! claim( transitions.getWaypoint( cell, phase, 0 ), slot )
+				|| ! claim( transitions.getWaypoint( cell, phase, 1 ), slot )
+				|| ! claim( BoardTransitionTable.getCell( transitions.getTransition( cell, 0, phase ) ), slot ) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean claim( int cell, int rider )
+	{
+		if( cell == BoardGrid.NO_CELL )
+		{
+			return true;
+		}
+		if( claimStamps[cell] == claimStamp && claimants[cell] != rider )
+		{
+			return false;
+		}
+		claimStamps[cell] = claimStamp;
+		claimants[cell] = rider;
+		return true;
+	}
+
+	/**
+	 * Moves the bots and flags one conveyor step. Riders that would end up on the same cell,
+	 * or on the cell of a rider that is not moving, or swap places, stay where they are.
+	 */
+	private void moveConveyors( boolean dualOnly )
+	{
+		if( conveyors.isEmpty() )
+		{
+			return;
+		}
+
+		int nrOfBots = bots.length;
+		System.arraycopy( botCells, 0, targets, 0, nrOfBots );
+		System.arraycopy( botFacings, 0, targetFacings, 0, nrOfBots );
+		if( conveyors.advance( targets, targetFacings, nrOfBots, dualOnly ) > 0 )
+		{
+			if( moveResolver.resolve( botCells, targets, nrOfBots, stalls ) > 0 )
+			{
+				for( int slot = 0; slot < nrOfBots; slot++ )
+				{
+					if( stalls[slot] != NONE )
+					{
+						addEvent( GameEventType.CONVEYORBELT_STALL, slot, stalls[slot], botCells[slot] );
+						targetFacings[slot] = botFacings[slot];
+					}
+				}
+			}
+			// take all moving bots off the board first, so they can move onto each other's cells
+			int moving = 0;
+			for( int slot = 0; slot < nrOfBots; slot++ )
+			{
+				if( targets[slot] == botCells[slot] )
+				{
+					continue;
+				}
+				if( targets[slot] == ConveyorNetwork.DIES )
+				{
+					kill( slot, GameEventType.BOT_DIES_HOLE );
+				}
+				else
+				{
+					removeBot( slot );
+					chain[moving++] = slot;
+				}
+			}
+			for( int i = 0; i < moving; i++ )
+			{
+				int slot = chain[i];
+				placeBot( slot, targets[slot] );
+				botFacings[slot] = targetFacings[slot];
+			}
+		}
+
+		int nrOfFlags = flags.length;
+		System.arraycopy( flagCells, 0, flagTargets, 0, nrOfFlags );
+		if( conveyors.advance( flagTargets, flagTargetFacings, nrOfFlags, dualOnly ) > 0 )
+		{
+			moveResolver.resolve( flagCells, flagTargets, nrOfFlags, stalls );
+			for( int slot = 0; slot < nrOfFlags; slot++ )
+			{
+				if( flagTargets[slot] != flagCells[slot] )
+				{
+					flagAt[flagCells[slot]] = NONE;
+				}
+			}
+			for( int slot = 0; slot < nrOfFlags; slot++ )
+			{
+				if( flagTargets[slot] != flagCells[slot] )
+				{
+					moveFlag( slot, flagTargets[slot] );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lets the pushers that are active in this phase push the bots and flags on them
+	 */
+	private void activatePushers( int phase )
+	{
+		int phaseMask = 1 << ( phase - 1 );
+		// determine the pushed bots up front, so no bot gets pushed from one pusher onto the next
+		int nrOfPushed = 0;
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int cell = botCells[slot];
+			pushedCells[slot] = BoardGrid.NO_CELL;
+			if( cell != BoardGrid.NO_CELL && grid.getCellType( cell ).isPusher() && ( grid.getMask( cell ) & phaseMask ) != 0 )
+			{
+				pushedCells[slot] = cell;
+				targets[slot] = pushTarget( cell );
+				nrOfPushed++;
+			}
+		}
+		// pushers push at the same time, so bots pushed onto the same cell or into each other stay put
+		if( nrOfPushed > 1 && moveResolver.resolve( pushedCells, targets, bots.length, stalls ) > 0 )
+		{
+			for( int slot = 0; slot < bots.length; slot++ )
+			{
+				if( stalls[slot] != NONE )
+				{
+					addEvent( GameEventType.BOT_HITS_UNMOVABLE_BOT, slot, stalls[slot], pushedCells[slot] );
+					pushedCells[slot] = BoardGrid.NO_CELL;
+				}
+			}
+		}
+		for( int slot = 0; slot < bots.length && nrOfPushed > 0; slot++ )
+		{
+			// a bot pushed along by another bot is not pushed again
+			if( pushedCells[slot] != BoardGrid.NO_CELL && botCells[slot] == pushedCells[slot] )
+			{
+				push( slot, grid.getDirection( pushedCells[slot] ).ordinal(), false );
+			}
+		}
+
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			int cell = flagCells[slot];
+			flagTargets[slot] = cell;
+			if( cell != BoardGrid.NO_CELL && grid.getCellType( cell ).isPusher() && ( grid.getMask( cell ) & phaseMask ) != 0 )
+			{
+				flagTargets[slot] = pushTarget( cell );
+			}
+		}
+		// flags do not push each other, a flag pushed onto another flag stays put
+		moveResolver.resolve( flagCells, flagTargets, flags.length, stalls );
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			if( flagTargets[slot] != flagCells[slot] )
+			{
+				flagAt[flagCells[slot]] = NONE;
+			}
+		}
+		for( int slot = 0; slot < flags.length; slot++ )
+		{
+			if( flagTargets[slot] != flagCells[slot] )
+			{
+				moveFlag( slot, flagTargets[slot] );
+			}
+		}
+	}
+
+	/**
+	 * Returns where the pusher on the given cell pushes its rider to, ignoring other riders
+	 *
+	 * @param cell The cell of the pusher
+	 *
+	 * @return The target cell, the cell itself if a wall blocks the pusher or DIES if the rider is pushed off the board or into a hole
+	 */
+	private int pushTarget( int cell )
+	{
+		Direction direction = grid.getDirection( cell );
+		if( obstacles.stepKills( cell, direction ) )
+		{
+			return ConveyorNetwork.DIES;
+		}
+		if( obstacles.isBlocked( cell, direction ) )
+		{
+			return cell;
+		}
+		return grid.getNeighbourIndex( cell, direction );
+	}
+
+	/**
+	 * Turns the bots on rotators
+	 */
+	private void rotateGears()
+	{
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int cell = botCells[slot];
+			if( cell == BoardGrid.NO_CELL )
+			{
+				continue;
+			}
+			BoardCellType type = grid.getCellType( cell );
+			if( type == BoardCellType.ROTATOR_CLOCKWISE )
+			{
+				botFacings[slot] = ( botFacings[slot] + 1 ) & 3;
+			}
+			else if( type == BoardCellType.ROTATOR_COUNTERCLOCKWISE )
+			{
+				botFacings[slot] = ( botFacings[slot] + 3 ) & 3;
+			}
+		}
+	}
+
+	/**
+	 * Fires the board lasers and the bot lasers at once: targets are determined before any damage is done
+	 */
+	private void fireLasers()
+	{
+		for( int i = 0; i < beams.size(); i++ )
+		{
+			LaserBeam beam = beams.get( i );
+			int target = occupancy.findFirst( beam );
+			if( target != BoardGrid.NO_CELL )
+			{
+				laserDamage[botAt[target]] += beam.getStrength();
+				addEvent( GameEventType.BOARD_SHOOTS, NONE, botAt[target], target );
+			}
+		}
+
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int current = botCells[slot];
+			if( current == BoardGrid.NO_CELL )
+			{
+				continue;
+			}
+			// bot lasers fire straight ahead, stopped by walls but not by holes
+			Direction direction = DIRECTIONS[botFacings[slot]];
+			while( ! obstacles.isBlocked( current, direction ) )
+			{
+				current = grid.getNeighbourIndex( current, direction );
+				if( current == BoardGrid.NO_CELL )
+				{
+					break;
+				}
+				if( botAt[current] != NONE )
+				{
+					laserDamage[botAt[current]]++;
+					addEvent( GameEventType.BOT_SHOOTS, slot, botAt[current], current );
+					break;
+				}
+			}
+		}
+
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			if( laserDamage[slot] == 0 )
+			{
+				continue;
+			}
+			botDamage[slot] += laserDamage[slot];
+			laserDamage[slot] = 0;
+			if( botDamage[slot] >= Bot.INITIAL_HEALTH )
+			{
+				kill( slot, GameEventType.BOT_DIES_DAMAGE );
+			}
+		}
+	}
+
+	/**
+	 * Lets the bots touch flags, repair and option sites, updating their latest flag and archive marker
+	 */
+	private void touchFlags()
+	{
+		for( int slot = 0; slot < bots.length; slot++ )
+		{
+			int cell = botCells[slot];
+			if( cell == BoardGrid.NO_CELL )
+			{
+				continue;
+			}
+			int flag = flagAt[cell];
+			BasicElementType type = grid.getBasicElementType( cell );
+			if( flag != NONE && flagNumbers[flag] == botLatestFlags[slot] + 1 )
+			{
+				botLatestFlags[slot]++;
+			}
+			if( ( flag != NONE || type == BasicElementType.REPAIR || type == BasicElementType.OPTION ) && botArchives[slot] != cell )
+			{
+				botArchives[slot] = cell;
+				addEvent( GameEventType.ARCHIVEMARKER_MOVED, slot, NONE, cell );
+			}
+		}
+	}
+
+	private void placeBot( int slot, int cell )
+	{
+		botCells[slot] = cell;
+		botAt[cell] = slot;
+		occupancy.occupy( cell );
+	}
+
+	private void removeBot( int slot )
+	{
+		int cell = botCells[slot];
+		if( botAt[cell] == slot )
+		{
+			botAt[cell] = NONE;
+			occupancy.release( cell );
+		}
+		botCells[slot] = BoardGrid.NO_CELL;
+	}
+
+	private void kill( int slot, GameEventType reason )
+	{
+		addEvent( reason, NONE, slot, botCells[slot] );
+		if( botCells[slot] != BoardGrid.NO_CELL )
+		{
+			removeBot( slot );
+		}
+		botDied[slot] = true;
+	}
+
+	private void moveFlag( int slot, int cell )
+	{
+		flagCells[slot] = cell;
+		if( cell == BoardGrid.NO_CELL )
+		{
+			flagDied[slot] = true;
+		}
+		else
+		{
+			flagAt[cell] = slot;
+		}
+	}
+
+	private void addEvent( GameEventType type, int actor, int victim, int cell )
+	{
+		if( nrOfEvents == eventTypes.length )
+		{
+			eventTypes = Arrays.copyOf( eventTypes, nrOfEvents * 2 );
+			eventActors = Arrays.copyOf( eventActors, nrOfEvents * 2 );
+			eventVictims = Arrays.copyOf( eventVictims, nrOfEvents * 2 );
+			eventCells = Arrays.copyOf( eventCells, nrOfEvents * 2 );
+		}
+		eventTypes[nrOfEvents] = type.ordinal();
+		eventActors[nrOfEvents] = actor;
+		eventVictims[nrOfEvents] = victim;
+		eventCells[nrOfEvents] = cell;
+		nrOfEvents++;
+	}
+
+	/**
+	 * Returns the number of events that happened during the last phase
+	 *
+	 * @return The number of events
+	 */
+	public int getNrOfEvents()
+	{
+		return nrOfEvents;
+	}
+
+	public GameEventType getEventType( int event )
+	{
+		return EVENT_TYPES[eventTypes[event]];
+	}
+
+	/**
+	 * Returns the bot causing the given event
+	 *
+	 * @param event The number of the event
+	 *
+	 * @return The bot, null for events without actor ( eg board lasers )
+	 */
+	public Bot getEventActor( int event )
+	{
+		return eventActors[event] == NONE ? null : bots[eventActors[event]];
+	}
+
+	/**
+	 * Returns the bot suffering the given event
+	 *
+	 * @param event The number of the event
+	 *
+	 * @return The bot, null for events without victim
+	 */
+	public Bot getEventVictim( int event )
+	{
+		return eventVictims[event] == NONE ? null : bots[eventVictims[event]];
+	}
+
+	/**
+	 * Returns the index of the cell where the given event happened
+	 *
+	 * @param event The number of the event
+	 *
+	 * @return The index of the cell
+	 */
+	public int getEventCell( int event )
+	{
+		return eventCells[event];
+	}
+}
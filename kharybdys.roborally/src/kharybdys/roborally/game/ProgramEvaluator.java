@@ -0,0 +1,291 @@
+package kharybdys.roborally.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+import kharybdys.roborally.game.movement.MovementCardTransformer;
+
+/**
+ * Evaluates every program a bot can make from its hand, for previews and hints: where does the bot end up, and which program is best.
+ *
+ * Programs are evaluated on a {@link GameState}, so the game itself is not touched. Programs sharing their first cards share the state
+ * after those cards: the programs are searched depth first from a state per register, so a hand of 9 cards and 5 free registers
+ * takes 18,729 phases instead of 75,600. The programs starting with the same card form a task, the tasks are spread over a ForkJoinPool.
+ */
+public final class ProgramEvaluator
+{
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/**
+	 * Ranks the outcomes best first: bots that survive, then most flags touched, then nearest to the next flag, then least damage
+	 */
+	public static final Comparator<ProgramOutcome> BEST_FIRST = Comparator.comparing( ProgramOutcome::hasDied )
+			.thenComparing( Comparator.comparingInt( ProgramOutcome::getLatestFlag ).reversed() )
+			.thenComparingInt( ProgramOutcome::getFlagDistance )
+			.thenComparingInt( ProgramOutcome::getDamage );
+
+	private final Game game;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates an evaluator for the given game, running on the common pool
+	 *
+	 * @param game The game
+	 */
+	public ProgramEvaluator( Game game )
+	{
+		this( game, ForkJoinPool.commonPool() );
+	}
+
+	/**
+	 * Creates an evaluator for the given game
+	 *
+	 * @param game The game
+	 * @param pool The pool to evaluate the programs on
+	 */
+	public ProgramEvaluator( Game game, ForkJoinPool pool )
+	{
+		this.game = game;
+		this.pool = pool;
+	}
+
+	/**
+	 * Evaluates all programs of the given bot, from the given state
+	 *
+	 * @param state           The state at the start of the round, its registers are not used
+	 * @param slot            The slot of the bot ( see {@link GameState} )
+	 * @param hand            The movement cards dealt to the bot
+	 * @param locked          Per register, the card locked in it, or null for a register to program
+	 * @param transformer     The transformer turning cards into movements
+	 * @param ignoreOtherBots Whether to take the other bots off the board, otherwise they stay in the game without moving themselves
+	 *
+	 * @return The outcome of every program, best first
+	 */
+	public List<ProgramOutcome> evaluate( GameState state, int slot, List<MovementCardDefinition> hand, MovementCardDefinition[] locked,
+	                                      MovementCardTransformer transformer, boolean ignoreOtherBots )
+	{
+		int free = 0;
+		for( MovementCardDefinition card : locked )
+		{
+			if( card == null )
+			{
+				free++;
+			}
+		}
+		if( locked.length != Game.MAX_PHASE || hand.size() < free )
+		{
+			throw new IllegalArgumentException( "Cannot program " + free + " registers with " + hand.size() + " cards" );
+		}
+
+		GameState start = state.fork();
+		start.clearRegisters();
+		if( ignoreOtherBots )
+		{
+			for( int other = 0; other < start.getNrOfBots(); other++ )
+			{
+				if( other != slot )
+				{
+					start.placeBot( other, BoardGrid.NO_CELL, start.getBotFacing( other ) );
+				}
+			}
+		}
+		Program program = new Program( start, slot, hand, locked, transformer );
+
+		List<ProgramOutcome> outcomes = pool.invoke( new SearchTask( program, -1 ) );
+		outcomes.sort( BEST_FIRST );
+		return outcomes;
+	}
+
+	/**
+	 * Returns the best program of the given bot, see {@link #evaluate(GameState, int, List, MovementCardDefinition[], MovementCardTransformer, boolean)}
+	 *
+	 * @return The best outcome
+	 */
+	public ProgramOutcome getBestProgram( GameState state, int slot, List<MovementCardDefinition> hand, MovementCardDefinition[] locked,
+	                                      MovementCardTransformer transformer, boolean ignoreOtherBots )
+	{
+		return evaluate( state, slot, hand, locked, transformer, ignoreOtherBots ).get( 0 );
+	}
+
+	/**
+	 * The fixed input of an evaluation, shared by its tasks
+	 */
+	private static final class Program
+	{
+		final GameState start;
+		final int slot;
+		final MovementCardDefinition[] hand;
+		final MovementCardDefinition[] locked;
+		// the movements of every card of the hand and every locked card, per facing, computed once
+		final MovementBuffer[] handMovements;
+		final MovementBuffer[] lockedMovements;
+
+		Program( GameState start, int slot, List<MovementCardDefinition> hand, MovementCardDefinition[] locked, MovementCardTransformer transformer )
+		{
+			this.start = start;
+			this.slot = slot;
+			this.hand = hand.toArray( new MovementCardDefinition[0] );
+			this.locked = locked.clone();
+			this.handMovements = new MovementBuffer[this.hand.length * DIRECTIONS.length];
+			for( int card = 0; card < this.hand.length; card++ )
+			{
+				addMovements( handMovements, card, this.hand[card], transformer, start.getBotNumber( slot ) );
+			}
+			this.lockedMovements = new MovementBuffer[locked.length * DIRECTIONS.length];
+			for( int register = 0; register < locked.length; register++ )
+			{
+				if( locked[register] != null )
+				{
+					addMovements( lockedMovements, register, locked[register], transformer, start.getBotNumber( slot ) );
+				}
+			}
+		}
+
+		private static void addMovements( MovementBuffer[] movements, int index, MovementCardDefinition card, MovementCardTransformer transformer, int entity )
+		{
+			for( Direction facing : DIRECTIONS )
+			{
+				MovementBuffer buffer = new MovementBuffer( PhaseEngine.MAX_MOVEMENTS );
+				transformer.addMovements( Collections.singletonList( card ), facing, entity, buffer );
+				movements[index * DIRECTIONS.length + facing.ordinal()] = buffer;
+			}
+		}
+
+		/**
+		 * Returns the index of the first free register from the given one on, locked registers being taken as is
+		 */
+		int nextFreeRegister( int register )
+		{
+			while( register < locked.length && locked[register] != null )
+			{
+				register++;
+			}
+			return register;
+		}
+	}
+
+	/**
+	 * Searches the programs starting with the given card: without a first card, forks a task per first card
+	 */
+	private final class SearchTask extends RecursiveTask<List<ProgramOutcome>>
+	{
+
+		private static final long serialVersionUID = 1L;
+
+		private final Program program;
+		private final int firstCard;
+
+		// the search state, one state per register resolved
+		private final GameState[] states;
+		private PhaseEngine engine;
+		private boolean[] used;
+		private int[] cards;
+		private List<ProgramOutcome> outcomes;
+
+		SearchTask( Program program, int firstCard )
+		{
+			this.program = program;
+			this.firstCard = firstCard;
+			// forked here, as forking marks the start state shared and tasks are created on a single thread
+			this.states = new GameState[Game.MAX_PHASE + 1];
+			for( int phase = 0; phase <= Game.MAX_PHASE; phase++ )
+			{
+				states[phase] = program.start.fork();
+			}
+		}
+
+		@Override
+		protected List<ProgramOutcome> compute()
+		{
+			if( firstCard < 0 && program.nextFreeRegister( 0 ) < Game.MAX_PHASE )
+			{
+				List<SearchTask> tasks = new ArrayList<SearchTask>( program.hand.length );
+				for( int card = 0; card < program.hand.length; card++ )
+				{
+					tasks.add( new SearchTask( program, card ) );
+				}
+				List<ProgramOutcome> outcomes = new ArrayList<ProgramOutcome>();
+				for( SearchTask task : invokeAll( tasks ) )
+				{
+					outcomes.addAll( task.join() );
+				}
+				return outcomes;
+			}
+
+			// the engine has scratch buffers of its own, so every task needs one
+			engine = new PhaseEngine( game );
+			used = new boolean[program.hand.length];
+			cards = new int[Game.MAX_PHASE];
+			outcomes = new ArrayList<ProgramOutcome>();
+			search( 0, firstCard );
+			return outcomes;
+		}
+
+		/**
+		 * Resolves the given register with every card still available ( or just the given card ) and searches on
+		 */
+		private void search( int register, int onlyCard )
+		{
+			if( register == Game.MAX_PHASE )
+			{
+				outcomes.add( getOutcome() );
+				return;
+			}
+			if( program.locked[register] != null )
+			{
+				resolve( register, program.lockedMovements, register );
+				cards[register] = -1;
+				search( register + 1, onlyCard );
+				return;
+			}
+			for( int card = 0; card < program.hand.length; card++ )
+			{
+				if( used[card] || ( onlyCard >= 0 && card != onlyCard ) )
+				{
+					continue;
+				}
+				resolve( register, program.handMovements, card );
+				used[card] = true;
+				cards[register] = card;
+				search( register + 1, -1 );
+				used[card] = false;
+			}
+		}
+
+		/**
+		 * Resolves the given register, with the given card, from the state after the previous register
+		 */
+		private void resolve( int register, MovementBuffer[] movements, int card )
+		{
+			GameState state = states[register + 1];
+			state.copyFrom( states[register] );
+			state.setRoundAndPhase( program.start.getRound(), register + 1 );
+			int facing = state.getBotFacing( program.slot );
+			state.setRegister( program.slot, register + 1, movements[card * DIRECTIONS.length + facing] );
+			engine.processPhase( state );
+		}
+
+		private ProgramOutcome getOutcome()
+		{
+			MovementCardDefinition[] registers = new MovementCardDefinition[Game.MAX_PHASE];
+			for( int register = 0; register < Game.MAX_PHASE; register++ )
+			{
+				registers[register] = cards[register] < 0 ? program.locked[register] : program.hand[cards[register]];
+			}
+			GameState end = states[Game.MAX_PHASE];
+			int slot = program.slot;
+			return new ProgramOutcome( Arrays.asList( registers ), end.getBotCell( slot ), end.getBotFacing( slot ), end.getBotDamage( slot ),
+			                           end.hasBotDied( slot ), end.getBotLatestFlag( slot ), end.getDistanceToNextFlag( slot ) );
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package kharybdys.roborally.game;
+
+import java.util.Collections;
+import java.util.List;
+
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+
+/**
+ * Where a program takes a bot at the end of the round, see {@link ProgramEvaluator}
+ */
+public final class ProgramOutcome
+{
+
+	private final List<MovementCardDefinition> program;
+	private final int cell;
+	private final int facing;
+	private final int damage;
+	private final boolean died;
+	private final int latestFlag;
+	private final int flagDistance;
+
+	ProgramOutcome( List<MovementCardDefinition> program, int cell, int facing, int damage, boolean died, int latestFlag, int flagDistance )
+	{
+		this.program = Collections.unmodifiableList( program );
+		this.cell = cell;
+		this.facing = facing;
+		this.damage = damage;
+		this.died = died;
+		this.latestFlag = latestFlag;
+		this.flagDistance = flagDistance;
+	}
+
+	/**
+	 * @return The card per register
+	 */
+	public List<MovementCardDefinition> getProgram()
+	{
+		return program;
+	}
+
+	/**
+	 * @return The cell the bot ends on, NO_CELL if it is not on the board
+	 */
+	public int getCell()
+	{
+		return cell;
+	}
+
+	/**
+	 * @return The ordinal of the direction the bot ends up facing
+	 */
+	public int getFacing()
+	{
+		return facing;
+	}
+
+	public int getDamage()
+	{
+		return damage;
+	}
+
+	/**
+	 * @return Whether the bot died during the round
+	 */
+	public boolean hasDied()
+	{
+		return died;
+	}
+
+	public int getLatestFlag()
+	{
+		return latestFlag;
+	}
+
+	/**
+	 * @return The number of steps, ignoring walls, to the next flag to touch
+	 */
+	public int getFlagDistance()
+	{
+		return flagDistance;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ProgramOutcome( " + program + " -> cell " + cell + ", facing " + facing + ", damage " + damage + ( died ? ", died" : "" ) + ", latestFlag " + latestFlag + " )";
+	}
+}
@@ -0,0 +1,141 @@
+package kharybdys.roborally.game;
+
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.board.ObstacleTable;
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Determines the chain of bots a moving bot pushes along, and whether the chain can move at all, in a single scan over the cell indices:
+ * the obstacle table gives the number of free steps up to the first wall or hole, and the cells in between are checked for bots.
+ * The result is kept until the next scan, so the caller can apply the whole push at once.
+ */
+final class PushChainResolver
+{
+
+	static final int NONE = -1;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final ObstacleTable obstacles;
+
+	// the difference in cell index of a single step, per direction ordinal
+	private final int[] deltas;
+
+	// the result of the last scan: the pushed bots and their cells, nearest first
+	private final int[] chain;
+	private final int[] chainCells;
+	private int length;
+	private int pusherCell;
+	private int delta;
+	private boolean blocked;
+	private boolean frontDies;
+
+	/**
+	 * Creates a resolver for the given board
+	 *
+	 * @param grid      The board
+	 * @param obstacles The obstacle table of the board
+	 * @param nrOfBots  The number of bots in the game
+	 */
+	PushChainResolver( BoardGrid grid, ObstacleTable obstacles, int nrOfBots )
+	{
+		this.obstacles = obstacles;
+		this.deltas = new int[DIRECTIONS.length];
+		for( Direction direction : DIRECTIONS )
+		{
+			deltas[direction.ordinal()] = direction.getYDelta() * grid.getXSize() + direction.getXDelta();
+		}
+		this.chain = new int[nrOfBots];
+		this.chainCells = new int[nrOfBots];
+	}
+
+	/**
+	 * Scans the chain of bots in front of the bot on the given cell
+	 *
+	 * @param cell      The cell of the moving bot
+	 * @param direction The direction of movement ( ordinal )
+	 * @param botAt     Per cell, the bot on it or NONE
+	 *
+	 * @return Whether the bot can move, false if the chain ( or the bot itself ) is blocked by a wall
+	 */
+	boolean scan( int cell, int direction, int[] botAt )
+	{
+		Direction dir = DIRECTIONS[direction];
+		// the cells up to the first obstacle exist and have no walls in between, so they can be reached by index arithmetic alone
+		int free = obstacles.getFreeSteps( cell, dir );
+		pusherCell = cell;
+		delta = deltas[direction];
+		length = 0;
+		int current = cell + delta;
+		while( length < free && botAt[current] != NONE )
+		{
+			chain[length] = botAt[current];
+			chainCells[length] = current;
+			length++;
+			current += delta;
+		}
+		boolean obstacleReached = length == free;
+		frontDies = obstacleReached && obstacles.isDeadlyObstacle( cell, dir );
+		blocked = obstacleReached && ! frontDies;
+		return ! blocked;
+	}
+
+	/**
+	 * @return The number of bots pushed along, not counting the moving bot itself
+	 */
+	int getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * @param position The position in the chain, 0 being the bot right in front of the moving bot
+	 *
+	 * @return The bot at that position
+	 */
+	int getBot( int position )
+	{
+		return chain[position];
+	}
+
+	/**
+	 * @param position The position in the chain, 0 being the bot right in front of the moving bot
+	 *
+	 * @return The cell of the bot at that position, before moving
+	 */
+	int getCell( int position )
+	{
+		return chainCells[position];
+	}
+
+	/**
+	 * @return The cell of the front of the chain: the last bot pushed along, or the moving bot itself if there are none
+	 */
+	int getFrontCell()
+	{
+		return length == 0 ? pusherCell : chainCells[length - 1];
+	}
+
+	/**
+	 * @param cell A cell of the chain
+	 *
+	 * @return The cell one step further in the direction of the last scan
+	 */
+	int getNextCell( int cell )
+	{
+		return cell + delta;
+	}
+
+	boolean isBlocked()
+	{
+		return blocked;
+	}
+
+	/**
+	 * @return Whether the front of the chain is pushed into a hole or off the board
+	 */
+	boolean isFrontDying()
+	{
+		return frontDies;
+	}
+}
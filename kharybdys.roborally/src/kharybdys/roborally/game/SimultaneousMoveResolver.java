@@ -0,0 +1,152 @@
+package kharybdys.roborally.game;
+
+import java.util.Arrays;
+
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.board.ConveyorNetwork;
+
+/**
+ * Resolves conflicts between simultaneous board movements ( conveyors, pushers ): riders moved onto the same cell all stay put,
+ * as do riders that would swap cells head-on and riders moving onto the cell of a rider that stays put.
+ * Rotators only change the facing of a rider, so they never conflict.
+ *
+ * Works in linear time, using arrays indexed by cell that record which rider claims a cell ( as its target ) and which rider occupies it.
+ * The arrays are allocated once, per game, and are left empty after every call.
+ */
+final class SimultaneousMoveResolver
+{
+
+	static final int NONE = -1;
+
+	// the first rider claiming a cell as its target, and the last other one
+	private final int[] claims;
+	private final int[] contenders;
+	// the rider currently on a cell
+	private final int[] occupants;
+
+	// per rider, the cell it claimed and whether it stalled
+	private final int[] claimed;
+	private final boolean[] stalled;
+	// riders still to stall, every stalled rider adds at most one follower
+	private final int[] work;
+
+	/**
+	 * Creates a resolver for the given board
+	 *
+	 * @param grid       The board
+	 * @param nrOfRiders The maximum number of riders ( bots or flags ) resolved at once
+	 */
+	SimultaneousMoveResolver( BoardGrid grid, int nrOfRiders )
+	{
+		this.claims = new int[grid.getSize()];
+		this.contenders = new int[grid.getSize()];
+		this.occupants = new int[grid.getSize()];
+		Arrays.fill( claims, NONE );
+		Arrays.fill( contenders, NONE );
+		Arrays.fill( occupants, NONE );
+		this.claimed = new int[nrOfRiders];
+		this.stalled = new boolean[nrOfRiders];
+		this.work = new int[2 * nrOfRiders];
+	}
+
+	/**
+	 * Resets the target of every rider in conflict with another rider to its current cell.
+	 * A rider that does not move still claims its own cell, so a rider moving onto it stalls as well.
+	 *
+	 * @param cells   The current cells of the riders, NO_CELL for riders not on the board ( or not taking part )
+	 * @param targets The cells the riders are moved to, DIES for riders moved to their death; the targets of stalled riders are reset
+	 * @param count   The number of riders
+	 * @param stalls  Filled with, per rider, the rider it conflicted with, or NONE if it was not stalled
+	 *
+	 * @return The number of riders that stalled
+	 */
+	int resolve( int[] cells, int[] targets, int count, int[] stalls )
+	{
+		// claim the targets and record the occupants
+		for( int i = 0; i < count; i++ )
+		{
+			stalls[i] = NONE;
+			stalled[i] = false;
+			claimed[i] = BoardGrid.NO_CELL;
+			if( cells[i] == BoardGrid.NO_CELL )
+			{
+				continue;
+			}
+			occupants[cells[i]] = i;
+			int target = targets[i];
+			if( target == ConveyorNetwork.DIES )
+			{
+				continue;
+			}
+			claimed[i] = target;
+			if( claims[target] == NONE )
+			{
+				claims[target] = i;
+			}
+			else
+			{
+				contenders[target] = i;
+			}
+		}
+
+		// riders sharing their target with another rider, and riders swapping cells, stall
+		int pending = 0;
+		for( int i = 0; i < count; i++ )
+		{
+			int target = claimed[i];
+			if( target == BoardGrid.NO_CELL || target == cells[i] )
+			{
+				continue;
+			}
+			int opponent = claims[target] == i ? contenders[target] : claims[target];
+			if( opponent == NONE )
+			{
+				int occupant = occupants[target];
+				if( occupant != NONE && targets[occupant] == cells[i] )
+				{
+					opponent = occupant;
+				}
+			}
+			if( opponent != NONE )
+			{
+				stalls[i] = opponent;
+				work[pending++] = i;
+			}
+		}
+
+		// a stalled rider stays on its cell, so the rider moving onto that cell stalls as well
+		int nrOfStalls = 0;
+		while( pending > 0 )
+		{
+			int i = work[--pending];
+			if( stalled[i] )
+			{
+				continue;
+			}
+			stalled[i] = true;
+			nrOfStalls++;
+			targets[i] = cells[i];
+			int follower = claims[cells[i]];
+			if( follower != NONE && follower != i && ! stalled[follower] && targets[follower] == cells[i] )
+			{
+				stalls[follower] = i;
+				work[pending++] = follower;
+			}
+		}
+
+		// leave the arrays empty for the next call
+		for( int i = 0; i < count; i++ )
+		{
+			if( cells[i] != BoardGrid.NO_CELL )
+			{
+				occupants[cells[i]] = NONE;
+			}
+			if( claimed[i] != BoardGrid.NO_CELL )
+			{
+				claims[claimed[i]] = NONE;
+				contenders[claimed[i]] = NONE;
+			}
+		}
+		return nrOfStalls;
+	}
+}
@@ -0,0 +1,269 @@
+package kharybdys.roborally.game;
+
+import java.util.Arrays;
+
+import kharybdys.roborally.game.board.BoardElement;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Journal of the changes made to the bots and flags of a game while calculating a round, so the game can be rolled back
+ * to the start of the round when something fails halfway ( eg the database ), instead of having to be reloaded.
+ *
+ * The journal holds before-images of the bots and flags, in primitive arrays reused for every round, grouped in frames:
+ * one frame per batch of changes ( eg the storing of a resolved phase, see {@link PhaseEngine} ). Rolling back undoes the frames in reverse order,
+ * taking all bots and flags of a frame off the board before placing them back, as the batch itself may have swapped cells.
+ */
+public final class UndoJournal
+{
+
+	private static final int INITIAL_CAPACITY = 256;
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	// an entry: header ( slot << 1 | FLAG ), followed by the fields of the before-image, padded to a fixed size so the journal can be walked backwards
+	private static final int FLAG = 1;
+	private static final int ENTRY_SIZE = 8;
+
+	private final Game game;
+	private final Bot[] bots;
+	private final Flag[] flags;
+
+	private boolean recording = false;
+	private int startRound;
+	private int startPhase;
+
+	private int[] entries = new int[INITIAL_CAPACITY * ENTRY_SIZE];
+	private int size = 0;
+	private int[] frames = new int[16];
+	private int nrOfFrames = 0;
+
+	/**
+	 * Creates the journal of the given game. The bots and flags of the game should not change afterwards.
+	 *
+	 * @param game The game
+	 */
+	UndoJournal( Game game )
+	{
+		this.game = game;
+		this.bots = GameState.getBotsInSlotOrder( game );
+		this.flags = GameState.getFlagsInSlotOrder( game );
+	}
+
+	/**
+	 * Starts recording, forgetting whatever was recorded before. The current round and phase are restored on rollback.
+	 */
+	public void begin()
+	{
+		recording = true;
+		startRound = game.getCurrentRound();
+		startPhase = game.getCurrentPhase();
+		size = 0;
+		nrOfFrames = 0;
+	}
+
+	/**
+	 * Stops recording and forgets what was recorded: the changes are final
+	 */
+	public void commit()
+	{
+		recording = false;
+		size = 0;
+		nrOfFrames = 0;
+	}
+
+	public boolean isRecording()
+	{
+		return recording;
+	}
+
+	/**
+	 * Starts a new frame: a batch of changes that is undone as a whole. Ignored when not recording.
+	 */
+	public void startFrame()
+	{
+		if( ! recording )
+		{
+			return;
+		}
+		if( nrOfFrames == frames.length )
+		{
+			frames = Arrays.copyOf( frames, nrOfFrames * 2 );
+		}
+		frames[nrOfFrames++] = size;
+	}
+
+	/**
+	 * Records the current state of the given bot, to be restored on rollback. To be called before changing it. Ignored when not recording.
+	 *
+	 * @param bot The bot
+	 */
+	public void record( Bot bot )
+	{
+		if( recording )
+		{
+			record( getSlot( bots, bot ), bot );
+		}
+	}
+
+	/**
+	 * Records the current state of the bot in the given slot ( see {@link GameState} ). Ignored when not recording.
+	 *
+	 * @param slot The slot of the bot
+	 */
+	void recordBot( int slot )
+	{
+		if( recording )
+		{
+			record( slot, bots[slot] );
+		}
+	}
+
+	private void record( int slot, Bot bot )
+	{
+		int base = reserve();
+		entries[base] = slot << 1;
+		entries[base + 1] = getIndex( bot.getLocation() );
+		entries[base + 2] = bot.getFacingDirection().ordinal();
+		entries[base + 3] = bot.getDamage();
+		entries[base + 4] = bot.getLives();
+		entries[base + 5] = bot.getLatestFlag();
+		entries[base + 6] = getIndex( bot.getArchiveMarker() );
+		entries[base + 7] = Boolean.TRUE.equals( bot.getDiedThisTurn() ) ? 1 : 0;
+	}
+
+	/**
+	 * Records the current state of the given flag, to be restored on rollback. To be called before changing it. Ignored when not recording.
+	 *
+	 * @param flag The flag
+	 */
+	public void record( Flag flag )
+	{
+		if( recording )
+		{
+			record( getSlot( flags, flag ), flag );
+		}
+	}
+
+	/**
+	 * Records the current state of the flag in the given slot ( see {@link GameState} ). Ignored when not recording.
+	 *
+	 * @param slot The slot of the flag
+	 */
+	void recordFlag( int slot )
+	{
+		if( recording )
+		{
+			record( slot, flags[slot] );
+		}
+	}
+
+	private void record( int slot, Flag flag )
+	{
+		int base = reserve();
+		entries[base] = slot << 1 | FLAG;
+		entries[base + 1] = getIndex( flag.getLocation() );
+		entries[base + 2] = getIndex( flag.getArchiveMarker() );
+	}
+
+	/**
+	 * Undoes everything recorded since {@link #begin()}, restoring the round and phase as well, and stops recording
+	 */
+	public void rollback()
+	{
+		if( ! recording )
+		{
+			throw new IllegalStateException( "Cannot roll back " + game + " as nothing was recorded" );
+		}
+		BoardGrid grid = game.getGrid();
+		int end = size;
+		for( int frame = nrOfFrames - 1; frame >= 0; frame-- )
+		{
+			int start = frames[frame];
+			// take everything in this frame off the board, then put it back where it was
+			for( int i = start; i < end; i += ENTRY_SIZE )
+			{
+				if( ( entries[i] & FLAG ) == 0 )
+				{
+					game.placeBot( bots[entries[i] >> 1], null );
+				}
+				else
+				{
+					game.placeFlag( flags[entries[i] >> 1], null );
+				}
+			}
+			// restore in reverse, so the oldest image of an element recorded more than once in this frame wins
+			for( int i = end - ENTRY_SIZE; i >= start; i -= ENTRY_SIZE )
+			{
+				if( ( entries[i] & FLAG ) == 0 )
+				{
+					Bot bot = bots[entries[i] >> 1];
+					game.placeBot( bot, getElement( grid, entries[i + 1] ) );
+					bot.setFacingDirection( DIRECTIONS[entries[i + 2]] );
+					bot.setDamage( entries[i + 3] );
+					bot.setLives( entries[i + 4] );
+					bot.setLatestFlag( entries[i + 5] );
+					bot.setArchiveMarker( getElement( grid, entries[i + 6] ) );
+					bot.setDiedThisTurn( entries[i + 7] != 0 );
+				}
+				else
+				{
+					Flag flag = flags[entries[i] >> 1];
+					game.placeFlag( flag, getElement( grid, entries[i + 1] ) );
+					flag.setArchiveMarker( getElement( grid, entries[i + 2] ) );
+				}
+			}
+			end = start;
+		}
+		game.setRoundAndPhase( startRound, startPhase );
+		recording = false;
+		size = 0;
+		nrOfFrames = 0;
+	}
+
+	/**
+	 * Returns the number of before-images in the journal, for monitoring
+	 *
+	 * @return The size of the journal
+	 */
+	public int size()
+	{
+		return size / ENTRY_SIZE;
+	}
+
+	private int reserve()
+	{
+		if( nrOfFrames == 0 )
+		{
+			startFrame();
+		}
+		if( size == entries.length )
+		{
+			entries = Arrays.copyOf( entries, size * 2 );
+		}
+		int base = size;
+		size += ENTRY_SIZE;
+		return base;
+	}
+
+	private static <T> int getSlot( T[] elements, T element )
+	{
+		for( int slot = 0; slot < elements.length; slot++ )
+		{
+			if( elements[slot] == element )
+			{
+				return slot;
+			}
+		}
+		throw new IllegalArgumentException( element + " is not part of the journalled game" );
+	}
+
+	private static int getIndex( BoardElement element )
+	{
+		return element == null ? BoardGrid.NO_CELL : element.getIndex();
+	}
+
+	private static BoardElement getElement( BoardGrid grid, int cell )
+	{
+		return cell == BoardGrid.NO_CELL ? null : grid.getElement( cell );
+	}
+}
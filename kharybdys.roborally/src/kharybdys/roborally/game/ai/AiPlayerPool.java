@@ -0,0 +1,121 @@
+package kharybdys.roborally.game.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.GameState;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+
+/**
+ * The threads the AI players think on: a fixed number of threads with a bounded queue, so AI players cannot take over the server,
+ * and a CPU budget per decision. Implements Singleton, configured by the system properties roborally.ai.threads, roborally.ai.queueCapacity
+ * and roborally.ai.budgetMillis.
+ */
+public final class AiPlayerPool
+{
+
+	private static final Logger logger = LoggerFactory.getLogger( AiPlayerPool.class );
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+	public static final long DEFAULT_BUDGET_MILLIS = 250;
+
+	private static AiPlayerPool instance = null;
+
+	private final ThreadPoolExecutor executor;
+	private final long budgetMillis;
+
+	/**
+	 * Creates a pool
+	 *
+	 * @param nrOfThreads   The number of threads
+	 * @param queueCapacity The number of decisions that can wait for a thread, beyond that decisions are rejected
+	 * @param budgetMillis  The CPU time per decision
+	 */
+	public AiPlayerPool( int nrOfThreads, int queueCapacity, long budgetMillis )
+	{
+		this.budgetMillis = budgetMillis;
+		this.executor = new ThreadPoolExecutor( nrOfThreads, nrOfThreads, 0L, TimeUnit.MILLISECONDS,
+		                                        new ArrayBlockingQueue<Runnable>( queueCapacity ), new AiThreadFactory() );
+	}
+
+	/**
+	 * Access method to the singleton instance of this class
+	 *
+	 * @return The pool configured by the system properties
+	 */
+	public static synchronized AiPlayerPool getInstance()
+	{
+		if( instance == null )
+		{
+			int nrOfThreads = Integer.getInteger( "roborally.ai.threads", Math.max( 1, Runtime.getRuntime().availableProcessors() / 2 ) );
+			int queueCapacity = Integer.getInteger( "roborally.ai.queueCapacity", DEFAULT_QUEUE_CAPACITY );
+			long budgetMillis = Long.getLong( "roborally.ai.budgetMillis", DEFAULT_BUDGET_MILLIS );
+			logger.info( "Starting {} AI threads with a budget of {} ms per decision", nrOfThreads, budgetMillis );
+			instance = new AiPlayerPool( nrOfThreads, queueCapacity, budgetMillis );
+		}
+		return instance;
+	}
+
+	public long getBudgetMillis()
+	{
+		return budgetMillis;
+	}
+
+	/**
+	 * Starts choosing the program of the given bot, see {@link MonteCarloProgrammer}
+	 *
+	 * @param game   The game
+	 * @param state  The state at the start of the round
+	 * @param slot   The slot of the bot
+	 * @param hand   The cards dealt to the bot
+	 * @param locked Per slot and register, the card locked in it, null for the registers to program
+	 * @param seed   The seed of the random numbers
+	 *
+	 * @return The card per register, when decided
+	 *
+	 * @throws RejectedExecutionException If too many decisions are waiting already
+	 */
+	public Future<MovementCardDefinition[]> decide( Game game, GameState state, int slot, List<MovementCardDefinition> hand,
+	                                                MovementCardDefinition[][] locked, long seed )
+	{
+		// fork on this thread, the fork is for the AI thread alone
+		GameState snapshot = state.fork();
+		List<MovementCardDefinition> cards = new ArrayList<MovementCardDefinition>( hand );
+		long budgetNanos = TimeUnit.MILLISECONDS.toNanos( budgetMillis );
+		return executor.submit( () -> new MonteCarloProgrammer( game ).program( snapshot, slot, cards, locked, budgetNanos, Integer.MAX_VALUE, new SplittableRandom( seed ) ) );
+	}
+
+	/**
+	 * Stops the threads once the decisions already submitted are done
+	 */
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+
+	private static final class AiThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread( Runnable runnable )
+		{
+			Thread thread = new Thread( runnable, "roborally-ai-" + count.incrementAndGet() );
+			thread.setDaemon( true );
+			thread.setPriority( Thread.NORM_PRIORITY - 1 );
+			return thread;
+		}
+	}
+}
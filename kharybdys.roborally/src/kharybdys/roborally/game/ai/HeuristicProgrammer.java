@@ -0,0 +1,155 @@
+package kharybdys.roborally.game.ai;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.GameState;
+import kharybdys.roborally.game.PhaseEngine;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.board.FlagDistanceTable;
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+import kharybdys.roborally.game.movement.MovementCardTransformer;
+
+/**
+ * Programs the registers of a bot cheaply: tries a number of random programs with the bot alone on the board
+ * and plays the one that ends best, ranked like {@link kharybdys.roborally.game.ProgramEvaluator#BEST_FIRST} but by the {@link FlagDistanceTable}.
+ * Meant for simulating many games, where the full evaluation of every program is too slow.
+ *
+ * Waits for the flag distance table of the board when created. Not thread safe: a programmer per thread.
+ */
+public final class HeuristicProgrammer
+{
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final MovementCardDefinition[] CARDS = MovementCardDefinition.values();
+
+	private final PhaseEngine engine;
+	private final MovementCardTransformer transformer;
+	private final FlagDistanceTable distances;
+	// the movements per card ordinal and facing, computed when first needed
+	private final MovementBuffer[] movements = new MovementBuffer[CARDS.length * DIRECTIONS.length];
+
+	/**
+	 * Creates a programmer for the bots of the given game, playing the cards without option cards
+	 *
+	 * @param game The game
+	 */
+	public HeuristicProgrammer( Game game )
+	{
+		this.engine = new PhaseEngine( game );
+		this.transformer = MovementCardTransformer.getDefaultMovementCardTransformer();
+		this.distances = game.getBoardTemplate().getFlagDistanceTableAsync().join();
+	}
+
+	/**
+	 * Chooses the program of the given bot
+	 *
+	 * @param state   The state at the start of the round
+	 * @param slot    The slot of the bot ( see {@link GameState} )
+	 * @param hand    The cards dealt to the bot
+	 * @param locked  Per register, the card locked in it, null for the registers to program
+	 * @param samples The number of programs to try
+	 * @param random  The random numbers
+	 *
+	 * @return The card per register, the locked cards included
+	 */
+	public MovementCardDefinition[] program( GameState state, int slot, List<MovementCardDefinition> hand, MovementCardDefinition[] locked,
+	                                         int samples, SplittableRandom random )
+	{
+		GameState start = state.fork();
+		start.clearRegisters();
+		for( int other = 0; other < start.getNrOfBots(); other++ )
+		{
+			if( other != slot )
+			{
+				start.placeBot( other, BoardGrid.NO_CELL, start.getBotFacing( other ) );
+			}
+		}
+		GameState end = start.fork();
+
+		MovementCardDefinition[] cards = hand.toArray( new MovementCardDefinition[0] );
+		MovementCardDefinition[] best = null;
+		long bestScore = Long.MAX_VALUE;
+		for( int sample = 0; sample < samples; sample++ )
+		{
+			MovementCardDefinition[] program = locked.clone();
+			int dealt = 0;
+			for( int register = 0; register < program.length && dealt < cards.length; register++ )
+			{
+				if( program[register] == null )
+				{
+					// a single step of Fisher-Yates over the hand
+					int pick = dealt + random.nextInt( cards.length - dealt );
+					MovementCardDefinition card = cards[pick];
+					cards[pick] = cards[dealt];
+					cards[dealt++] = card;
+					program[register] = card;
+				}
+			}
+
+			end.copyFrom( start );
+			int facing = start.getBotFacing( slot );
+			for( int register = 0; register < Game.MAX_PHASE; register++ )
+			{
+				if( program[register] != null )
+				{
+					end.setRegister( slot, register + 1, getMovements( program[register], facing ) );
+				}
+			}
+			for( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+			{
+				end.setRoundAndPhase( start.getRound(), phase );
+				engine.processPhase( end );
+			}
+			long score = score( end, slot );
+			if( score < bestScore )
+			{
+				bestScore = score;
+				best = program;
+			}
+		}
+		return best == null ? locked.clone() : best;
+	}
+
+	/**
+	 * Returns the score of where the bot ended, lower is better: survived, then most flags, then nearest the next flag, then least damage
+	 */
+	private long score( GameState end, int slot )
+	{
+		if( end.hasBotDied( slot ) || end.getBotCell( slot ) == BoardGrid.NO_CELL )
+		{
+			return Long.MAX_VALUE - 1;
+		}
+		int nextFlag = end.getBotLatestFlag( slot ) + 1;
+		int distance;
+		if( nextFlag > end.getNrOfFlags() )
+		{
+			distance = 0;
+		}
+		else if( distances.contains( nextFlag ) )
+		{
+			distance = distances.getDistance( nextFlag, end.getBotCell( slot ), end.getBotFacing( slot ) );
+		}
+		else
+		{
+			distance = end.getDistanceToNextFlag( slot );
+		}
+		return ( (long) ( end.getNrOfFlags() - end.getBotLatestFlag( slot ) ) << 40 ) | ( (long) distance << 8 ) | end.getBotDamage( slot );
+	}
+
+	private MovementBuffer getMovements( MovementCardDefinition card, int facing )
+	{
+		int index = card.ordinal() * DIRECTIONS.length + facing;
+		if( movements[index] == null )
+		{
+			MovementBuffer buffer = new MovementBuffer( PhaseEngine.MAX_MOVEMENTS );
+			transformer.addMovements( Collections.singletonList( card ), DIRECTIONS[facing], 0, buffer );
+			movements[index] = buffer;
+		}
+		return movements[index];
+	}
+}
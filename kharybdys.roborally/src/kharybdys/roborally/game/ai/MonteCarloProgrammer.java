@@ -0,0 +1,376 @@
+package kharybdys.roborally.game.ai;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import kharybdys.roborally.game.Bot;
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.GameState;
+import kharybdys.roborally.game.PhaseEngine;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+import kharybdys.roborally.game.movement.MovementCardTransformer;
+
+/**
+ * Programs the registers of a bot with a Monte Carlo tree search: the tree holds the choice of card per free register,
+ * every iteration deals the other bots random programs from the cards the bot cannot see ( so the search averages over their unknown hands ),
+ * plays the round on a {@link GameState} fork and scores where the bot ends up. The choices are made with UCT, the program returned is the most visited one.
+ *
+ * Runs until its CPU budget or iteration limit is used up, on the thread calling it. Not thread safe: a programmer per thread.
+ */
+public final class MonteCarloProgrammer
+{
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final MovementCardDefinition[] CARDS = MovementCardDefinition.values();
+
+	private static final double EXPLORATION = Math.sqrt( 2 );
+	// the number of iterations between checks of the budget
+	private static final int CHECK_INTERVAL = 16;
+
+	private final PhaseEngine engine;
+	private final MovementCardTransformer transformer;
+	// the movements per card ordinal and facing, computed when first needed
+	private final MovementBuffer[] movements = new MovementBuffer[CARDS.length * DIRECTIONS.length];
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Creates a programmer for the bots of the given game, playing the cards without option cards
+	 *
+	 * @param game The game
+	 */
+	public MonteCarloProgrammer( Game game )
+	{
+		this.engine = new PhaseEngine( game );
+		this.transformer = MovementCardTransformer.getDefaultMovementCardTransformer();
+	}
+
+	/**
+	 * Chooses the program of the given bot
+	 *
+	 * @param state         The state at the start of the round
+	 * @param slot          The slot of the bot ( see {@link GameState} )
+	 * @param hand          The cards dealt to the bot
+	 * @param locked        Per slot and register, the card locked in it, null for the registers to program
+	 * @param budgetNanos   The CPU time to spend ( wall time if the JVM cannot measure CPU time )
+	 * @param maxIterations The maximum number of rounds to play
+	 * @param random        The random numbers
+	 *
+	 * @return The card per register, the locked cards included
+	 */
+	public MovementCardDefinition[] program( GameState state, int slot, List<MovementCardDefinition> hand, MovementCardDefinition[][] locked,
+	                                         long budgetNanos, int maxIterations, SplittableRandom random )
+	{
+		Search search = new Search( state, slot, hand, locked, random );
+		boolean cpuTime = threads.isCurrentThreadCpuTimeSupported();
+		long start = cpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+		for( int iteration = 0; iteration < maxIterations; iteration++ )
+		{
+			if( iteration % CHECK_INTERVAL == 0 && ( cpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime() ) - start >= budgetNanos )
+			{
+				break;
+			}
+			search.iterate();
+		}
+		return search.getProgram();
+	}
+
+	/**
+	 * A node of the search tree: the choice of a card of the hand for a free register
+	 */
+	private static final class Node
+	{
+		final int card;
+		Node[] children;
+		int visits;
+		double reward;
+
+		Node( int card )
+		{
+			this.card = card;
+		}
+	}
+
+	/**
+	 * The state of a single search
+	 */
+	private final class Search
+	{
+		private final GameState start;
+		private final GameState round;
+		private final int slot;
+		private final MovementCardDefinition[] hand;
+		private final MovementCardDefinition[][] locked;
+		private final SplittableRandom random;
+
+		// the registers the bot programs, and the cards nobody can see yet, dealt to the other bots
+		private final int[] freeRegisters;
+		private final int[] unknownCards;
+
+		private final Node root = new Node( -1 );
+		private final Node[] path;
+		// the cards chosen per register in the current iteration, as ordinal, per slot
+		private final int[][] programs;
+
+		Search( GameState state, int slot, List<MovementCardDefinition> hand, MovementCardDefinition[][] locked, SplittableRandom random )
+		{
+			this.start = state.fork();
+			this.start.clearRegisters();
+			this.round = start.fork();
+			this.slot = slot;
+			this.hand = hand.toArray( new MovementCardDefinition[0] );
+			this.locked = locked;
+			this.random = random;
+
+			int nrOfFree = 0;
+			for( int register = 0; register < Game.MAX_PHASE; register++ )
+			{
+				if( locked[slot][register] == null )
+				{
+					nrOfFree++;
+				}
+			}
+			if( nrOfFree > this.hand.length || this.hand.length > Integer.SIZE )
+			{
+				throw new IllegalArgumentException( "Cannot program " + nrOfFree + " registers with " + this.hand.length + " cards" );
+			}
+			this.freeRegisters = new int[nrOfFree];
+			for( int register = 0, free = 0; register < Game.MAX_PHASE; register++ )
+			{
+				if( locked[slot][register] == null )
+				{
+					freeRegisters[free++] = register;
+				}
+			}
+
+			boolean[] known = new boolean[CARDS.length];
+			for( MovementCardDefinition card : this.hand )
+			{
+				known[card.ordinal()] = true;
+			}
+			for( MovementCardDefinition[] registers : locked )
+			{
+				for( MovementCardDefinition card : registers )
+				{
+					if( card != null )
+					{
+						known[card.ordinal()] = true;
+					}
+				}
+			}
+			int nrOfUnknown = 0;
+			for( boolean isKnown : known )
+			{
+				nrOfUnknown += isKnown ? 0 : 1;
+			}
+			this.unknownCards = new int[nrOfUnknown];
+			for( int card = 0, unknown = 0; card < CARDS.length; card++ )
+			{
+				if( ! known[card] )
+				{
+					unknownCards[unknown++] = card;
+				}
+			}
+
+			this.path = new Node[nrOfFree + 1];
+			this.programs = new int[start.getNrOfBots()][Game.MAX_PHASE];
+		}
+
+		/**
+		 * Selects a program down the tree, expanding it by one node, plays it against random programs of the other bots and records the result
+		 */
+		void iterate()
+		{
+			int[] program = programs[slot];
+			for( int register = 0; register < Game.MAX_PHASE; register++ )
+			{
+				program[register] = locked[slot][register] == null ? -1 : locked[slot][register].ordinal();
+			}
+
+			// selection and expansion
+			int used = 0;
+			int depth = 0;
+			Node node = root;
+			path[0] = root;
+			while( depth < freeRegisters.length )
+			{
+				if( node.children == null )
+				{
+					expand( node, used );
+				}
+				Node child = select( node );
+				used |= 1 << child.card;
+				program[freeRegisters[depth]] = hand[child.card].ordinal();
+				path[++depth] = child;
+				node = child;
+				if( child.visits == 0 )
+				{
+					break;
+				}
+			}
+			// the rest of the program at random
+			for( int free = depth; free < freeRegisters.length; free++ )
+			{
+				int card;
+				do
+				{
+					card = random.nextInt( hand.length );
+				}
+				while( ( used & 1 << card ) != 0 );
+				used |= 1 << card;
+				program[freeRegisters[free]] = hand[card].ordinal();
+			}
+
+			double reward = play();
+
+			for( int level = 0; level <= depth; level++ )
+			{
+				path[level].visits++;
+				path[level].reward += reward;
+			}
+		}
+
+		private void expand( Node node, int used )
+		{
+			node.children = new Node[hand.length - Integer.bitCount( used )];
+			for( int card = 0, child = 0; card < hand.length; card++ )
+			{
+				if( ( used & 1 << card ) == 0 )
+				{
+					node.children[child++] = new Node( card );
+				}
+			}
+		}
+
+		private Node select( Node node )
+		{
+			Node best = null;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			double logVisits = Math.log( Math.max( 1, node.visits ) );
+			for( Node child : node.children )
+			{
+				if( child.visits == 0 )
+				{
+					return child;
+				}
+				double value = child.reward / child.visits + EXPLORATION * Math.sqrt( logVisits / child.visits );
+				if( value > bestValue )
+				{
+					bestValue = value;
+					best = child;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Plays the round with the program of the bot and random programs for the other bots
+		 *
+		 * @return The score of the bot at the end of the round, 0 - 1
+		 */
+		private double play()
+		{
+			round.copyFrom( start );
+			int unknown = 0;
+			for( int other = 0; other < start.getNrOfBots(); other++ )
+			{
+				if( start.getBotCell( other ) == BoardGrid.NO_CELL )
+				{
+					continue;
+				}
+				int facing = start.getBotFacing( other );
+				for( int register = 0; register < Game.MAX_PHASE; register++ )
+				{
+					int card;
+					if( other == slot )
+					{
+						card = programs[slot][register];
+					}
+					else if( locked[other][register] != null )
+					{
+						card = locked[other][register].ordinal();
+					}
+					else if( unknown < unknownCards.length )
+					{
+						// a single step of Fisher-Yates over the unknown cards
+						int pick = unknown + random.nextInt( unknownCards.length - unknown );
+						card = unknownCards[pick];
+						unknownCards[pick] = unknownCards[unknown];
+						unknownCards[unknown++] = card;
+					}
+					else
+					{
+						continue;
+					}
+					round.setRegister( other, register + 1, getMovements( card, facing ) );
+				}
+			}
+			for( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+			{
+				round.setRoundAndPhase( start.getRound(), phase );
+				engine.processPhase( round );
+			}
+			return score();
+		}
+
+		private double score()
+		{
+			if( round.hasBotDied( slot ) || round.getBotCell( slot ) == BoardGrid.NO_CELL )
+			{
+				return 0;
+			}
+			BoardGrid grid = start.getBoardTemplate().getGrid();
+			double distance = Math.min( 1.0, round.getDistanceToNextFlag( slot ) / (double) ( grid.getXSize() + grid.getYSize() ) );
+			return 0.4
+			     + 0.3 * Math.min( 1, round.getBotLatestFlag( slot ) - start.getBotLatestFlag( slot ) )
+			     + 0.2 * ( 1 - distance )
+			     + 0.1 * ( 1 - round.getBotDamage( slot ) / (double) Bot.INITIAL_HEALTH );
+		}
+
+		/**
+		 * Returns the program along the most visited nodes, completed with the unused cards in hand order where the tree is not deep enough
+		 */
+		MovementCardDefinition[] getProgram()
+		{
+			MovementCardDefinition[] program = locked[slot].clone();
+			int used = 0;
+			Node node = root;
+			for( int register : freeRegisters )
+			{
+				Node best = null;
+				if( node != null && node.children != null )
+				{
+					for( Node child : node.children )
+					{
+						if( best == null || child.visits > best.visits )
+						{
+							best = child;
+						}
+					}
+				}
+				int card = best == null || best.visits == 0 ? Integer.numberOfTrailingZeros( ~used ) : best.card;
+				used |= 1 << card;
+				program[register] = hand[card];
+				node = best;
+			}
+			return program;
+		}
+	}
+
+	private MovementBuffer getMovements( int card, int facing )
+	{
+		int index = card * DIRECTIONS.length + facing;
+		if( movements[index] == null )
+		{
+			MovementBuffer buffer = new MovementBuffer( PhaseEngine.MAX_MOVEMENTS );
+			transformer.addMovements( Collections.singletonList( CARDS[card] ), DIRECTIONS[facing], 0, buffer );
+			movements[index] = buffer;
+		}
+		return movements[index];
+	}
+}
@@ -5,20 +5,13 @@ import java.awt.Graphics;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumMap;
-import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import kharybdys.roborally.game.Bot;
-import kharybdys.roborally.game.Flag;
 import kharybdys.roborally.game.definition.Direction;
 import kharybdys.roborally.game.movement.Movement;
+import kharybdys.roborally.game.movement.MovementBuffer;
 
 /**
  * Contains information about walls & lasers and the business methods to handle those
@@ -33,44 +26,24 @@ public abstract class AbstractBoardElement implements BoardElement
 	private static final Logger logger = LoggerFactory.getLogger( AbstractBoardElement.class );
 
     /**
-     * The collection of walls
+     * The walls, as a bitmask of the wall directions (see {@link Direction#getMask()})
      */
-    private Collection<Direction> walls = EnumSet.noneOf( Direction.class );
+    private int walls = 0;
 
     /**
-     * The bot currently at this boardelement
+     * The laser beams crossing this boardelement, only used for drawing
      */
-    protected Bot bot = null;
-
-    /**
-     * The flag currently at this boardelement
-     */
-    protected AbstractMovingElement flag = null;
-    
-    /**
-     * The lasers available on this boardelement (can be one vertical and one horizontal)
-     */
-    private Collection<Laser> lasers = new ArrayList<Laser>();
-    
-    /**
-     * The boardelements that surround us.
-     */
-    private Map<Direction, BoardElement> neighbours = new EnumMap<Direction, BoardElement>( Direction.class );
+    private Collection<LaserBeam> laserBeams = new ArrayList<LaserBeam>();
     
     /**
-     * The xCoordinate of this element
+     * The grid this element is placed on, which also knows our neighbours and coordinates
      */
-    protected int xCoord = -1;
+    private BoardGrid grid = null;
     
     /**
-     * The yCoordinate of this element
+     * The index of this element in the grid
      */
-    protected int yCoord = -1;
-    
-    /**
-     * How big to draw this boardElement (pixels by pixels)
-     */
-    protected int size;
+    private int index = BoardGrid.NO_CELL;
 
     /**
      * Setup method, adds all directions in the given collection
@@ -81,90 +54,72 @@ public abstract class AbstractBoardElement implements BoardElement
      */
     public AbstractBoardElement withWalls( Collection<Direction> walls )
     {
-    	this.walls.addAll( walls );
+    	this.walls |= Direction.toMask( walls );
     	
     	return this;
     }
     
     /**
-     * Setup method, adds/sets the coordinates
+     * Setup method, places this element on the given grid at the given index. 
+     * Called by {@link BoardGrid#setElement(int, AbstractBoardElement)}
      * 
-     * @param xCoord The xCoordinate
-     * @param yCoord The yCoordinate
+     * @param grid  The grid this element is placed on
+     * @param index The index of the cell this element occupies
+     */
+    void attach( BoardGrid grid, int index )
+    {
+    	this.grid = grid;
+    	this.index = index;
+    }
+    
+    /**
+     * Setup method, writes the element specific parameters to the grid.
+     * Default implementation: no parameters
      * 
-     * @return this object, for chaining
+     * @param grid  The grid to write to
+     * @param index The index of the cell this element occupies
      */
-    public AbstractBoardElement withCoordinates( int xCoord, int yCoord )
+    protected void writeParameters( BoardGrid grid, int index )
     {
-    	this.xCoord = xCoord;
-    	this.yCoord = yCoord;
-    	
-    	return this;
+    	// no parameters
     }
     
     /**
-     * Setup method, adds a boardElement in the given direction as neighbour
-     * Also adds us to the neighbour's neighbour list in the opposite direction
+     * Returns the kind of element this is, as stored in the {@link BoardGrid}
+     * 
+     * @return The cell type of this element
+     */
+    public abstract BoardCellType getCellType();
+    
+    /**
+     * Returns the walls of this element as a bitmask (see {@link Direction#getMask()})
      * 
-     * @param direction The direction to add the given boardElement to
-     * @param neighbour The boardElement to add
+     * @return The walls of this element
      */
-    public void addNeighbour( Direction direction, BoardElement neighbour )
+    public int getWallMask()
     {
-    	if( ! neighbour.equals( neighbours.get( direction ) ) )
-    	{
-    		// cleanup the current neighbour?
-    		removeNeighbour( direction );
-    		
-    		// Add the neighbour relations
-	    	neighbours.put( direction, neighbour );
-	    	neighbour.addNeighbour( direction.processRotate( 2 ), this );
-    	}
+    	return walls;
     }
     
     /**
-     * Setup method, removes the neighbour in the given direction.
-     * Also removes us from the neighbour's neighbour list in the opposite direction
+     * Returns the index of this element in its grid, NO_CELL if not placed
      * 
-     * @param direction The direction to remove
+     * @return The index of this element
      */
-    public void removeNeighbour( Direction direction )
+    public int getIndex()
     {
-    	BoardElement neighbour = neighbours.get( direction );
-    	if( neighbour != null )
-    	{
-    		neighbours.remove( direction );
-    		neighbour.removeNeighbour( direction.processRotate( 2 ) );
-    		
-    	}
+    	return index;
     }
     
     /**
-     * Adds a laser to this boardElement and its neighbours until this laser hits a wall
-     * Used recursively
+     * Setup method, registers a laser beam crossing ( or starting on ) this boardElement, for drawing.
+     * Called when the board is compiled into a {@link BoardTemplate}
      * 
-     * @param strength    The strength of the laser
-     * @param originating The originating direction
-     * @param preceding   The preceding boardElement (if any)
+     * @param beam The laser beam crossing this boardElement
      */
-    public void addLaser( int strength, Direction originating, BoardElement preceding )
+    void addLaserBeam( LaserBeam beam )
     {
-    	// Decide whether the laser continues by finding followupBoardElement
-    	BoardElement followup = null;
-    	Direction exiting = originating.processRotate( 2 );
-
-    	if( ! walls.contains( exiting ) )
-    	{
-    		// This can return null which is what we want here
-    		followup = neighbours.get( exiting );
-    	}
-    	
-    	lasers.add( new Laser( strength, originating, preceding, followup ) );
-    	
-    	if( followup != null )
-    	{
-    		followup.addLaser( strength, originating, this );
-    	}
+    	laserBeams.add( beam );
     }
 
 	/**
@@ -174,7 +129,7 @@ public abstract class AbstractBoardElement implements BoardElement
 	 */
 	public int getXCoordinate()
 	{
-		return xCoord;
+		return grid == null ? -1 : grid.getXCoordinate( index );
 	}
 
 	/**
@@ -184,7 +139,7 @@ public abstract class AbstractBoardElement implements BoardElement
 	 */
 	public int getYCoordinate()
 	{
-		return yCoord;
+		return grid == null ? -1 : grid.getYCoordinate( index );
 	}
 
 	/**
@@ -197,19 +152,7 @@ public abstract class AbstractBoardElement implements BoardElement
     public BoardElement getNeighbour( Direction direction )
     {
 //    	return neighbours.containsKey( direction ) ? neighbours.get( direction ) : outsideElement;
-    	return neighbours.get( direction );
-    }
-    
-    /**
-     * Gets the neighbour in the given direction. Will return null if no element is specified
-     * 
-     * @param direction The direction for which to return a neighbour
-     * 
-     * @return The neighbour at that direction, or null if none present
-     */
-    protected BoardElement getInternalNeighbour( Direction direction )
-    {
-    	return neighbours.get( direction );
+    	return grid == null ? null : grid.getElement( grid.getNeighbourIndex( index, direction ) );
     }
     
     /**
@@ -226,6 +169,19 @@ public abstract class AbstractBoardElement implements BoardElement
         return Collections.emptyList();
     }
 
+    /**
+     * Writes the basic movement that this board element enacts on the bot in the given phase into the buffer.
+     * Default implementation: no movements
+     * 
+     * @param phase  The phase we're interested in
+     * @param entity The index of the moving element on this boardElement
+     * @param buffer The buffer to add the movements to
+     */
+    public void addBoardMovements( int phase, int entity, MovementBuffer buffer )
+    {
+    	// no movements
+    }
+
     /**
      * Adjusts the given movement to comply with the rules (bumping into walls)
      * 
@@ -235,13 +191,13 @@ public abstract class AbstractBoardElement implements BoardElement
      */
     public Movement adjustMovementForWalls(Movement oldMovement) 
     {
-        if ( walls.isEmpty() || ! oldMovement.changesPosition() ) 
+        if ( walls == 0 || ! oldMovement.changesPosition() ) 
         {
             return oldMovement;
         } 
         else 
         {
-            if ( walls.contains( oldMovement.getMovingDirection() ) ) 
+            if ( hasWall( oldMovement.getMovingDirection() ) ) 
             {
                 return oldMovement.stopMovement();
             } 
@@ -271,93 +227,9 @@ public abstract class AbstractBoardElement implements BoardElement
      */
     public boolean hasWall( Direction side ) 
     {
-        return walls.contains( side );
+        return ( walls & side.getMask() ) != 0;
     }
 
-    /**
-     * Sets the bot at this element
-     * 
-     * @param bot The bot to set at this element
-     */
-    public void setBot( Bot bot )
-    {
-    	if( this.bot != null && bot != null && ! this.bot.equals( bot ) )
-    	{
-    		logger.warn( "Replacing bot {} with bot {} at boardElement {}", this.bot, bot, this );
-    		throw new UnsupportedOperationException( "Cannot replace one bot with another at a boardElement" ); 
-    	}
-    	
-    	this.bot = bot;
-    	if( bot != null )
-    	{
-    		bot.setLocation( this );
-    	}
-    }
-    
-    /**
-     * Sets the flag at this element
-     * 
-     * @param flag The flag to set at this element
-     */
-    public void setFlag( Flag flag )
-    {
-    	if( this.flag != null && flag != null && ! this.flag.equals( flag ) )
-    	{
-    		logger.warn( "Replacing flag {} with flag {} at boardElement {}", this.flag, flag, this );
-    		throw new UnsupportedOperationException( "Cannot replace one flag with another at a boardElement" ); 
-    	}
-    	
-    	this.flag = flag;
-    	if( flag != null )
-    	{
-    		flag.setLocation( this );
-    	}
-    	
-    }
-    
-    /**
-     * Mimics firing the laser(s) on this boardelement, and finds the bot(s) getting hit by the laser(s).
-     * Note, returns null if no laser on this boardelement
-     * 
-     * @return The bot(s) getting hit by laser(s) starting on this element, with the strength hit with
-     */
-    public Map<Bot, Integer> findLaserTargets()
-    {
-    	if( lasers.isEmpty() )
-    	{
-    		return null;
-    	}
-    	
-    	if( bot == null || bot.getDiedThisTurn() )
-    	{
-    		Map<Bot, Integer> results = new HashMap<Bot, Integer>();
-    		for( Laser laser : lasers )
-    		{
-    			Bot target = laser.findLaserTarget();
-    			if( target != null )
-    			{
-    				results.put( target, laser.getStrength() );
-    			}
-    		}
-    		return results;
-    	}
-    	else
-    	{
-    		return Collections.singletonMap( bot, lasers.stream().mapToInt( Laser::getStrength ).sum() );
-    	}
-    }    
-
-    /**
-     * Follows the laser coming from the given direction, and finds the bot getting hit by this laser.
-     * 
-     * @return The bot getting hit by the given laser (through its originating direction)
-     */
-    public Bot findLaserTarget( Direction originating )
-    {
-    	Optional<Laser> result = lasers.stream().filter( laser -> laser.getShotDir().equals( originating ) ).findAny();
-    	return result.isPresent() ? result.get().findLaserTarget() : null;
-    }
-    
     /**
      * Logic that draws this boardElement 
      * 
@@ -366,44 +238,44 @@ public abstract class AbstractBoardElement implements BoardElement
      */
     public void paint(Graphics g, int factor) 
     {
-        size = baseSize * factor;
-        int baseX = xCoord * size;
-        int baseY = ( yCoord + 1 ) * size;
+        int size = baseSize * factor;
+        int baseX = getXCoordinate() * size;
+        int baseY = ( getYCoordinate() + 1 ) * size;
         g.setColor( Color.black );
         g.drawRect( baseX, baseY, size - 1, size - 1 );
         g.setColor( Color.lightGray );
         g.fillRect( baseX + 1, baseY + 1, size - 2, size - 2 );
         try
         {
-        	paintElement( g, baseX, baseY, factor );
+        	paintElement( g, baseX, baseY, size, factor );
         }
         catch( Throwable t )
         {
-        	logger.error( "Something went wrong drawing boardelement at coordinates {}, {}", xCoord, yCoord, t);
+        	logger.error( "Something went wrong drawing boardelement at coordinates {}, {}", getXCoordinate(), getYCoordinate(), t);
         }
         g.setColor( Color.yellow );
         // corners are to be filled by north or south walls
-        if ( walls.contains( Direction.NORTH ) ) 
+        if ( hasWall( Direction.NORTH ) ) 
         {
             g.fillRect( baseX, baseY, size, factor );
         }
-        if ( walls.contains( Direction.SOUTH ) ) 
+        if ( hasWall( Direction.SOUTH ) ) 
         {
             g.fillRect( baseX, baseY + size - factor, size, factor );
         }
-        if ( walls.contains( Direction.WEST ) ) 
+        if ( hasWall( Direction.WEST ) ) 
         {
             g.fillRect( baseX, baseY, factor, size );
         }
-        if ( walls.contains( Direction.EAST ) ) 
+        if ( hasWall( Direction.EAST ) ) 
         {
             g.fillRect( baseX + size - factor, baseY, factor, size );
         }
         g.setColor( Color.red );
         
-        drawLaserMount( g, baseX, baseY, factor );
+        drawLaserMount( g, baseX, baseY, size, factor );
 
-        drawLaserShots( g, baseX, baseY, factor );
+        drawLaserShots( g, baseX, baseY, size, factor );
     }
 
     /**
@@ -412,9 +284,10 @@ public abstract class AbstractBoardElement implements BoardElement
      * @param g
      * @param baseX
      * @param baseY
+     * @param size
      * @param factor
      */
-    protected abstract void paintElement(Graphics g, int baseX, int baseY, int factor);
+    protected abstract void paintElement(Graphics g, int baseX, int baseY, int size, int factor);
 
     /**
      * Logic that draws the red triangle that represents the laserMount for all available lasers
@@ -423,12 +296,17 @@ public abstract class AbstractBoardElement implements BoardElement
      * @param g              The graphics object to use
      * @param baseX          The starting x coordinate to draw from (in pixels)
      * @param baseY          The starting y coordinate to draw from (in pixels)
+     * @param size           How big to draw this boardElement (pixels by pixels)
      * @param factor         The magnification factor to use
      */
-    private void drawLaserMount( Graphics g, int baseX, int baseY, int factor )
+    private void drawLaserMount( Graphics g, int baseX, int baseY, int size, int factor )
     {
-    	for( Laser laser :  lasers.stream().filter( l -> l.getMountDir() != null ).collect( Collectors.toList() ) )
+    	for( LaserBeam laser : laserBeams )
     	{
+    		if( laser.getMountIndex() != index )
+    		{
+    			continue;
+    		}
 	        for ( int i = 1; i < laser.getStrength() + 1; i++ )
 	        {
 	            int startAngle = 0;
@@ -443,7 +321,7 @@ public abstract class AbstractBoardElement implements BoardElement
 	            double compensation = ( i + 0.0 ) / ( laser.getStrength() + 1 );
 	
 	            // calculate the numbers based on the direction
-		        switch (laser.getMountDir()) {
+		        switch (laser.getMountDirection()) {
 		            case NORTH:
 		                startAngle = 180;
 		                mountBaseX = Double.valueOf(size * compensation).intValue() - (3 * factor);
@@ -452,7 +330,7 @@ public abstract class AbstractBoardElement implements BoardElement
 		                laserStartY = baseY + factor;
 		                laserEndX = laserStartX;
 		                laserEndY = baseY + size - 2;
-		                if (!walls.contains(Direction.SOUTH)) {
+		                if (!hasWall( Direction.SOUTH )) {
 		                    laserEndY+=factor;
 		                }
 		                break;
@@ -464,7 +342,7 @@ public abstract class AbstractBoardElement implements BoardElement
 		                laserStartY = baseY + factor;
 		                laserEndX = laserStartX;
 		                laserEndY = baseY + size - 1 - factor;
-		                if (!walls.contains(Direction.NORTH)) {
+		                if (!hasWall( Direction.NORTH )) {
 		                    laserStartY-=factor;
 		                }
 		                break;
@@ -476,7 +354,7 @@ public abstract class AbstractBoardElement implements BoardElement
 		                laserStartY = baseY + Double.valueOf(size * compensation).intValue();
 		                laserEndX = baseX + size - 1 - factor;
 		                laserEndY = laserStartY;
-		                if (!walls.contains(Direction.WEST)) {
+		                if (!hasWall( Direction.WEST )) {
 		                    laserStartX-=factor;
 		                }
 		                break;
@@ -488,7 +366,7 @@ public abstract class AbstractBoardElement implements BoardElement
 		                laserStartY = baseY + Double.valueOf(size * compensation).intValue();
 		                laserEndX = baseX + size - 1 - factor;
 		                laserEndY = laserStartY;
-		                if (!walls.contains(Direction.EAST)) {
+		                if (!hasWall( Direction.EAST )) {
 		                    laserEndX+=factor;
 		                }
 		                break;
@@ -509,12 +387,17 @@ public abstract class AbstractBoardElement implements BoardElement
      * @param g              The graphics object to use
      * @param baseX          The starting x coordinate to draw from (in pixels)
      * @param baseY          The starting y coordinate to draw from (in pixels)
+     * @param size           How big to draw this boardElement (pixels by pixels)
      * @param factor         The magnification factor to use
      */
-    private void drawLaserShots( Graphics g, int baseX, int baseY, int factor )
+    private void drawLaserShots( Graphics g, int baseX, int baseY, int size, int factor )
     {
-    	for( Laser laser :  lasers.stream().filter( l -> l.getShotDir() != null ).collect( Collectors.toList() ) )
+    	for( LaserBeam laser : laserBeams )
     	{
+    		if( laser.getMountIndex() == index )
+    		{
+    			continue;
+    		}
 	        for ( int i = 1; i < laser.getStrength() + 1; i++ )
 	        {
 	            // drawLaserShots(g, baseX, baseY, factor, dir, (i+0.0)/(laserShot.get(dir)+1));
@@ -528,29 +411,29 @@ public abstract class AbstractBoardElement implements BoardElement
 		        double compensation = ( i + 0.0 ) / ( laser.getStrength() + 1 );
 		        
 		        // calculate the numbers based on the direction
-		        if ( laser.getShotDir().equals( Direction.NORTH ) || laser.getShotDir().equals( Direction.SOUTH ) ) 
+		        if ( laser.getFiringDirection().equals( Direction.NORTH ) || laser.getFiringDirection().equals( Direction.SOUTH ) ) 
 		        {
 		            laserStartX = baseX + Double.valueOf(size * compensation).intValue();
 		            laserStartY = baseY + 1;
 		            laserEndX = laserStartX;
 		            laserEndY = baseY + size - 2;
-		            if (!walls.contains(Direction.SOUTH)) {
+		            if (!hasWall( Direction.SOUTH )) {
 		                laserEndY+=factor;
 		            }
-		            if (!walls.contains(Direction.NORTH)) {
+		            if (!hasWall( Direction.NORTH )) {
 		                laserStartY-=factor;
 		            }
 		        }
-		        if ( laser.getShotDir().equals( Direction.EAST ) || laser.getShotDir().equals( Direction.WEST ) ) 
+		        if ( laser.getFiringDirection().equals( Direction.EAST ) || laser.getFiringDirection().equals( Direction.WEST ) ) 
 		        {
 		            laserStartX = baseX + 1;
 		            laserStartY = baseY + Double.valueOf(size * compensation).intValue();
 		            laserEndX = baseX + size - 2;
 		            laserEndY = laserStartY;
-		            if (!walls.contains(Direction.EAST)) {
+		            if (!hasWall( Direction.EAST )) {
 		                laserEndX+=factor;
 		            }
-		            if (!walls.contains(Direction.WEST)) {
+		            if (!hasWall( Direction.WEST )) {
 		                laserStartX-=factor;
 		            }
 		        }
@@ -559,74 +442,4 @@ public abstract class AbstractBoardElement implements BoardElement
 	        }
     	}
     }
-    
-    /**
-     * Model the laser that can exist on a boardelement
-     * 
-     * @author Kharybdys
-     *
-     */
-    private class Laser
-    {
-    	// Direction the laser comes from. If preceding is null, this means the laser mount is in this direction.
-    	private Direction originating;
-    	private BoardElement precedingBoardElement = null;
-    	private BoardElement followupBoardElement = null;
-    	private int strength = 0;
-    	
-    	/**
-    	 * Initialize a new laser
-    	 * 
-    	 * @param strength    The number of damage this laser does
-    	 * @param originating The direction from which the laser beam originates (if preceding is null, this is the location of the laser mount)
-    	 * @param preceding   The boardelement this laser beam originates from (can be null)
-    	 * @param followup    The boardelement this laser beam continues into (can be null)
-    	 */
-    	private Laser( int strength, Direction originating, BoardElement preceding, BoardElement followup )
-    	{
-    		this.strength = strength;
-    		this.originating = originating;
-    		this.precedingBoardElement = preceding;
-    		this.followupBoardElement = followup;
-    	}
-
-		/**
-		 * Gets the direction where the laser mount is (for drawing), null if there is no laser mount
-		 * 
-		 * @return The direction where the laser mount is
-		 */
-    	private Direction getMountDir()
-		{
-			return precedingBoardElement == null ? originating : null;
-		}
-		
-		/**
-		 * Gets the direction where the laser is shot from (for drawing), null if there is a laser mount
-		 * 
-		 * @return The direction where the laser is shot from
-		 */
-    	public Object getShotDir() {
-			return precedingBoardElement == null ? null : originating;
-		}
-
-    	/**
-    	 * Gets the strength of the laser
-    	 * 
-    	 * @return The strength of the laser
-    	 */
-		private int getStrength()
-		{
-			return strength;
-		}
-
-		/**
-		 * Find the bot being hit by this laser. If this is being called, it is not on this boardelement so ask our followup boardelement
-		 * 
-		 * @return The bot being hit by this laser
-		 */
-		private Bot findLaserTarget() {
-			return followupBoardElement == null ? null : followupBoardElement.findLaserTarget( originating );
-		}
-
-    }
-}
\ No newline at end of file
+}
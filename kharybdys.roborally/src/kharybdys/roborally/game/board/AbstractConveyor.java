@@ -9,6 +9,8 @@ import java.util.List;
 import kharybdys.roborally.game.definition.Direction;
 import kharybdys.roborally.game.movement.Movement;
 import kharybdys.roborally.game.movement.Movement.MovementType;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.PackedMovement;
 
 /**
  * Abstract implementation of a conveyor belt. Only thing that's missing is its speed (single or dual)
@@ -47,6 +49,19 @@ public abstract class AbstractConveyor extends AbstractBoardElement
     	return this;
     }
 
+    /**
+     * Writes the endDirection and startingDirections to the grid
+     * 
+     * @param grid  The grid to write to
+     * @param index The index of the cell this element occupies
+     */
+    @Override
+    protected void writeParameters( BoardGrid grid, int index )
+    {
+    	grid.setDirection( index, endDirection );
+    	grid.setMask( index, Direction.toMask( startingDirections ) );
+    }
+
     /**
      * Note to the subclasses that this one needs implementation. Supplied helper method is {@link #getBasicBoardMovements(boolean)}.
      */
@@ -73,18 +88,40 @@ public abstract class AbstractConveyor extends AbstractBoardElement
     	boardMovements.add( new Movement( endDirection, 0, MovementType.SINGLE_SPEED_CONVEYOR, 1, 200 * priorityFactor ) );
     	// 2) Extra turn action ( optional ), only when nextElement is the same type as we are
     	BoardElement nextElement = getNeighbour( endDirection );
-    	if( this.getClass().equals( nextElement.getClass() ) && nextElement instanceof AbstractConveyor )
+    	if( nextElement instanceof AbstractConveyor && ((AbstractConveyor) nextElement).getCellType() == getCellType() )
     	{
     		// If that conveyor belt does not exit in the same direction, we are turning
     		Direction nextEndDirection = ((AbstractConveyor) nextElement).endDirection; 
     	    if( ! nextEndDirection.equals( endDirection ) )
-    	    {	// TODO: Verify the correct direction of turns is gotten. Might also be wrong on the enum implementation
+    	    {
     	    	boardMovements.add( new Movement( null, endDirection.getTurns( nextEndDirection ), MovementType.SINGLE_SPEED_CONVEYOR, 0, 100 * priorityFactor ) );
     	    }
     	}
     	return boardMovements;
     }
 
+    /**
+     * Like {@link #getBasicBoardMovements(boolean)}, but writes the movements packed into the given buffer
+     * 
+     * @param firstAction Whether this is the firstAction of a dual-speed conveyor belt (and thus has to have higher priority)
+     * @param entity      The index of the moving element on this boardElement
+     * @param buffer      The buffer to add the movements to
+     */
+    protected void addBasicBoardMovements( boolean firstAction, int entity, MovementBuffer buffer )
+    {
+    	int priorityFactor = firstAction ? 3 : 1;
+    	buffer.add( PackedMovement.pack( endDirection, 0, MovementType.SINGLE_SPEED_CONVEYOR, 1, 200 * priorityFactor, entity ) );
+    	BoardElement nextElement = getNeighbour( endDirection );
+    	if( nextElement instanceof AbstractConveyor && ((AbstractConveyor) nextElement).getCellType() == getCellType() )
+    	{
+    		Direction nextEndDirection = ((AbstractConveyor) nextElement).endDirection; 
+    	    if( ! nextEndDirection.equals( endDirection ) )
+    	    {
+    	    	buffer.add( PackedMovement.pack( null, endDirection.getTurns( nextEndDirection ), MovementType.SINGLE_SPEED_CONVEYOR, 0, 100 * priorityFactor, entity ) );
+    	    }
+    	}
+    }
+
     /**
      * Helper method to execute extra actions for turning this boardElement 
      * the given number of steps in the clockwise direction
@@ -108,10 +145,11 @@ public abstract class AbstractConveyor extends AbstractBoardElement
      * @param g
      * @param baseX
      * @param baseY
+     * @param size
      * @param factor
      */
     @Override
-    public void paintElement(Graphics g, int baseX, int baseY, int factor) {
+    public void paintElement( Graphics g, int baseX, int baseY, int size, int factor ) {
 
         int width = size - 8 * factor;
         int height = size - 8 * factor;
@@ -74,11 +74,11 @@ public abstract class AbstractMovingElement {
 	{
 		if( this instanceof Bot )
 		{
-			archiveMarker.setBot( (Bot) this );
+			game.placeBot( (Bot) this, archiveMarker );
 		}
 		if( this instanceof Flag )
 		{
-			archiveMarker.setFlag( (Flag) this );
+			game.placeFlag( (Flag) this, archiveMarker );
 		}
 	}
 
@@ -97,6 +97,11 @@ public abstract class AbstractMovingElement {
         return lives;
     }
 
+	public void setLives( Integer lives ) 
+	{
+		this.lives = lives;
+	}
+
     public Integer getOrderNumber()
     {
     	return orderNumber;
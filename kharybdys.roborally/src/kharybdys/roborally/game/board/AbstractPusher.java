@@ -11,6 +11,8 @@ import java.util.Collections;
 import kharybdys.roborally.game.definition.Direction;
 import kharybdys.roborally.game.movement.Movement;
 import kharybdys.roborally.game.movement.Movement.MovementType;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.PackedMovement;
 
 /**
  * Class representing an AbstractPusher. Only part missing is the phases this pusher applies to
@@ -33,6 +35,24 @@ public abstract class AbstractPusher extends AbstractBoardElement {
     	
     	return this;
     }
+    /**
+     * Writes the pusherDirection and pusherPhases (bit phase - 1) to the grid
+     * 
+     * @param grid  The grid to write to
+     * @param index The index of the cell this element occupies
+     */
+    @Override
+    protected void writeParameters( BoardGrid grid, int index )
+    {
+    	int phaseMask = 0;
+    	for( Integer phase : pusherPhases )
+    	{
+    		phaseMask |= 1 << ( phase - 1 );
+    	}
+    	grid.setDirection( index, pusherDirection );
+    	grid.setMask( index, phaseMask );
+    }
+
     /**
      * Get the basic movement that this board element enacts on the bot in the given phase.
      * 
@@ -53,6 +73,15 @@ public abstract class AbstractPusher extends AbstractBoardElement {
         }
     }
 
+    @Override
+    public void addBoardMovements( int phase, int entity, MovementBuffer buffer )
+    {
+        if ( pusherPhases.contains( phase ) ) 
+        {
+        	buffer.add( PackedMovement.pack( pusherDirection, 0, MovementType.PUSHER, 1, 0, entity ) );
+        }
+    }
+
     /**
      * Paints the special features of a pusher
      * 
@@ -61,7 +90,7 @@ public abstract class AbstractPusher extends AbstractBoardElement {
      * @param baseY
      * @param factor
      */
-    public void paintElement( Graphics g, int baseX, int baseY, int factor ) 
+    public void paintElement( Graphics g, int baseX, int baseY, int size, int factor ) 
     {
         Graphics2D g2d = (Graphics2D) g;
         int fontHeight = (size - (8 * factor)) / 2;
@@ -6,6 +6,8 @@ import java.util.Collections;
 
 import kharybdys.roborally.game.movement.Movement;
 import kharybdys.roborally.game.movement.Movement.MovementType;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.PackedMovement;
 
 import java.util.Collection;
 
@@ -32,6 +34,12 @@ public abstract class AbstractRotator extends AbstractBoardElement
         return Collections.singletonList( new Movement(null, turnSteps, MovementType.ROTATOR, 0, 0) );
     }
 
+    @Override
+    public void addBoardMovements( int phase, int entity, MovementBuffer buffer )
+    {
+    	buffer.add( PackedMovement.pack( null, turnSteps, MovementType.ROTATOR, 0, 0, entity ) );
+    }
+
     /**
      * Paints the special features of a rotator
      * 
@@ -41,7 +49,7 @@ public abstract class AbstractRotator extends AbstractBoardElement
      * @param factor
      */
     @Override
-    public void paintElement( Graphics g, int baseX, int baseY, int factor ) 
+    public void paintElement( Graphics g, int baseX, int baseY, int size, int factor ) 
     {
         int sign = -1 * Integer.signum( turnSteps );
         g.setColor( Color.white );
@@ -26,6 +26,12 @@ public class BasicElement extends AbstractBoardElement {
     	return this;
     }
 
+    @Override
+    public BoardCellType getCellType()
+    {
+    	return BoardCellType.BASIC;
+    }
+
     /**
      * Returns the type of the boardElement (mostly for checking if it's a hole).
      * 
@@ -37,7 +43,7 @@ public class BasicElement extends AbstractBoardElement {
     }
 
     @Override
-    public void paintElement(Graphics g, int baseX, int baseY, int factor) 
+    public void paintElement( Graphics g, int baseX, int baseY, int size, int factor ) 
     {
         Font f = new Font( Font.SANS_SERIF, Font.PLAIN, size - ( 8 * factor ) );
         String charToDraw = "";
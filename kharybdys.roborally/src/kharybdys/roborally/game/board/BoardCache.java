@@ -0,0 +1,73 @@
+package kharybdys.roborally.game.board;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The boards built or parsed so far, shared by the scenarios and the boards loaded from text, keyed by the hash of their content
+ * ( the fingerprint recorded in the {@link BoardCatalogue} for scenarios, see {@link BoardTextFormat#getContentHash(byte[])} for text ).
+ *
+ * Holds at most {@link #MAX_BOARDS} boards, evicting the least recently used one. Games keep their own reference to their board,
+ * so an evicted board stays in use by its games and is only built again for a new game.
+ */
+public final class BoardCache
+{
+
+	public static final int MAX_BOARDS = 64;
+
+	private static final Map<String, BoardTemplate> boards = new LinkedHashMap<String, BoardTemplate>( 16, 0.75f, true )
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<String, BoardTemplate> eldest )
+		{
+			return size() > MAX_BOARDS;
+		}
+	};
+
+	private BoardCache()
+	{
+		// Only static methods
+	}
+
+	/**
+	 * Returns the board with the given content hash
+	 *
+	 * @param hash The content hash
+	 *
+	 * @return The board, null if it is not in the cache ( any more )
+	 */
+	public static BoardTemplate get( String hash )
+	{
+		synchronized( boards )
+		{
+			return boards.get( hash );
+		}
+	}
+
+	/**
+	 * Returns the board with the given content hash, building and caching it if it is not in the cache.
+	 * The board is built outside the lock, so two threads may build the same board at the same time; the first one cached wins.
+	 *
+	 * @param hash    The content hash
+	 * @param builder Builds the board
+	 *
+	 * @return The board
+	 */
+	public static BoardTemplate get( String hash, Supplier<BoardTemplate> builder )
+	{
+		BoardTemplate template = get( hash );
+		if( template == null )
+		{
+			template = builder.get();
+			synchronized( boards )
+			{
+				BoardTemplate existing = boards.putIfAbsent( hash, template );
+				template = existing == null ? template : existing;
+			}
+		}
+		return template;
+	}
+}
@@ -0,0 +1,482 @@
+package kharybdys.roborally.game.board;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Compact binary catalogue of the complete scenario boards, generated at build time and shipped inside the bundle as the resource {@value #RESOURCE}.
+ *
+ * Format ( big endian ):
+ * <pre>
+ * header    : int magic, short version, short number of entries
+ * directory : per entry: short name length, name ( UTF-8 ), int offset of the entry, long fingerprint ( see {@link BoardVerifier#fingerprint(BoardTemplate)} )
+ * entry     : short width, short height,
+ *             per cell ( row by row ): byte cell type, byte basic element type, byte ( direction + 1 ) &lt;&lt; 4 | walls, byte mask,
+ *             short number of laser mounts, per mount: int cell, byte mount direction, byte strength,
+ *             short number of flags, per flag: byte number, int cell,
+ *             short number of starting positions, per starting position: byte number, int cell
+ * </pre>
+ * Boards are named "scenario/&lt;name&gt;". The build ( see {@link #main(String[])} ) writes the GameBuilder definitions of the implemented scenarios
+ * and the text boards ( see {@link BoardTextFormat} ) of a directory, the latter being scenarios that only exist in the catalogue, without a Java definition.
+ * Every board is verified while generating and its fingerprint recorded. Boards read back from the catalogue are checked against that fingerprint instead of being verified again.
+ * When the resource is missing ( eg running from an IDE without the build ), the catalogue is generated in memory from the implemented scenarios on first use.
+ */
+public final class BoardCatalogue
+{
+
+	private static final Logger logger = LoggerFactory.getLogger( BoardCatalogue.class );
+
+	private static final int MAGIC = 0x52524243; // "RRBC"
+	private static final short VERSION = 2;
+	private static final int BYTES_PER_CELL = 4;
+	private static final int NO_DIRECTION = 0;
+
+	public static final String SCENARIO_PREFIX = "scenario/";
+	public static final String RESOURCE = "boards.catalogue";
+	public static final String TEXT_BOARD_EXTENSION = ".board";
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final BasicElementType[] BASIC_TYPES = BasicElementType.values();
+
+	/**
+	 * The catalogue in use, loaded on first use
+	 */
+	private static volatile BoardCatalogue instance = null;
+
+	private final ByteBuffer data;
+	private final Map<String, Integer> offsets;
+	private final Map<String, Long> fingerprints;
+
+	private BoardCatalogue( ByteBuffer data )
+	{
+		this.data = data;
+		if( data.getInt( 0 ) != MAGIC || data.getShort( 4 ) != VERSION )
+		{
+			throw new IllegalArgumentException( "Not a board catalogue of version " + VERSION );
+		}
+		int nrOfEntries = data.getShort( 6 );
+		Map<String, Integer> entries = new LinkedHashMap<String, Integer>();
+		Map<String, Long> entryFingerprints = new LinkedHashMap<String, Long>();
+		int position = 8;
+		for( int i = 0; i < nrOfEntries; i++ )
+		{
+			int length = data.getShort( position );
+			byte[] name = new byte[length];
+			for( int j = 0; j < length; j++ )
+			{
+				name[j] = data.get( position + 2 + j );
+			}
+			String entryName = new String( name, StandardCharsets.UTF_8 );
+			entries.put( entryName, data.getInt( position + 2 + length ) );
+			entryFingerprints.put( entryName, data.getLong( position + 2 + length + 4 ) );
+			position += 2 + length + 4 + 8;
+		}
+		this.offsets = Collections.unmodifiableMap( entries );
+		this.fingerprints = Collections.unmodifiableMap( entryFingerprints );
+	}
+
+	/**
+	 * Reads a catalogue
+	 *
+	 * @param in The stream to read the catalogue from
+	 *
+	 * @return The catalogue
+	 *
+	 * @throws IOException When the stream cannot be read
+	 */
+	public static BoardCatalogue read( InputStream in ) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for( int read = in.read( buffer ); read >= 0; read = in.read( buffer ) )
+		{
+			bytes.write( buffer, 0, read );
+		}
+		return new BoardCatalogue( ByteBuffer.wrap( bytes.toByteArray() ) );
+	}
+
+	/**
+	 * Returns the catalogue in use, loading it first if needed ( see {@link #initialize()} )
+	 *
+	 * @return The catalogue
+	 */
+	public static BoardCatalogue getInstance()
+	{
+		BoardCatalogue result = instance;
+		if( result == null )
+		{
+			synchronized( BoardCatalogue.class )
+			{
+				if( instance == null )
+				{
+					initialize();
+				}
+				result = instance;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the catalogue to use from now on. Boards already built are not affected.
+	 *
+	 * @param catalogue The catalogue, null to load the shipped one again on next use
+	 */
+	public static void setInstance( BoardCatalogue catalogue )
+	{
+		instance = catalogue;
+	}
+
+	/**
+	 * Loads the catalogue shipped inside the bundle as the one in use.
+	 * If it is missing or unreadable the catalogue is generated in memory from the implemented scenarios instead, which only lacks the catalogue-only scenarios.
+	 *
+	 * @throws IllegalStateException When generating and a scenario board is inconsistent
+	 */
+	public static synchronized void initialize()
+	{
+		try( InputStream in = BoardCatalogue.class.getResourceAsStream( RESOURCE ) )
+		{
+			if( in != null )
+			{
+				setInstance( read( in ) );
+				logger.info( "Loaded board catalogue {} with {} entries", RESOURCE, instance.offsets.size() );
+				return;
+			}
+			logger.warn( "No board catalogue {} shipped, generating it from the implemented scenarios", RESOURCE );
+		}
+		catch( IOException | IllegalArgumentException e )
+		{
+			logger.error( "Could not read board catalogue " + RESOURCE + ", generating it from the implemented scenarios", e );
+		}
+		try
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			write( out, null );
+			setInstance( new BoardCatalogue( ByteBuffer.wrap( out.toByteArray() ) ) );
+		}
+		catch( IOException e )
+		{
+			// Cannot happen writing to memory
+			throw new IllegalStateException( "Could not generate board catalogue", e );
+		}
+	}
+
+	/**
+	 * Generates the catalogue shipped inside the bundle, as part of the build
+	 *
+	 * @param args The file to write the catalogue to, optionally followed by the directory with the text boards of the catalogue-only scenarios
+	 *
+	 * @throws IOException When reading a text board or writing the catalogue fails
+	 */
+	public static void main( String[] args ) throws IOException
+	{
+		if( args.length < 1 )
+		{
+			System.err.println( "Usage: BoardCatalogue <catalogue file> [text board directory]" );
+			System.exit( 2 );
+		}
+		Path file = Paths.get( args[0] );
+		if( file.getParent() != null )
+		{
+			Files.createDirectories( file.getParent() );
+		}
+		try( OutputStream out = Files.newOutputStream( file ) )
+		{
+			write( out, args.length > 1 ? Paths.get( args[1] ) : null );
+		}
+	}
+
+	/**
+	 * Returns whether the catalogue contains an entry with the given name
+	 *
+	 * @param name The name of the entry ( including its prefix )
+	 *
+	 * @return Whether the entry exists
+	 */
+	public boolean contains( String name )
+	{
+		return offsets.containsKey( name );
+	}
+
+	/**
+	 * Returns the fingerprint recorded for the entry with the given name when the catalogue was generated
+	 *
+	 * @param name The name of the entry ( including its prefix )
+	 *
+	 * @return The fingerprint, null if the entry does not exist
+	 */
+	public Long getFingerprint( String name )
+	{
+		return fingerprints.get( name );
+	}
+
+	/**
+	 * Adds the cells and laser mounts of the entry at the given offset to the board being built by the given builder
+	 */
+	private void addCells( GameBuilder builder, int offset )
+	{
+		int width = data.getShort( offset );
+		int height = data.getShort( offset + 2 );
+		int cells = offset + 4;
+		int size = width * height;
+		builder.setBoardVariables( 0, 0, 0, width, height );
+
+		AbstractBoardElement[] placed = new AbstractBoardElement[size];
+		for( int local = 0; local < size; local++ )
+		{
+			int position = cells + local * BYTES_PER_CELL;
+			BoardCellType cellType = BoardCellType.fromCode( data.get( position ) );
+			BasicElementType basicType = BASIC_TYPES[data.get( position + 1 )];
+			int wallsAndDirection = data.get( position + 2 ) & 0xFF;
+			if( cellType == BoardCellType.BASIC && basicType == BasicElementType.BASIC && wallsAndDirection == 0 )
+			{
+				// nothing special, the board is already filled with basic elements
+				continue;
+			}
+			placed[local] = stamp( builder, local, width, data, position );
+		}
+
+		int lasers = cells + size * BYTES_PER_CELL;
+		int nrOfLasers = data.getShort( lasers );
+		for( int i = 0; i < nrOfLasers; i++ )
+		{
+			int position = lasers + 2 + i * 6;
+			int local = data.getInt( position );
+			if( placed[local] == null )
+			{
+				placed[local] = stamp( builder, local, width, data, cells + local * BYTES_PER_CELL );
+			}
+			builder.addLaserMount( placed[local], DIRECTIONS[data.get( position + 4 )], data.get( position + 5 ) );
+		}
+	}
+
+	/**
+	 * Builds a complete board from the given scenario, including its standard flag positions
+	 *
+	 * @param scenario The scenario
+	 *
+	 * @return The template of the board
+	 *
+	 * @throws IllegalStateException When the board does not match its recorded fingerprint
+	 */
+	public BoardTemplate createBoardTemplate( ImplementedScenario scenario )
+	{
+		return createBoardTemplate( SCENARIO_PREFIX + scenario.name() );
+	}
+
+	/**
+	 * Builds a complete board from the entry with the given name, including its standard flag positions.
+	 * The board was verified when generating the catalogue, so it is only checked against the recorded fingerprint.
+	 *
+	 * @param name The name of the entry ( including its prefix )
+	 *
+	 * @return The template of the board
+	 *
+	 * @throws IllegalArgumentException When the catalogue has no entry with that name
+	 * @throws IllegalStateException    When the board does not match its recorded fingerprint
+	 */
+	public BoardTemplate createBoardTemplate( String name )
+	{
+		Integer offset = offsets.get( name );
+		if( offset == null )
+		{
+			throw new IllegalArgumentException( "No board " + name + " in the catalogue" );
+		}
+		int width = data.getShort( offset );
+		int height = data.getShort( offset + 2 );
+		GameBuilder builder = new GameBuilder();
+		builder.initializeBoard( width, height );
+		addCells( builder, offset );
+
+		int lasers = offset + 4 + width * height * BYTES_PER_CELL;
+		int flags = lasers + 2 + data.getShort( lasers ) * 6;
+		int nrOfFlags = data.getShort( flags );
+		for( int i = 0; i < nrOfFlags; i++ )
+		{
+			int position = flags + 2 + i * 5;
+			int cell = data.getInt( position + 1 );
+			builder.addFlag( cell % width, cell / width, data.get( position ) );
+		}
+
+		// Explicitly, as a board can contain the same starting position more than once ( last one added wins )
+		int startingPositions = flags + 2 + nrOfFlags * 5;
+		int nrOfStartingPositions = data.getShort( startingPositions );
+		for( int i = 0; i < nrOfStartingPositions; i++ )
+		{
+			int position = startingPositions + 2 + i * 5;
+			int cell = data.getInt( position + 1 );
+			builder.setStartingPosition( data.get( position ), cell % width, cell / width );
+		}
+		BoardTemplate template = builder.asBoardTemplate();
+		if( BoardVerifier.fingerprint( template ) != fingerprints.get( name ) )
+		{
+			throw new IllegalStateException( "Board " + name + " read from the catalogue does not match its verified fingerprint" );
+		}
+		return template;
+	}
+
+	private static AbstractBoardElement stamp( GameBuilder builder, int local, int width, ByteBuffer data, int position )
+	{
+		int wallsAndDirection = data.get( position + 2 ) & 0xFF;
+		int direction = wallsAndDirection >>> 4;
+		return builder.addCell( local % width,
+				                local / width,
+				                BoardCellType.fromCode( data.get( position ) ),
+				                BASIC_TYPES[data.get( position + 1 )],
+				                wallsAndDirection & 0x0F,
+				                direction == NO_DIRECTION ? null : DIRECTIONS[direction - 1],
+				                data.get( position + 3 ) );
+	}
+
+	/**
+	 * Generates the catalogue from the GameBuilder definitions of all implemented scenarios and the text boards in the given directory, verifying every board
+	 *
+	 * @param out            The stream to write the catalogue to
+	 * @param boardDirectory The directory with the text boards of the catalogue-only scenarios, one scenario per file named &lt;name&gt;{@value #TEXT_BOARD_EXTENSION}; null or missing if none
+	 *
+	 * @throws IOException           When reading a text board or writing fails
+	 * @throws IllegalStateException When a board is inconsistent or a text board has the name of an implemented scenario
+	 */
+	public static void write( OutputStream out, Path boardDirectory ) throws IOException
+	{
+		Map<String, BoardTemplate> entries = new LinkedHashMap<String, BoardTemplate>();
+		for( ImplementedScenario scenario : ImplementedScenario.values() )
+		{
+			BoardTemplate template = scenario.createBoardBuilder().asBoardTemplate();
+			List<String> problems = BoardVerifier.verify( scenario, template );
+			if( ! problems.isEmpty() )
+			{
+				throw new IllegalStateException( "Board of scenario " + scenario.name() + " is inconsistent: " + problems );
+			}
+			entries.put( SCENARIO_PREFIX + scenario.name(), template );
+		}
+		if( boardDirectory != null && Files.isDirectory( boardDirectory ) )
+		{
+			// sorted, so the same boards always give the same catalogue
+			List<Path> files = new ArrayList<Path>();
+			try( DirectoryStream<Path> directory = Files.newDirectoryStream( boardDirectory, "*" + TEXT_BOARD_EXTENSION ) )
+			{
+				for( Path file : directory )
+				{
+					files.add( file );
+				}
+			}
+			Collections.sort( files );
+			for( Path file : files )
+			{
+				String fileName = file.getFileName().toString();
+				String name = SCENARIO_PREFIX + fileName.substring( 0, fileName.length() - TEXT_BOARD_EXTENSION.length() );
+				if( entries.containsKey( name ) )
+				{
+					throw new IllegalStateException( "Text board " + file + " has the name of an implemented scenario" );
+				}
+				BoardTemplate template;
+				try( Reader in = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) )
+				{
+					template = BoardTextFormat.parse( in );
+				}
+				catch( IllegalArgumentException e )
+				{
+					throw new IllegalStateException( "Text board " + file + " is invalid: " + e.getMessage(), e );
+				}
+				List<String> problems = BoardVerifier.verify( template );
+				if( ! problems.isEmpty() )
+				{
+					throw new IllegalStateException( "Text board " + file + " is inconsistent: " + problems );
+				}
+				entries.put( name, template );
+			}
+		}
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		DataOutputStream bodyOut = new DataOutputStream( body );
+		Map<String, Integer> bodyOffsets = new LinkedHashMap<String, Integer>();
+		for( Entry<String, BoardTemplate> entry : entries.entrySet() )
+		{
+			bodyOffsets.put( entry.getKey(), bodyOut.size() );
+			writeEntry( bodyOut, entry.getValue() );
+		}
+
+		int headerSize = 8;
+		for( String name : entries.keySet() )
+		{
+			headerSize += 2 + name.getBytes( StandardCharsets.UTF_8 ).length + 4 + 8;
+		}
+		DataOutputStream dataOut = new DataOutputStream( out );
+		dataOut.writeInt( MAGIC );
+		dataOut.writeShort( VERSION );
+		dataOut.writeShort( entries.size() );
+		for( Entry<String, Integer> entry : bodyOffsets.entrySet() )
+		{
+			byte[] name = entry.getKey().getBytes( StandardCharsets.UTF_8 );
+			dataOut.writeShort( name.length );
+			dataOut.write( name );
+			dataOut.writeInt( headerSize + entry.getValue() );
+			dataOut.writeLong( BoardVerifier.fingerprint( entries.get( entry.getKey() ) ) );
+		}
+		body.writeTo( dataOut );
+		dataOut.flush();
+	}
+
+	private static void writeEntry( DataOutputStream out, BoardTemplate template ) throws IOException
+	{
+		BoardGrid grid = template.getGrid();
+		out.writeShort( grid.getXSize() );
+		out.writeShort( grid.getYSize() );
+		for( int index = 0; index < grid.getSize(); index++ )
+		{
+			Direction direction = grid.getDirection( index );
+			out.writeByte( grid.getCellType( index ).ordinal() );
+			out.writeByte( grid.getBasicElementType( index ).ordinal() );
+			out.writeByte( ( direction == null ? NO_DIRECTION : direction.ordinal() + 1 ) << 4 | grid.getWallMask( index ) );
+			out.writeByte( grid.getMask( index ) );
+		}
+
+		List<LaserBeam> beams = template.getLaserBeams();
+		out.writeShort( beams.size() );
+		for( LaserBeam beam : beams )
+		{
+			out.writeInt( beam.getMountIndex() );
+			out.writeByte( beam.getMountDirection().ordinal() );
+			out.writeByte( beam.getStrength() );
+		}
+
+		Map<Integer, BoardElement> flags = template.getFlagPositions();
+		out.writeShort( flags.size() );
+		for( Entry<Integer, BoardElement> flag : flags.entrySet() )
+		{
+			out.writeByte( flag.getKey() );
+			out.writeInt( flag.getValue().getIndex() );
+		}
+
+		Map<Integer, BoardElement> startingPositions = template.getStartingPositions();
+		out.writeShort( startingPositions.size() );
+		for( Entry<Integer, BoardElement> startingPosition : startingPositions.entrySet() )
+		{
+			out.writeByte( startingPosition.getKey() );
+			out.writeInt( startingPosition.getValue().getIndex() );
+		}
+	}
+}
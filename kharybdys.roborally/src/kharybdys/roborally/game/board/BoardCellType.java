@@ -0,0 +1,59 @@
+package kharybdys.roborally.game.board;
+
+/**
+ * The different kinds of board elements, as stored per cell in the {@link BoardGrid}
+ */
+public enum BoardCellType 
+{
+	BASIC,
+	SINGLE_SPEED_CONVEYOR,
+	DUAL_SPEED_CONVEYOR,
+	ROTATOR_CLOCKWISE,
+	ROTATOR_COUNTERCLOCKWISE,
+	PUSHER_135,
+	PUSHER_24;
+
+	private static final BoardCellType[] VALUES = values();
+
+	/**
+	 * Returns the type stored under the given code (its ordinal) in a {@link BoardGrid}
+	 * 
+	 * @param code The code as stored in the grid
+	 * 
+	 * @return The type belonging to that code
+	 */
+	public static BoardCellType fromCode( int code )
+	{
+		return VALUES[code];
+	}
+
+	/**
+	 * Returns whether this type represents a conveyor belt (single or dual speed)
+	 * 
+	 * @return Whether this type represents a conveyor belt
+	 */
+	public boolean isConveyor()
+	{
+		return this == SINGLE_SPEED_CONVEYOR || this == DUAL_SPEED_CONVEYOR;
+	}
+
+	/**
+	 * Returns whether this type represents a pusher
+	 * 
+	 * @return Whether this type represents a pusher
+	 */
+	public boolean isPusher()
+	{
+		return this == PUSHER_135 || this == PUSHER_24;
+	}
+
+	/**
+	 * Returns whether this type represents a rotator
+	 * 
+	 * @return Whether this type represents a rotator
+	 */
+	public boolean isRotator()
+	{
+		return this == ROTATOR_CLOCKWISE || this == ROTATOR_COUNTERCLOCKWISE;
+	}
+}
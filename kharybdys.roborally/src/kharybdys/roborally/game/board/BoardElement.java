@@ -3,12 +3,11 @@ package kharybdys.roborally.game.board;
 import java.awt.Graphics;
 import java.awt.Polygon;
 import java.util.Collection;
-import java.util.Map;
 
-import kharybdys.roborally.game.Bot;
-import kharybdys.roborally.game.Flag;
 import kharybdys.roborally.game.definition.Direction;
 import kharybdys.roborally.game.movement.Movement;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.PackedMovement;
 
 /**
  * Contains available business methods that are shared amongst the elements
@@ -35,32 +34,6 @@ public interface BoardElement
 	 */
 	public int getYCoordinate();
 
-	/**
-     * Adds a laser to this boardElement and its neighbours until this laser hits a wall
-     * Used recursively
-     * 
-     * @param strength    The strength of the laser
-     * @param originating The originating direction
-     * @param preceding   The preceding boardElement (if any)
-     */
-    public void addLaser( int strength, Direction originating, BoardElement preceding );
-
-    /**
-     * Setup method, adds a boardElement in the given direction as neighbour
-     * 
-     * @param direction The direction to add the given boardElement to
-     * @param neighbour The boardElement to add
-     */
-    public void addNeighbour( Direction direction, BoardElement neighbour );
-
-    /**
-     * Setup method, removes the neighbour in the given direction.
-     * Also removes us from the neighbour's neighbour list in the opposite direction
-     * 
-     * @param direction The direction to remove
-     */
-	public void removeNeighbour( Direction direction );
-
 	/**
      * Gets the neighbour in the given direction. Always returns a boardElement
      * 
@@ -79,34 +52,12 @@ public interface BoardElement
     public void paint( Graphics g, int factor );
 
     /**
-     * Sets the bot at this element
-     * 
-     * @param bot The bot to set at this element
-     */
-    public void setBot( Bot bot );
-    
-    /**
-     * Sets the flag at this element
+     * Returns the index of this element in the grid of its board
      * 
-     * @param flag The flag to set at this element
+     * @return The index of this element
      */
-    public void setFlag( Flag flag );
+    public int getIndex();
     
-    /**
-     * Mimics firing the laser(s) on this boardelement, and finds the bot(s) getting hit by the laser(s).
-     * Note, returns null if no laser on this boardelement
-     * 
-     * @return The bot(s) getting hit by laser(s) starting on this element, with the strength hit with
-     */
-    public Map<Bot, Integer> findLaserTargets();
-    
-    /**
-     * Follows the laser coming from the given direction, and finds the bot getting hit by this laser.
-     * 
-     * @return The bot getting hit by the given laser (through its originating direction)
-     */
-    public Bot findLaserTarget( Direction originating );
-
     /**
      * Get the basic movement that this board element enacts on the bot in the given phase.
      * 
@@ -117,6 +68,15 @@ public interface BoardElement
      */
     public Collection<Movement> getBoardMovements(int phase);
 
+    /**
+     * Like {@link #getBoardMovements(int)}, but writes the movements packed into the given buffer instead of creating objects
+     * 
+     * @param phase  The phase we're interested in
+     * @param entity The index of the moving element on this boardElement, see {@link PackedMovement}
+     * @param buffer The buffer to add the movements to
+     */
+    public void addBoardMovements( int phase, int entity, MovementBuffer buffer );
+
     /**
      * Adjusts the given movement to comply with the rules (bumping into walls)
      * 
@@ -0,0 +1,268 @@
+package kharybdys.roborally.game.board;
+
+import java.util.Arrays;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Flat, array backed representation of a board.
+ * Every cell is addressed by its index ( y * xSize + x ) and stores its type, walls and element parameters in primitive arrays.
+ * Neighbours are found through index arithmetic instead of following references between boardElements.
+ */
+public class BoardGrid
+{
+
+	/**
+	 * Index representing "no cell", for example the neighbour of a cell at the edge of the board
+	 */
+	public static final int NO_CELL = -1;
+
+	/**
+	 * Value stored in the directions array for cells without a direction parameter
+	 */
+	private static final byte NO_DIRECTION = -1;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final BasicElementType[] BASIC_TYPES = BasicElementType.values();
+
+	private final int xSize;
+	private final int ySize;
+
+	/**
+	 * The BoardCellType (ordinal) of every cell
+	 */
+	private final byte[] cellTypes;
+
+	/**
+	 * The BasicElementType (ordinal) of every cell, so holes, starting positions etc
+	 */
+	private final byte[] basicTypes;
+
+	/**
+	 * The walls of every cell, as a bitmask of the wall directions (see {@link Direction#getMask()})
+	 */
+	private final byte[] walls;
+
+	/**
+	 * Element parameter: the end direction of a conveyor belt or the pushing direction of a pusher (ordinal)
+	 */
+	private final byte[] directions;
+
+	/**
+	 * Element parameter: the starting directions of a conveyor belt (direction bitmask) or the phases of a pusher (bit phase - 1)
+	 */
+	private final byte[] masks;
+
+	/**
+	 * The boardElements themselves, needed for painting and for the BoardElement api
+	 */
+	private final AbstractBoardElement[] elements;
+
+	/**
+	 * Creates an empty grid of the given size. All cells need to be filled by {@link #setElement(int, AbstractBoardElement)}.
+	 *
+	 * @param xSize The number of cells on the x-Scale
+	 * @param ySize The number of cells on the y-Scale
+	 */
+	public BoardGrid( int xSize, int ySize )
+	{
+		if( xSize <= 0 || ySize <= 0 )
+		{
+			throw new IllegalArgumentException( "Cannot create a board of size " + xSize + " x " + ySize );
+		}
+		this.xSize = xSize;
+		this.ySize = ySize;
+
+		int size = xSize * ySize;
+		this.cellTypes = new byte[size];
+		this.basicTypes = new byte[size];
+		this.walls = new byte[size];
+		this.directions = new byte[size];
+		this.masks = new byte[size];
+		this.elements = new AbstractBoardElement[size];
+		Arrays.fill( directions, NO_DIRECTION );
+	}
+
+	/**
+	 * Places the given element on the cell with the given index, copying its type, walls and parameters into the grid.
+	 *
+	 * @param index   The index of the cell
+	 * @param element The element to place there
+	 */
+	void setElement( int index, AbstractBoardElement element )
+	{
+		elements[index] = element;
+		cellTypes[index] = (byte) element.getCellType().ordinal();
+		basicTypes[index] = (byte) element.getBoardElementType().ordinal();
+		walls[index] = (byte) element.getWallMask();
+		directions[index] = NO_DIRECTION;
+		masks[index] = 0;
+		element.attach( this, index );
+		element.writeParameters( this, index );
+	}
+
+	/**
+	 * Sets the direction parameter of the given cell. Used by the elements in {@link AbstractBoardElement#writeParameters(BoardGrid, int)}
+	 *
+	 * @param index     The index of the cell
+	 * @param direction The direction to store
+	 */
+	void setDirection( int index, Direction direction )
+	{
+		directions[index] = direction == null ? NO_DIRECTION : (byte) direction.ordinal();
+	}
+
+	/**
+	 * Sets the mask parameter of the given cell. Used by the elements in {@link AbstractBoardElement#writeParameters(BoardGrid, int)}
+	 *
+	 * @param index The index of the cell
+	 * @param mask  The mask to store
+	 */
+	void setMask( int index, int mask )
+	{
+		masks[index] = (byte) mask;
+	}
+
+	public int getXSize()
+	{
+		return xSize;
+	}
+
+	public int getYSize()
+	{
+		return ySize;
+	}
+
+	/**
+	 * Returns the number of cells on this board
+	 *
+	 * @return The number of cells
+	 */
+	public int getSize()
+	{
+		return elements.length;
+	}
+
+	/**
+	 * Returns the index of the cell with the given coordinates, or NO_CELL if outside of the board
+	 *
+	 * @param xCoord The x-Coordinate
+	 * @param yCoord The y-Coordinate
+	 *
+	 * @return The index of the cell
+	 */
+	public int getIndex( int xCoord, int yCoord )
+	{
+		if( xCoord < 0 || yCoord < 0 || xCoord >= xSize || yCoord >= ySize )
+		{
+			return NO_CELL;
+		}
+		return yCoord * xSize + xCoord;
+	}
+
+	public int getXCoordinate( int index )
+	{
+		return index % xSize;
+	}
+
+	public int getYCoordinate( int index )
+	{
+		return index / xSize;
+	}
+
+	/**
+	 * Returns the index of the neighbouring cell in the given direction, or NO_CELL if that is outside of the board
+	 *
+	 * @param index     The index of the cell
+	 * @param direction The direction of the neighbour
+	 *
+	 * @return The index of the neighbouring cell
+	 */
+	public int getNeighbourIndex( int index, Direction direction )
+	{
+		switch( direction )
+		{
+			case NORTH:
+				return index >= xSize ? index - xSize : NO_CELL;
+			case SOUTH:
+				return index + xSize < elements.length ? index + xSize : NO_CELL;
+			case WEST:
+				return index % xSize > 0 ? index - 1 : NO_CELL;
+			case EAST:
+				return index % xSize < xSize - 1 ? index + 1 : NO_CELL;
+			default:
+				return NO_CELL;
+		}
+	}
+
+	/**
+	 * Returns the element on the cell with the given index, null for NO_CELL
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The element on that cell
+	 */
+	public AbstractBoardElement getElement( int index )
+	{
+		return index == NO_CELL ? null : elements[index];
+	}
+
+	public BoardCellType getCellType( int index )
+	{
+		return BoardCellType.fromCode( cellTypes[index] );
+	}
+
+	public BasicElementType getBasicElementType( int index )
+	{
+		return BASIC_TYPES[basicTypes[index]];
+	}
+
+	/**
+	 * Returns the walls of the given cell as a bitmask (see {@link Direction#getMask()})
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The walls of the cell
+	 */
+	public int getWallMask( int index )
+	{
+		return walls[index];
+	}
+
+	/**
+	 * Helper method to check whether the given cell has a wall on the given side.
+	 *
+	 * @param index The index of the cell
+	 * @param side  The direction where to check for a wall
+	 *
+	 * @return Whether a wall exists there
+	 */
+	public boolean hasWall( int index, Direction side )
+	{
+		return ( walls[index] & side.getMask() ) != 0;
+	}
+
+	/**
+	 * Returns the direction parameter of the given cell (end direction of a conveyor, direction of a pusher), null if none
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The direction parameter
+	 */
+	public Direction getDirection( int index )
+	{
+		return directions[index] == NO_DIRECTION ? null : DIRECTIONS[directions[index]];
+	}
+
+	/**
+	 * Returns the mask parameter of the given cell (starting directions of a conveyor, phases of a pusher)
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The mask parameter
+	 */
+	public int getMask( int index )
+	{
+		return masks[index];
+	}
+}
@@ -0,0 +1,277 @@
+package kharybdys.roborally.game.board;
+
+import java.util.Arrays;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Bitboard marking which cells of a board are occupied ( by bots, or by flags ): one bit per cell index, 64 cells per long.
+ * Answers the questions the rules keep asking ( who is in the line of fire, is the cell next to me taken,
+ * do two sets of cells overlap ) through bit operations instead of walking bot and flag objects.
+ */
+public class BoardOccupancy
+{
+
+	private static final int NONE = BoardGrid.NO_CELL;
+
+	private final int xSize;
+	private final int size;
+	private final long[] bits;
+
+	/**
+	 * Creates an empty bitboard for a board of the given size
+	 *
+	 * @param xSize The number of cells on the x-Scale
+	 * @param ySize The number of cells on the y-Scale
+	 */
+	public BoardOccupancy( int xSize, int ySize )
+	{
+		this.xSize = xSize;
+		this.size = xSize * ySize;
+		this.bits = new long[( size + 63 ) >>> 6];
+	}
+
+	/**
+	 * Marks the cell with the given index as occupied
+	 *
+	 * @param index The index of the cell
+	 */
+	public void occupy( int index )
+	{
+		bits[index >>> 6] |= 1L << index;
+	}
+
+	/**
+	 * Marks the cell with the given index as free
+	 *
+	 * @param index The index of the cell
+	 */
+	public void release( int index )
+	{
+		bits[index >>> 6] &= ~( 1L << index );
+	}
+
+	/**
+	 * Returns whether the cell with the given index is occupied. NO_CELL is never occupied.
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return Whether the cell is occupied
+	 */
+	public boolean isOccupied( int index )
+	{
+		return index != NONE && ( bits[index >>> 6] & ( 1L << index ) ) != 0;
+	}
+
+	/**
+	 * Frees all cells
+	 */
+	public void clear()
+	{
+		Arrays.fill( bits, 0L );
+	}
+
+	/**
+	 * Makes this bitboard equal to the given one ( of a board of the same size )
+	 *
+	 * @param other The bitboard to copy
+	 */
+	public void copyFrom( BoardOccupancy other )
+	{
+		System.arraycopy( other.bits, 0, bits, 0, bits.length );
+	}
+
+	/**
+	 * Returns the number of occupied cells
+	 *
+	 * @return The number of occupied cells
+	 */
+	public int count()
+	{
+		int count = 0;
+		for( long word : bits )
+		{
+			count += Long.bitCount( word );
+		}
+		return count;
+	}
+
+	/**
+	 * Returns whether any cell is occupied in both this and the given bitboard, for example a bot on a flag
+	 *
+	 * @param other The bitboard to compare with
+	 *
+	 * @return Whether the two bitboards overlap
+	 */
+	public boolean intersects( BoardOccupancy other )
+	{
+		for( int i = 0; i < bits.length; i++ )
+		{
+			if( ( bits[i] & other.bits[i] ) != 0 )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the first occupied cell with an index of at least the given index, for iterating over all occupied cells
+	 *
+	 * @param fromIndex The index to start looking at
+	 *
+	 * @return The index of the next occupied cell, NO_CELL if there is none
+	 */
+	public int nextOccupied( int fromIndex )
+	{
+		if( fromIndex < 0 || fromIndex >= size )
+		{
+			return NONE;
+		}
+		int wordIndex = fromIndex >>> 6;
+		long word = bits[wordIndex] & ( -1L << fromIndex );
+		while( true )
+		{
+			if( word != 0 )
+			{
+				int index = ( wordIndex << 6 ) + Long.numberOfTrailingZeros( word );
+				return index < size ? index : NONE;
+			}
+			if( ++wordIndex == bits.length )
+			{
+				return NONE;
+			}
+			word = bits[wordIndex];
+		}
+	}
+
+	/**
+	 * Returns the last occupied cell with an index of at most the given index
+	 *
+	 * @param fromIndex The index to start looking at
+	 *
+	 * @return The index of the previous occupied cell, NO_CELL if there is none
+	 */
+	public int previousOccupied( int fromIndex )
+	{
+		if( fromIndex < 0 )
+		{
+			return NONE;
+		}
+		int wordIndex = Math.min( fromIndex, size - 1 ) >>> 6;
+		long word = bits[wordIndex] & ( -1L >>> ( 63 - ( Math.min( fromIndex, size - 1 ) & 63 ) ) );
+		while( true )
+		{
+			if( word != 0 )
+			{
+				return ( wordIndex << 6 ) + 63 - Long.numberOfLeadingZeros( word );
+			}
+			if( wordIndex-- == 0 )
+			{
+				return NONE;
+			}
+			word = bits[wordIndex];
+		}
+	}
+
+	/**
+	 * Finds the first occupied cell along the given laser beam, the mount cell included
+	 *
+	 * @param beam The beam to follow
+	 *
+	 * @return The index of the first occupied cell, NO_CELL if the beam hits nothing
+	 */
+	public int findFirst( LaserBeam beam )
+	{
+		for( int i = 0; i < beam.getLength(); i++ )
+		{
+			int cell = beam.getCell( i );
+			if( ( bits[cell >>> 6] & ( 1L << cell ) ) != 0 )
+			{
+				return cell;
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Finds the first occupied cell in a straight line from ( but excluding ) the given cell, looking at most maxSteps cells far.
+	 * Walls are not taken into account here, limit maxSteps to the distance to the nearest wall for that.
+	 *
+	 * @param fromIndex The index of the cell to look from
+	 * @param direction The direction to look in
+	 * @param maxSteps  The maximum number of cells to look at
+	 *
+	 * @return The index of the first occupied cell, NO_CELL if there is none within reach
+	 */
+	public int findFirstAlongRay( int fromIndex, Direction direction, int maxSteps )
+	{
+		int x = fromIndex % xSize;
+		switch( direction )
+		{
+			case EAST:
+			{
+				int last = fromIndex + Math.min( maxSteps, xSize - 1 - x );
+				int found = nextOccupied( fromIndex + 1 );
+				return found != NONE && found <= last ? found : NONE;
+			}
+			case WEST:
+			{
+				int last = fromIndex - Math.min( maxSteps, x );
+				int found = previousOccupied( fromIndex - 1 );
+				return found != NONE && found >= last ? found : NONE;
+			}
+			case NORTH:
+			case SOUTH:
+			{
+				int step = direction == Direction.NORTH ? -xSize : xSize;
+				int cell = fromIndex;
+				for( int i = 0; i < maxSteps; i++ )
+				{
+					cell += step;
+					if( cell < 0 || cell >= size )
+					{
+						return NONE;
+					}
+					if( ( bits[cell >>> 6] & ( 1L << cell ) ) != 0 )
+					{
+						return cell;
+					}
+				}
+				return NONE;
+			}
+			default:
+				return NONE;
+		}
+	}
+
+	/**
+	 * Returns which of the direct neighbours of the given cell are occupied, as a direction bitmask (see {@link Direction#getMask()})
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The directions in which an occupied neighbour exists
+	 */
+	public int getOccupiedNeighbours( int index )
+	{
+		int mask = 0;
+		int x = index % xSize;
+		if( index >= xSize && isOccupied( index - xSize ) )
+		{
+			mask |= Direction.NORTH.getMask();
+		}
+		if( x < xSize - 1 && isOccupied( index + 1 ) )
+		{
+			mask |= Direction.EAST.getMask();
+		}
+		if( index + xSize < size && isOccupied( index + xSize ) )
+		{
+			mask |= Direction.SOUTH.getMask();
+		}
+		if( x > 0 && isOccupied( index - 1 ) )
+		{
+			mask |= Direction.WEST.getMask();
+		}
+		return mask;
+	}
+}
@@ -0,0 +1,174 @@
+package kharybdys.roborally.game.board;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Immutable description of a complete board: tiles, walls, lasers, conveyors, starting positions and standard flag positions.
+ * Built once per scenario by the {@link GameBuilder} and shared by all games on that board, so it must never change after construction.
+ * Everything that changes during a game (bots, flags, archive markers) lives in the {@link kharybdys.roborally.game.Game} instead.
+ * The {@link FlagDistanceTable} is the exception: it is derived from the board, but only computed when first asked for.
+ */
+public final class BoardTemplate
+{
+
+	private final BoardGrid grid;
+	private final List<LaserBeam> laserBeams;
+	private final ObstacleTable obstacles;
+	private final ConveyorNetwork conveyors;
+	private final BoardTransitionTable transitions;
+	private final Map<Integer, BoardElement> startingPositions;
+	private final Map<Integer, BoardElement> flagPositions;
+
+	private volatile CompletableFuture<FlagDistanceTable> flagDistances = null;
+
+	/**
+	 * Creates the template. Only to be called by the GameBuilder once the board is complete.
+	 *
+	 * @param grid              The grid holding all boardElements
+	 * @param laserBeams        The compiled board lasers
+	 * @param startingPositions The starting positions by number
+	 * @param flagPositions     The standard flag positions by flag number
+	 */
+	BoardTemplate( BoardGrid grid,
+			       List<LaserBeam> laserBeams,
+			       Map<Integer, BoardElement> startingPositions,
+			       Map<Integer, BoardElement> flagPositions )
+	{
+		this.grid = grid;
+		this.laserBeams = Collections.unmodifiableList( laserBeams );
+		this.obstacles = new ObstacleTable( grid );
+		this.conveyors = new ConveyorNetwork( grid, obstacles );
+		this.transitions = new BoardTransitionTable( grid, obstacles, conveyors );
+		this.startingPositions = Collections.unmodifiableMap( new TreeMap<Integer, BoardElement>( startingPositions ) );
+		this.flagPositions = Collections.unmodifiableMap( new TreeMap<Integer, BoardElement>( flagPositions ) );
+	}
+
+	public BoardGrid getGrid()
+	{
+		return grid;
+	}
+
+	public int getXSize()
+	{
+		return grid.getXSize();
+	}
+
+	public int getYSize()
+	{
+		return grid.getYSize();
+	}
+
+	/**
+	 * Returns the board lasers, each compiled into the cells its beam crosses
+	 *
+	 * @return The laser beams of this board
+	 */
+	public List<LaserBeam> getLaserBeams()
+	{
+		return laserBeams;
+	}
+
+	/**
+	 * Returns the precomputed walls and distances to the nearest obstacle for every cell and direction
+	 *
+	 * @return The obstacle table of this board
+	 */
+	public ObstacleTable getObstacleTable()
+	{
+		return obstacles;
+	}
+
+	/**
+	 * Returns the conveyor belts of this board, compiled into a flow network
+	 *
+	 * @return The conveyor network of this board
+	 */
+	public ConveyorNetwork getConveyorNetwork()
+	{
+		return conveyors;
+	}
+
+	/**
+	 * Returns the board movement of a single bot, precomputed for every cell, facing and phase
+	 *
+	 * @return The transition table of this board
+	 */
+	public BoardTransitionTable getTransitionTable()
+	{
+		return transitions;
+	}
+
+	/**
+	 * Returns the starting position with the given number, null if not present on this board
+	 *
+	 * @param number The number of the starting position (1 - 8)
+	 *
+	 * @return The boardElement representing that starting position
+	 */
+	public BoardElement getStartingPosition( int number )
+	{
+		return startingPositions.get( number );
+	}
+
+	/**
+	 * Returns the starting positions, by number
+	 *
+	 * @return The starting positions
+	 */
+	public Map<Integer, BoardElement> getStartingPositions()
+	{
+		return startingPositions;
+	}
+
+	/**
+	 * Returns the standard positions of the flags, by flag number
+	 *
+	 * @return The standard flag positions
+	 */
+	public Map<Integer, BoardElement> getFlagPositions()
+	{
+		return flagPositions;
+	}
+
+	/**
+	 * Returns the distances to the standard flag positions, if computed. The first call starts computing them on a thread of its own,
+	 * so no caller waits for them: until they are done this returns null.
+	 *
+	 * @return The flag distance table of this board, null while it is being computed
+	 */
+	public FlagDistanceTable getFlagDistanceTable()
+	{
+		return getFlagDistanceTableAsync().getNow( null );
+	}
+
+	/**
+	 * Returns the distances to the standard flag positions, starting to compute them on a thread of its own the first time
+	 *
+	 * @return The flag distance table of this board, when computed
+	 */
+	public CompletableFuture<FlagDistanceTable> getFlagDistanceTableAsync()
+	{
+		CompletableFuture<FlagDistanceTable> result = flagDistances;
+		if( result == null )
+		{
+			synchronized( this )
+			{
+				result = flagDistances;
+				if( result == null )
+				{
+					result = CompletableFuture.supplyAsync( () -> new FlagDistanceTable( this ), runnable -> {
+						Thread thread = new Thread( runnable, "roborally-flag-distances" );
+						thread.setDaemon( true );
+						thread.start();
+					} );
+					flagDistances = result;
+				}
+			}
+		}
+		return result;
+	}
+}
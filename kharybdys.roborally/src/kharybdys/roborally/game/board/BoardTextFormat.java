@@ -0,0 +1,582 @@
+package kharybdys.roborally.game.board;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map.Entry;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Text format for ( custom ) boards, parsed in a single streaming pass into the same structure the GameBuilder builds.
+ *
+ * <pre>
+ * # comment until the end of the line
+ * board &lt;width&gt; &lt;height&gt;
+ * &lt;one line per row, one token per cell, separated by whitespace&gt;
+ * flag &lt;number&gt; &lt;x&gt; &lt;y&gt;
+ * </pre>
+ *
+ * A cell token is the element followed by optional walls and laser mounts:
+ * <pre>
+ * .                  basic element
+ * H R O              hole, repair site, option site
+ * 1 - 8              starting position
+ * c&lt;end&gt;&lt;starts&gt;    single speed conveyor, eg cEW enters from the west and exits to the east
+ * C&lt;end&gt;&lt;starts&gt;    dual speed conveyor
+ * r l                rotator clockwise, counterclockwise
+ * p135&lt;dir&gt; p24&lt;dir&gt; pusher active in phases 1, 3, 5 or 2, 4, pushing in the given direction
+ * |&lt;dirs&gt;            walls, eg |NW
+ * *&lt;dir&gt;&lt;strength&gt;  laser mount on the given side, eg *N1
+ * </pre>
+ * Directions are N, E, S and W. Parsed boards are kept in the {@link BoardCache}, by the hash of their content.
+ */
+public final class BoardTextFormat
+{
+
+	public static final int MAX_SIZE = 256;
+	public static final int MAX_LASER_STRENGTH = 3;
+	public static final int MAX_FLAGS = 8;
+
+	private final Reader in;
+	private final StringBuilder token = new StringBuilder();
+	private int line = 1;
+	private int column = 0;
+	private int tokenLine;
+	private int tokenColumn;
+	private int pushedBack = -2;
+
+	private BoardTextFormat( Reader in )
+	{
+		this.in = in;
+	}
+
+	/**
+	 * Returns the board with the given content, parsing it only if no board with the same content hash was parsed before
+	 *
+	 * @param content The board definition ( UTF-8 )
+	 *
+	 * @return The board
+	 *
+	 * @throws IllegalArgumentException When the content is not a valid board
+	 */
+	public static BoardTemplate load( byte[] content )
+	{
+		return BoardCache.get( getContentHash( content ), () -> {
+			try
+			{
+				return parse( new InputStreamReader( new ByteArrayInputStream( content ), StandardCharsets.UTF_8 ) );
+			}
+			catch( IOException e )
+			{
+				// Cannot happen reading from memory
+				throw new IllegalStateException( "Could not read board definition", e );
+			}
+		} );
+	}
+
+	/**
+	 * Returns a previously loaded board by its content hash
+	 *
+	 * @param hash The content hash as returned by {@link #getContentHash(byte[])}
+	 *
+	 * @return The board, null if no board with that hash was loaded or it was evicted from the {@link BoardCache} since
+	 */
+	public static BoardTemplate getCachedBoard( String hash )
+	{
+		return BoardCache.get( hash );
+	}
+
+	/**
+	 * Returns the hash ( hex encoded SHA-256 ) identifying a board definition
+	 *
+	 * @param content The board definition
+	 *
+	 * @return The content hash
+	 */
+	public static String getContentHash( byte[] content )
+	{
+		try
+		{
+			byte[] digest = MessageDigest.getInstance( "SHA-256" ).digest( content );
+			StringBuilder result = new StringBuilder( digest.length * 2 );
+			for( byte b : digest )
+			{
+				result.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+			}
+			return result.toString();
+		}
+		catch( NoSuchAlgorithmException e )
+		{
+			throw new IllegalStateException( "SHA-256 not available", e );
+		}
+	}
+
+	/**
+	 * Parses and validates a board definition
+	 *
+	 * @param in The reader to read the definition from
+	 *
+	 * @return The board
+	 *
+	 * @throws IOException              When reading fails
+	 * @throws IllegalArgumentException When the definition is not a valid board, the message tells where and why
+	 */
+	public static BoardTemplate parse( Reader in ) throws IOException
+	{
+		return new BoardTextFormat( in ).parseBoard();
+	}
+
+	private BoardTemplate parseBoard() throws IOException
+	{
+		if( ! nextToken() || ! "board".contentEquals( token ) )
+		{
+			throw error( "Expected 'board <width> <height>'" );
+		}
+		int width = parseNumberToken( 1, MAX_SIZE, "width" );
+		int height = parseNumberToken( 1, MAX_SIZE, "height" );
+
+		GameBuilder builder = new GameBuilder();
+		builder.initializeBoard( width, height );
+		builder.setBoardVariables( 0, 0, 0, width, height );
+
+		int startingPositions = 0;
+		int rowLine = -1;
+		for( int index = 0; index < width * height; index++ )
+		{
+			if( ! nextToken() )
+			{
+				throw error( "Expected " + width * height + " cells but found " + index );
+			}
+			int x = index % width;
+			if( x == 0 )
+			{
+				if( tokenLine == rowLine )
+				{
+					throw error( "Row " + ( index / width - 1 ) + " has more than " + width + " cells" );
+				}
+				rowLine = tokenLine;
+			}
+			else if( tokenLine != rowLine )
+			{
+				throw error( "Row " + ( index / width ) + " has " + x + " cells instead of " + width );
+			}
+			int startingPosition = parseCell( builder, x, index / width );
+			if( startingPosition > 0 )
+			{
+				if( ( startingPositions & ( 1 << startingPosition ) ) != 0 )
+				{
+					throw error( "Starting position " + startingPosition + " occurs more than once" );
+				}
+				startingPositions |= 1 << startingPosition;
+			}
+		}
+		if( startingPositions == 0 )
+		{
+			throw error( "A board needs at least one starting position" );
+		}
+
+		int flags = 0;
+		while( nextToken() )
+		{
+			if( tokenLine == rowLine )
+			{
+				throw error( "Row " + ( height - 1 ) + " has more than " + width + " cells" );
+			}
+			if( ! "flag".contentEquals( token ) )
+			{
+				throw error( "Expected 'flag <number> <x> <y>' but found '" + token + "'" );
+			}
+			int number = parseNumberToken( 1, MAX_FLAGS, "flag number" );
+			int x = parseNumberToken( 0, width - 1, "x-Coordinate" );
+			int y = parseNumberToken( 0, height - 1, "y-Coordinate" );
+			if( number != flags + 1 )
+			{
+				throw error( "Flags must be numbered 1, 2, 3, ... in order, expected flag " + ( flags + 1 ) );
+			}
+			if( builder.getGrid().getBasicElementType( builder.getGrid().getIndex( x, y ) ) == BasicElementType.HOLE )
+			{
+				throw error( "Flag " + number + " cannot be placed in a hole" );
+			}
+			builder.addFlag( x, y, number );
+			flags++;
+		}
+		return builder.asBoardTemplate();
+	}
+
+	/**
+	 * Parses the current token as a cell and adds it to the builder
+	 *
+	 * @return The number of the starting position on this cell, 0 if none
+	 */
+	private int parseCell( GameBuilder builder, int x, int y )
+	{
+		BoardCellType cellType = BoardCellType.BASIC;
+		BasicElementType basicType = BasicElementType.BASIC;
+		Direction direction = null;
+		int mask = 0;
+
+		int position = 0;
+		char c = token.charAt( position++ );
+		switch( c )
+		{
+			case '.':
+				break;
+			case 'H':
+				basicType = BasicElementType.HOLE;
+				break;
+			case 'R':
+				basicType = BasicElementType.REPAIR;
+				break;
+			case 'O':
+				basicType = BasicElementType.OPTION;
+				break;
+			case '1': case '2': case '3': case '4': case '5': case '6': case '7': case '8':
+				basicType = BasicElementType.valueOf( "STARTING_" + c );
+				break;
+			case 'c':
+			case 'C':
+				cellType = c == 'c' ? BoardCellType.SINGLE_SPEED_CONVEYOR : BoardCellType.DUAL_SPEED_CONVEYOR;
+				direction = parseDirection( position++ );
+				while( position < token.length() && isDirection( token.charAt( position ) ) )
+				{
+					Direction start = parseDirection( position++ );
+					if( start == direction )
+					{
+						throw error( "Conveyor cannot enter from the side it exits to" );
+					}
+					mask |= start.getMask();
+				}
+				if( mask == 0 )
+				{
+					throw error( "Conveyor needs at least one entering direction" );
+				}
+				break;
+			case 'r':
+				cellType = BoardCellType.ROTATOR_CLOCKWISE;
+				break;
+			case 'l':
+				cellType = BoardCellType.ROTATOR_COUNTERCLOCKWISE;
+				break;
+			case 'p':
+				if( startsWith( position, "135" ) )
+				{
+					cellType = BoardCellType.PUSHER_135;
+					position += 3;
+				}
+				else if( startsWith( position, "24" ) )
+				{
+					cellType = BoardCellType.PUSHER_24;
+					position += 2;
+				}
+				else
+				{
+					throw error( "Pusher phases must be 135 or 24" );
+				}
+				direction = parseDirection( position++ );
+				break;
+			default:
+				throw error( "Unknown element '" + c + "'" );
+		}
+
+		int walls = 0;
+		int laserPosition = -1;
+		while( position < token.length() )
+		{
+			c = token.charAt( position++ );
+			if( c == '|' )
+			{
+				if( position >= token.length() || ! isDirection( token.charAt( position ) ) )
+				{
+					throw error( "Expected wall directions after '|'" );
+				}
+				while( position < token.length() && isDirection( token.charAt( position ) ) )
+				{
+					walls |= parseDirection( position++ ).getMask();
+				}
+			}
+			else if( c == '*' )
+			{
+				if( laserPosition == -1 )
+				{
+					laserPosition = position - 1;
+				}
+				parseDirection( position++ );
+				parseStrength( position++ );
+			}
+			else
+			{
+				throw error( "Unexpected '" + c + "', expected '|' or '*'" );
+			}
+		}
+
+		if( cellType == BoardCellType.BASIC && basicType == BasicElementType.BASIC && walls == 0 && laserPosition == -1 )
+		{
+			// nothing special, the board is already filled with basic elements
+			return 0;
+		}
+		AbstractBoardElement element = builder.addCell( x, y, cellType, basicType, walls, direction, mask );
+		// second pass over the ( few ) laser mounts, now that the element exists
+		for( position = laserPosition; position >= 0 && position < token.length(); position++ )
+		{
+			if( token.charAt( position ) == '*' )
+			{
+				builder.addLaserMount( element, parseDirection( position + 1 ), parseStrength( position + 2 ) );
+				position += 2;
+			}
+		}
+		return basicType.getNumber();
+	}
+
+	private boolean startsWith( int position, String prefix )
+	{
+		if( position + prefix.length() > token.length() )
+		{
+			return false;
+		}
+		for( int i = 0; i < prefix.length(); i++ )
+		{
+			if( token.charAt( position + i ) != prefix.charAt( i ) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDirection( char c )
+	{
+		return c == 'N' || c == 'E' || c == 'S' || c == 'W';
+	}
+
+	private Direction parseDirection( int position )
+	{
+		if( position >= token.length() )
+		{
+			throw error( "Expected a direction ( N, E, S or W )" );
+		}
+		switch( token.charAt( position ) )
+		{
+			case 'N':
+				return Direction.NORTH;
+			case 'E':
+				return Direction.EAST;
+			case 'S':
+				return Direction.SOUTH;
+			case 'W':
+				return Direction.WEST;
+			default:
+				throw error( "Expected a direction ( N, E, S or W ) but found '" + token.charAt( position ) + "'" );
+		}
+	}
+
+	private int parseStrength( int position )
+	{
+		if( position >= token.length() || token.charAt( position ) < '1' || token.charAt( position ) > '0' + MAX_LASER_STRENGTH )
+		{
+			throw error( "Expected a laser strength from 1 to " + MAX_LASER_STRENGTH );
+		}
+		return token.charAt( position ) - '0';
+	}
+
+	private int parseNumberToken( int min, int max, String what ) throws IOException
+	{
+		if( ! nextToken() )
+		{
+			throw error( "Expected the " + what );
+		}
+		int value = 0;
+		for( int i = 0; i < token.length(); i++ )
+		{
+			char c = token.charAt( i );
+			if( c < '0' || c > '9' || value > max )
+			{
+				throw error( "Expected the " + what + " but found '" + token + "'" );
+			}
+			value = value * 10 + ( c - '0' );
+		}
+		if( value < min || value > max )
+		{
+			throw error( "The " + what + " must be from " + min + " to " + max );
+		}
+		return value;
+	}
+
+	/**
+	 * Reads the next whitespace separated token into the token buffer, skipping comments
+	 *
+	 * @return Whether a token was found before the end of the input
+	 */
+	private boolean nextToken() throws IOException
+	{
+		token.setLength( 0 );
+		int c = read();
+		while( c != -1 )
+		{
+			if( c == '#' )
+			{
+				while( c != -1 && c != '\n' )
+				{
+					c = read();
+				}
+			}
+			else if( Character.isWhitespace( c ) )
+			{
+				c = read();
+			}
+			else
+			{
+				break;
+			}
+		}
+		if( c == -1 )
+		{
+			return false;
+		}
+		tokenLine = line;
+		tokenColumn = column;
+		while( c != -1 && ! Character.isWhitespace( c ) && c != '#' )
+		{
+			token.append( (char) c );
+			c = read();
+		}
+		if( c == '#' || c == '\n' )
+		{
+			unread( c );
+		}
+		return true;
+	}
+
+	private int read() throws IOException
+	{
+		int c;
+		if( pushedBack != -2 )
+		{
+			c = pushedBack;
+			pushedBack = -2;
+		}
+		else
+		{
+			c = in.read();
+		}
+		if( c == '\n' )
+		{
+			line++;
+			column = 0;
+		}
+		else
+		{
+			column++;
+		}
+		return c;
+	}
+
+	private void unread( int c )
+	{
+		pushedBack = c;
+		if( c == '\n' )
+		{
+			line--;
+		}
+		else
+		{
+			column--;
+		}
+	}
+
+	private IllegalArgumentException error( String message )
+	{
+		return new IllegalArgumentException( "Line " + tokenLine + ", column " + tokenColumn + ": " + message );
+	}
+
+	/**
+	 * Writes the given board in the text format, for example to turn one of the implemented scenarios into a custom board
+	 *
+	 * @param template The board
+	 * @param out      The writer to write to
+	 *
+	 * @throws IOException When writing fails
+	 */
+	public static void write( BoardTemplate template, Writer out ) throws IOException
+	{
+		BoardGrid grid = template.getGrid();
+		StringBuilder[] lasers = new StringBuilder[grid.getSize()];
+		for( LaserBeam beam : template.getLaserBeams() )
+		{
+			if( lasers[beam.getMountIndex()] == null )
+			{
+				lasers[beam.getMountIndex()] = new StringBuilder();
+			}
+			lasers[beam.getMountIndex()].append( '*' ).append( beam.getMountDirection().name().charAt( 0 ) ).append( beam.getStrength() );
+		}
+
+		out.write( "board " + grid.getXSize() + " " + grid.getYSize() + "\n" );
+		StringBuilder cell = new StringBuilder();
+		for( int index = 0; index < grid.getSize(); index++ )
+		{
+			cell.setLength( 0 );
+			BasicElementType basicType = grid.getBasicElementType( index );
+			switch( grid.getCellType( index ) )
+			{
+				case SINGLE_SPEED_CONVEYOR:
+				case DUAL_SPEED_CONVEYOR:
+					cell.append( grid.getCellType( index ) == BoardCellType.SINGLE_SPEED_CONVEYOR ? 'c' : 'C' )
+					    .append( grid.getDirection( index ).name().charAt( 0 ) );
+					appendDirections( cell, grid.getMask( index ) );
+					break;
+				case ROTATOR_CLOCKWISE:
+					cell.append( 'r' );
+					break;
+				case ROTATOR_COUNTERCLOCKWISE:
+					cell.append( 'l' );
+					break;
+				case PUSHER_135:
+					cell.append( "p135" ).append( grid.getDirection( index ).name().charAt( 0 ) );
+					break;
+				case PUSHER_24:
+					cell.append( "p24" ).append( grid.getDirection( index ).name().charAt( 0 ) );
+					break;
+				default:
+					if( basicType.isStartingPosition() )
+					{
+						cell.append( basicType.getNumber() );
+					}
+					else
+					{
+						cell.append( basicType == BasicElementType.HOLE ? 'H' : basicType == BasicElementType.REPAIR ? 'R' : basicType == BasicElementType.OPTION ? 'O' : '.' );
+					}
+					break;
+			}
+			if( grid.getWallMask( index ) != 0 )
+			{
+				cell.append( '|' );
+				appendDirections( cell, grid.getWallMask( index ) );
+			}
+			if( lasers[index] != null )
+			{
+				cell.append( lasers[index] );
+			}
+			out.write( cell.toString() );
+			out.write( grid.getXCoordinate( index ) == grid.getXSize() - 1 ? "\n" : " " );
+		}
+
+		for( Entry<Integer, BoardElement> flag : template.getFlagPositions().entrySet() )
+		{
+			out.write( "flag " + flag.getKey() + " " + flag.getValue().getXCoordinate() + " " + flag.getValue().getYCoordinate() + "\n" );
+		}
+		out.flush();
+	}
+
+	private static void appendDirections( StringBuilder cell, int mask )
+	{
+		for( Direction direction : Direction.fromMask( mask ) )
+		{
+			cell.append( direction.name().charAt( 0 ) );
+		}
+	}
+}
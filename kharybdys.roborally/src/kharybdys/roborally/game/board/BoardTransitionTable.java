@@ -0,0 +1,161 @@
+package kharybdys.roborally.game.board;
+
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Precomputed board movement of a single bot: for every cell, facing and phase, where the conveyors, pushers and rotators
+ * take a bot that has the board to itself, and whether it dies on the way.
+ * The board of a scenario never changes, so this is computed once per {@link BoardTemplate} and turns the board movement
+ * of a bot into a single lookup. It is only valid for a bot that does not run into other bots, see {@link #getWaypoint(int, int, int)}.
+ *
+ * A transition is packed into an int: ( cell << 2 ) | facing, or DIES.
+ */
+public final class BoardTransitionTable
+{
+
+	public static final int DIES = BoardGrid.NO_CELL;
+
+	/**
+	 * The number of intermediate cells per cell and phase: after the dual speed conveyor step and after the conveyor step of all belts
+	 */
+	public static final int NR_OF_WAYPOINTS = 2;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/**
+	 * The transitions, indexed by ( ( cell * 4 + facing ) * MAX_PHASE + phase - 1 )
+	 */
+	private final int[] transitions;
+
+	/**
+	 * The intermediate cells, indexed by ( ( cell * MAX_PHASE + phase - 1 ) * NR_OF_WAYPOINTS + waypoint )
+	 */
+	private final int[] waypoints;
+
+	/**
+	 * Computes the table for the given board
+	 *
+	 * @param grid      The grid of the board
+	 * @param obstacles The obstacle table of the board
+	 * @param conveyors The conveyor network of the board
+	 */
+	BoardTransitionTable( BoardGrid grid, ObstacleTable obstacles, ConveyorNetwork conveyors )
+	{
+		int size = grid.getSize();
+		this.transitions = new int[size * 4 * Game.MAX_PHASE];
+		this.waypoints = new int[size * Game.MAX_PHASE * NR_OF_WAYPOINTS];
+
+		for( int cell = 0; cell < size; cell++ )
+		{
+			boolean hole = grid.getBasicElementType( cell ) == BasicElementType.HOLE;
+			for( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+			{
+				// the conveyors: dual speed belts first, then all belts, turning the bot when it enters a curve
+				int current = hole ? DIES : cell;
+				int rotation = 0;
+				int waypoint = ( cell * Game.MAX_PHASE + phase - 1 ) * NR_OF_WAYPOINTS;
+				for( int step = 0; step < NR_OF_WAYPOINTS; step++ )
+				{
+					if( current != DIES && conveyors.moves( current, step == 0 ) )
+					{
+						rotation += conveyors.getEntryRotation( current );
+						current = conveyors.getSuccessor( current );
+					}
+					waypoints[waypoint + step] = current;
+				}
+
+				// the pusher, if active in this phase
+				if( current != DIES && grid.getCellType( current ).isPusher() && ( grid.getMask( current ) & ( 1 << ( phase - 1 ) ) ) != 0 )
+				{
+					Direction direction = grid.getDirection( current );
+					if( obstacles.stepKills( current, direction ) )
+					{
+						current = DIES;
+					}
+					else if( ! obstacles.isBlocked( current, direction ) )
+					{
+						current = grid.getNeighbourIndex( current, direction );
+					}
+				}
+
+				// the rotator
+				if( current != DIES )
+				{
+					BoardCellType type = grid.getCellType( current );
+					if( type == BoardCellType.ROTATOR_CLOCKWISE )
+					{
+						rotation += 1;
+					}
+					else if( type == BoardCellType.ROTATOR_COUNTERCLOCKWISE )
+					{
+						rotation += 3;
+					}
+				}
+
+				for( Direction facing : DIRECTIONS )
+				{
+					transitions[( cell * 4 + facing.ordinal() ) * Game.MAX_PHASE + phase - 1] =
+							current == DIES ? DIES : current << 2 | ( ( facing.ordinal() + rotation ) & 3 );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns where the board takes a bot on its own
+	 *
+	 * @param cell   The cell of the bot at the start of board movement
+	 * @param facing The facing of the bot ( ordinal )
+	 * @param phase  The phase ( 1 - MAX_PHASE )
+	 *
+	 * @return The packed transition, DIES if the bot dies
+	 */
+	public int getTransition( int cell, int facing, int phase )
+	{
+		return transitions[( cell * 4 + facing ) * Game.MAX_PHASE + phase - 1];
+	}
+
+	/**
+	 * Returns a cell a bot passes during board movement. Together with the start and end cell these are all cells the bot touches,
+	 * so bots whose cells are all different do not interfere and can each be moved by the table.
+	 *
+	 * @param cell     The cell of the bot at the start of board movement
+	 * @param phase    The phase ( 1 - MAX_PHASE )
+	 * @param waypoint The waypoint ( 0 - NR_OF_WAYPOINTS - 1 )
+	 *
+	 * @return The cell, DIES if the bot died before reaching it
+	 */
+	public int getWaypoint( int cell, int phase, int waypoint )
+	{
+		return waypoints[( cell * Game.MAX_PHASE + phase - 1 ) * NR_OF_WAYPOINTS + waypoint];
+	}
+
+	/**
+	 * Returns whether the board leaves the bot on the given cell in the given phase where it is ( it may still be turned )
+	 *
+	 * @param cell  The cell of the bot
+	 * @param phase The phase ( 1 - MAX_PHASE )
+	 *
+	 * @return Whether the bot stays on the cell
+	 */
+	public boolean isStationary( int cell, int phase )
+	{
+		return getTransition( cell, 0, phase ) >> 2 == cell;
+	}
+
+	public static boolean isDying( int transition )
+	{
+		return transition == DIES;
+	}
+
+	public static int getCell( int transition )
+	{
+		return transition >> 2;
+	}
+
+	public static int getFacing( int transition )
+	{
+		return transition & 3;
+	}
+}
@@ -0,0 +1,220 @@
+package kharybdys.roborally.game.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Verifies complete boards: neighbour links and coordinates, starting positions, flags on legal cells and terminating lasers.
+ * The board of a scenario never changes, so this is done once when generating the {@link BoardCatalogue} at build time,
+ * which records a fingerprint of every verified board. Games themselves only run these checks in debug mode, see {@link GameBuilder}.
+ *
+ * Can be run as part of the build, verifying all implemented scenarios and printing their fingerprints.
+ */
+public final class BoardVerifier
+{
+
+	public static final int NR_OF_STARTING_POSITIONS = 8;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private BoardVerifier()
+	{
+		// Only static methods
+	}
+
+	/**
+	 * Verifies all implemented scenarios, built from code, and prints their fingerprints
+	 *
+	 * @param args Not used
+	 */
+	public static void main( String[] args )
+	{
+		boolean consistent = true;
+		for( ImplementedScenario scenario : ImplementedScenario.values() )
+		{
+			BoardTemplate template = scenario.createBoardBuilder().asBoardTemplate();
+			List<String> problems = verify( scenario, template );
+			for( String problem : problems )
+			{
+				System.err.println( scenario.name() + ": " + problem );
+			}
+			consistent &= problems.isEmpty();
+			System.out.println( scenario.name() + " " + Long.toHexString( fingerprint( template ) ) + ( problems.isEmpty() ? " verified" : " INCONSISTENT" ) );
+		}
+		if( ! consistent )
+		{
+			System.exit( 1 );
+		}
+	}
+
+	/**
+	 * Verifies the board of the given scenario, including its number of standard flags
+	 *
+	 * @param scenario The scenario
+	 * @param template The board of the scenario
+	 *
+	 * @return The problems found, empty if the board is consistent
+	 */
+	public static List<String> verify( ImplementedScenario scenario, BoardTemplate template )
+	{
+		List<String> problems = verify( template );
+		for( int number = 1; number <= scenario.getNrOfFlags(); number++ )
+		{
+			if( ! template.getFlagPositions().containsKey( number ) )
+			{
+				problems.add( "No standard position for flag " + number );
+			}
+		}
+		return problems;
+	}
+
+	/**
+	 * Verifies the given board
+	 *
+	 * @param template The board
+	 *
+	 * @return The problems found, empty if the board is consistent
+	 */
+	public static List<String> verify( BoardTemplate template )
+	{
+		List<String> problems = new ArrayList<String>();
+		BoardGrid grid = template.getGrid();
+
+		// check that all neighbour links are symmetric and obey the relative coordinates
+		for( int index = 0; index < grid.getSize(); index++ )
+		{
+			BoardElement element = grid.getElement( index );
+			int x = grid.getXCoordinate( index );
+			int y = grid.getYCoordinate( index );
+			if( element.getIndex() != index || element.getXCoordinate() != x || element.getYCoordinate() != y )
+			{
+				problems.add( "Element at ( " + x + ", " + y + " ) does not know its own position" );
+			}
+			for( Direction direction : Direction.values() )
+			{
+				BoardElement neighbour = element.getNeighbour( direction );
+				if( neighbour == null )
+				{
+					if( grid.getNeighbourIndex( index, direction ) != BoardGrid.NO_CELL )
+					{
+						problems.add( "Missing " + direction + " neighbour of ( " + x + ", " + y + " )" );
+					}
+					continue;
+				}
+				if( neighbour.getNeighbour( direction.processRotate( 2 ) ) != element )
+				{
+					problems.add( "The " + direction + " neighbour link of ( " + x + ", " + y + " ) is not symmetric" );
+				}
+				if( neighbour.getXCoordinate() != x + direction.getXDelta() || neighbour.getYCoordinate() != y + direction.getYDelta() )
+				{
+					problems.add( "The " + direction + " neighbour of ( " + x + ", " + y + " ) has mismatching coordinates" );
+				}
+			}
+		}
+
+		Map<Integer, BoardElement> startingPositions = template.getStartingPositions();
+		for( int number = 1; number <= NR_OF_STARTING_POSITIONS; number++ )
+		{
+			BoardElement startingPosition = startingPositions.get( number );
+			if( startingPosition == null )
+			{
+				problems.add( "Starting position " + number + " is missing" );
+			}
+			else if( grid.getBasicElementType( startingPosition.getIndex() ) != BasicElementType.valueOf( "STARTING_" + number ) )
+			{
+				problems.add( "Starting position " + number + " is not on a starting element" );
+			}
+		}
+
+		for( Entry<Integer, BoardElement> flag : template.getFlagPositions().entrySet() )
+		{
+			if( grid.getBasicElementType( flag.getValue().getIndex() ) == BasicElementType.HOLE )
+			{
+				problems.add( "Flag " + flag.getKey() + " is placed in a hole" );
+			}
+		}
+
+		int maxLength = Math.max( grid.getXSize(), grid.getYSize() );
+		for( LaserBeam beam : template.getLaserBeams() )
+		{
+			int mount = beam.getMountIndex();
+			String name = "Laser mounted at ( " + grid.getXCoordinate( mount ) + ", " + grid.getYCoordinate( mount ) + " )";
+			if( beam.getLength() < 1 || beam.getLength() > maxLength )
+			{
+				problems.add( name + " has an impossible length " + beam.getLength() );
+				continue;
+			}
+			Direction firing = beam.getFiringDirection();
+			for( int i = 1; i < beam.getLength(); i++ )
+			{
+				if( beam.getCell( i ) != grid.getNeighbourIndex( beam.getCell( i - 1 ), firing ) )
+				{
+					problems.add( name + " does not travel in a straight line" );
+				}
+			}
+			int last = beam.getCell( beam.getLength() - 1 );
+			if( ! grid.hasWall( last, firing ) && grid.getNeighbourIndex( last, firing ) != BoardGrid.NO_CELL )
+			{
+				problems.add( name + " does not end at a wall or the edge of the board" );
+			}
+		}
+		return problems;
+	}
+
+	/**
+	 * Computes a fingerprint ( 64 bit FNV-1a hash ) of everything that makes up the given board.
+	 * Two boards with the same fingerprint are, for all practical purposes, the same board.
+	 *
+	 * @param template The board
+	 *
+	 * @return The fingerprint
+	 */
+	public static long fingerprint( BoardTemplate template )
+	{
+		BoardGrid grid = template.getGrid();
+		long hash = FNV_OFFSET;
+		hash = mix( hash, grid.getXSize() );
+		hash = mix( hash, grid.getYSize() );
+		for( int index = 0; index < grid.getSize(); index++ )
+		{
+			Direction direction = grid.getDirection( index );
+			hash = mix( hash, grid.getCellType( index ).ordinal() );
+			hash = mix( hash, grid.getBasicElementType( index ).ordinal() );
+			hash = mix( hash, ( direction == null ? 0 : direction.ordinal() + 1 ) << 4 | grid.getWallMask( index ) );
+			hash = mix( hash, grid.getMask( index ) );
+		}
+		// the order of the laser beams depends on how the board was built, so combine them order independently
+		long lasers = 0;
+		for( LaserBeam beam : template.getLaserBeams() )
+		{
+			lasers += mix( mix( FNV_OFFSET, beam.getMountIndex() ), beam.getMountDirection().ordinal() << 4 | beam.getStrength() );
+		}
+		hash = mix( mix( hash, (int) lasers ), (int) ( lasers >>> 32 ) );
+		for( Entry<Integer, BoardElement> flag : template.getFlagPositions().entrySet() )
+		{
+			hash = mix( hash, flag.getKey() );
+			hash = mix( hash, flag.getValue().getIndex() );
+		}
+		for( Entry<Integer, BoardElement> startingPosition : template.getStartingPositions().entrySet() )
+		{
+			hash = mix( hash, startingPosition.getKey() );
+			hash = mix( hash, startingPosition.getValue().getIndex() );
+		}
+		return hash;
+	}
+
+	private static long mix( long hash, int value )
+	{
+		for( int shift = 0; shift < 32; shift += 8 )
+		{
+			hash ^= ( value >>> shift ) & 0xFF;
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,180 @@
+package kharybdys.roborally.game.board;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * The conveyor belts of a board, compiled into a flow network: for every conveyor cell the cell its riders move to,
+ * its speed and the rotation a rider gets when carried onto the next belt.
+ * Built once per board template, so moving the conveyor riders is nothing more than array lookups.
+ */
+public final class ConveyorNetwork
+{
+
+	/**
+	 * Speed of a cell without conveyor belt
+	 */
+	public static final int NO_CONVEYOR = 0;
+	public static final int SINGLE_SPEED = 1;
+	public static final int DUAL_SPEED = 2;
+
+	/**
+	 * Successor of a conveyor cell whose riders are carried off the board or into a hole
+	 */
+	public static final int DIES = BoardGrid.NO_CELL;
+
+	/**
+	 * Per cell, the cell the riders end up on. The cell itself when a wall blocks the belt, DIES when carried to their death.
+	 */
+	private final int[] successors;
+
+	/**
+	 * Per cell, the speed of the conveyor belt ( NO_CONVEYOR, SINGLE_SPEED or DUAL_SPEED )
+	 */
+	private final byte[] speeds;
+
+	/**
+	 * Per cell, the number of clockwise quarter turns a rider makes when carried to its successor
+	 */
+	private final byte[] rotations;
+
+	/**
+	 * Number of conveyor cells on this board
+	 */
+	private final int nrOfConveyors;
+
+	/**
+	 * Compiles the conveyor belts of the given grid
+	 *
+	 * @param grid      The grid of the board
+	 * @param obstacles The obstacle table of the same board, for walls and deadly cells
+	 */
+	ConveyorNetwork( BoardGrid grid, ObstacleTable obstacles )
+	{
+		int size = grid.getSize();
+		this.successors = new int[size];
+		this.speeds = new byte[size];
+		this.rotations = new byte[size];
+
+		int conveyors = 0;
+		for( int index = 0; index < size; index++ )
+		{
+			BoardCellType type = grid.getCellType( index );
+			if( ! type.isConveyor() )
+			{
+				successors[index] = index;
+				continue;
+			}
+			conveyors++;
+			speeds[index] = (byte) ( type == BoardCellType.DUAL_SPEED_CONVEYOR ? DUAL_SPEED : SINGLE_SPEED );
+
+			Direction endDirection = grid.getDirection( index );
+			if( obstacles.stepKills( index, endDirection ) )
+			{
+				successors[index] = DIES;
+			}
+			else if( obstacles.isBlocked( index, endDirection ) )
+			{
+				successors[index] = index;
+			}
+			else
+			{
+				int next = grid.getNeighbourIndex( index, endDirection );
+				successors[index] = next;
+				// Riders only turn when carried onto a belt of the same kind that exits in another direction
+				if( grid.getCellType( next ) == type && grid.getDirection( next ) != endDirection )
+				{
+					rotations[index] = (byte) endDirection.getTurns( grid.getDirection( next ) );
+				}
+			}
+		}
+		this.nrOfConveyors = conveyors;
+	}
+
+	/**
+	 * Returns the cell the riders of the given cell are carried to, the cell itself when not moving and DIES when carried to their death
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The index of the successor cell
+	 */
+	public int getSuccessor( int index )
+	{
+		return successors[index];
+	}
+
+	/**
+	 * Returns the speed of the conveyor belt on the given cell
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return NO_CONVEYOR, SINGLE_SPEED or DUAL_SPEED
+	 */
+	public int getSpeed( int index )
+	{
+		return speeds[index];
+	}
+
+	/**
+	 * Returns the number of clockwise quarter turns a rider makes when carried from the given cell to its successor
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The rotation on entry of the successor
+	 */
+	public int getEntryRotation( int index )
+	{
+		return rotations[index];
+	}
+
+	/**
+	 * Returns whether the conveyor on the given cell moves in the given conveyor step.
+	 * Dual speed belts move first on their own, then all belts move together.
+	 *
+	 * @param index    The index of the cell
+	 * @param dualOnly Whether only the dual speed belts move in this step
+	 *
+	 * @return Whether riders on this cell are carried along
+	 */
+	public boolean moves( int index, boolean dualOnly )
+	{
+		return speeds[index] >= ( dualOnly ? DUAL_SPEED : SINGLE_SPEED );
+	}
+
+	/**
+	 * Returns whether this board has any conveyor belts at all
+	 *
+	 * @return Whether there are conveyor belts
+	 */
+	public boolean isEmpty()
+	{
+		return nrOfConveyors == 0;
+	}
+
+	/**
+	 * Carries the given riders one conveyor step along. Works in place on the given arrays, without allocating.
+	 * Riders carried to their death get cell DIES. Collisions between riders are not resolved here.
+	 *
+	 * @param cells    The cells of the riders, DIES for riders not on the board ( these are skipped )
+	 * @param facings  The facing directions ( ordinals ) of the riders
+	 * @param count    The number of riders in the arrays
+	 * @param dualOnly Whether only the dual speed belts move in this step
+	 *
+	 * @return The number of riders that were carried along
+	 */
+	public int advance( int[] cells, int[] facings, int count, boolean dualOnly )
+	{
+		int moved = 0;
+		for( int i = 0; i < count; i++ )
+		{
+			int cell = cells[i];
+			if( cell == DIES || speeds[cell] < ( dualOnly ? DUAL_SPEED : SINGLE_SPEED ) )
+			{
+				continue;
+			}
+			cells[i] = successors[cell];
+			facings[i] = ( facings[i] + rotations[cell] ) & 3;
+			moved++;
+		}
+		return moved;
+	}
+}
@@ -7,6 +7,7 @@ import java.util.Collection;
 
 import kharybdys.roborally.game.definition.Direction;
 import kharybdys.roborally.game.movement.Movement;
+import kharybdys.roborally.game.movement.MovementBuffer;
 
 /**
  * Represents a dualspeed conveyor belt
@@ -23,6 +24,12 @@ public class DualSpeedConveyor extends AbstractConveyor
         color = Color.blue;
     }
 
+    @Override
+    public BoardCellType getCellType()
+    {
+    	return BoardCellType.DUAL_SPEED_CONVEYOR;
+    }
+
     /**
      * Get the basic movement that this board element enacts on the bot in the given phase.
      * For the dual-speed conveyor belt, if we move onto another conveyor belt we need that one's movement too
@@ -46,6 +53,18 @@ public class DualSpeedConveyor extends AbstractConveyor
     	}
     	return boardMovements;
     }
+
+    @Override
+    public void addBoardMovements( int phase, int entity, MovementBuffer buffer )
+    {
+    	addBasicBoardMovements( true, entity, buffer );
+    	
+    	BoardElement nextElement = getNeighbour( endDirection );
+    	if( nextElement instanceof AbstractConveyor )
+    	{
+    		((AbstractConveyor) nextElement).addBasicBoardMovements( false, entity, buffer );
+    	}
+    }
     
     /**
      * Responsible for drawing the arrows of the conveyor belt
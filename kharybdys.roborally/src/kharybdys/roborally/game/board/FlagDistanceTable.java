@@ -0,0 +1,306 @@
+package kharybdys.roborally.game.board;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Precomputed, for every standard flag position of a board, the number of registers a bot on its own needs
+ * to end a phase on the flag, from every cell and facing: a heat map per flag, for AI players, hints and matchmaking.
+ *
+ * A register plays one of the card effects ( move 1, 2 or 3, back up, turn left, right or around ), stopped by walls,
+ * after which the board moves the bot as in the {@link BoardTransitionTable}. Bots die in holes and off the board, so those are never on the way.
+ * Pushers depend on the phase; the table takes the phase that suits the bot, so distances are a lower bound when pushers are involved.
+ *
+ * The board moves a flag on a conveyor or pusher like a bot, so in the first register a bot reaches such a flag by ending the phase where the flag ends it.
+ * The distances are to the standard position of the flag: once the flag moved, they are approximations.
+ *
+ * The distances are computed by a breadth first search from the flag backwards over the reversed moves, for all facings on the flag at once.
+ * Immutable once computed, see {@link BoardTemplate#getFlagDistanceTable()}.
+ */
+public final class FlagDistanceTable
+{
+
+	/**
+	 * The distance from cells the bot cannot reach the flag from, or dies on
+	 */
+	public static final short UNREACHABLE = Short.MAX_VALUE;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	// the card effects: steps forward ( negative to back up ) and quarter turns clockwise
+	private static final int[] STEPS = { 1, 2, 3, -1, 0, 0, 0 };
+	private static final int[] TURNS = { 0, 0, 0, 0, 1, 2, 3 };
+
+	/**
+	 * The distances per flag number, indexed by ( cell * 4 + facing )
+	 */
+	private final Map<Integer, short[]> distances;
+
+	/**
+	 * Computes the table for the standard flag positions of the given board
+	 *
+	 * @param template The board
+	 */
+	FlagDistanceTable( BoardTemplate template )
+	{
+		BoardGrid grid = template.getGrid();
+		BoardTransitionTable transitions = template.getTransitionTable();
+		int nrOfStates = grid.getSize() * 4;
+
+		// the moves reversed: for every state the states reaching it in one register, as index ranges into the sources
+		int[] landings = getLandings( template );
+		int[] successors = getSuccessors( template, landings );
+		int[] firstSource = new int[nrOfStates + 1];
+		for( int successor : successors )
+		{
+			if( successor >= 0 )
+			{
+				firstSource[successor + 1]++;
+			}
+		}
+		for( int state = 0; state < nrOfStates; state++ )
+		{
+			firstSource[state + 1] += firstSource[state];
+		}
+		int[] sources = new int[firstSource[nrOfStates]];
+		int[] filled = Arrays.copyOf( firstSource, nrOfStates );
+		int movesPerState = successors.length / nrOfStates;
+		for( int move = 0; move < successors.length; move++ )
+		{
+			if( successors[move] >= 0 )
+			{
+				sources[filled[successors[move]]++] = move / movesPerState;
+			}
+		}
+
+		Map<Integer, short[]> result = new TreeMap<Integer, short[]>();
+		int[] queue = new int[nrOfStates];
+		for( Map.Entry<Integer, BoardElement> flag : template.getFlagPositions().entrySet() )
+		{
+			short[] distance = new short[nrOfStates];
+			Arrays.fill( distance, UNREACHABLE );
+			int head = 0;
+			int tail = 0;
+			int flagCell = flag.getValue().getIndex();
+			boolean stationary = true;
+			for( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+			{
+				stationary &= transitions.isStationary( flagCell, phase );
+			}
+			// on the flag: the search goes on from there only if the board leaves bots on the flag cell, otherwise it takes them off the flag
+			for( int facing = 0; facing < 4; facing++ )
+			{
+				distance[flagCell * 4 + facing] = 0;
+				if( stationary )
+				{
+					queue[tail++] = flagCell * 4 + facing;
+				}
+			}
+			// a card ending the phase where the board takes the flag: the bot meets the flag on its way
+			for( int state = 0; state < nrOfStates; state++ )
+			{
+				if( distance[state] != UNREACHABLE || ! meetsFlag( transitions, landings, state, flagCell ) )
+				{
+					continue;
+				}
+				distance[state] = 1;
+				queue[tail++] = state;
+			}
+			while( head < tail )
+			{
+				int state = queue[head++];
+				for( int source = firstSource[state]; source < firstSource[state + 1]; source++ )
+				{
+					int previous = sources[source];
+					if( distance[previous] == UNREACHABLE )
+					{
+						distance[previous] = (short) ( distance[state] + 1 );
+						queue[tail++] = previous;
+					}
+				}
+			}
+			result.put( flag.getKey(), distance );
+		}
+		this.distances = result;
+	}
+
+	/**
+	 * Returns whether a card from the given state ends a phase on the cell the board takes the flag to in that phase
+	 */
+	private static boolean meetsFlag( BoardTransitionTable transitions, int[] landings, int state, int flagCell )
+	{
+		for( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+		{
+			int flagTransition = transitions.getTransition( flagCell, 0, phase );
+			if( BoardTransitionTable.isDying( flagTransition ) )
+			{
+				continue;
+			}
+			for( int effect = 0; effect < STEPS.length; effect++ )
+			{
+				int target = landings[state * STEPS.length + effect];
+				if( target == BoardGrid.NO_CELL )
+				{
+					continue;
+				}
+				int transition = transitions.getTransition( target, 0, phase );
+				if( ! BoardTransitionTable.isDying( transition ) && BoardTransitionTable.getCell( transition ) == BoardTransitionTable.getCell( flagTransition ) )
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the cell after every card effect, before the board moves the bot, per state: NO_CELL where the bot dies
+	 */
+	private static int[] getLandings( BoardTemplate template )
+	{
+		BoardGrid grid = template.getGrid();
+		ObstacleTable obstacles = template.getObstacleTable();
+		int[] landings = new int[grid.getSize() * 4 * STEPS.length];
+		Arrays.fill( landings, BoardGrid.NO_CELL );
+		for( int cell = 0; cell < grid.getSize(); cell++ )
+		{
+			if( grid.getBasicElementType( cell ) == BasicElementType.HOLE )
+			{
+				continue;
+			}
+			for( int facing = 0; facing < 4; facing++ )
+			{
+				for( int effect = 0; effect < STEPS.length; effect++ )
+				{
+					int target = cell;
+					if( STEPS[effect] != 0 )
+					{
+						Direction direction = DIRECTIONS[STEPS[effect] > 0 ? facing : ( facing + 2 ) & 3];
+						target = obstacles.move( grid, cell, direction, Math.abs( STEPS[effect] ) );
+					}
+					landings[( cell * 4 + facing ) * STEPS.length + effect] = target;
+				}
+			}
+		}
+		return landings;
+	}
+
+	/**
+	 * Returns the state after every card effect in every phase, per state: -1 where the bot dies or the move repeats an earlier one
+	 */
+	private static int[] getSuccessors( BoardTemplate template, int[] landings )
+	{
+		BoardTransitionTable transitions = template.getTransitionTable();
+		int nrOfStates = template.getGrid().getSize() * 4;
+		int movesPerState = STEPS.length * Game.MAX_PHASE;
+
+		int[] successors = new int[nrOfStates * movesPerState];
+		Arrays.fill( successors, -1 );
+		for( int state = 0; state < nrOfStates; state++ )
+		{
+			int move = state * movesPerState;
+			for( int effect = 0; effect < STEPS.length; effect++ )
+			{
+				int target = landings[state * STEPS.length + effect];
+				if( target == BoardGrid.NO_CELL )
+				{
+					continue;
+				}
+				int turned = ( ( state & 3 ) + TURNS[effect] ) & 3;
+				for( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+				{
+					int transition = transitions.getTransition( target, turned, phase );
+					if( BoardTransitionTable.isDying( transition ) )
+					{
+						continue;
+					}
+					int successor = BoardTransitionTable.getCell( transition ) * 4 + BoardTransitionTable.getFacing( transition );
+					if( ! contains( successors, state * movesPerState, move, successor ) )
+					{
+						successors[move++] = successor;
+					}
+				}
+			}
+		}
+		return successors;
+	}
+
+	private static boolean contains( int[] values, int from, int to, int value )
+	{
+		for( int i = from; i < to; i++ )
+		{
+			if( values[i] == value )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the board has a standard position for the given flag
+	 *
+	 * @param flagNumber The number of the flag
+	 *
+	 * @return Whether there is a distance table for the flag
+	 */
+	public boolean contains( int flagNumber )
+	{
+		return distances.containsKey( flagNumber );
+	}
+
+	/**
+	 * Returns the number of registers needed to reach the standard position of the given flag
+	 *
+	 * @param flagNumber The number of the flag
+	 * @param cell       The cell of the bot
+	 * @param facing     The facing of the bot ( ordinal )
+	 *
+	 * @return The number of registers, UNREACHABLE if the flag cannot be reached
+	 */
+	public int getDistance( int flagNumber, int cell, int facing )
+	{
+		return getDistances( flagNumber )[cell * 4 + facing];
+	}
+
+	/**
+	 * Returns the number of registers needed to reach the standard position of the given flag, from the best facing
+	 *
+	 * @param flagNumber The number of the flag
+	 * @param cell       The cell
+	 *
+	 * @return The number of registers, UNREACHABLE if the flag cannot be reached
+	 */
+	public int getDistance( int flagNumber, int cell )
+	{
+		short[] table = getDistances( flagNumber );
+		int base = cell * 4;
+		return Math.min( Math.min( table[base], table[base + 1] ), Math.min( table[base + 2], table[base + 3] ) );
+	}
+
+	private short[] getDistances( int flagNumber )
+	{
+		short[] table = distances.get( flagNumber );
+		if( table == null )
+		{
+			throw new IllegalArgumentException( "No standard position for flag " + flagNumber );
+		}
+		return table;
+	}
+
+	/**
+	 * Returns a copy of the distances to the given flag, the compact form of the table
+	 *
+	 * @param flagNumber The number of the flag
+	 *
+	 * @return The distances, indexed by ( cell * 4 + facing )
+	 */
+	public short[] copyDistances( int flagNumber )
+	{
+		return getDistances( flagNumber ).clone();
+	}
+}
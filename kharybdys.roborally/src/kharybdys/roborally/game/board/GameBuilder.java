@@ -1,14 +1,14 @@
 package kharybdys.roborally.game.board;
 
-import java.awt.Point;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,32 +20,75 @@ import kharybdys.roborally.game.definition.Direction;
 
 /**
  *    Encapsulates all helper methods to create a Game object
+ *    
+ *    Used in two stages: first the board of a scenario is built once ( initializeBoard, addXxx methods ) and 
+ *    turned into an immutable {@link BoardTemplate} by {@link #asBoardTemplate()}. 
+ *    Then every game gets its own GameBuilder based on that template, to which the bots and flags are added.
  */
 public class GameBuilder {
 
     private static final Logger logger = LoggerFactory.getLogger( GameBuilder.class );
 
     private static final int STANDARD_BOARD_SIZE = 12;
+    private static final int STARTING_BOARD_HEIGHT = 4;
+
+    /**
+     * Debug mode: verify every game built ( -Dkharybdys.roborally.verifyGames=true ). 
+     * Off by default, as the boards are already verified once per scenario.
+     */
+    private static final boolean VERIFY_GAMES = Boolean.getBoolean( "kharybdys.roborally.verifyGames" );
 
     // worker variables
-    private int xOffset;
-    private int yOffset;
     private int turnSteps;
+    private PiecePlacement placement;
     
     // the board being built
-    private BoardElement[][] board;
-    
-    private Map<Integer, AffineTransform> affineTransformations = new HashMap<Integer, AffineTransform>();
+    private BoardGrid grid;
     
-    // These represent the items to transfer to the Game object
+    // These represent the items to transfer to the BoardTemplate
     private int xSize;
     private int ySize;
-    private Collection<Bot> bots = new ArrayList<Bot>();
-    private Map<Integer, Flag> flags = new HashMap<Integer, Flag>();
     private Map<BoardElement, Map<Direction, Integer>> laserMounts = new HashMap<BoardElement, Map<Direction, Integer>>();
-
 	private Map<Integer, BoardElement> startingPositions = new HashMap<Integer, BoardElement>();
+	private Map<Integer, BoardElement> flagPositions = new HashMap<Integer, BoardElement>();
 
+    // These represent the items to transfer to the Game object
+	private BoardTemplate template = null;
+    private Collection<Bot> bots = new ArrayList<Bot>();
+    private Map<Integer, Flag> flags = new HashMap<Integer, Flag>();
+
+    /**
+     * Creates a GameBuilder to build a new board with
+     */
+    public GameBuilder()
+    {
+    	
+    }
+    
+    /**
+     * Creates a GameBuilder for a game on the given (already built) board
+     * 
+     * @param template      The board to play on
+     * @param standardFlags Whether to place the flags on their standard positions
+     */
+    public GameBuilder( BoardTemplate template, boolean standardFlags )
+    {
+    	this.template = template;
+    	this.grid = template.getGrid();
+    	this.xSize = template.getXSize();
+    	this.ySize = template.getYSize();
+    	
+    	if( standardFlags )
+    	{
+    		for( Entry<Integer, BoardElement> flagPosition : template.getFlagPositions().entrySet() )
+    		{
+    	        Flag flag = new Flag( -1, flagPosition.getKey() );
+    	        flag.setLocation( flagPosition.getValue() );
+    	        flag.setArchiveMarker( flagPosition.getValue() );
+    	        flags.put( flagPosition.getKey(), flag );
+    		}
+    	}
+    }
 
     /**
      * Transforms the data contained in this GameBuilder into a Game object
@@ -55,125 +98,80 @@ public class GameBuilder {
      */
     public Game asGame( Integer id, Integer currentRound ) 
     {
-        runConsistencyChecks();
-        return new Game( id, currentRound, xSize, ySize, board[0][0], bots, flags.values(), getLaserMounts() );
+    	if( template == null )
+    	{
+    		throw new IllegalStateException( "Cannot create a game without a board template" );
+    	}
+        if( VERIFY_GAMES )
+        {
+            runConsistencyChecks();
+        }
+        return new Game( id, currentRound, template, bots, flags.values() );
     }
 
     /**
-     * Runs consistency checks on the just generated board
+     * Transforms the board built by this GameBuilder into an immutable BoardTemplate, to be shared by all games on this board.
+     * Adds the lasers to the boardElements, so the board cannot be changed anymore afterwards.
+     * 
+     * @return the board template
      */
-    private void runConsistencyChecks() 
+    public BoardTemplate asBoardTemplate()
     {
-        boolean consistent = true;
-        
-        // check that all neighbour connections are transitive, and obey the relative coordinates
-        for ( int i = 0; i < xSize; i++ ) 
-        {
-            for ( int j = 0; j < ySize; j++ ) 
-            {
-                BoardElement currentElement = board[j][i];
-                if( currentElement.getNeighbour( Direction.SOUTH ) != null )
-                {
-                    BoardElement neighbour = currentElement.getNeighbour( Direction.SOUTH );
-                    if( ! currentElement.equals( neighbour.getNeighbour( Direction.NORTH ) ) )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with transitivity of the SOUTH neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                    if( neighbour.getXCoordinate() != i || neighbour.getYCoordinate() != j + 1 )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with mis-matching coordinates of the SOUTH neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                }
-
-                if( currentElement.getNeighbour( Direction.EAST ) != null )
-                {
-                    BoardElement neighbour = currentElement.getNeighbour( Direction.EAST );
-                    if( ! currentElement.equals( neighbour.getNeighbour( Direction.WEST ) ) )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with transitivity of the EAST neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                    if( neighbour.getXCoordinate() != i + 1 || neighbour.getYCoordinate() != j )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with mis-matching coordinates of the EAST neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                }
-
-                if( currentElement.getNeighbour( Direction.NORTH ) != null )
-                {
-                    BoardElement neighbour = currentElement.getNeighbour( Direction.NORTH );
-                    if( ! currentElement.equals( neighbour.getNeighbour( Direction.SOUTH ) ) )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with transitivity of the NORTH neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                    if( neighbour.getXCoordinate() != i || neighbour.getYCoordinate() != j - 1 )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with mis-matching coordinates of the NORTH neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                }
-
-                if( currentElement.getNeighbour( Direction.WEST ) != null )
-                {
-                    BoardElement neighbour = currentElement.getNeighbour( Direction.WEST );
-                    if( ! currentElement.equals( neighbour.getNeighbour( Direction.EAST ) ) )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with transitivity of the WEST neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                    if( neighbour.getXCoordinate() != i - 1 || neighbour.getYCoordinate() != j )
-                    {
-                        consistent = false;
-                        logger.error( "Problem with mis-matching coordinates of the WEST neighbour link of coordinates ( " + j + ", " + i + " )" );
-                    }
-                }
-            }
-        }
-        if( !consistent )
-        {
-            throw new IllegalStateException( "GameBuilder built an inconsistent board, check logger messages" );
-        }
+    	if( template != null )
+    	{
+    		throw new IllegalStateException( "This GameBuilder is already based on a board template" );
+    	}
+    	return new BoardTemplate( grid, compileLaserBeams(), startingPositions, flagPositions );
     }
 
     /**
-     * Helper method to calculate the real coordinates based on the board's coordinates, offset and a number of turns to make.
-     * TODO: Cannot handle starterboard turning as it assumes the board to be 12x12
+     * Returns the grid of the board being built
      * 
-     * @param point
-     * @param xOffset
-     * @param yOffset
-     * @param turnSteps
-     * @return
+     * @return the board grid
      */
-    private Point2D getRealCoordinates( Point2D point, int xOffset, int yOffset, int turnSteps )
+    BoardGrid getGrid()
     {
-        AffineTransform transformation = getAffineTransformation( turnSteps );
-        Point2D result = transformation.transform( point,     new Point( 0, 0 ) );
-        result.setLocation( result.getX() + xOffset, result.getY() + yOffset );
-        return result;
+    	return grid;
     }
-    
-    
-    private AffineTransform getAffineTransformation( int turnSteps )
+
+    /**
+     * Runs consistency checks on the game just built. Only done in debug mode ( see VERIFY_GAMES ), 
+     * the boards themselves are verified once per scenario by the {@link BoardVerifier}.
+     */
+    private void runConsistencyChecks() 
     {
-        if( ! affineTransformations.containsKey( turnSteps ) )
+        List<String> problems = BoardVerifier.verify( template );
+        
+        // check that no two bots and no flag in a hole were loaded
+        Set<BoardElement> occupied = new HashSet<BoardElement>();
+        for( Bot bot : bots )
         {
-            affineTransformations.put( turnSteps, 
-                                       AffineTransform.getQuadrantRotateInstance( turnSteps, 
-                                                                                  ( STANDARD_BOARD_SIZE - 1 ) / 2.0, 
-                                                                                  ( STANDARD_BOARD_SIZE - 1 ) / 2.0
-                                                                                )
-                                     ); 
+            if( bot.getLocation() != null && ! occupied.add( bot.getLocation() ) )
+            {
+                problems.add( "More than one bot at ( " + bot.getLocation().getXCoordinate() + ", " + bot.getLocation().getYCoordinate() + " )" );
+            }
+        }
+        for( Flag flag : flags.values() )
+        {
+            if( flag.getLocation() != null && flag.getLocation().getBoardElementType() == BasicElementType.HOLE )
+            {
+                problems.add( "Flag " + flag.getOrderNumber() + " is placed in a hole" );
+            }
+        }
+        
+        if( ! problems.isEmpty() )
+        {
+            for( String problem : problems )
+            {
+                logger.error( problem );
+            }
+            throw new IllegalStateException( "GameBuilder built an inconsistent game, check logger messages" );
         }
-        return affineTransformations.get( turnSteps );
     }
-    
+
     /**
-     * Initializes the board array given the sizes. Also links every element to each of its neighbours
+     * Initializes the board grid given the sizes, filling it with basic elements. 
+     * Neighbours follow from the grid itself, so no linking is needed
      * 
      * @param xSize The number of elements on the x-Scale
      * @param ySize The number of elements on the y-Scale
@@ -183,39 +181,51 @@ public class GameBuilder {
         this.xSize = xSize;
         this.ySize = ySize;
         
-        this.board = new BoardElement[ySize][xSize];
-        for ( int i = 0; i < xSize; i++ ) 
+        this.grid = new BoardGrid( xSize, ySize );
+        for ( int index = 0; index < grid.getSize(); index++ ) 
         {
-            for ( int j = 0; j < ySize; j++ ) 
-            {
-                board[j][i] = createBasicElement().withCoordinates( i, j );
-                if( j > 0 )
-                {
-                    board[j][i].addNeighbour( Direction.NORTH, board[j-1][i] );
-                }
-                if( i > 0 )
-                {
-                    board[j][i].addNeighbour( Direction.WEST, board[j][i-1] );
-                }
-            }
+            grid.setElement( index, createBasicElement() );
         }
     }
     
+    /**
+     * Sets up the placement of the next standard ( 12x12 ) board piece
+     * 
+     * @param xOffset   The x-Offset
+     * @param yOffset   The y-Offset
+     * @param turnSteps The number of steps to turn the piece
+     */
     public void setBoardVariables( int xOffset, int yOffset, int turnSteps )
     {
-        this.xOffset = xOffset;
-        this.yOffset = yOffset;
+        setBoardVariables( xOffset, yOffset, turnSteps, STANDARD_BOARD_SIZE, STANDARD_BOARD_SIZE );
+    }
+    
+    /**
+     * Sets up the placement of the next board piece of the given size. 
+     * The offsets are those of the top left corner of the piece after turning it around its center.
+     * 
+     * @param xOffset   The x-Offset
+     * @param yOffset   The y-Offset
+     * @param turnSteps The number of steps to turn the piece
+     * @param width     The width of the piece ( unturned )
+     * @param height    The height of the piece ( unturned )
+     */
+    public void setBoardVariables( int xOffset, int yOffset, int turnSteps, int width, int height )
+    {
         this.turnSteps = turnSteps;
+        this.placement = new PiecePlacement( grid, width, height, xOffset, yOffset, turnSteps );
     }
     
+    /**
+     * Adds the standard position of a flag to the board being built
+     * 
+     * @param xCoordinate the x-Coordinate of the flag
+     * @param yCoordinate the y-Coordinate of the flag
+     * @param number      the orderNumber of the flag
+     */
     public void addFlag( int xCoordinate, int yCoordinate, int number )
     {
-        Flag flag = new Flag( -1, number );
-        this.board[yCoordinate][xCoordinate].setFlag( flag );
-        flag.setArchiveMarker( board[yCoordinate][xCoordinate] );
-        
-        flags.put( number, flag );
-        
+        flagPositions.put( number, getElement( xCoordinate, yCoordinate ) );
     }
     
     /**
@@ -242,14 +252,13 @@ public class GameBuilder {
 			// ignore the given coordinates and take the one from the map
 			location = flags.get( orderNumber ).getLocation();
 			archiveMarker = flags.get( orderNumber ).getArchiveMarker();
-			// remove the flag from the given location and from the map
-			location.setFlag( null );
+			// remove the flag from the map
 			flags.remove( orderNumber );
 		}
 		else
 		{
-			location = board[yCoord][xCoord];
-			archiveMarker = board[archiveYCoord][archiveXCoord];
+			location = getElement( xCoord, yCoord );
+			archiveMarker = getElement( archiveXCoord, archiveYCoord );
 		}
 		flag.setLocation( location );
 		flag.setArchiveMarker( archiveMarker );
@@ -282,16 +291,16 @@ public class GameBuilder {
 		if( xCoord == -1 || yCoord == -1 || archiveXCoord == -1 || archiveYCoord == -1 )
 		{
 			// Bot hasn't been initialized yet, let's do so by finding the starting position equal to the bot's orderNumber.
-			location = startingPositions.get(orderNumber);
+			location = template.getStartingPosition( orderNumber );
 			archiveMarker = location;
 		}
 		else
 		{
-			location = board[yCoord][xCoord];
-			archiveMarker = board[archiveYCoord][archiveXCoord];
+			location = getElement( xCoord, yCoord );
+			archiveMarker = getElement( archiveXCoord, archiveYCoord );
 		}
 		Bot bot = new Bot( botId, damage, lives, latestFlag, orderNumber, facingDirection );
-		location.setBot( bot );
+		bot.setLocation( location );
 		bot.setArchiveMarker( archiveMarker );
 		bots.add( bot );
 	}
@@ -324,56 +333,58 @@ public class GameBuilder {
     }
     
     /**
-     * Processes the collection of laserMounts, adding the lasers to the boardElements.
+     * Compiles the collection of laserMounts into laser beams, registering each beam at the boardElements it crosses.
      * 
-     * @return the collection of boardElements containing laser mounts
+     * @return the laser beams of this board
      */
-    public Collection<BoardElement> getLaserMounts()
+    private List<LaserBeam> compileLaserBeams()
     {
+    	List<LaserBeam> beams = new ArrayList<LaserBeam>();
         for( BoardElement element : laserMounts.keySet() )
         {
             for( Entry<Direction, Integer> laser :  laserMounts.get( element ).entrySet() )
             {
-                element.addLaser( laser.getValue(), laser.getKey(), null );
+            	LaserBeam beam = LaserBeam.trace( grid, element.getIndex(), laser.getKey(), laser.getValue() );
+            	for( int i = 0; i < beam.getLength(); i++ )
+            	{
+            		grid.getElement( beam.getCell( i ) ).addLaserBeam( beam );
+            	}
+            	beams.add( beam );
             }
         }
         
-        return laserMounts.keySet();
+        return beams;
     }
     
     /**
-     * Add the constructed element to the board in the given position.
-     * Also links it to its neighbours
+     * Returns the element currently placed at the given coordinates
      * 
-     * @param element
-     * @param coordinates
-     * @param xOffset
-     * @param yOffset
-     * @param turnSteps
+     * @param xCoordinate The x-Coordinate
+     * @param yCoordinate The y-Coordinate
+     * 
+     * @return The element at those coordinates
      */
-    public void addElement( AbstractBoardElement element, Point2D coordinates )
+    private BoardElement getElement( int xCoordinate, int yCoordinate )
     {
-        Point2D realCoordinates = getRealCoordinates( coordinates, xOffset, yOffset, turnSteps );
-        int xCoordinate = (int) realCoordinates.getX();
-        int yCoordinate = (int) realCoordinates.getY();
-        element.withCoordinates( xCoordinate, yCoordinate );
-        this.board[yCoordinate][xCoordinate] = element;
-        if( xCoordinate > 0 )
-        {
-            element.addNeighbour( Direction.WEST, this.board[yCoordinate][xCoordinate - 1] );
-        }
-        if( yCoordinate > 0 )
-        {
-            element.addNeighbour( Direction.NORTH, this.board[yCoordinate - 1][xCoordinate] );
-        }
-        if( xCoordinate < xSize - 1 )
-        {
-            element.addNeighbour( Direction.EAST, this.board[yCoordinate][xCoordinate + 1] );
-        }
-        if( yCoordinate < ySize - 1 )
+    	return grid.getElement( grid.getIndex( xCoordinate, yCoordinate ) );
+    }
+    
+    /**
+     * Add the constructed element to the board in the given position of the current board piece.
+     * The grid takes care of its neighbours
+     * 
+     * @param element     The element to add
+     * @param xCoordinate The x-Coordinate within the current board piece
+     * @param yCoordinate The y-Coordinate within the current board piece
+     */
+    public void addElement( AbstractBoardElement element, int xCoordinate, int yCoordinate )
+    {
+        int index = placement.getBoardIndex( xCoordinate, yCoordinate );
+        if( index == BoardGrid.NO_CELL )
         {
-            element.addNeighbour( Direction.SOUTH, this.board[yCoordinate + 1][xCoordinate] );
+        	throw new IllegalArgumentException( "Cannot place an element at " + xCoordinate + ", " + yCoordinate + " of the current board piece, it is outside of the board" );
         }
+        grid.setElement( index, element );
         
         // if this element is a starting position, add it to the map of starting positions
         if( element.getBoardElementType().isStartingPosition() )
@@ -382,6 +393,65 @@ public class GameBuilder {
         }
     }
     
+    /**
+     * Registers the element at the given board coordinates as the starting position with the given number
+     * 
+     * @param number      The number of the starting position
+     * @param xCoordinate The x-Coordinate on the board
+     * @param yCoordinate The y-Coordinate on the board
+     */
+    void setStartingPosition( int number, int xCoordinate, int yCoordinate )
+    {
+    	startingPositions.put( number, getElement( xCoordinate, yCoordinate ) );
+    }
+    
+    /**
+     * Adds a single cell of a board as stored in the {@link BoardCatalogue} or a {@link BoardTextFormat}, turned like the current board piece
+     * 
+     * @param xCoordinate The x-Coordinate within the current board piece
+     * @param yCoordinate The y-Coordinate within the current board piece
+     * @param cellType    The kind of element
+     * @param basicType   The basic element type ( starting position, hole, ... )
+     * @param wallMask    The walls ( unturned ) as a direction bitmask
+     * @param direction   The end direction of a conveyor or the direction of a pusher ( unturned ), null for others
+     * @param mask        The starting directions of a conveyor ( unturned ) as a direction bitmask
+     * 
+     * @return The element added
+     */
+    AbstractBoardElement addCell( int xCoordinate, int yCoordinate, 
+    		                      BoardCellType cellType, BasicElementType basicType, 
+    		                      int wallMask, Direction direction, int mask )
+    {
+    	Collection<Direction> walls = Direction.fromMask( wallMask );
+    	AbstractBoardElement element;
+    	switch( cellType )
+    	{
+    		case SINGLE_SPEED_CONVEYOR:
+    			element = createSingleSpeedConveyor( walls, direction, Direction.fromMask( mask ) );
+    			break;
+    		case DUAL_SPEED_CONVEYOR:
+    			element = createDualSpeedConveyor( walls, direction, Direction.fromMask( mask ) );
+    			break;
+    		case ROTATOR_CLOCKWISE:
+    			element = createClockwiseRotator( walls );
+    			break;
+    		case ROTATOR_COUNTERCLOCKWISE:
+    			element = createCounterClockwiseRotator( walls );
+    			break;
+    		case PUSHER_135:
+    			element = create135Pusher( walls, direction );
+    			break;
+    		case PUSHER_24:
+    			element = create24Pusher( walls, direction );
+    			break;
+    		default:
+    			element = createBasicElement( walls, basicType );
+    			break;
+    	}
+    	addElement( element, xCoordinate, yCoordinate );
+    	return element;
+    }
+    
     private AbstractBoardElement createBasicElement( Collection<Direction> walls, BasicElementType type )
     {
         return new BasicElement().withBasicElementType( type ).withWalls( Direction.turnCollection( walls, turnSteps ) );
@@ -462,7 +532,6 @@ public class GameBuilder {
 
     /**
      * Adds the elements for the first starting board to the builder, given the x and yOffsets
-     * TODO: Support turning?
      * 
      * @param xOffset The x-Offset
      * @param yOffset The y-Offset
@@ -470,136 +539,160 @@ public class GameBuilder {
      */
     public void addFirstStartingBoard( int xOffset, int yOffset ) 
     {
-        setBoardVariables( xOffset, yOffset, 0 );
+    	addFirstStartingBoard( xOffset, yOffset, 0 );
+    }
+
+    /**
+     * Adds the elements for the first starting board to the builder, given the x and yOffsets
+     * 
+     * @param xOffset   The x-Offset
+     * @param yOffset   The y-Offset
+     * @param turnSteps The number of steps to turn this board
+     *  
+     */
+    public void addFirstStartingBoard( int xOffset, int yOffset, int turnSteps ) 
+    {
+        setBoardVariables( xOffset, yOffset, turnSteps, STANDARD_BOARD_SIZE, STARTING_BOARD_HEIGHT );
 
         // row 0
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 2, 0 ) );
+                    2, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 4, 0 ) );
+                    4, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 7, 0 ) );
+                    7, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 0 ) );
+                    9, 0 );
         //row 2
         addElement( createBasicElement( Direction.of( Direction.EAST ), BasicElementType.STARTING_7 ), 
-                    new Point( 0, 2 ) );
+                    0, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST ), BasicElementType.STARTING_5 ), 
-                    new Point( 1, 2 ) );
+                    1, 2 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 2, 2 ) );
+                    2, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST ), BasicElementType.STARTING_3 ), 
-                    new Point( 3, 2 ) );
+                    3, 2 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 4, 2 ) );
+                    4, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST, Direction.EAST ), BasicElementType.STARTING_1 ), 
-                    new Point( 5, 2 ) );
+                    5, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST, Direction.EAST ), BasicElementType.STARTING_2 ), 
-                    new Point( 6, 2 ) );
+                    6, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 7, 2 ) );
+                    7, 2 );
         addElement( createBasicElement( Direction.of( Direction.EAST ), BasicElementType.STARTING_4 ), 
-                    new Point( 8, 2 ) );
+                    8, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 9, 2 ) );
+                    9, 2 );
         addElement( createBasicElement( Direction.of( Direction.EAST ), BasicElementType.STARTING_6 ), 
-                    new Point( 10, 2 ) );
+                    10, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST ), BasicElementType.STARTING_8 ), 
-                    new Point( 11, 2 ) );
+                    11, 2 );
 
        // row 3
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 3 ) );
+                    2, 3 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 4, 3 ) );
+                    4, 3 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 7, 3 ) );
+                    7, 3 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 9, 3 ) );
+                    9, 3 );
     }
 
     /**
      * Adds the elements for the second starting board to the builder, given the x and yOffsets
-     * TODO: Support turning?
      * 
      * @param xOffset The x-Offset
      * @param yOffset The y-Offset
      */
     public void addSecondStartingBoard( int xOffset, int yOffset ) 
     {
-        setBoardVariables( xOffset, yOffset, 0 );
+    	addSecondStartingBoard( xOffset, yOffset, 0 );
+    }
+
+    /**
+     * Adds the elements for the second starting board to the builder, given the x and yOffsets
+     * 
+     * @param xOffset   The x-Offset
+     * @param yOffset   The y-Offset
+     * @param turnSteps The number of steps to turn this board
+     */
+    public void addSecondStartingBoard( int xOffset, int yOffset, int turnSteps ) 
+    {
+        setBoardVariables( xOffset, yOffset, turnSteps, STANDARD_BOARD_SIZE, STARTING_BOARD_HEIGHT );
     
         // row 0
         addElement( createBasicElement( BasicElementType.STARTING_7 ), 
-                    new Point( 0, 0 ) );
+                    0, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 2, 0 ) );
+                    2, 0 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 3, 0 ) );
+                    3, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH, Direction.WEST ) ), 
-                    new Point( 4, 0 ) );
+                    4, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH, Direction.EAST ) ), 
-                    new Point( 7, 0 ) );
+                    7, 0 );
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 8, 0 ) );
+                    8, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 0 ) );
+                    9, 0 );
         addElement( createBasicElement( BasicElementType.STARTING_8 ), 
-                    new Point( 11, 0 ) );
+                    11, 0 );
     
         // row 1
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 0, 1 ) );
+                    0, 1 );
         addElement( createBasicElement( Direction.of( Direction.WEST, Direction.EAST ), BasicElementType.STARTING_5 ), 
-                    new Point( 1, 1 ) );
+                    1, 1 );
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 2, 1 ) );
+                    2, 1 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 9, 1 ) );
+                    9, 1 );
         addElement( createBasicElement( Direction.of( Direction.WEST, Direction.EAST ), BasicElementType.STARTING_6 ), 
-                    new Point( 10, 1 ) );
+                    10, 1 );
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 11, 1 ) );
+                    11, 1 );
     
         // row 2
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 2 ) );
+                    0, 2 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 1, 2 ) );
+                    1, 2 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.WEST ) ), 
-                    new Point( 2, 2 ) );
+                    2, 2 );
         addElement( createBasicElement( BasicElementType.STARTING_3 ), 
-                    new Point( 3, 2 ) );
+                    3, 2 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 5, 2 ) );
+                    5, 2 );
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 6, 2 ) );
+                    6, 2 );
         addElement( createBasicElement( BasicElementType.STARTING_4 ), 
-                    new Point( 8, 2 ) );
+                    8, 2 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.EAST ) ), 
-                    new Point( 9, 2 ) );
+                    9, 2 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 10, 2 ) );
+                    10, 2 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 2 ) );
+                    11, 2 );
     
         // row 3
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.NORTH ) ), 
-                    new Point( 2, 3 ) );
+                    2, 3 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 3, 3 ) );
+                    3, 3 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 4, 3 ) );
+                    4, 3 );
         addElement( createBasicElement( Direction.of( Direction.EAST ), BasicElementType.STARTING_1 ), 
-                    new Point( 5, 3 ) );
+                    5, 3 );
         addElement( createBasicElement( Direction.of( Direction.WEST ), BasicElementType.STARTING_2 ), 
-                    new Point( 6, 3 ) );
+                    6, 3 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 7, 3 ) );
+                    7, 3 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 8, 3 ) );
+                    8, 3 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 3 ) );
+                    9, 3 );
     }
 
     /**
@@ -616,303 +709,303 @@ public class GameBuilder {
         setBoardVariables( xOffset, yOffset, turnSteps );
         // row 0
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
         addElement( create24Pusher( Direction.of( Direction.NORTH ), Direction.SOUTH ), 
-                    new Point( 2, 0 ) );
+                    2, 0 );
         addElement( createBasicElement( BasicElementType.OPTION ), 
-                    new Point( 3, 0 ) );
+                    3, 0 );
         addElement( create135Pusher( Direction.of( Direction.NORTH ), Direction.SOUTH ), 
-                    new Point( 4, 0 ) );
+                    4, 0 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 0 ) );
+                    5, 0 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 0 ) );
+                    6, 0 );
         addElement( create135Pusher( Direction.of( Direction.NORTH ), Direction.SOUTH ), 
-                    new Point( 7, 0 ) );
+                    7, 0 );
         addElement( create24Pusher( Direction.of( Direction.NORTH ), Direction.SOUTH ), 
-                    new Point( 9, 0 ) );
+                    9, 0 );
         addElement( createBasicElement( BasicElementType.REPAIR ), 
-                    new Point( 11, 0 ) );
+                    11, 0 );
         
         // row 1
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.NORTH, Direction.SOUTH ) ), 
-                    new Point( 1, 1 ) );
+                    1, 1 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 2, 1 ) );
+                    2, 1 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 3, 1 ) );
+                    3, 1 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 4, 1 ) );
+                    4, 1 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST, Direction.NORTH ) ), 
-                    new Point( 5, 1 ) );
+                    5, 1 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 6, 1 ) );
+                    6, 1 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 7, 1 ) );
+                    7, 1 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 8, 1 ) );
+                    8, 1 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.WEST ) ), 
-                    new Point( 9, 1 ) );
+                    9, 1 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.EAST ) ), 
-                    new Point( 10, 1 ) );
+                    10, 1 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 1 ) );
+                    11, 1 );
         
         // row 2
         addElement( create24Pusher( Direction.of( Direction.WEST ), Direction.EAST ), 
-                    new Point( 0, 2 ) );
+                    0, 2 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 2 ) );
+                    1, 2 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 2 ) );
+                    2, 2 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 3, 2 ) );
+                    3, 2 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 4, 2 ) );
+                    4, 2 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.SOUTH ), Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 5, 2 ) );
+                    5, 2 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 6, 2 ) );
+                    6, 2 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 7, 2 ) );
+                    7, 2 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.WEST ) ), 
-                    new Point( 8, 2 ) );
+                    8, 2 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 2 ) );
+                    9, 2 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 2 ) );
+                    10, 2 );
         addElement( create24Pusher( Direction.of( Direction.EAST ), Direction.WEST ), 
-                    new Point( 11, 2 ) );
+                    11, 2 );
     
         // row 3
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 3 ) );
+                    1, 3 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 3 ) );
+                    2, 3 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 3 ) );
+                    3, 3 );
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 4, 3 ) );
+                    4, 3 );
     
         temp = createDualSpeedConveyor( Direction.of( Direction.NORTH ), Direction.EAST, Direction.of( Direction.WEST ) );
         addElement( temp, 
-                    new Point( 5, 3 ) );
+                    5, 3 );
         addLaserMount( temp, Direction.NORTH, 1 );
     
         addElement( createDualSpeedConveyor( Direction.of( Direction.SOUTH ), Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 6, 3 ) );
+                    6, 3 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.WEST ) ), 
-                    new Point( 7, 3 ) );
+                    7, 3 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 3 ) );
+                    8, 3 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 3 ) );
+                    9, 3 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 3 ) );
+                    10, 3 );
     
         // row 4
         addElement( create135Pusher( Direction.of( Direction.WEST ), Direction.EAST ), 
-                    new Point( 0, 4 ) );
+                    0, 4 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 4 ) );
+                    1, 4 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 4 ) );
+                    2, 4 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 4 ) );
+                    3, 4 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 4, 4 ) );
+                    4, 4 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 5, 4 ) );
+                    5, 4 );
     
         temp = createSingleSpeedConveyor( Direction.of( Direction.NORTH ), Direction.SOUTH, Direction.of( Direction.WEST ) );
         addElement( temp, 
-                    new Point( 6, 4 ) );
+                    6, 4 );
         addLaserMount( temp, Direction.NORTH, 1 );
     
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 7, 4 ) );
+                    7, 4 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 4 ) );
+                    8, 4 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 4 ) );
+                    9, 4 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 4 ) );
+                    10, 4 );
         addElement( create135Pusher( Direction.of( Direction.EAST ), Direction.WEST ), 
-                    new Point( 11, 4 ) );
+                    11, 4 );
     
         // row 5
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 5 ) );
+                    1, 5 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 5 ) );
+                    2, 5 );
         addElement( createDualSpeedConveyor( Direction.of( Direction.EAST ), Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 5 ) );
+                    3, 5 );
     
         temp = createSingleSpeedConveyor( Direction.of( Direction.WEST ), Direction.NORTH, Direction.of( Direction.SOUTH ) );
         addElement( temp, 
-                    new Point( 4, 5 ) );
+                    4, 5 );
         addLaserMount( temp, Direction.WEST, 1 );
     
         addElement( createBasicElement( BasicElementType.HOLE ), 
-                    new Point( 5, 5 ) );
+                    5, 5 );
         addElement( createBasicElement( BasicElementType.HOLE ), 
-                    new Point( 6, 5 ) );
+                    6, 5 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 7, 5 ) );
+                    7, 5 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.EAST ), Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 5 ) );
+                    8, 5 );
         addElement( createDualSpeedConveyor( Direction.of( Direction.WEST ), Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 5 ) );
+                    9, 5 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH, Direction.EAST ) ), 
-                    new Point( 10, 5 ) );
+                    10, 5 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 5 ) );
+                    11, 5 );
     
         // row 6
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 6 ) );
+                    0, 6 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.WEST, Direction.SOUTH ) ), 
-                    new Point( 1, 6 ) );
+                    1, 6 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.EAST ), Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 6 ) );
+                    2, 6 );
         
         temp = createDualSpeedConveyor( Direction.of( Direction.WEST ), Direction.NORTH, Direction.of( Direction.SOUTH ) );
         addElement( temp, 
-                    new Point( 3, 6 ) );
+                    3, 6 );
         addLaserMount( temp, Direction.WEST, 1 );
         
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 4, 6 ) );
+                    4, 6 );
         addElement( createBasicElement( BasicElementType.HOLE ), 
-                    new Point( 5, 6 ) );
+                    5, 6 );
         addElement( createBasicElement( BasicElementType.HOLE ), 
-                    new Point( 6, 6 ) );
+                    6, 6 );
         addElement( createDualSpeedConveyor( Direction.of( Direction.EAST ), Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 7, 6 ) );
+                    7, 6 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.WEST ), Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 6 ) );
+                    8, 6 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 6 ) );
+                    9, 6 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 6 ) );
+                    10, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 11, 6 ) );
+                    11, 6 );
     
         // row 7
         addElement( create135Pusher( Direction.of( Direction.WEST ), Direction.EAST ), 
-                    new Point( 0, 7 ) );
+                    0, 7 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 7 ) );
+                    1, 7 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 7 ) );
+                    2, 7 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 7 ) );
+                    3, 7 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 4, 7 ) );
+                    4, 7 );
         addElement( createDualSpeedConveyor( Direction.of( Direction.SOUTH ), Direction.NORTH, Direction.of( Direction.EAST ) ), 
-                    new Point( 5, 7 ) );
+                    5, 7 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 6, 7 ) );
+                    6, 7 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.NORTH ) ), 
-                    new Point( 7, 7 ) );
+                    7, 7 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 7 ) );
+                    8, 7 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 7 ) );
+                    9, 7 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 7 ) );
+                    10, 7 );
         addElement( create135Pusher( Direction.of( Direction.EAST ), Direction.WEST ), 
-                    new Point( 11, 7 ) );
+                    11, 7 );
     
         // row 8
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 8 ) );
+                    1, 8 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 8 ) );
+                    2, 8 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 8 ) );
+                    3, 8 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.EAST ) ), 
-                    new Point( 4, 8 ) );
+                    4, 8 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.NORTH ), Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 5, 8 ) );
+                    5, 8 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.SOUTH ), Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 6, 8 ) );
+                    6, 8 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 7, 8 ) );
+                    7, 8 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 8 ) );
+                    8, 8 );
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 8 ) );
+                    9, 8 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 8 ) );
+                    10, 8 );
     
         // row 9
         addElement( create24Pusher( Direction.of( Direction.WEST ), Direction.EAST ), 
-                    new Point( 0, 9 ) );
+                    0, 9 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 9 ) );
+                    1, 9 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 9 ) );
+                    2, 9 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.EAST ) ), 
-                    new Point( 3, 9 ) );
+                    3, 9 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 4, 9 ) );
+                    4, 9 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 5, 9 ) );
+                    5, 9 );
         addElement( createDualSpeedConveyor( Direction.of( Direction.NORTH ), Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 6, 9 ) );
+                    6, 9 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 7, 9 ) );
+                    7, 9 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 8, 9 ) );
+                    8, 9 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 9 ) );
+                    9, 9 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 9 ) );
+                    10, 9 );
         addElement( create24Pusher( Direction.of( Direction.EAST ), Direction.WEST ), 
-                    new Point( 11, 9 ) );
+                    11, 9 );
         
         // row 10
         addElement( createDualSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 10 ) );
+                    0, 10 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.WEST ) ), 
-                    new Point( 1, 10 ) );
+                    1, 10 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.EAST ) ), 
-                    new Point( 2, 10 ) );
+                    2, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 3, 10 ) );
+                    3, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 4, 10 ) );
+                    4, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 5, 10 ) );
+                    5, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST, Direction.SOUTH ) ), 
-                    new Point( 6, 10 ) );
+                    6, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 7, 10 ) );
+                    7, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 8, 10 ) );
+                    8, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 9, 10 ) );
+                    9, 10 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.NORTH, Direction.SOUTH ) ), 
-                    new Point( 10, 10 ) );
+                    10, 10 );
     
         // row 11
         addElement( createBasicElement( BasicElementType.REPAIR ), 
-                    new Point( 0, 11 ) );
+                    0, 11 );
         addElement( create24Pusher( Direction.of( Direction.SOUTH ), Direction.NORTH ), 
-                    new Point( 2, 11 ) );
+                    2, 11 );
         addElement( create135Pusher( Direction.of( Direction.SOUTH ), Direction.NORTH ), 
-                    new Point( 4, 11 ) );
+                    4, 11 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 11 ) );
+                    6, 11 );
         addElement( create135Pusher( Direction.of( Direction.SOUTH ), Direction.NORTH ), 
-                    new Point( 7, 11 ) );
+                    7, 11 );
         addElement( createBasicElement( BasicElementType.OPTION ), 
-                    new Point( 8, 11 ) );
+                    8, 11 );
         addElement( create24Pusher( Direction.of( Direction.SOUTH ), Direction.NORTH ), 
-                    new Point( 9, 11 ) );
+                    9, 11 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 10, 11 ) );
+                    10, 11 );
     }
 
     /**
@@ -930,7 +1023,7 @@ public class GameBuilder {
         // row 0
         /*
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
     
         board[2][0]   = new BasicElement(            2,  0,  getSouthDirs()       );
         board[4][0]   = new BasicElement(            4,  0,  getSouthDirs()       );
@@ -1042,7 +1135,7 @@ public class GameBuilder {
         // row 0
         /*
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
     
         board[1][0]   = new SingleSpeedConveyor(     1,  0,  null,                getNorthDirs(), Direction.SOUTH);
         board[2][0]   = new BasicElement(            2,  0,  getSouthDirs()       ); // Laser mount south, strength 1
@@ -1153,7 +1246,7 @@ public class GameBuilder {
         // row 0
         /*
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
     
         board[2][0]   = new BasicElement(            2,  0,  getSouthDirs()       );
         board[4][0]   = new BasicElement(            4,  0,  getSouthDirs()       );
@@ -1285,7 +1378,7 @@ public class GameBuilder {
         // row 0
         /*
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
     
         board[2][0]   = new BasicElement(            2,  0,  getSouthDirs()       );
         board[4][0]   = new BasicElement(            4,  0,  getSouthDirs()       );
@@ -1399,7 +1492,7 @@ public class GameBuilder {
         // row 0
         /*
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
     
         board[1][0]   = new SingleSpeedConveyor(     1,  0,  null,                getNorthDirs(), Direction.SOUTH);
         board[2][0]   = new BasicElement(            2,  0,  getSouthDirs()       );
@@ -1523,7 +1616,7 @@ public class GameBuilder {
         // row 0
         /*
         addElement( createDualSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
     
         board[2][0]   = new BasicElement(            2,  0,  getSouthDirs()       );
         board[4][0]   = new BasicElement(            4,  0,  getSouthDirs()       );
@@ -1630,231 +1723,231 @@ public class GameBuilder {
         setBoardVariables( xOffset, yOffset, turnSteps );
         // row 0
         addElement( createBasicElement( BasicElementType.REPAIR ), 
-                    new Point( 0, 0 ) );
+                    0, 0 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 0 ) );
+                    1, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 2, 0 ) );
+                    2, 0 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 0 ) );
+                    3, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 4, 0 ) );
+                    4, 0 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 0 ) );
+                    6, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 7, 0 ) );
+                    7, 0 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 0 ) );
+                    8, 0 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 9, 0 ) );
+                    9, 0 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 10, 0 ) );
+                    10, 0 );
     
         // row 1
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 0, 1 ) );
+                    0, 1 );
         addElement( createClockwiseRotator(), 
-                    new Point( 1, 1 ) );
+                    1, 1 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 1 ) );
+                    3, 1 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 1 ) );
+                    5, 1 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 1 ) );
+                    6, 1 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 1 ) );
+                    8, 1 );
         addElement( createBasicElement( Direction.of( Direction.NORTH ) ), 
-                    new Point( 10, 1 ) );
+                    10, 1 );
         addElement( createBasicElement( BasicElementType.HOLE ), 
-                    new Point( 11, 1 ) );
+                    11, 1 );
         
         // row 2
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 2 ) );
+                    0, 2 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 1, 2 ) );
+                    1, 2 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 2 ) );
+                    3, 2 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 2 ) );
+                    5, 2 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 2 ) );
+                    6, 2 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 2 ) );
+                    8, 2 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 2 ) );
+                    11, 2 );
     
         // row 3
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 3 ) );
+                    0, 3 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.NORTH ), Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 1, 3 ) );
+                    1, 3 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 2, 3 ) );
+                    2, 3 );
         addElement( createCounterClockwiseRotator(), 
-                    new Point( 3, 3 ) );
+                    3, 3 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 3 ) );
+                    5, 3 );
         addElement( createDualSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 3 ) );
+                    6, 3 );
         addElement( createCounterClockwiseRotator(), 
-                    new Point( 8, 3 ) );
+                    8, 3 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 9, 3 ) );
+                    9, 3 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 10, 3 ) );
+                    10, 3 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 11, 3 ) );
+                    11, 3 );
     
         // row 4
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 4 ) );
+                    0, 4 );
         addElement( createBasicElement( Direction.of( Direction.EAST, Direction.SOUTH ), BasicElementType.OPTION ), 
-                    new Point( 4, 4 ) );
+                    4, 4 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.WEST ), Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 4 ) );
+                    5, 4 );
         addElement( createDualSpeedConveyor( Direction.of( Direction.EAST ), Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 4 ) );
+                    6, 4 );
         addElement( createBasicElement( Direction.of( Direction.WEST, Direction.SOUTH ) ), 
-                    new Point( 7, 4 ) );
+                    7, 4 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 4 ) );
+                    11, 4 );
     
         // row 5
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 0, 5 ) );
+                    0, 5 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 1, 5 ) );
+                    1, 5 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 2, 5 ) );
+                    2, 5 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 3, 5 ) );
+                    3, 5 );
         addElement( createDualSpeedConveyor( Direction.of( Direction.NORTH ), Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 4, 5 ) );
+                    4, 5 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.NORTH ), Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 7, 5 ) );
+                    7, 5 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 8, 5 ) );
+                    8, 5 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 9, 5 ) );
+                    9, 5 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 10, 5 ) );
+                    10, 5 );
     
         // row 6
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 6 ) );
+                    0, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 1, 6 ) );
+                    1, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 2, 6 ) );
+                    2, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 3, 6 ) );
+                    3, 6 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.SOUTH ), Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 4, 6 ) );
+                    4, 6 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.SOUTH ), Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 7, 6 ) );
+                    7, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 8, 6 ) );
+                    8, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 9, 6 ) );
+                    9, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 10, 6 ) );
+                    10, 6 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 11, 6 ) );
+                    11, 6 );
         
         // row 7
         addElement( createBasicElement( Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 7 ) );
+                    0, 7 );
         addElement( createBasicElement( Direction.of( Direction.EAST, Direction.NORTH ) ), 
-                    new Point( 4, 7 ) );
+                    4, 7 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.WEST ), Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 7 ) );
+                    5, 7 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.EAST ), Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 7 ) );
+                    6, 7 );
         addElement( createBasicElement( Direction.of( Direction.WEST, Direction.NORTH ) ), 
-                    new Point( 7, 7 ) );
+                    7, 7 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 7 ) );
+                    11, 7 );
     
         // row 8
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 0, 8 ) );
+                    0, 8 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 1, 8 ) );
+                    1, 8 );
         addElement( createDualSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 2, 8 ) );
+                    2, 8 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 8 ) );
+                    3, 8 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 8 ) );
+                    5, 8 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 8 ) );
+                    6, 8 );
         addElement( createCounterClockwiseRotator(), 
-                    new Point( 8, 8 ) );
+                    8, 8 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 9, 8 ) );
+                    9, 8 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 10, 8 ) );
+                    10, 8 );
         addElement( createSingleSpeedConveyor( Direction.WEST, Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 8 ) );
+                    11, 8 );
     
         // row 9
         temp = createBasicElement( Direction.of( Direction.WEST ) );
         addElement( temp, 
-                    new Point( 0, 9 ) );
+                    0, 9 );
         addLaserMount( temp, Direction.WEST, 1 );
         
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 2, 9 ) );
+                    2, 9 );
         addElement( createSingleSpeedConveyor( Direction.of( Direction.WEST ), Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 9 ) );
+                    3, 9 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 9 ) );
+                    5, 9 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 9 ) );
+                    6, 9 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 9 ) );
+                    8, 9 );
         addElement( createBasicElement( Direction.of( Direction.EAST ) ), 
-                    new Point( 11, 9 ) );
+                    11, 9 );
     
         // row 10
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 0, 10 ) );
+                    0, 10 );
         addElement( createClockwiseRotator(), 
-                    new Point( 1, 10 ) );
+                    1, 10 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 10 ) );
+                    3, 10 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 10 ) );
+                    5, 10 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 10 ) );
+                    6, 10 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 10 ) );
+                    8, 10 );
         addElement( createBasicElement( BasicElementType.HOLE ), 
-                    new Point( 9, 10 ) );
+                    9, 10 );
         addElement( createSingleSpeedConveyor( Direction.EAST, Direction.of( Direction.WEST ) ), 
-                    new Point( 11, 10 ) );
+                    11, 10 );
     
         // row 11
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 1, 11 ) );
+                    1, 11 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 2, 11 ) );
+                    2, 11 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 3, 11 ) );
+                    3, 11 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 4, 11 ) );
+                    4, 11 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 5, 11 ) );
+                    5, 11 );
         addElement( createSingleSpeedConveyor( Direction.NORTH, Direction.of( Direction.SOUTH ) ), 
-                    new Point( 6, 11 ) );
+                    6, 11 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 7, 11 ) );
+                    7, 11 );
         addElement( createSingleSpeedConveyor( Direction.SOUTH, Direction.of( Direction.NORTH ) ), 
-                    new Point( 8, 11 ) );
+                    8, 11 );
         addElement( createBasicElement( Direction.of( Direction.SOUTH ) ), 
-                    new Point( 9, 11 ) );
+                    9, 11 );
         addElement( createBasicElement( BasicElementType.REPAIR ), 
-                    new Point( 11, 11 ) );
+                    11, 11 );
     }
 }
@@ -25,59 +25,144 @@ public enum ImplementedScenario
 	
 	public byte[] getPreviewImage( int nrOfBots, int factor )
 	{
-	    GameBuilder builder = this.getGameBuilder( true );
-	    builder.addDummyBots( nrOfBots );
-	    return builder.asGame( -1, 0 ).getImage( factor );
-		
+	    return getPreviewImage( name(), nrOfBots, factor );
 	}
 	
+	/**
+	 * Returns a GameBuilder for a new game of this scenario, based on the shared board template
+	 * 
+	 * @param standardFlags Whether to place the flags on their standard positions
+	 * 
+	 * @return The GameBuilder to add the bots and flags to
+	 */
 	public GameBuilder getGameBuilder( boolean standardFlags )
+	{
+		return new GameBuilder( getBoardTemplate(), standardFlags );
+	}
+	
+	/**
+	 * Returns the immutable board of this scenario, shared by all games of this scenario through the {@link BoardCache}.
+	 * Builds it from the board catalogue when it is not cached, keyed by its verified fingerprint.
+	 * 
+	 * @return The board template of this scenario
+	 */
+	public BoardTemplate getBoardTemplate()
+	{
+		return getBoardTemplate( name() );
+	}
+	
+	/**
+	 * Returns the immutable board of the scenario with the given name, either an implemented scenario or one only defined in the board catalogue
+	 * 
+	 * @param scenarioName The name of the scenario
+	 * 
+	 * @return The board template of the scenario
+	 * 
+	 * @throws IllegalArgumentException When there is no scenario with that name
+	 */
+	public static BoardTemplate getBoardTemplate( String scenarioName )
+	{
+		BoardCatalogue catalogue = BoardCatalogue.getInstance();
+		String name = BoardCatalogue.SCENARIO_PREFIX + scenarioName;
+		if( ! catalogue.contains( name ) )
+		{
+			throw new IllegalArgumentException( "No scenario with name " + scenarioName );
+		}
+		return BoardCache.get( Long.toHexString( catalogue.getFingerprint( name ) ), () -> catalogue.createBoardTemplate( name ) );
+	}
+	
+	/**
+	 * Returns the number of flags of the scenario with the given name, either an implemented scenario or one only defined in the board catalogue
+	 * 
+	 * @param scenarioName The name of the scenario
+	 * 
+	 * @return The number of flags
+	 * 
+	 * @throws IllegalArgumentException When there is no scenario with that name
+	 */
+	public static int getNrOfFlags( String scenarioName )
+	{
+		for( ImplementedScenario scenario : values() )
+		{
+			if( scenario.name().equals( scenarioName ) )
+			{
+				return scenario.getNrOfFlags();
+			}
+		}
+		// the standard flag positions of a catalogue-only scenario are all its flags
+		return getBoardTemplate( scenarioName ).getFlagPositions().size();
+	}
+	
+	/**
+	 * Returns a preview image of the scenario with the given name, either an implemented scenario or one only defined in the board catalogue
+	 * 
+	 * @param scenarioName The name of the scenario
+	 * @param nrOfBots     The number of bots to show on their starting positions
+	 * @param factor       The scale of the image
+	 * 
+	 * @return The image ( png )
+	 * 
+	 * @throws IllegalArgumentException When there is no scenario with that name
+	 */
+	public static byte[] getPreviewImage( String scenarioName, int nrOfBots, int factor )
+	{
+		GameBuilder builder = new GameBuilder( getBoardTemplate( scenarioName ), true );
+		builder.addDummyBots( nrOfBots );
+		return builder.asGame( -1, 0 ).getImage( factor );
+	}
+	
+	/**
+	 * Creates a GameBuilder containing the complete board of this scenario, including the standard flag positions
+	 * 
+	 * @return The GameBuilder containing the board
+	 */
+	GameBuilder createBoardBuilder()
 	{
 		switch( this )
 		{
 			case MovingTargets:
-				return getMovingTargetsScenario( standardFlags );
+				return getMovingTargetsScenario();
 			case AgainstTheGrain:
-				return getAgainstTheGrainScenario( standardFlags );
+				return getAgainstTheGrainScenario();
 			case Tricksy:
-				return getTricksyScenario( standardFlags );
+				return getTricksyScenario();
 			case IslandKing:
-				return getIslandKingScenario( standardFlags );
+				return getIslandKingScenario();
 			case OddestSea:
-				return getOddestSeaScenario( standardFlags );
+				return getOddestSeaScenario();
 			case RobotStew:
-				return getRobotStewScenario( standardFlags );
+				return getRobotStewScenario();
 			case LostBearings:
-				return getLostBearingsScenario( standardFlags );
+				return getLostBearingsScenario();
 			case WhirlwindTour:
-				return getWhirlwindTourScenario( standardFlags );
+				return getWhirlwindTourScenario();
 			case VaultAssault:
-				return getVaultAssaultScenario( standardFlags );
+				return getVaultAssaultScenario();
 			case Pilgrimage:
-				return getPilgrimageScenario( standardFlags );
+				return getPilgrimageScenario();
 			case DeathTrap:
-				return getDeathTrapScenario( standardFlags );
+				return getDeathTrapScenario();
 			case AroundTheWorld:
-				return getAroundTheWorldScenario( standardFlags );
+				return getAroundTheWorldScenario();
 			case BloodbathChess:
-				return getBloodbathChessScenario( standardFlags );
+				return getBloodbathChessScenario();
 			case Twister:
-				return getTwisterScenario( standardFlags );
+				return getTwisterScenario();
 			case ChopShopChallenge:
-				return getChopShopChallengeScenario( standardFlags );
+				return getChopShopChallengeScenario();
 			case IslandHop:
-				return getIslandHopScenario( standardFlags );
+				return getIslandHopScenario();
 			case DizzyDash:
-				return getDizzyDashScenario( standardFlags );
+				return getDizzyDashScenario();
 			case Checkmate:
-				return getCheckmateScenario( standardFlags );
+				return getCheckmateScenario();
 			case RiskyExchange:
-				return getRiskyExchangeScenario( standardFlags );
+				return getRiskyExchangeScenario();
 			case Test:
-				return getTestScenario( standardFlags );
+				return getTestScenario();
 			default:
 				// Shouldn't be able to reach here
-				return getTestScenario( standardFlags );
+				return getTestScenario();
 		}
 	}
 
@@ -113,42 +198,36 @@ public enum ImplementedScenario
 		}
 	}
 
-	private GameBuilder getTricksyScenario( boolean standardFlags ) 
+	private GameBuilder getTricksyScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addSecondStartingBoard( 0, 12 );
 	    builder.addCross( 0, 0, -1 );
 
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 9, 1, 1 );
-		    builder.addFlag( 0, 1, 2 );
-		    builder.addFlag( 8, 11, 3 );
-		    builder.addFlag( 3, 7, 4 );
-	    }
+	    builder.addFlag( 9, 1, 1 );
+	    builder.addFlag( 0, 1, 2 );
+	    builder.addFlag( 8, 11, 3 );
+	    builder.addFlag( 3, 7, 4 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getIslandKingScenario( boolean standardFlags ) 
+	private GameBuilder getIslandKingScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addIsland( 0, 0, -1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 5, 4, 1 );
-		    builder.addFlag( 7, 7, 2 );
-		    builder.addFlag( 5, 6, 3 );
-	    }
+	    builder.addFlag( 5, 4, 1 );
+	    builder.addFlag( 7, 7, 2 );
+	    builder.addFlag( 5, 6, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getAgainstTheGrainScenario( boolean standardFlags ) 
+	private GameBuilder getAgainstTheGrainScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 28 );
@@ -156,17 +235,14 @@ public enum ImplementedScenario
 	    builder.addChess( 0, 12, 0 );
 	    builder.addChopShop( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 10, 9, 1 );
-		    builder.addFlag( 3, 3, 2 );
-		    builder.addFlag( 5, 17, 3 );
-	    }
+	    builder.addFlag( 10, 9, 1 );
+	    builder.addFlag( 3, 3, 2 );
+	    builder.addFlag( 5, 17, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getOddestSeaScenario( boolean standardFlags ) 
+	private GameBuilder getOddestSeaScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 28 );
@@ -174,86 +250,71 @@ public enum ImplementedScenario
 	    builder.addMaelstrom( 0, 12, -1 );
 	    builder.addVault( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 8, 6, 1 );
-		    builder.addFlag( 1, 3, 2 );
-		    builder.addFlag( 5, 8, 3 );
-		    builder.addFlag( 9, 2, 4 );
-	    }
+	    builder.addFlag( 8, 6, 1 );
+	    builder.addFlag( 1, 3, 2 );
+	    builder.addFlag( 5, 8, 3 );
+	    builder.addFlag( 9, 2, 4 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getRobotStewScenario( boolean standardFlags ) 
+	private GameBuilder getRobotStewScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addSecondStartingBoard(  0, 12 );
 	    builder.addChopShop( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 0, 4, 1 );
-		    builder.addFlag( 9, 7, 2 );
-		    builder.addFlag( 2, 10, 3 );
-	    }
+	    builder.addFlag( 0, 4, 1 );
+	    builder.addFlag( 9, 7, 2 );
+	    builder.addFlag( 2, 10, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getLostBearingsScenario( boolean standardFlags ) 
+	private GameBuilder getLostBearingsScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addSecondStartingBoard( 0, 12 );
 	    builder.addIsland( 0, 0, -1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 1, 2, 1 );
-		    builder.addFlag( 10, 9, 2 );
-		    builder.addFlag( 2, 8, 3 );
-	    }
+	    builder.addFlag( 1, 2, 1 );
+	    builder.addFlag( 10, 9, 2 );
+	    builder.addFlag( 2, 8, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getWhirlwindTourScenario( boolean standardFlags ) 
+	private GameBuilder getWhirlwindTourScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addMaelstrom( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 8, 0, 1 );
-		    builder.addFlag( 3, 11, 2 );
-		    builder.addFlag( 11, 6, 3 );
-	    }
+	    builder.addFlag( 8, 0, 1 );
+	    builder.addFlag( 3, 11, 2 );
+	    builder.addFlag( 11, 6, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getVaultAssaultScenario( boolean standardFlags ) 
+	private GameBuilder getVaultAssaultScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addSecondStartingBoard( 0, 12 );
 	    builder.addVault( 0, 0, 0 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 6, 3, 1 );
-		    builder.addFlag( 4, 11, 2 );
-		    builder.addFlag( 8, 5, 3 );
-	    }
+	    builder.addFlag( 6, 3, 1 );
+	    builder.addFlag( 4, 11, 2 );
+	    builder.addFlag( 8, 5, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getPilgrimageScenario( boolean standardFlags ) 
+	private GameBuilder getPilgrimageScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 28 );
@@ -261,34 +322,28 @@ public enum ImplementedScenario
 	    builder.addExchange( 0, 12, 0 );
 	    builder.addCross( 0, 0, -1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 4, 15, 1 );
-		    builder.addFlag( 9, 26, 2 );
-		    builder.addFlag( 2, 5, 3 );
-	    }
+	    builder.addFlag( 4, 15, 1 );
+	    builder.addFlag( 9, 26, 2 );
+	    builder.addFlag( 2, 5, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getDeathTrapScenario( boolean standardFlags ) 
+	private GameBuilder getDeathTrapScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addIsland( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 7, 7, 1 );
-		    builder.addFlag( 0, 4, 2 );
-		    builder.addFlag( 6, 5, 3 );
-	    }
+	    builder.addFlag( 7, 7, 1 );
+	    builder.addFlag( 0, 4, 2 );
+	    builder.addFlag( 6, 5, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getAroundTheWorldScenario( boolean standardFlags ) 
+	private GameBuilder getAroundTheWorldScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 28 );
@@ -296,122 +351,101 @@ public enum ImplementedScenario
 	    builder.addSpinZone( 0, 12, -1 );
 	    builder.addIsland( 0, 0, -1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 9, 12, 1 );
-		    builder.addFlag( 6, 1, 2 );
-		    builder.addFlag( 5, 22, 3 );
-	    }
+	    builder.addFlag( 9, 12, 1 );
+	    builder.addFlag( 6, 1, 2 );
+	    builder.addFlag( 5, 22, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getBloodbathChessScenario( boolean standardFlags ) 
+	private GameBuilder getBloodbathChessScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addChess( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 6, 5, 1 );
-		    builder.addFlag( 2, 9, 2 );
-		    builder.addFlag( 8, 7, 3 );
-		    builder.addFlag( 3, 4, 4 );
-	    }
+	    builder.addFlag( 6, 5, 1 );
+	    builder.addFlag( 2, 9, 2 );
+	    builder.addFlag( 8, 7, 3 );
+	    builder.addFlag( 3, 4, 4 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getTwisterScenario( boolean standardFlags ) 
+	private GameBuilder getTwisterScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addSecondStartingBoard( 0, 12 );
 	    builder.addSpinZone( 0, 0, 2 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 2, 9, 1 );
-		    builder.addFlag( 3, 2, 2 );
-		    builder.addFlag( 9, 2, 3 );
-		    builder.addFlag( 8, 9, 4 );
-	    }
+	    builder.addFlag( 2, 9, 1 );
+	    builder.addFlag( 3, 2, 2 );
+	    builder.addFlag( 9, 2, 3 );
+	    builder.addFlag( 8, 9, 4 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getChopShopChallengeScenario( boolean standardFlags ) 
+	private GameBuilder getChopShopChallengeScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addChopShop( 0, 0, -1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 4, 9, 1 );
-		    builder.addFlag( 9, 11, 2 );
-		    builder.addFlag( 1, 10, 3 );
-		    builder.addFlag( 11, 7, 4 );
-	    }
+	    builder.addFlag( 4, 9, 1 );
+	    builder.addFlag( 9, 11, 2 );
+	    builder.addFlag( 1, 10, 3 );
+	    builder.addFlag( 11, 7, 4 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getIslandHopScenario( boolean standardFlags ) 
+	private GameBuilder getIslandHopScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addIsland( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 6, 1, 1 );
-		    builder.addFlag( 1, 6, 2 );
-		    builder.addFlag( 11, 4, 3 );
-	    }
+	    builder.addFlag( 6, 1, 1 );
+	    builder.addFlag( 1, 6, 2 );
+	    builder.addFlag( 11, 4, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getDizzyDashScenario( boolean standardFlags ) 
+	private GameBuilder getDizzyDashScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addSecondStartingBoard( 0, 12 );
 	    builder.addSpinZone( 0, 0, 0 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 5, 4, 1 );
-		    builder.addFlag( 10, 11, 2 );
-		    builder.addFlag( 1, 6, 3 );
-	    }
+	    builder.addFlag( 5, 4, 1 );
+	    builder.addFlag( 10, 11, 2 );
+	    builder.addFlag( 1, 6, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getRiskyExchangeScenario( boolean standardFlags ) 
+	private GameBuilder getRiskyExchangeScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addSecondStartingBoard( 0, 12 );
 	    builder.addExchange( 0, 0, 2 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 7, 1, 1 );
-		    builder.addFlag( 9, 7, 2 );
-		    builder.addFlag( 1, 4, 3 );
-	    }
+	    builder.addFlag( 7, 1, 1 );
+	    builder.addFlag( 9, 7, 2 );
+	    builder.addFlag( 1, 4, 3 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getCheckmateScenario( boolean standardFlags ) 
+	private GameBuilder getCheckmateScenario() 
 	{
 	
 	    GameBuilder builder = new GameBuilder();
@@ -419,34 +453,28 @@ public enum ImplementedScenario
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addChess( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 7, 2, 1 );
-		    builder.addFlag( 3, 8, 2 );
-	    }
+	    builder.addFlag( 7, 2, 1 );
+	    builder.addFlag( 3, 8, 2 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getMovingTargetsScenario( boolean standardFlags ) 
+	private GameBuilder getMovingTargetsScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 12, 16 );
 	    builder.addFirstStartingBoard( 0, 12 );
 	    builder.addMaelstrom( 0, 0, 1 );
 	
-	    if( standardFlags )
-	    {
-		    builder.addFlag( 1, 0, 1 );
-		    builder.addFlag( 10, 11, 2 );
-		    builder.addFlag( 11, 5, 3 );
-		    builder.addFlag( 0, 6, 4 );
-	    }
+	    builder.addFlag( 1, 0, 1 );
+	    builder.addFlag( 10, 11, 2 );
+	    builder.addFlag( 11, 5, 3 );
+	    builder.addFlag( 0, 6, 4 );
 	    
 	    return builder;
 	}
 
-	private GameBuilder getTestScenario( boolean standardFlags ) 
+	private GameBuilder getTestScenario() 
 	{
 	    GameBuilder builder = new GameBuilder();
 	    builder.initializeBoard( 24, 52 );
@@ -462,10 +490,7 @@ public enum ImplementedScenario
 	    builder.addExchange(  0,  0,  0 );
 	    builder.addVault(     12, 0,  0 );
 	    
-	    if( standardFlags )
-	    {
-	    	builder.addFlag( 4, 5, 1 );
-	    }
+	    builder.addFlag( 4, 5, 1 );
 	
 	    return builder;
 	}
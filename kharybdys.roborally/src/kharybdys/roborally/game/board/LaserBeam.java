@@ -0,0 +1,120 @@
+package kharybdys.roborally.game.board;
+
+import java.util.Arrays;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * A board laser, compiled when the board is built: the mount cell, the direction in which it fires, its strength
+ * and all cells the beam crosses until it hits a wall or the edge of the board.
+ * Immutable, shared by all games on the same board.
+ */
+public final class LaserBeam
+{
+
+	private final Direction mountDirection;
+	private final Direction firingDirection;
+	private final int strength;
+
+	/**
+	 * The indices of the cells this beam crosses, in order, starting with the mount cell
+	 */
+	private final int[] cells;
+
+	private LaserBeam( Direction mountDirection, int strength, int[] cells )
+	{
+		this.mountDirection = mountDirection;
+		this.firingDirection = mountDirection.processRotate( 2 );
+		this.strength = strength;
+		this.cells = cells;
+	}
+
+	/**
+	 * Follows the laser from the mount over the grid until it hits a wall, on either side of a border, or the edge of the board
+	 *
+	 * @param grid           The grid the laser is mounted on
+	 * @param mountIndex     The index of the cell containing the laser mount
+	 * @param mountDirection The side of the cell the laser mount is on
+	 * @param strength       The strength of the laser
+	 *
+	 * @return The compiled laser beam
+	 */
+	static LaserBeam trace( BoardGrid grid, int mountIndex, Direction mountDirection, int strength )
+	{
+		Direction firing = mountDirection.processRotate( 2 );
+		int[] cells = new int[Math.max( grid.getXSize(), grid.getYSize() )];
+		int length = 0;
+		int current = mountIndex;
+		while( current != BoardGrid.NO_CELL )
+		{
+			cells[length++] = current;
+			// a wall on either side of the border stops the beam, like it stops movement ( see ObstacleTable )
+			int next = grid.hasWall( current, firing ) ? BoardGrid.NO_CELL : grid.getNeighbourIndex( current, firing );
+			current = next != BoardGrid.NO_CELL && grid.hasWall( next, mountDirection ) ? BoardGrid.NO_CELL : next;
+		}
+		return new LaserBeam( mountDirection, strength, Arrays.copyOf( cells, length ) );
+	}
+
+	/**
+	 * Returns the index of the cell containing the laser mount
+	 *
+	 * @return The index of the mount cell
+	 */
+	public int getMountIndex()
+	{
+		return cells[0];
+	}
+
+	/**
+	 * Returns the side of the mount cell the laser mount is on
+	 *
+	 * @return The direction of the laser mount
+	 */
+	public Direction getMountDirection()
+	{
+		return mountDirection;
+	}
+
+	/**
+	 * Returns the direction in which this laser fires (opposite of the mount direction)
+	 *
+	 * @return The direction in which the beam travels
+	 */
+	public Direction getFiringDirection()
+	{
+		return firingDirection;
+	}
+
+	public int getStrength()
+	{
+		return strength;
+	}
+
+	/**
+	 * Returns the number of cells this beam crosses, the mount cell included
+	 *
+	 * @return The length of the beam
+	 */
+	public int getLength()
+	{
+		return cells.length;
+	}
+
+	/**
+	 * Returns the index of the n-th cell crossed by this beam, 0 being the mount cell
+	 *
+	 * @param n The position along the beam
+	 *
+	 * @return The index of that cell
+	 */
+	public int getCell( int n )
+	{
+		return cells[n];
+	}
+
+	@Override
+	public String toString()
+	{
+		return "LaserBeam(" + cells[0] + ", " + firingDirection + ", " + strength + ", " + cells.length + " cells)";
+	}
+}
@@ -0,0 +1,183 @@
+package kharybdys.roborally.game.board;
+
+import kharybdys.roborally.game.definition.Direction;
+
+/**
+ * Precomputed, for every cell and direction, how many steps a bot can move before it runs into an obstacle,
+ * and whether that obstacle is a wall ( the bot stops ) or deadly ( a hole or the edge of the board, the bot dies ).
+ * Built once per board template, so multi-step movements without other bots in the way are resolved with a single lookup.
+ */
+public final class ObstacleTable
+{
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/**
+	 * Number of free steps per cell and direction, indexed by ( index * 4 + direction ordinal )
+	 */
+	private final short[] freeSteps;
+
+	/**
+	 * Per cell, a direction bitmask of the directions in which the obstacle is deadly instead of a wall
+	 */
+	private final byte[] deadlyMasks;
+
+	/**
+	 * Per cell, a direction bitmask of the directions in which a wall blocks the very first step ( on either side of the border )
+	 */
+	private final byte[] blockedMasks;
+
+	/**
+	 * Computes the table for the given grid
+	 *
+	 * @param grid The grid of the board
+	 */
+	ObstacleTable( BoardGrid grid )
+	{
+		int size = grid.getSize();
+		this.freeSteps = new short[size * 4];
+		this.deadlyMasks = new byte[size];
+		this.blockedMasks = new byte[size];
+
+		for( int index = 0; index < size; index++ )
+		{
+			for( Direction direction : DIRECTIONS )
+			{
+				if( isBlocked( grid, index, direction ) )
+				{
+					blockedMasks[index] |= direction.getMask();
+				}
+			}
+		}
+
+		for( int index = 0; index < size; index++ )
+		{
+			for( Direction direction : DIRECTIONS )
+			{
+				int steps = 0;
+				int current = index;
+				boolean deadly = false;
+				while( true )
+				{
+					if( ( blockedMasks[current] & direction.getMask() ) != 0 )
+					{
+						break;
+					}
+					int next = grid.getNeighbourIndex( current, direction );
+					if( next == BoardGrid.NO_CELL || grid.getBasicElementType( next ) == BasicElementType.HOLE )
+					{
+						deadly = true;
+						break;
+					}
+					steps++;
+					current = next;
+				}
+				freeSteps[index * 4 + direction.ordinal()] = (short) steps;
+				if( deadly )
+				{
+					deadlyMasks[index] |= direction.getMask();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether a wall on either side of the border blocks moving from the given cell in the given direction
+	 */
+	private static boolean isBlocked( BoardGrid grid, int index, Direction direction )
+	{
+		if( grid.hasWall( index, direction ) )
+		{
+			return true;
+		}
+		int next = grid.getNeighbourIndex( index, direction );
+		return next != BoardGrid.NO_CELL && grid.hasWall( next, direction.processRotate( 2 ) );
+	}
+
+	/**
+	 * Returns the number of steps that can be taken from the given cell in the given direction before hitting an obstacle
+	 *
+	 * @param index     The index of the cell
+	 * @param direction The direction of movement
+	 *
+	 * @return The number of free steps
+	 */
+	public int getFreeSteps( int index, Direction direction )
+	{
+		return freeSteps[index * 4 + direction.ordinal()];
+	}
+
+	/**
+	 * Returns whether the obstacle in the given direction is deadly ( hole or board edge ) instead of a wall
+	 *
+	 * @param index     The index of the cell
+	 * @param direction The direction of movement
+	 *
+	 * @return Whether running into the obstacle kills the bot
+	 */
+	public boolean isDeadlyObstacle( int index, Direction direction )
+	{
+		return ( deadlyMasks[index] & direction.getMask() ) != 0;
+	}
+
+	/**
+	 * Returns the directions in which a wall blocks leaving the given cell, as a direction bitmask (see {@link Direction#getMask()}).
+	 * Unlike {@link BoardGrid#getWallMask(int)} this includes the walls placed on the neighbouring cells.
+	 *
+	 * @param index The index of the cell
+	 *
+	 * @return The blocked directions
+	 */
+	public int getBlockedMask( int index )
+	{
+		return blockedMasks[index];
+	}
+
+	/**
+	 * Returns whether a wall blocks a single step from the given cell in the given direction
+	 *
+	 * @param index     The index of the cell
+	 * @param direction The direction of movement
+	 *
+	 * @return Whether the step is blocked
+	 */
+	public boolean isBlocked( int index, Direction direction )
+	{
+		return ( blockedMasks[index] & direction.getMask() ) != 0;
+	}
+
+	/**
+	 * Returns whether a single step from the given cell in the given direction kills the bot
+	 *
+	 * @param index     The index of the cell
+	 * @param direction The direction of movement
+	 *
+	 * @return Whether that step kills the bot
+	 */
+	public boolean stepKills( int index, Direction direction )
+	{
+		return freeSteps[index * 4 + direction.ordinal()] == 0 && ( deadlyMasks[index] & direction.getMask() ) != 0;
+	}
+
+	/**
+	 * Resolves a movement of the given number of steps, ignoring other bots.
+	 * Stops at walls, returns NO_CELL if the bot falls into a hole or off the board.
+	 *
+	 * @param grid      The grid of the board ( for the coordinates )
+	 * @param index     The index of the starting cell
+	 * @param direction The direction of movement
+	 * @param steps     The number of steps to move
+	 *
+	 * @return The index of the cell the bot ends up on, NO_CELL if it dies on the way
+	 */
+	public int move( BoardGrid grid, int index, Direction direction, int steps )
+	{
+		int free = freeSteps[index * 4 + direction.ordinal()];
+		if( steps > free && ( deadlyMasks[index] & direction.getMask() ) != 0 )
+		{
+			return BoardGrid.NO_CELL;
+		}
+		int taken = Math.min( steps, free );
+		return index + taken * ( direction.getXDelta() + direction.getYDelta() * grid.getXSize() );
+	}
+}
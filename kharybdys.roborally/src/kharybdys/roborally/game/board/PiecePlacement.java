@@ -0,0 +1,174 @@
+package kharybdys.roborally.game.board;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Integer placement of a rectangular board piece ( a 12x12 board, a 12x4 starting board, ... ) onto a larger board,
+ * at an offset and turned a number of quarter turns clockwise around its own center.
+ * The rotation lookup tables only depend on the size of the piece and the number of turns, so they are computed once and shared.
+ */
+public final class PiecePlacement
+{
+
+	/**
+	 * Rotation tables by ( width, height, quarter turns ): for every local index ( y * width + x ) of the piece,
+	 * the local index within the turned footprint
+	 */
+	private static final ConcurrentMap<Long, int[]> ROTATION_TABLES = new ConcurrentHashMap<Long, int[]>();
+
+	private final int width;
+	private final int height;
+	private final int quarterTurns;
+
+	/**
+	 * For every local index of the piece, the index of the board cell it ends up on ( NO_CELL if outside of the board )
+	 */
+	private final int[] boardIndices;
+
+	/**
+	 * Computes the placement of a piece of the given size on the given grid
+	 *
+	 * @param grid      The grid to place the piece on
+	 * @param width     The width of the piece ( unturned )
+	 * @param height    The height of the piece ( unturned )
+	 * @param xOffset   The x-Coordinate of the top left corner of the turned piece on the board
+	 * @param yOffset   The y-Coordinate of the top left corner of the turned piece on the board
+	 * @param turnSteps The number of quarter turns clockwise, can be negative
+	 */
+	public PiecePlacement( BoardGrid grid, int width, int height, int xOffset, int yOffset, int turnSteps )
+	{
+		this.width = width;
+		this.height = height;
+		this.quarterTurns = turnSteps & 3;
+
+		int[] rotation = getRotationTable( width, height, quarterTurns );
+		int turnedWidth = getTurnedWidth();
+		this.boardIndices = new int[rotation.length];
+		for( int local = 0; local < rotation.length; local++ )
+		{
+			int turned = rotation[local];
+			boardIndices[local] = grid.getIndex( xOffset + turned % turnedWidth, yOffset + turned / turnedWidth );
+		}
+	}
+
+	/**
+	 * Returns the rotation table for a piece of the given size and turns, computing it on first use
+	 */
+	private static int[] getRotationTable( int width, int height, int quarterTurns )
+	{
+		Long key = Long.valueOf( ( (long) width << 34 ) | ( (long) height << 2 ) | quarterTurns );
+		int[] table = ROTATION_TABLES.get( key );
+		if( table == null )
+		{
+			table = computeRotationTable( width, height, quarterTurns );
+			ROTATION_TABLES.putIfAbsent( key, table );
+		}
+		return table;
+	}
+
+	private static int[] computeRotationTable( int width, int height, int quarterTurns )
+	{
+		int turnedWidth = quarterTurns % 2 == 0 ? width : height;
+		int[] table = new int[width * height];
+		for( int y = 0; y < height; y++ )
+		{
+			for( int x = 0; x < width; x++ )
+			{
+				int turnedX;
+				int turnedY;
+				switch( quarterTurns )
+				{
+					case 1:
+						turnedX = height - 1 - y;
+						turnedY = x;
+						break;
+					case 2:
+						turnedX = width - 1 - x;
+						turnedY = height - 1 - y;
+						break;
+					case 3:
+						turnedX = y;
+						turnedY = width - 1 - x;
+						break;
+					default:
+						turnedX = x;
+						turnedY = y;
+						break;
+				}
+				table[y * width + x] = turnedY * turnedWidth + turnedX;
+			}
+		}
+		return table;
+	}
+
+	public int getWidth()
+	{
+		return width;
+	}
+
+	public int getHeight()
+	{
+		return height;
+	}
+
+	/**
+	 * Returns the number of quarter turns clockwise, normalized to 0 - 3
+	 *
+	 * @return The number of quarter turns
+	 */
+	public int getQuarterTurns()
+	{
+		return quarterTurns;
+	}
+
+	/**
+	 * Returns the width the piece occupies on the board, after turning
+	 *
+	 * @return The turned width
+	 */
+	public int getTurnedWidth()
+	{
+		return quarterTurns % 2 == 0 ? width : height;
+	}
+
+	/**
+	 * Returns the height the piece occupies on the board, after turning
+	 *
+	 * @return The turned height
+	 */
+	public int getTurnedHeight()
+	{
+		return quarterTurns % 2 == 0 ? height : width;
+	}
+
+	/**
+	 * Returns the index of the board cell the given cell of the piece ends up on
+	 *
+	 * @param x The x-Coordinate within the ( unturned ) piece
+	 * @param y The y-Coordinate within the ( unturned ) piece
+	 *
+	 * @return The index of the board cell, NO_CELL if outside of the piece or the board
+	 */
+	public int getBoardIndex( int x, int y )
+	{
+		if( x < 0 || y < 0 || x >= width || y >= height )
+		{
+			return BoardGrid.NO_CELL;
+		}
+		return boardIndices[y * width + x];
+	}
+
+	/**
+	 * Returns the index of the board cell the cell with the given local index ( y * width + x ) of the piece ends up on.
+	 * Allows stamping a whole piece by iterating over its local indices.
+	 *
+	 * @param localIndex The local index within the ( unturned ) piece
+	 *
+	 * @return The index of the board cell, NO_CELL if outside of the board
+	 */
+	public int getBoardIndex( int localIndex )
+	{
+		return boardIndices[localIndex];
+	}
+}
@@ -15,4 +15,10 @@ public class Pusher135 extends AbstractPusher {
         pusherPhases.add( 5 );
         pusherText="1 3 5";
     }
+
+    @Override
+    public BoardCellType getCellType()
+    {
+    	return BoardCellType.PUSHER_135;
+    }
 }
@@ -15,4 +15,10 @@ public class Pusher24 extends AbstractPusher {
         pusherPhases.add( 4 );
         pusherText=" 2 4 ";
     }
+
+    @Override
+    public BoardCellType getCellType()
+    {
+    	return BoardCellType.PUSHER_24;
+    }
 }
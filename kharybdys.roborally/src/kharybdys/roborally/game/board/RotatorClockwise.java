@@ -12,4 +12,10 @@ public class RotatorClockwise extends AbstractRotator {
        color = new Color( 0, 127, 0 );
        turnSteps = 1;
     }
+
+    @Override
+    public BoardCellType getCellType()
+    {
+    	return BoardCellType.ROTATOR_CLOCKWISE;
+    }
 }
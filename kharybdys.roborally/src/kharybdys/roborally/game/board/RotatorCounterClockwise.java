@@ -12,4 +12,10 @@ public class RotatorCounterClockwise extends AbstractRotator {
        color = Color.red;
        turnSteps = -1;
     }
+
+    @Override
+    public BoardCellType getCellType()
+    {
+    	return BoardCellType.ROTATOR_COUNTERCLOCKWISE;
+    }
 }
@@ -5,6 +5,7 @@ import java.awt.Graphics;
 import java.util.Collection;
 
 import kharybdys.roborally.game.movement.Movement;
+import kharybdys.roborally.game.movement.MovementBuffer;
 
 /**
  * This class represents a single-speed conveyor belt
@@ -22,6 +23,12 @@ public class SingleSpeedConveyor extends AbstractConveyor
        color = new Color(127, 127, 0);
     }
 
+    @Override
+    public BoardCellType getCellType()
+    {
+    	return BoardCellType.SINGLE_SPEED_CONVEYOR;
+    }
+
     /**
      * Get the basic movement that this board element enacts on the bot in the given phase.
      * For the single-speed conveyor belt this is equal to the current boardelement's movement
@@ -36,6 +43,12 @@ public class SingleSpeedConveyor extends AbstractConveyor
     {
     	return getBasicBoardMovements( false );
     }
+
+    @Override
+    public void addBoardMovements( int phase, int entity, MovementBuffer buffer )
+    {
+    	addBasicBoardMovements( false, entity, buffer );
+    }
     
     /**
      * Responsible for drawing the arrows of the conveyor belt
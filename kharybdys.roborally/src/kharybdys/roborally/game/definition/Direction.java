@@ -8,7 +8,100 @@ import java.util.EnumSet;
  */
 public enum Direction {
 
-    NORTH, EAST, SOUTH, WEST;
+    NORTH(  0, -1 ), 
+    EAST(   1,  0 ), 
+    SOUTH(  0,  1 ), 
+    WEST(  -1,  0 );
+
+    /**
+     * The directions by ordinal, cached as values() copies its array on every call
+     */
+    private static final Direction[] VALUES = values();
+
+    /**
+     * The change in x-coordinate when taking one step in this direction
+     */
+    private final int xDelta;
+
+    /**
+     * The change in y-coordinate when taking one step in this direction (y grows towards the SOUTH)
+     */
+    private final int yDelta;
+
+    private Direction( int xDelta, int yDelta )
+    {
+    	this.xDelta = xDelta;
+    	this.yDelta = yDelta;
+    }
+
+    public int getXDelta()
+    {
+    	return xDelta;
+    }
+
+    public int getYDelta()
+    {
+    	return yDelta;
+    }
+
+    /**
+     * Returns the bit representing this direction in a direction bitmask (eg walls)
+     * 
+     * @return The bit for this direction
+     */
+    public int getMask()
+    {
+    	return 1 << ordinal();
+    }
+
+    /**
+     * Converts the given directions to a bitmask, one bit per direction (see {@link #getMask()})
+     * 
+     * @param directions The directions to convert
+     * 
+     * @return The bitmask representing the given directions
+     */
+    public static int toMask( Collection<Direction> directions )
+    {
+    	int mask = 0;
+    	for( Direction dir : directions )
+    	{
+    		mask |= dir.getMask();
+    	}
+    	return mask;
+    }
+
+    /**
+     * Converts the given bitmask back to a collection of directions. Inverse of {@link #toMask(Collection)}
+     * 
+     * @param mask The bitmask to convert
+     * 
+     * @return The directions present in the bitmask
+     */
+    public static Collection<Direction> fromMask( int mask )
+    {
+    	EnumSet<Direction> result = EnumSet.noneOf( Direction.class );
+    	for( Direction dir : values() )
+    	{
+    		if( ( mask & dir.getMask() ) != 0 )
+    		{
+    			result.add( dir );
+    		}
+    	}
+    	return result;
+    }
+
+    /**
+     * Returns the direction with the given ordinal, without copying the values array
+     * 
+     * @param ordinal The ordinal ( 0 - 3 )
+     * 
+     * @return The direction
+     */
+    public static Direction fromOrdinal( int ordinal )
+    {
+    	return VALUES[ordinal];
+    }
 
     /**
      * positive is clockwise, negative is counterclockwise
@@ -28,27 +121,15 @@ public enum Direction {
     		return this;
     	}
 
-    	int newDirectionOrd = this.ordinal() + turnSteps;
-        while (newDirectionOrd < 0 || newDirectionOrd > 3) 
-        {
-            if (newDirectionOrd > 3) 
-            {
-                newDirectionOrd -= 4;
-            }
-            if (newDirectionOrd < 0) 
-            {
-                newDirectionOrd += 4;
-            }
-        }
-        return Direction.values()[newDirectionOrd];
+        return VALUES[( this.ordinal() + turnSteps ) & 3];
     }
 
     /**
      * positive is clockwise, negative is counterclockwise
 
      * The amount of turns to be made when going from this direction
-     * to the given newDirection. 
-     * Inverse of {@link #getTurns(Direction)}
+     * to the given newDirection ( -1, 0, 1 or 2 ). 
+     * Inverse of {@link #processRotate(int)}
      * 
      * @param newDirection The new direction wanted
      * 
@@ -56,19 +137,8 @@ public enum Direction {
      */
     public int getTurns( Direction newDirection ) 
     {
-        int turn = this.ordinal() - newDirection.ordinal();
-        while (turn < 0 || turn > 3) 
-        {
-            if (turn < 0) 
-            {
-                turn += 4;
-            }
-            if (turn > 3) 
-            {
-                turn -= 4;
-            }
-        }
-        return turn;
+        int turn = ( newDirection.ordinal() - this.ordinal() ) & 3;
+        return turn == 3 ? -1 : turn;
     }
     
     public static Collection<Direction> of( Direction d1 )
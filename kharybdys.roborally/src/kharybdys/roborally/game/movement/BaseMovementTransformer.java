@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 
 import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.Movement.MovementType;
 
 public class BaseMovementTransformer implements MovementCardTransformer {
 
@@ -41,4 +42,53 @@ public class BaseMovementTransformer implements MovementCardTransformer {
 		return movements;
 	}
 
+	@Override
+	public void addMovements( Collection<MovementCardDefinition> cards, Direction facingDirection, int entity, MovementBuffer buffer )
+	{
+		for( MovementCardDefinition card : cards )
+		{
+			addMovements( card, facingDirection, entity, buffer );
+		}
+	}
+
+	/**
+	 * Writes the movements of a single card packed into the given buffer, without allocating
+	 * 
+	 * @param card            The movement card
+	 * @param facingDirection The direction the bot is facing
+	 * @param entity          The index of the bot, see {@link PackedMovement}
+	 * @param buffer          The buffer to add the movements to
+	 */
+	public void addMovements( MovementCardDefinition card, Direction facingDirection, int entity, MovementBuffer buffer )
+	{
+		int priority = card.getPriority();
+		switch( card.getType() )
+		{
+			case MOVE3:
+				buffer.add( PackedMovement.pack( facingDirection, 0, MovementType.ROBOT_MOVEMENT, 1, priority, entity ) );
+				buffer.add( PackedMovement.pack( facingDirection, 0, MovementType.ROBOT_MOVEMENT, 1, priority, entity ) );
+				buffer.add( PackedMovement.pack( facingDirection, 0, MovementType.ROBOT_MOVEMENT, 1, priority, entity ) );
+				break;
+			case MOVE2:
+				buffer.add( PackedMovement.pack( facingDirection, 0, MovementType.ROBOT_MOVEMENT, 1, priority, entity ) );
+				buffer.add( PackedMovement.pack( facingDirection, 0, MovementType.ROBOT_MOVEMENT, 1, priority, entity ) );
+				break;
+			case MOVE1:
+				buffer.add( PackedMovement.pack( facingDirection, 0, MovementType.ROBOT_MOVEMENT, 1, priority, entity ) );
+				break;
+			case BACKUP:
+				buffer.add( PackedMovement.pack( facingDirection.processRotate( 2 ), 0, MovementType.ROBOT_MOVEMENT, 1, priority, entity ) );
+				break;
+			case TURNLEFT:
+				buffer.add( PackedMovement.pack( null, -1, MovementType.ROBOT_MOVEMENT, 0, priority, entity ) );
+				break;
+			case TURNRIGHT:
+				buffer.add( PackedMovement.pack( null, 1, MovementType.ROBOT_MOVEMENT, 0, priority, entity ) );
+				break;
+			case UTURN:
+				buffer.add( PackedMovement.pack( null, 2, MovementType.ROBOT_MOVEMENT, 0, priority, entity ) );
+				break;
+		}
+	}
+
 }
@@ -89,11 +89,31 @@ public class Movement implements Comparable<Movement>
         return type;
     }
 
-    private int getPriority()
+    public int getPriority()
     {
         return priority;
     }
 
+    /**
+     * The number of steps to turn, positive is clockwise
+     * 
+     * @return the number of turn steps
+     */
+    public int getFacingTurnSteps()
+    {
+        return facingTurnSteps;
+    }
+
+    /**
+     * The number of squares to move in the moving direction
+     * 
+     * @return the number of squares
+     */
+    public int getNumberSquares()
+    {
+        return numberSquares;
+    }
+
     /**
      * Whether this movement represents an actual change in position
      * 
@@ -155,7 +175,7 @@ public class Movement implements Comparable<Movement>
 
 		if(  typeComparison == 0 )
 		{
-			return Integer.valueOf( priority ).compareTo( Integer.valueOf( m.getPriority() ) );
+			return Integer.compare( priority, m.getPriority() );
 		}
 		else
 		{
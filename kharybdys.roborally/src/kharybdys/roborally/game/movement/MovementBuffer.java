@@ -0,0 +1,105 @@
+package kharybdys.roborally.game.movement;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of packed movements ( see {@link PackedMovement} ), meant to be reused:
+ * once it has grown to the size needed, filling it again does not allocate anything.
+ */
+public final class MovementBuffer
+{
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] movements;
+	private int size = 0;
+
+	public MovementBuffer()
+	{
+		this( DEFAULT_CAPACITY );
+	}
+
+	/**
+	 * Creates a buffer with the given initial capacity
+	 *
+	 * @param capacity The number of movements it can hold before growing
+	 */
+	public MovementBuffer( int capacity )
+	{
+		this.movements = new long[Math.max( 1, capacity )];
+	}
+
+	/**
+	 * Appends a packed movement
+	 *
+	 * @param movement The packed movement
+	 */
+	public void add( long movement )
+	{
+		if( size == movements.length )
+		{
+			movements = Arrays.copyOf( movements, size * 2 );
+		}
+		movements[size++] = movement;
+	}
+
+	/**
+	 * Returns the packed movement at the given position
+	 *
+	 * @param index The position ( 0 - size - 1 )
+	 *
+	 * @return The packed movement
+	 */
+	public long get( int index )
+	{
+		if( index >= size )
+		{
+			throw new IndexOutOfBoundsException( "Index " + index + " for buffer of size " + size );
+		}
+		return movements[index];
+	}
+
+	/**
+	 * Replaces the packed movement at the given position
+	 *
+	 * @param index    The position ( 0 - size - 1 )
+	 * @param movement The packed movement
+	 */
+	public void set( int index, long movement )
+	{
+		if( index >= size )
+		{
+			throw new IndexOutOfBoundsException( "Index " + index + " for buffer of size " + size );
+		}
+		movements[index] = movement;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Empties the buffer, keeping its capacity
+	 */
+	public void clear()
+	{
+		size = 0;
+	}
+
+	/**
+	 * Gives direct access to the underlying array, for code processing many movements at once.
+	 * Only the first {@link #size()} entries are valid, and the array is replaced when the buffer grows.
+	 *
+	 * @return The underlying array
+	 */
+	public long[] array()
+	{
+		return movements;
+	}
+}
@@ -14,6 +14,23 @@ public interface MovementCardTransformer
 	 */
 	public Collection<Movement> getMovements( Collection<MovementCardDefinition> cards, Direction facingDirection );
 
+	/**
+	 * Like {@link #getMovements(Collection, Direction)}, but writes the movements packed into the given buffer.
+	 * Default implementation packs the movement objects, transformers used in bulk calculations write directly.
+	 * 
+	 * @param cards           The movement cards
+	 * @param facingDirection The direction the bot is facing
+	 * @param entity          The index of the bot, see {@link PackedMovement}
+	 * @param buffer          The buffer to add the movements to
+	 */
+	public default void addMovements( Collection<MovementCardDefinition> cards, Direction facingDirection, int entity, MovementBuffer buffer )
+	{
+		for( Movement movement : getMovements( cards, facingDirection ) )
+		{
+			buffer.add( PackedMovement.pack( movement, entity ) );
+		}
+	}
+
 	public static MovementCardTransformer getDefaultMovementCardTransformer()
 	{
 		return new BaseMovementTransformer();
@@ -0,0 +1,167 @@
+package kharybdys.roborally.game.movement;
+
+import java.util.SplittableRandom;
+
+/**
+ * The deck of movement cards of a round, dealing the cards not in use in a random but reproducible order.
+ *
+ * The cards in use are kept as a bitmask over the ordinals of {@link MovementCardDefinition}, split over two longs.
+ * Dealing is a Fisher-Yates shuffle over the free cards, done one card at a time, so dealing only part of the deck only shuffles that part.
+ * The random numbers come from a seed per game and round ( see {@link #forRound(long, int)} ), so the cards dealt can be reproduced exactly.
+ * Not thread safe.
+ */
+public final class MovementDeck
+{
+
+	public static final int NR_OF_CARDS = MovementCardDefinition.values().length;
+
+	private static final MovementCardDefinition[] CARDS = MovementCardDefinition.values();
+
+	private final SplittableRandom random;
+
+	// the cards in use: ordinals 0 - 63 in low, the rest in high
+	private long low = 0L;
+	private long high = 0L;
+
+	// the free cards, the first next of them dealt already, of which the first flushed are in the bitmask; rebuilt when a card is marked used
+	private final int[] order = new int[NR_OF_CARDS];
+	private int size = 0;
+	private int next = 0;
+	private int flushed = 0;
+	private boolean stale = true;
+
+	/**
+	 * Creates a full deck, dealing with the given random numbers
+	 *
+	 * @param random The random numbers
+	 */
+	public MovementDeck( SplittableRandom random )
+	{
+		this.random = random;
+	}
+
+	/**
+	 * Creates a full deck, dealing the cards for the given round of a game.
+	 * The same seed and round always deal the same cards, given the same cards in use.
+	 *
+	 * @param gameSeed The seed of the game
+	 * @param round    The round
+	 *
+	 * @return The deck
+	 */
+	public static MovementDeck forRound( long gameSeed, int round )
+	{
+		// mix the seed before adding the round, so games with neighbouring seeds do not deal each other's rounds,
+		// and mix again so the streams of neighbouring rounds are unrelated
+		long gameStream = new SplittableRandom( gameSeed ).nextLong();
+		return new MovementDeck( new SplittableRandom( new SplittableRandom( gameStream + round ).nextLong() ) );
+	}
+
+	/**
+	 * Takes the given card out of the deck, as it is in use ( eg in a locked register )
+	 *
+	 * @param card The card
+	 */
+	public void markUsed( MovementCardDefinition card )
+	{
+		flushDealt();
+		setUsed( card.ordinal() );
+		stale = true;
+	}
+
+	public boolean isUsed( MovementCardDefinition card )
+	{
+		flushDealt();
+		int ordinal = card.ordinal();
+		return ordinal < 64 ? ( low & 1L << ordinal ) != 0 : ( high & 1L << ( ordinal - 64 ) ) != 0;
+	}
+
+	/**
+	 * @return The number of cards left to deal
+	 */
+	public int getNrOfFreeCards()
+	{
+		flushDealt();
+		return NR_OF_CARDS - Long.bitCount( low ) - Long.bitCount( high );
+	}
+
+	/**
+	 * Deals a random card from the free cards, marking it used
+	 *
+	 * @return The card
+	 *
+	 * @throws IllegalStateException If all cards are in use
+	 */
+	public MovementCardDefinition deal()
+	{
+		if( stale )
+		{
+			collectFreeCards();
+		}
+		if( next == size )
+		{
+			throw new IllegalStateException( "Cannot deal from an empty deck" );
+		}
+		// a single step of Fisher-Yates: swap a random card of the ones not dealt yet to the front
+		int pick = next + nextIndex( size - next );
+		int ordinal = order[pick];
+		order[pick] = order[next];
+		order[next++] = ordinal;
+		// the bitmask is brought up to date when asked for, keeping this branch free
+		return CARDS[ordinal];
+	}
+
+	private void flushDealt()
+	{
+		for( ; flushed < next; flushed++ )
+		{
+			setUsed( order[flushed] );
+		}
+	}
+
+	private void setUsed( int ordinal )
+	{
+		if( ordinal < 64 )
+		{
+			low |= 1L << ordinal;
+		}
+		else
+		{
+			high |= 1L << ( ordinal - 64 );
+		}
+	}
+
+	/**
+	 * Returns a uniformly distributed random number in [ 0, bound ), by multiplying a random int with the bound
+	 * and rejecting the few products that would make the result biased ( Lemire ), avoiding the division of {@link SplittableRandom#nextInt(int)}
+	 */
+	private int nextIndex( int bound )
+	{
+		long product = ( random.nextInt() & 0xFFFFFFFFL ) * bound;
+		if( ( product & 0xFFFFFFFFL ) < bound )
+		{
+			long threshold = ( 0x100000000L - bound ) % bound;
+			while( ( product & 0xFFFFFFFFL ) < threshold )
+			{
+				product = ( random.nextInt() & 0xFFFFFFFFL ) * bound;
+			}
+		}
+		return (int) ( product >>> 32 );
+	}
+
+	private void collectFreeCards()
+	{
+		size = 0;
+		next = 0;
+		flushed = 0;
+		for( long free = ~low; free != 0; free &= free - 1 )
+		{
+			order[size++] = Long.numberOfTrailingZeros( free );
+		}
+		for( long free = ~high & ( -1L >>> ( 128 - NR_OF_CARDS ) ); free != 0; free &= free - 1 )
+		{
+			order[size++] = 64 + Long.numberOfTrailingZeros( free );
+		}
+		stale = false;
+	}
+}
@@ -0,0 +1,163 @@
+package kharybdys.roborally.game.movement;
+
+import java.util.Arrays;
+
+/**
+ * Orders packed movements ( see {@link PackedMovement} ) in linear time, using a least significant digit radix sort
+ * over the type, the priority and the entity. Movements are ordered by type first, like {@link Movement#compareTo(Movement)},
+ * then by priority and ties are broken by the entity ( the order number of the bot ), so the result does not depend on the order they were added in.
+ *
+ * Small inputs ( a phase of a single game holds no more than a handful of movements ) are sorted on the same key by insertion,
+ * where the passes over the digit counts would cost more than they save.
+ *
+ * Meant to be reused: the scratch space is kept between calls, so once it has grown to the size needed sorting does not allocate anything.
+ * Not thread safe, every thread ( eg every simulation ) should have its own sorter.
+ */
+public final class MovementSorter
+{
+
+	private static final int DIGIT_BITS = 8;
+	private static final int DIGIT_MASK = ( 1 << DIGIT_BITS ) - 1;
+
+	// the digits of the sort key, from least to most significant: entity ( 2 bytes ), priority ( 2 bytes ), type
+	private static final int[] DIGIT_SHIFTS = { 0, 8, 16, 24, 41 };
+	private static final int[] DIGIT_MASKS = { DIGIT_MASK, DIGIT_MASK, DIGIT_MASK, DIGIT_MASK, 7 };
+	private static final int FIRST_PRIORITY_DIGIT = 2;
+	private static final int TYPE_DIGIT = 4;
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	private final int[] counts = new int[DIGIT_MASK + 1];
+	private long[] scratch;
+
+	public MovementSorter()
+	{
+		this( 16 );
+	}
+
+	/**
+	 * Creates a sorter
+	 *
+	 * @param capacity The number of movements it can sort before having to grow its scratch space
+	 */
+	public MovementSorter( int capacity )
+	{
+		this.scratch = new long[Math.max( 1, capacity )];
+	}
+
+	/**
+	 * Orders the movements in the given buffer by type, then priority ascending, then entity
+	 *
+	 * @param buffer The movements
+	 */
+	public void sort( MovementBuffer buffer )
+	{
+		sort( buffer.array(), buffer.size(), false );
+	}
+
+	/**
+	 * Orders the movements in the given buffer by type, then priority descending ( the order in which they are executed ), then entity
+	 *
+	 * @param buffer The movements
+	 */
+	public void sortByPriorityDescending( MovementBuffer buffer )
+	{
+		sort( buffer.array(), buffer.size(), true );
+	}
+
+	/**
+	 * Orders the first size movements of the given array by type, then priority, then entity.
+	 * The other fields ( direction, turn, squares ) are not part of the key, movements equal in the key keep their order.
+	 *
+	 * @param movements          The packed movements
+	 * @param size               The number of movements to sort
+	 * @param priorityDescending Whether higher priorities should come first
+	 */
+	public void sort( long[] movements, int size, boolean priorityDescending )
+	{
+		if( size < 2 )
+		{
+			return;
+		}
+		if( size <= INSERTION_SORT_THRESHOLD )
+		{
+			insertionSort( movements, size, priorityDescending );
+			return;
+		}
+		if( scratch.length < size )
+		{
+			scratch = new long[Math.max( size, scratch.length * 2 )];
+		}
+
+		long[] source = movements;
+		long[] target = scratch;
+		for( int digit = 0; digit < DIGIT_SHIFTS.length; digit++ )
+		{
+			int shift = DIGIT_SHIFTS[digit];
+			int mask = DIGIT_MASKS[digit];
+			boolean descending = priorityDescending && digit >= FIRST_PRIORITY_DIGIT && digit < TYPE_DIGIT;
+
+			Arrays.fill( counts, 0, mask + 1, 0 );
+			for( int i = 0; i < size; i++ )
+			{
+				counts[digit( source[i], shift, mask, descending )]++;
+			}
+			// all movements have the same digit, nothing to reorder ( eg the high byte of the entity is practically always 0 )
+			if( counts[digit( source[0], shift, mask, descending )] == size )
+			{
+				continue;
+			}
+			int position = 0;
+			for( int value = 0; value <= mask; value++ )
+			{
+				int count = counts[value];
+				counts[value] = position;
+				position += count;
+			}
+			for( int i = 0; i < size; i++ )
+			{
+				long movement = source[i];
+				target[counts[digit( movement, shift, mask, descending )]++] = movement;
+			}
+			long[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if( source != movements )
+		{
+			System.arraycopy( source, 0, movements, 0, size );
+		}
+	}
+
+	private static void insertionSort( long[] movements, int size, boolean priorityDescending )
+	{
+		for( int i = 1; i < size; i++ )
+		{
+			long movement = movements[i];
+			long key = key( movement, priorityDescending );
+			int j = i;
+			while( j > 0 && key( movements[j - 1], priorityDescending ) > key )
+			{
+				movements[j] = movements[j - 1];
+				j--;
+			}
+			movements[j] = movement;
+		}
+	}
+
+	/**
+	 * Returns the full sort key of the given movement: type, then priority, then entity
+	 */
+	private static long key( long movement, boolean priorityDescending )
+	{
+		int priority = PackedMovement.getPriority( movement );
+		return (long) PackedMovement.getTypeOrdinal( movement ) << 32
+		     | (long) ( priorityDescending ? PackedMovement.MAX_PRIORITY - priority : priority ) << 16
+		     | PackedMovement.getEntity( movement );
+	}
+
+	private static int digit( long movement, int shift, int mask, boolean descending )
+	{
+		int digit = (int) ( movement >>> shift ) & mask;
+		return descending ? mask - digit : digit;
+	}
+}
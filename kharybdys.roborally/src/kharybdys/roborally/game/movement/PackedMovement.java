@@ -0,0 +1,203 @@
+package kharybdys.roborally.game.movement;
+
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.Movement.MovementType;
+
+/**
+ * Packed primitive encoding of a {@link Movement} in a single long, for code that handles many movements
+ * ( round calculation, simulations ) and should not allocate an object per movement. See {@link MovementBuffer}.
+ *
+ * Layout, from the least significant bit:
+ * <pre>
+ * bits  0 - 15 : entity, the index of the moving element ( eg the order number of the bot ), NO_ENTITY if unknown
+ * bits 16 - 31 : priority
+ * bits 32 - 35 : number of squares
+ * bits 36 - 37 : turn steps, clockwise ( 0 - 3, so -1 is stored as 3 )
+ * bits 38 - 40 : direction ordinal, NO_DIRECTION for a movement without direction
+ * bits 41 - 43 : movement type ordinal
+ * </pre>
+ * All fields are non-negative, so the packed value is too.
+ */
+public final class PackedMovement
+{
+
+	public static final int NO_ENTITY = 0xFFFF;
+	public static final int MAX_PRIORITY = 0xFFFF;
+	public static final int MAX_SQUARES = 0xF;
+
+	private static final int NO_DIRECTION = 4;
+
+	private static final int PRIORITY_SHIFT = 16;
+	private static final int SQUARES_SHIFT = 32;
+	private static final int TURN_SHIFT = 36;
+	private static final int DIRECTION_SHIFT = 38;
+	private static final int TYPE_SHIFT = 41;
+
+	private static final MovementType[] TYPES = MovementType.values();
+
+	private PackedMovement()
+	{
+		// Only static methods
+	}
+
+	/**
+	 * Packs a movement
+	 *
+	 * @param direction The direction of movement, null for none
+	 * @param turnSteps The number of steps to turn, positive is clockwise
+	 * @param type      The type of movement
+	 * @param squares   The number of squares to move ( 0 - MAX_SQUARES )
+	 * @param priority  The priority ( 0 - MAX_PRIORITY )
+	 * @param entity    The index of the moving element ( 0 - NO_ENTITY )
+	 *
+	 * @return The packed movement
+	 */
+	public static long pack( Direction direction, int turnSteps, MovementType type, int squares, int priority, int entity )
+	{
+		if( squares < 0 || squares > MAX_SQUARES || priority < 0 || priority > MAX_PRIORITY || entity < 0 || entity > NO_ENTITY )
+		{
+			throw new IllegalArgumentException( "Cannot pack movement of " + squares + " squares, priority " + priority + " and entity " + entity );
+		}
+		return (long) entity
+		     | (long) priority << PRIORITY_SHIFT
+		     | (long) squares << SQUARES_SHIFT
+		     | (long) ( turnSteps & 3 ) << TURN_SHIFT
+		     | (long) ( direction == null ? NO_DIRECTION : direction.ordinal() ) << DIRECTION_SHIFT
+		     | (long) type.ordinal() << TYPE_SHIFT;
+	}
+
+	/**
+	 * Packs the given movement object
+	 *
+	 * @param movement The movement
+	 * @param entity   The index of the moving element
+	 *
+	 * @return The packed movement
+	 */
+	public static long pack( Movement movement, int entity )
+	{
+		return pack( movement.getMovingDirection(), movement.getFacingTurnSteps(), movement.getType(),
+				     movement.getNumberSquares(), movement.getPriority(), entity );
+	}
+
+	/**
+	 * Unpacks into a movement object, for code still working with those
+	 *
+	 * @param movement The packed movement
+	 *
+	 * @return The movement object
+	 */
+	public static Movement unpack( long movement )
+	{
+		return new Movement( getDirection( movement ), getTurnSteps( movement ), getType( movement ), getSquares( movement ), getPriority( movement ) );
+	}
+
+	public static int getEntity( long movement )
+	{
+		return (int) ( movement & 0xFFFF );
+	}
+
+	public static int getPriority( long movement )
+	{
+		return (int) ( movement >>> PRIORITY_SHIFT ) & 0xFFFF;
+	}
+
+	public static int getSquares( long movement )
+	{
+		return (int) ( movement >>> SQUARES_SHIFT ) & 0xF;
+	}
+
+	/**
+	 * Returns the number of steps to turn clockwise
+	 *
+	 * @param movement The packed movement
+	 *
+	 * @return The turn steps ( 0 - 3 )
+	 */
+	public static int getTurnSteps( long movement )
+	{
+		return (int) ( movement >>> TURN_SHIFT ) & 3;
+	}
+
+	/**
+	 * Returns whether the movement has a direction ( as opposed to only turning )
+	 *
+	 * @param movement The packed movement
+	 *
+	 * @return Whether there is a direction
+	 */
+	public static boolean hasDirection( long movement )
+	{
+		return getDirectionOrdinal( movement ) != NO_DIRECTION;
+	}
+
+	/**
+	 * Returns the ordinal of the direction of movement, only valid if {@link #hasDirection(long)}
+	 *
+	 * @param movement The packed movement
+	 *
+	 * @return The direction ordinal
+	 */
+	public static int getDirectionOrdinal( long movement )
+	{
+		return (int) ( movement >>> DIRECTION_SHIFT ) & 7;
+	}
+
+	public static Direction getDirection( long movement )
+	{
+		int ordinal = getDirectionOrdinal( movement );
+		return ordinal == NO_DIRECTION ? null : Direction.fromOrdinal( ordinal );
+	}
+
+	public static MovementType getType( long movement )
+	{
+		return TYPES[getTypeOrdinal( movement )];
+	}
+
+	public static int getTypeOrdinal( long movement )
+	{
+		return (int) ( movement >>> TYPE_SHIFT ) & 7;
+	}
+
+	/**
+	 * Returns the given movement for another moving element
+	 *
+	 * @param movement The packed movement
+	 * @param entity   The index of the moving element
+	 *
+	 * @return The changed packed movement
+	 */
+	public static long withEntity( long movement, int entity )
+	{
+		return ( movement & ~0xFFFFL ) | ( entity & 0xFFFF );
+	}
+
+	/**
+	 * Returns the given movement with another direction, eg to store it relative to the facing of the bot
+	 *
+	 * @param movement  The packed movement
+	 * @param direction The direction ordinal, only used if the movement has a direction
+	 *
+	 * @return The changed packed movement
+	 */
+	public static long withDirection( long movement, int direction )
+	{
+		if( ! hasDirection( movement ) )
+		{
+			return movement;
+		}
+		return ( movement & ~( 7L << DIRECTION_SHIFT ) ) | (long) ( direction & 3 ) << DIRECTION_SHIFT;
+	}
+
+	/**
+	 * Returns the given movement no longer changing position, like {@link Movement#stopMovement()}
+	 *
+	 * @param movement The packed movement
+	 *
+	 * @return The changed packed movement
+	 */
+	public static long stopMovement( long movement )
+	{
+		return movement & ~( 0xFL << SQUARES_SHIFT );
+	}
+}
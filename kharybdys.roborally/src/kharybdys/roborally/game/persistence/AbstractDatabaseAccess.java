@@ -22,6 +22,23 @@ public abstract class AbstractDatabaseAccess
 	protected static final String internalUserName = "internal";
 	
 	public void logGameEvent( GameEventType type, AbstractMovingElement actor, AbstractMovingElement victim, String optionalText ) throws UserException
+	{
+		logGameEvent( game.getCurrentRound(), game.getCurrentPhase(), type, actor, victim, optionalText );
+	}
+
+	/**
+	 * Logs an event of the given round and phase, for events logged while the game is not (yet) in that phase
+	 * 
+	 * @param round        The round the event happened in
+	 * @param phase        The phase the event happened in
+	 * @param type         The type of the event
+	 * @param actor        The actor, null if none
+	 * @param victim       The victim, null if none
+	 * @param optionalText The text describing the event, null if none
+	 * 
+	 * @throws UserException If the event misses something its type requires or something went wrong in the DB
+	 */
+	public void logGameEvent( int round, int phase, GameEventType type, AbstractMovingElement actor, AbstractMovingElement victim, String optionalText ) throws UserException
 	{
 		// validations
 		checkInitialization();
@@ -44,11 +61,11 @@ public abstract class AbstractDatabaseAccess
 		final String insertEventQuery = "INSERT INTO Event ( game, round, phase, type, actor, victim, optionalText ) VALUES ( ?, ?, ?, ?, ?, ?, ? )";
 		sql.setUpdate( insertEventQuery );
 		sql.setParameter( game.getId() );
-		sql.setParameter( game.getCurrentRound() );
-		sql.setParameter( game.getCurrentPhase() );
+		sql.setParameter( round );
+		sql.setParameter( phase );
 		sql.setParameter( type.name() );
 		sql.setParameter( actor == null ? null : actor.getId() );
-		sql.setParameter( actor == null ? null : actor.getId() );
+		sql.setParameter( victim == null ? null : victim.getId() );
 		sql.setParameter( optionalText );
 		
 		sql.setDoUpdate( true );
@@ -60,6 +77,7 @@ public abstract class AbstractDatabaseAccess
 		{
 			throw new UserException( "Trying to initialize while already initialized" );
 		}
+		this.game = game;
 		
 		try 
 		{
@@ -0,0 +1,205 @@
+package kharybdys.roborally.game.persistence;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dexels.navajo.script.api.UserException;
+
+import kharybdys.roborally.game.Bot;
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.GameState;
+import kharybdys.roborally.game.ai.AiPlayerPool;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+
+/**
+ * Models the actions from and towards the database for the bots played by the server, after the movement cards have been dealt:
+ * the AI bots get their cards like everyone else and program their registers the way a player does, by setting the phase of their movement cards.
+ *
+ * Assumes the Bot table has a column aiPlayer, true for the bots played by the server.
+ */
+public class AiPlayerDatabaseAccess extends AbstractDatabaseAccess
+{
+	private static final Logger logger = LoggerFactory.getLogger( AiPlayerDatabaseAccess.class );
+
+	/**
+	 * Programs the registers of the AI bots of the game for the current round, in parallel on the {@link AiPlayerPool}.
+	 * A bot whose decision fails or takes too long plays its cards in the order they were dealt.
+	 *
+	 * @throws UserException If something went wrong in the DB
+	 */
+	public void programAiBots() throws UserException
+	{
+		checkInitialization();
+		int round = game.getCurrentRound();
+
+		final String getAiBotsQuery = "SELECT id FROM Bot WHERE game = ? AND aiPlayer = 1";
+		sql.setQuery( getAiBotsQuery );
+		sql.setParameter( game.getId() );
+		List<Integer> aiBotIds = new ArrayList<Integer>();
+		for( int i = 0; i < sql.getRowCount(); i++ )
+		{
+			sql.setResultSetIndex( i );
+			aiBotIds.add( (Integer) sql.getColumnValue( "id" ) );
+		}
+		if( aiBotIds.isEmpty() )
+		{
+			return;
+		}
+
+		// the bots by slot, see GameState
+		List<Bot> bots = new ArrayList<Bot>( game.getBots() );
+		bots.sort( ( bot1, bot2 ) -> bot1.getOrderNumber().compareTo( bot2.getOrderNumber() ) );
+		GameState state = GameState.of( game );
+		MovementCardDefinition[][] locked = getLockedRegisters( bots, round );
+
+		AiPlayerPool pool = AiPlayerPool.getInstance();
+		Map<Integer, Future<MovementCardDefinition[]>> decisions = new LinkedHashMap<Integer, Future<MovementCardDefinition[]>>();
+		Map<Integer, List<MovementCardDefinition>> hands = new LinkedHashMap<Integer, List<MovementCardDefinition>>();
+		for( int slot = 0; slot < bots.size(); slot++ )
+		{
+			Bot bot = bots.get( slot );
+			if( ! aiBotIds.contains( bot.getId() ) )
+			{
+				continue;
+			}
+			List<MovementCardDefinition> hand = getHand( bot, round );
+			hands.put( slot, hand );
+			if( bot.getLocation() == null )
+			{
+				continue;
+			}
+			try
+			{
+				decisions.put( slot, pool.decide( game, state, slot, hand, locked, game.getDeckSeed() ^ ( (long) round << 32 ) ^ slot ) );
+			}
+			catch( RejectedExecutionException e )
+			{
+				logger.warn( "No room to program AI bot {}, playing its cards as dealt", bot );
+			}
+		}
+
+		for( Map.Entry<Integer, List<MovementCardDefinition>> entry : hands.entrySet() )
+		{
+			int slot = entry.getKey();
+			MovementCardDefinition[] program = getFallbackProgram( entry.getValue(), locked[slot] );
+			Future<MovementCardDefinition[]> decision = decisions.get( slot );
+			if( decision != null )
+			{
+				try
+				{
+					// the budget is CPU time on a thread of its own, give it some slack in wall time
+					program = decision.get( 4 * pool.getBudgetMillis(), TimeUnit.MILLISECONDS );
+				}
+				catch( InterruptedException e )
+				{
+					Thread.currentThread().interrupt();
+					decision.cancel( true );
+				}
+				catch( ExecutionException | TimeoutException e )
+				{
+					logger.warn( "Programming AI bot " + bots.get( slot ) + " failed, playing its cards as dealt", e );
+					decision.cancel( true );
+				}
+			}
+			saveProgram( bots.get( slot ), round, program, locked[slot] );
+		}
+	}
+
+	/**
+	 * Returns the registers locked with a card, visible to every player
+	 */
+	private MovementCardDefinition[][] getLockedRegisters( List<Bot> bots, int round ) throws UserException
+	{
+		MovementCardDefinition[][] locked = new MovementCardDefinition[bots.size()][Game.MAX_PHASE];
+
+		final String getLockedCardsQuery = " SELECT b.orderNumber, mc.phase, mc.cardDefinition  "
+		                                 + " FROM   MovementCard mc, Bot b                       "
+		                                 + " WHERE  b.id        = mc.bot                         "
+		                                 + " AND    b.game      = ?                              "
+		                                 + " AND    mc.round    = ?                              "
+		                                 + " AND    mc.statusId = 'LOCKED'                       ";
+		sql.setQuery( getLockedCardsQuery );
+		sql.setParameter( game.getId() );
+		sql.setParameter( round );
+		for( int i = 0; i < sql.getRowCount(); i++ )
+		{
+			sql.setResultSetIndex( i );
+			Integer orderNumber = (Integer) sql.getColumnValue( "orderNumber" );
+			Integer phase       = (Integer) sql.getColumnValue( "phase" );
+			String  card        = (String)  sql.getColumnValue( "cardDefinition" );
+			for( int slot = 0; slot < bots.size(); slot++ )
+			{
+				if( bots.get( slot ).getOrderNumber().equals( orderNumber ) )
+				{
+					locked[slot][phase - 1] = MovementCardDefinition.valueOf( card );
+				}
+			}
+		}
+		return locked;
+	}
+
+	/**
+	 * Returns the cards dealt to the given bot that are not in a register yet
+	 */
+	private List<MovementCardDefinition> getHand( Bot bot, int round ) throws UserException
+	{
+		final String getHandQuery = "SELECT cardDefinition FROM MovementCard WHERE bot = ? AND round = ? AND phase IS NULL";
+		sql.setQuery( getHandQuery );
+		sql.setParameter( bot.getId() );
+		sql.setParameter( round );
+
+		List<MovementCardDefinition> hand = new ArrayList<MovementCardDefinition>();
+		for( int i = 0; i < sql.getRowCount(); i++ )
+		{
+			sql.setResultSetIndex( i );
+			hand.add( MovementCardDefinition.valueOf( (String) sql.getColumnValue( "cardDefinition" ) ) );
+		}
+		return hand;
+	}
+
+	private static MovementCardDefinition[] getFallbackProgram( List<MovementCardDefinition> hand, MovementCardDefinition[] locked )
+	{
+		MovementCardDefinition[] program = locked.clone();
+		int card = 0;
+		for( int register = 0; register < program.length && card < hand.size(); register++ )
+		{
+			if( program[register] == null )
+			{
+				program[register] = hand.get( card++ );
+			}
+		}
+		return program;
+	}
+
+	/**
+	 * Puts the cards of the given program in their registers, like a player programming the bot
+	 */
+	private void saveProgram( Bot bot, int round, MovementCardDefinition[] program, MovementCardDefinition[] locked ) throws UserException
+	{
+		final String programCardQuery = "UPDATE MovementCard SET phase = ? WHERE bot = ? AND round = ? AND cardDefinition = ?";
+		for( int register = 0; register < program.length; register++ )
+		{
+			if( locked[register] != null || program[register] == null )
+			{
+				continue;
+			}
+			sql.setUpdate( programCardQuery );
+			sql.setParameter( register + 1 );
+			sql.setParameter( bot.getId() );
+			sql.setParameter( round );
+			sql.setParameter( program[register] );
+
+			sql.setDoUpdate( true );
+		}
+	}
+}
@@ -1,9 +1,7 @@
 package kharybdys.roborally.game.persistence;
 
 import java.util.ArrayList;
-import java.util.EnumSet;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +12,7 @@ import kharybdys.roborally.game.Bot;
 import kharybdys.roborally.game.Game;
 import kharybdys.roborally.game.board.AbstractMovingElement;
 import kharybdys.roborally.game.movement.MovementCardDefinition;
+import kharybdys.roborally.game.movement.MovementDeck;
 import kharybdys.roborally.game.options.OptionCardDefinition;
 
 /**
@@ -44,27 +43,19 @@ public class EndOfRoundDatabaseAccess extends AbstractDatabaseAccess
 	{
 		checkInitialization();
 		
-    	// Figure out the cards moving over from this round (for example because they were LOCKED last round or they're on a FLYWHEEL or such)
-		// and register them in the Database
-    	EnumSet<MovementCardDefinition> usedCards = moveCardsFromThisRoundToNext();
-    	
-    	// inverse the Set and change this to a list( so we have an order )
-    	List<MovementCardDefinition> freeCards = new ArrayList<MovementCardDefinition>();
-    	freeCards.addAll( EnumSet.complementOf( usedCards ) );
-    	
-    	// Shuffle the list
-    	for( int i = 0; i < freeCards.size(); i++ )
-    	{
-    		int swapWith =  ThreadLocalRandom.current().nextInt( i + 1, freeCards.size() - 1 );
-    		MovementCardDefinition swap = freeCards.get( i );
-    		freeCards.set( i, freeCards.get( swapWith ) );
-    		freeCards.set( swapWith, swap );
-    	}
+		// the deck of the next round, minus the cards moving over from this round (for example because they were LOCKED last round or they're on a FLYWHEEL or such)
+		// (nothing moves over into the first round)
+		MovementDeck deck = MovementDeck.forRound( game.getDeckSeed(), game.getCurrentRound() + 1 );
+		if( game.getCurrentRound() > 0 )
+		{
+			moveCardsFromThisRoundToNext( deck );
+		}
     	
-        // now divvy out the cards
+        // now divvy out the cards, in order of the bots so the same seed deals the same cards to the same bots
     	final String insertNewCardQuery = " INSERT INTO MovementCard ( round, bot, cardDefinition ) VALUES ( ?, ?, ? ) ";
-    	int cardIndex = 0;
-        for ( Bot bot : game.getBots() )
+    	List<Bot> bots = new ArrayList<Bot>( game.getBots() );
+    	bots.sort( ( bot1, bot2 ) -> bot1.getOrderNumber().compareTo( bot2.getOrderNumber() ) );
+        for ( Bot bot : bots )
         {
             logger.debug( "Initializing cards for bot " + bot );
             
@@ -77,18 +68,26 @@ public class EndOfRoundDatabaseAccess extends AbstractDatabaseAccess
             
             for ( int i = 1; i <= nrOfCardsToGet; i++ )
             {
-            	// add Card with index cardIndex to the bot, directly in the DB
+            	// add the next card of the deck to the bot, directly in the DB
             	sql.setUpdate( insertNewCardQuery );
             	sql.setParameter( game.getCurrentRound() + 1 );
             	sql.setParameter( bot.getId() );
-            	sql.setParameter( freeCards.get( cardIndex ) );
-            	cardIndex++;
+            	sql.setParameter( deck.deal() );
+            	
+            	sql.setDoUpdate( true );
             }
         }
 	}
 	
 	
-	private EnumSet<MovementCardDefinition> moveCardsFromThisRoundToNext() throws UserException
+	/**
+	 * Copies the cards that move over from this round to the next in the database, and takes them out of the given deck
+	 * 
+	 * @param deck The deck of the next round
+	 * 
+	 * @throws UserException If something went wrong in the DB
+	 */
+	private void moveCardsFromThisRoundToNext( MovementDeck deck ) throws UserException
 	{
 		final String insertFlywheelCardForBotQuery = " INSERT INTO MovementCard ( round, bot, cardDefinition ) "
 			                         	           + " SELECT round + 1 AS round, bot, cardDefinition          "
@@ -124,25 +123,36 @@ public class EndOfRoundDatabaseAccess extends AbstractDatabaseAccess
 				sql.setDoUpdate( true );
 			}
 		}
-
-		EnumSet<MovementCardDefinition> usedCards = EnumSet.noneOf( MovementCardDefinition.class );
 		
-		final String getUsedCardsQuery = " SELECT cardDefinition FROM MovementCard mc WHERE mc.round = ? AND EXISTS (SELECT 1 FROM Bot b WHERE b.id = mc.bot AND b.game = ? ) ";
-		
-		sql.setQuery( getUsedCardsQuery );
-		sql.setParameter( game.getCurrentRound() + 1 );
-		sql.setParameter( game.getId() );
-		
-		for( int i = 0; i < sql.getRowCount(); i++ )
-        {
-            sql.setResultSetIndex( i );
-            String cardDefinition = (String) sql.getColumnValue( "cardDefinition" );
-            
-            MovementCardDefinition card = MovementCardDefinition.valueOf( cardDefinition );
-            usedCards.add( card );
-        }		
-		
-		return usedCards;
+		markCardsMovedOver( deck );
+	}
+	
+	/**
+	 * Takes the cards moving over from this round to the next out of the given deck, using the registers of the bots in memory rather than asking the DB for them
+	 * The registers hold the cards of this round, as loaded when calculating it ( see PhaseCalculationDatabaseAccess.loadRegisters )
+	 * 
+	 * @param deck The deck of the next round
+	 */
+	private void markCardsMovedOver( MovementDeck deck )
+	{
+		for( Bot bot : game.getBots() )
+		{
+			for( MovementCardDefinition card : bot.getReservedCards() )
+			{
+				deck.markUsed( card );
+			}
+			int firstLockedPhase = Bot.INITIAL_HEALTH - bot.getDamage();
+			for( int phase = 1; phase <= Game.MAX_PHASE; phase++ )
+			{
+				if( phase >= firstLockedPhase || OptionCardDefinition.FLYWHEEL.name().equals( bot.getRegisterOptionCard( phase ) ) )
+				{
+					for( MovementCardDefinition card : bot.getRegister( phase ) )
+					{
+						deck.markUsed( card );
+					}
+				}
+			}
+		}
 	}
 	
 	/**
@@ -77,8 +77,8 @@ public class GameFactory extends AbstractDatabaseAccess {
 		String scenarioName = (String) sql.getColumnValue( "scenarioName" );
 		Integer currentRound = (Integer) sql.getColumnValue( "currentRound" );
 		
-		ImplementedScenario scenario = ImplementedScenario.valueOf( scenarioName );
-		GameBuilder builder = scenario.getGameBuilder( currentRound != 0 );
+		// an implemented scenario or one only defined in the board catalogue
+		GameBuilder builder = new GameBuilder( ImplementedScenario.getBoardTemplate( scenarioName ), currentRound != 0 );
 		
 		// Get the bots in random order in case they don't have an orderNumber. If they actually happen to have an orderNumber, it doesn't matter
 		int currentOrderNumber = 1;
@@ -125,5 +125,6 @@ public class GameFactory extends AbstractDatabaseAccess {
             builder.addFlag( flagId, xCoord, yCoord, archiveXCoord, archiveYCoord, orderNumber );
         }
 		
+		gameCache.put( gameId, builder.asGame( gameId, currentRound ) );
 	}
 }
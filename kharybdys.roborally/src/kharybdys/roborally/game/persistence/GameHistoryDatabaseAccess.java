@@ -0,0 +1,233 @@
+package kharybdys.roborally.game.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import com.dexels.navajo.document.types.Binary;
+import com.dexels.navajo.script.api.UserException;
+
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.GameState;
+import kharybdys.roborally.game.PhaseEngine;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+
+/**
+ * Models the access to the history of a game: compact checkpoints of its state, taken every CHECKPOINT_INTERVAL rounds,
+ * and the reconstruction of the game at any round and phase by replaying the movement cards played since the nearest checkpoint.
+ * The movement cards form the log of the game, the events follow from replaying them.
+ *
+ * Assumes a table Checkpoint ( game, round, phase, state ), state being a blob as written by {@link GameState#toCheckpoint()}.
+ * A checkpoint holds the state after the given phase of the given round has been resolved, phase 0 being the start of the round,
+ * so after the end of the round before it. The end of round steps are replayed along with the phases, see {@link PhaseEngine#processEndOfRound(GameState)}.
+ */
+public class GameHistoryDatabaseAccess extends AbstractDatabaseAccess
+{
+	private static final Logger logger = LoggerFactory.getLogger( GameHistoryDatabaseAccess.class );
+
+	/**
+	 * The number of rounds between checkpoints, bounding the number of phases to replay
+	 */
+	public static final int CHECKPOINT_INTERVAL = 10;
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/**
+	 * Returns whether a checkpoint should be taken at the start of the given round, that is at the end of the round before it
+	 *
+	 * @param round The round
+	 *
+	 * @return Whether to take a checkpoint
+	 */
+	public static boolean isCheckpointRound( int round )
+	{
+		return round >= 1 && ( round - 1 ) % CHECKPOINT_INTERVAL == 0;
+	}
+
+	/**
+	 * Saves the current state of the bots and flags of the game as checkpoint
+	 *
+	 * @param round The round the state is taken in
+	 * @param phase The last phase resolved, 0 at the start of the round
+	 *
+	 * @throws UserException If something went wrong in the DB
+	 */
+	public void saveCheckpoint( int round, int phase ) throws UserException
+	{
+		checkInitialization();
+		GameState state = GameState.of( game );
+		state.setRoundAndPhase( round, phase );
+
+		final String insertCheckpointQuery = "INSERT INTO Checkpoint ( game, round, phase, state ) VALUES ( ?, ?, ?, ? )";
+		sql.setUpdate( insertCheckpointQuery );
+		sql.setParameter( game.getId() );
+		sql.setParameter( round );
+		sql.setParameter( phase );
+		sql.setParameter( new Binary( state.toCheckpoint() ) );
+
+		sql.setDoUpdate( true );
+	}
+
+	/**
+	 * Reconstructs the state of the game after the given phase of the given round, from the nearest checkpoint before it
+	 *
+	 * @param round The round
+	 * @param phase The phase, 0 for the start of the round
+	 *
+	 * @return The state, with the round and phase set to the last phase resolved
+	 *
+	 * @throws UserException If the game has not progressed that far, there is no checkpoint or something went wrong in the DB
+	 */
+	public GameState reconstruct( int round, int phase ) throws UserException
+	{
+		checkInitialization();
+		if( phase < 0 || phase > Game.MAX_PHASE )
+		{
+			throw new UserException( MessageFormatter.format( "Cannot reconstruct phase {} of game {}", phase, game ).getMessage() );
+		}
+		if( round > game.getCurrentRound() )
+		{
+			throw new UserException( MessageFormatter.format( "Cannot reconstruct round {} as the game {} has not progressed that far yet", round, game ).getMessage() );
+		}
+
+		GameState state = loadCheckpoint( round, phase );
+		int replayed = replay( state, round, phase );
+		logger.debug( "Reconstructed round {} phase {} of game {} by replaying {} phases", round, phase, game, replayed );
+		return state;
+	}
+
+	/**
+	 * Loads the last checkpoint at or before the given round and phase
+	 */
+	private GameState loadCheckpoint( int round, int phase ) throws UserException
+	{
+		final String getCheckpointQuery = "SELECT round, phase, state FROM Checkpoint WHERE game = ? AND ( round < ? OR ( round = ? AND phase <= ? ) ) ORDER BY round DESC, phase DESC LIMIT 1";
+		sql.setQuery( getCheckpointQuery );
+		sql.setParameter( game.getId() );
+		sql.setParameter( round );
+		sql.setParameter( round );
+		sql.setParameter( phase );
+
+		if( sql.getRowCount() == 0 )
+		{
+			throw new UserException( MessageFormatter.format( "No checkpoint of game {} before round {}", game, round ).getMessage() );
+		}
+		sql.setResultSetIndex( 0 );
+		Integer checkpointRound = (Integer) sql.getColumnValue( "round" );
+		Integer checkpointPhase = (Integer) sql.getColumnValue( "phase" );
+		Binary data             = (Binary)  sql.getColumnValue( "state" );
+
+		GameState state = GameState.fromCheckpoint( game.getBoardTemplate(), data.getData() );
+		state.setRoundAndPhase( checkpointRound, checkpointPhase );
+		return state;
+	}
+
+	/**
+	 * Replays the phases after the checkpoint the given state is in, up to and including the given phase of the given round,
+	 * with the movement cards of the bots as logged in the database and the end of every round passed
+	 *
+	 * @return The number of phases replayed
+	 */
+	private int replay( GameState state, int round, int phase ) throws UserException
+	{
+		final String getMovementCardsQuery = " SELECT mc.round, mc.phase, b.orderNumber, mc.cardDefinition, mc.usesOptionCard "
+		                                   + " FROM   MovementCard mc, Bot b                                               "
+		                                   + " WHERE  b.id     = mc.bot                                                    "
+		                                   + " AND    b.game   = ?                                                         "
+		                                   + " AND    mc.round BETWEEN ? AND ?                                             "
+		                                   + " AND    mc.phase IS NOT NULL                                                 "
+		                                   + " ORDER BY mc.round, mc.phase                                                 ";
+		sql.setQuery( getMovementCardsQuery );
+		sql.setParameter( game.getId() );
+		sql.setParameter( state.getRound() );
+		sql.setParameter( round );
+		int rowCount = sql.getRowCount();
+
+		PhaseEngine engine = game.getPhaseEngine();
+		MovementBuffer movements = engine.getRegisterBuffer();
+		List<Collection<MovementCardDefinition>> cards = new ArrayList<Collection<MovementCardDefinition>>( state.getNrOfBots() );
+		String[] optionCards = new String[state.getNrOfBots()];
+		for( int slot = 0; slot < state.getNrOfBots(); slot++ )
+		{
+			cards.add( EnumSet.noneOf( MovementCardDefinition.class ) );
+		}
+
+		int currentRound = state.getRound();
+		int currentPhase = state.getPhase();
+		int row = 0;
+		int replayed = 0;
+		while( currentRound < round || ( currentRound == round && currentPhase < phase ) )
+		{
+			// after the last phase, end the round the way the round was calculated and move on to the start of the next one
+			if( currentPhase == Game.MAX_PHASE )
+			{
+				engine.processEndOfRound( state );
+				currentRound++;
+				currentPhase = 0;
+				state.setRoundAndPhase( currentRound, currentPhase );
+				continue;
+			}
+			currentPhase++;
+
+			// gather the movement cards of this phase, skipping those of the phases already in the checkpoint
+			for( int slot = 0; slot < state.getNrOfBots(); slot++ )
+			{
+				cards.get( slot ).clear();
+				optionCards[slot] = null;
+			}
+			for( ; row < rowCount; row++ )
+			{
+				sql.setResultSetIndex( row );
+				Integer cardRound = (Integer) sql.getColumnValue( "round" );
+				Integer cardPhase = (Integer) sql.getColumnValue( "phase" );
+				if( cardRound > currentRound || ( cardRound == currentRound && cardPhase > currentPhase ) )
+				{
+					break;
+				}
+				if( cardRound == currentRound && cardPhase == currentPhase )
+				{
+					int slot = getSlot( state, (Integer) sql.getColumnValue( "orderNumber" ) );
+					cards.get( slot ).add( MovementCardDefinition.valueOf( (String) sql.getColumnValue( "cardDefinition" ) ) );
+					optionCards[slot] = (String) sql.getColumnValue( "usesOptionCard" );
+				}
+			}
+
+			// resolve the phase the way the round was calculated
+			state.setRoundAndPhase( currentRound, currentPhase );
+			state.clearRegisters();
+			for( int slot = 0; slot < state.getNrOfBots(); slot++ )
+			{
+				if( state.getBotCell( slot ) != BoardGrid.NO_CELL )
+				{
+					movements.clear();
+					PhaseCalculationDatabaseAccess.getMovementCardTransformer( optionCards[slot] )
+					                              .addMovements( cards.get( slot ), DIRECTIONS[state.getBotFacing( slot )], state.getBotNumber( slot ), movements );
+					state.setRegister( slot, currentPhase, movements );
+				}
+			}
+			engine.processPhase( state );
+			replayed++;
+		}
+		return replayed;
+	}
+
+	private static int getSlot( GameState state, int orderNumber ) throws UserException
+	{
+		for( int slot = 0; slot < state.getNrOfBots(); slot++ )
+		{
+			if( state.getBotNumber( slot ) == orderNumber )
+			{
+				return slot;
+			}
+		}
+		throw new UserException( MessageFormatter.format( "No bot with orderNumber {} in the checkpoint", orderNumber ).getMessage() );
+	}
+}
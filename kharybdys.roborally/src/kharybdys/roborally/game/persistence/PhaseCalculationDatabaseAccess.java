@@ -1,6 +1,5 @@
 package kharybdys.roborally.game.persistence;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
 
@@ -11,6 +10,7 @@ import com.dexels.navajo.script.api.UserException;
 import kharybdys.roborally.game.Bot;
 import kharybdys.roborally.game.Game;
 import kharybdys.roborally.game.movement.Movement;
+import kharybdys.roborally.game.movement.MovementBuffer;
 import kharybdys.roborally.game.movement.MovementCardDefinition;
 import kharybdys.roborally.game.movement.MovementCardTransformer;
 import kharybdys.roborally.game.options.OptionCardDefinition;
@@ -22,6 +22,79 @@ import kharybdys.roborally.game.options.OptionCardDefinition;
 public class PhaseCalculationDatabaseAccess extends AbstractDatabaseAccess 
 {
 	public Collection<Movement> getMovements( Bot bot, int round, int phase ) throws UserException
+	{
+		Collection<MovementCardDefinition> cards = EnumSet.noneOf( MovementCardDefinition.class );
+		MovementCardTransformer movementCardTransformer = loadMovementCards( bot, round, phase, cards );
+		
+		return movementCardTransformer.getMovements( cards, bot.getFacingDirection() );
+	}
+
+	/**
+	 * Loads the movement cards of all bots of the game in the given round into their registers, in one go
+	 * 
+	 * @param round The round
+	 * 
+	 * @throws UserException If the game has not progressed that far yet or something went wrong in the DB
+	 */
+	public void loadRegisters( int round ) throws UserException
+	{
+		checkInitialization();
+		if( round > game.getCurrentRound() )
+		{
+			throw new UserException( MessageFormatter.format( "Cannot get movement cards for round {} as the game {} has not progressed that far yet", round, game ).getMessage() ); 
+		}
+		
+		for( Bot bot : game.getBots() )
+		{
+			bot.clearRegisters();
+		}
+		
+		final String getRoundMovementCardsQuery = " SELECT mc.bot, mc.phase, mc.cardDefinition, mc.usesOptionCard "
+			                                    + " FROM   MovementCard mc, Bot b                                  "
+			                                    + " WHERE  b.id     = mc.bot                                       "
+			                                    + " AND    b.game   = ?                                            "
+			                                    + " AND    mc.round = ?                                            ";
+		sql.setQuery( getRoundMovementCardsQuery );
+		sql.setParameter( game.getId() );
+		sql.setParameter( round );
+		
+		for( int i = 0; i < sql.getRowCount(); i++ )
+        {
+            sql.setResultSetIndex( i );
+            Bot bot = game.getBot( (Integer) sql.getColumnValue( "bot" ) );
+            String cardDefinition = (String) sql.getColumnValue( "cardDefinition" );
+            bot.loadRegister( (Integer) sql.getColumnValue( "phase" ), MovementCardDefinition.valueOf( cardDefinition ), (String) sql.getColumnValue( "usesOptionCard" ) );
+        }		
+	}
+
+	/**
+	 * Adds the movements of the given bot in the given phase, packed, to the given buffer
+	 * The movement cards come from the registers of the bot, see loadRegisters
+	 * 
+	 * @param bot    The bot
+	 * @param phase  The phase
+	 * @param buffer The buffer to add the movements to, the entity being the orderNumber of the bot
+	 */
+	public void addMovements( Bot bot, int phase, MovementBuffer buffer )
+	{
+		MovementCardTransformer movementCardTransformer = getMovementCardTransformer( bot.getRegisterOptionCard( phase ) );
+		
+		movementCardTransformer.addMovements( bot.getRegister( phase ), bot.getFacingDirection(), bot.getOrderNumber(), buffer );
+	}
+
+	/**
+	 * Loads the movement cards of the given bot in the given round and phase
+	 * 
+	 * @param bot   The bot
+	 * @param round The round
+	 * @param phase The phase
+	 * @param cards The collection to add the cards to
+	 * 
+	 * @return The transformer to turn the cards into movements with, depending on the option card used
+	 * 
+	 * @throws UserException
+	 */
+	private MovementCardTransformer loadMovementCards( Bot bot, int round, int phase, Collection<MovementCardDefinition> cards ) throws UserException
 	{
 		checkInitialization();
 		if( bot == null )
@@ -43,9 +116,6 @@ public class PhaseCalculationDatabaseAccess extends AbstractDatabaseAccess
 		sql.setParameter( round );
 		sql.setParameter( phase );
 		
-		Collection<MovementCardDefinition> cards = EnumSet.noneOf( MovementCardDefinition.class );
-		Collection<Movement> movements = new ArrayList<Movement>();
-		
 		String usesOptionCard = null;
 		
 		for( int i = 0; i < sql.getRowCount(); i++ )
@@ -56,6 +126,18 @@ public class PhaseCalculationDatabaseAccess extends AbstractDatabaseAccess
             usesOptionCard = (String) sql.getColumnValue( "usesOptionCard" );
         }		
 		
+		return getMovementCardTransformer( usesOptionCard );
+	}
+
+	/**
+	 * Returns the transformer to turn movement cards into movements with
+	 * 
+	 * @param usesOptionCard The name of the option card used with the movement cards, null if none
+	 * 
+	 * @return The transformer
+	 */
+	static MovementCardTransformer getMovementCardTransformer( String usesOptionCard )
+	{
 		MovementCardTransformer movementCardTransformer = null;
 		if( usesOptionCard != null )
 		{
@@ -67,7 +149,7 @@ public class PhaseCalculationDatabaseAccess extends AbstractDatabaseAccess
 			movementCardTransformer = MovementCardTransformer.getDefaultMovementCardTransformer();
 		}
 		
-		return movementCardTransformer.getMovements( cards, bot.getFacingDirection() );
+		return movementCardTransformer;
 	}
 
 	/**
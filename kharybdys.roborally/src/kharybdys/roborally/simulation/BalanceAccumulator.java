@@ -0,0 +1,217 @@
+package kharybdys.roborally.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import kharybdys.roborally.game.board.BoardVerifier;
+
+/**
+ * The statistics of a {@link BalanceAnalyzer} run per starting position: seats, wins, the round of the first flag and deaths by cause.
+ * Only sums and sums of squares of whole numbers are kept, so accumulators merge exactly, in any order.
+ * Not thread safe: every thread fills accumulators of its own, merged when done.
+ */
+final class BalanceAccumulator
+{
+
+	private static final int NR_OF_POSITIONS = BoardVerifier.NR_OF_STARTING_POSITIONS;
+	private static final int NR_OF_CAUSES = DeathCause.values().length;
+
+	// the z value of a 95% confidence interval
+	private static final double Z = 1.96;
+
+	private long games = 0;
+	private long decidedGames = 0;
+	private long rounds = 0;
+
+	// per starting position ( from 0 )
+	private final long[] seats = new long[NR_OF_POSITIONS];
+	private final long[] wins = new long[NR_OF_POSITIONS];
+	private final long[] firstFlags = new long[NR_OF_POSITIONS];
+	private final long[] firstFlagRounds = new long[NR_OF_POSITIONS];
+	private final long[] firstFlagRoundSquares = new long[NR_OF_POSITIONS];
+	// per starting position and death cause
+	private final long[] deaths = new long[NR_OF_POSITIONS * NR_OF_CAUSES];
+	private final long[] deathSquares = new long[NR_OF_POSITIONS * NR_OF_CAUSES];
+
+	/**
+	 * Adds the result of a game
+	 *
+	 * @param result            The result
+	 * @param startingPositions The starting position per bot
+	 */
+	void add( GameResult result, int[] startingPositions )
+	{
+		games++;
+		rounds += result.getRounds();
+		if( result.getWinner() >= 0 )
+		{
+			decidedGames++;
+			wins[startingPositions[result.getWinner()] - 1]++;
+		}
+		for( int slot = 0; slot < startingPositions.length; slot++ )
+		{
+			int position = startingPositions[slot] - 1;
+			seats[position]++;
+			int firstFlag = result.getFlagRound( slot, 1 );
+			if( firstFlag > 0 )
+			{
+				firstFlags[position]++;
+				firstFlagRounds[position] += firstFlag;
+				firstFlagRoundSquares[position] += (long) firstFlag * firstFlag;
+			}
+			for( DeathCause cause : DeathCause.values() )
+			{
+				long count = result.getDeaths( slot, cause );
+				deaths[position * NR_OF_CAUSES + cause.ordinal()] += count;
+				deathSquares[position * NR_OF_CAUSES + cause.ordinal()] += count * count;
+			}
+		}
+	}
+
+	/**
+	 * Adds the statistics of another accumulator to this one
+	 *
+	 * @param other The other accumulator
+	 */
+	void merge( BalanceAccumulator other )
+	{
+		games += other.games;
+		decidedGames += other.decidedGames;
+		rounds += other.rounds;
+		add( seats, other.seats );
+		add( wins, other.wins );
+		add( firstFlags, other.firstFlags );
+		add( firstFlagRounds, other.firstFlagRounds );
+		add( firstFlagRoundSquares, other.firstFlagRoundSquares );
+		add( deaths, other.deaths );
+		add( deathSquares, other.deathSquares );
+	}
+
+	private static void add( long[] sums, long[] others )
+	{
+		for( int i = 0; i < sums.length; i++ )
+		{
+			sums[i] += others[i];
+		}
+	}
+
+	long getGames()
+	{
+		return games;
+	}
+
+	void write( DataOutput out ) throws IOException
+	{
+		out.writeLong( games );
+		out.writeLong( decidedGames );
+		out.writeLong( rounds );
+		for( long[] values : new long[][] { seats, wins, firstFlags, firstFlagRounds, firstFlagRoundSquares, deaths, deathSquares } )
+		{
+			for( long value : values )
+			{
+				out.writeLong( value );
+			}
+		}
+	}
+
+	static BalanceAccumulator read( DataInput in ) throws IOException
+	{
+		BalanceAccumulator accumulator = new BalanceAccumulator();
+		accumulator.games = in.readLong();
+		accumulator.decidedGames = in.readLong();
+		accumulator.rounds = in.readLong();
+		for( long[] values : new long[][] { accumulator.seats, accumulator.wins, accumulator.firstFlags, accumulator.firstFlagRounds,
+		                                    accumulator.firstFlagRoundSquares, accumulator.deaths, accumulator.deathSquares } )
+		{
+			for( int i = 0; i < values.length; i++ )
+			{
+				values[i] = in.readLong();
+			}
+		}
+		return accumulator;
+	}
+
+	/**
+	 * Returns the report of the statistics, a line per starting position with 95% confidence intervals.
+	 * Positions whose win rate interval excludes the rate of a fair game are marked with a *.
+	 *
+	 * @param nrOfBots The number of bots per game
+	 *
+	 * @return The report
+	 */
+	String getReport( int nrOfBots )
+	{
+		StringBuilder report = new StringBuilder();
+		double fairRate = games == 0 ? 0 : decidedGames / (double) games / nrOfBots;
+		report.append( String.format( "%d games, %d with a winner, %.1f rounds on average; a fair win rate is %.2f%%%n",
+		                              games, decidedGames, games == 0 ? 0.0 : rounds / (double) games, 100 * fairRate ) );
+		report.append( String.format( "%-4s %8s  %-22s  %-22s  %-16s", "pos", "seats", "win rate", "first flag reached", "first flag round" ) );
+		for( DeathCause cause : DeathCause.values() )
+		{
+			report.append( String.format( "  %-16s", "deaths " + cause.name().toLowerCase() ) );
+		}
+		report.append( String.format( "%n" ) );
+		for( int position = 0; position < NR_OF_POSITIONS; position++ )
+		{
+			long n = seats[position];
+			if( n == 0 )
+			{
+				continue;
+			}
+			double[] winRate = wilson( wins[position], n );
+			double[] reached = wilson( firstFlags[position], n );
+			double[] firstFlag = mean( firstFlagRounds[position], firstFlagRoundSquares[position], firstFlags[position] );
+			boolean unfair = fairRate < winRate[1] || fairRate > winRate[2];
+			report.append( String.format( "%-4s %8d  %-22s  %-22s  %-16s", ( position + 1 ) + ( unfair ? "*" : "" ), n,
+			                              formatRate( winRate ), formatRate( reached ), formatMean( firstFlag ) ) );
+			for( int cause = 0; cause < NR_OF_CAUSES; cause++ )
+			{
+				report.append( String.format( "  %-16s", formatMean( mean( deaths[position * NR_OF_CAUSES + cause], deathSquares[position * NR_OF_CAUSES + cause], n ) ) ) );
+			}
+			report.append( String.format( "%n" ) );
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Returns the rate and its Wilson score interval
+	 */
+	private static double[] wilson( long successes, long trials )
+	{
+		if( trials == 0 )
+		{
+			return new double[] { 0, 0, 1 };
+		}
+		double p = successes / (double) trials;
+		double z2 = Z * Z;
+		double denominator = 1 + z2 / trials;
+		double centre = ( p + z2 / ( 2 * trials ) ) / denominator;
+		double margin = Z * Math.sqrt( p * ( 1 - p ) / trials + z2 / ( 4.0 * trials * trials ) ) / denominator;
+		return new double[] { p, Math.max( 0, centre - margin ), Math.min( 1, centre + margin ) };
+	}
+
+	/**
+	 * Returns the mean and the margin of its normal confidence interval
+	 */
+	private static double[] mean( long sum, long sumOfSquares, long n )
+	{
+		if( n == 0 )
+		{
+			return null;
+		}
+		double mean = sum / (double) n;
+		double variance = n > 1 ? Math.max( 0, ( sumOfSquares - sum * mean ) / ( n - 1 ) ) : 0;
+		return new double[] { mean, Z * Math.sqrt( variance / n ) };
+	}
+
+	private static String formatRate( double[] rate )
+	{
+		return String.format( "%.2f%% [%.2f-%.2f]", 100 * rate[0], 100 * rate[1], 100 * rate[2] );
+	}
+
+	private static String formatMean( double[] mean )
+	{
+		return mean == null ? "-" : String.format( "%.3f +- %.3f", mean[0], mean[1] );
+	}
+}
@@ -0,0 +1,297 @@
+package kharybdys.roborally.simulation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kharybdys.roborally.game.board.ImplementedScenario;
+
+/**
+ * Measures whether the starting positions of a scenario are fair, by simulating many games ( see {@link GameSimulator} )
+ * with the bots on random starting positions, and reporting per starting position the win rate, how often and how soon the bot reaches
+ * the first flag and how it dies, with 95% confidence intervals.
+ *
+ * The games are split into chunks, played in parallel with a thread per core. Each chunk fills a {@link BalanceAccumulator} of its own,
+ * merged on the calling thread when the chunk is done, so the threads share nothing. The merged statistics and the chunks done are
+ * saved to a checkpoint file regularly, and a run started with the same checkpoint file and arguments continues where it stopped.
+ * Every game has a seed of its own, derived from the seed of the run and its number, so a resumed run reports the same as an uninterrupted one.
+ */
+public final class BalanceAnalyzer
+{
+
+	public static final int CHUNK_SIZE = 1000;
+	public static final long CHECKPOINT_INTERVAL_MILLIS = 30000;
+
+	private static final Logger logger = LoggerFactory.getLogger( BalanceAnalyzer.class );
+
+	private static final int MAGIC = 0x52524241; // "RRBA"
+	private static final short VERSION = 1;
+
+	private final ImplementedScenario scenario;
+	private final int nrOfBots;
+	private final ProgrammingStrategy strategy;
+	private final long nrOfGames;
+	private final long seed;
+	private final int maxRounds;
+	private final int nrOfThreads;
+	private final Path checkpoint;
+
+	private long gamesPlayed = 0;
+
+	/**
+	 * Creates an analyzer
+	 *
+	 * @param scenario    The scenario
+	 * @param nrOfBots    The number of bots per game
+	 * @param strategy    The strategy of all bots
+	 * @param nrOfGames   The number of games
+	 * @param seed        The seed of the run
+	 * @param maxRounds   The number of rounds after which a game ends without a winner
+	 * @param nrOfThreads The number of threads to play on
+	 * @param checkpoint  The checkpoint file, null to run without one
+	 */
+	public BalanceAnalyzer( ImplementedScenario scenario, int nrOfBots, ProgrammingStrategy strategy, long nrOfGames, long seed,
+	                        int maxRounds, int nrOfThreads, Path checkpoint )
+	{
+		if( nrOfBots < 1 || nrOfBots > scenario.getBoardTemplate().getStartingPositions().size() )
+		{
+			throw new IllegalArgumentException( "Cannot play " + scenario + " with " + nrOfBots + " bots" );
+		}
+		this.scenario = scenario;
+		this.nrOfBots = nrOfBots;
+		this.strategy = strategy;
+		this.nrOfGames = nrOfGames;
+		this.seed = seed;
+		this.maxRounds = maxRounds;
+		this.nrOfThreads = nrOfThreads;
+		this.checkpoint = checkpoint;
+	}
+
+	/**
+	 * Plays the games not played yet according to the checkpoint
+	 *
+	 * @return The statistics of all games
+	 *
+	 * @throws IOException          If the checkpoint cannot be read or written
+	 * @throws InterruptedException If interrupted while waiting for the games
+	 */
+	BalanceAccumulator run() throws IOException, InterruptedException
+	{
+		int nrOfChunks = (int) ( ( nrOfGames + CHUNK_SIZE - 1 ) / CHUNK_SIZE );
+		BitSet done = new BitSet( nrOfChunks );
+		BalanceAccumulator total = new BalanceAccumulator();
+		if( checkpoint != null && Files.exists( checkpoint ) )
+		{
+			total = readCheckpoint( done );
+			logger.info( "Resuming from {} with {} games played", checkpoint, total.getGames() );
+		}
+
+		// computed here, as players waiting for it on the pool would run other chunks inside the one waiting
+		scenario.getBoardTemplate().getFlagDistanceTableAsync().join();
+		ForkJoinPool pool = new ForkJoinPool( nrOfThreads );
+		try
+		{
+			CompletionService<BalanceAccumulator> chunks = new ExecutorCompletionService<BalanceAccumulator>( pool );
+			Map<Future<BalanceAccumulator>, Integer> submitted = new HashMap<Future<BalanceAccumulator>, Integer>();
+			for( int chunk = done.nextClearBit( 0 ); chunk < nrOfChunks; chunk = done.nextClearBit( chunk + 1 ) )
+			{
+				int index = chunk;
+				submitted.put( chunks.submit( () -> playChunk( index, pool ) ), index );
+			}
+
+			long start = System.nanoTime();
+			long lastCheckpoint = System.currentTimeMillis();
+			long resumedGames = total.getGames();
+			for( int i = 0; i < submitted.size(); i++ )
+			{
+				try
+				{
+					Future<BalanceAccumulator> chunk = chunks.take();
+					total.merge( chunk.get() );
+					done.set( submitted.get( chunk ) );
+					gamesPlayed = total.getGames() - resumedGames;
+				}
+				catch( ExecutionException e )
+				{
+					throw new IllegalStateException( "Simulation failed", e.getCause() );
+				}
+				if( checkpoint != null && System.currentTimeMillis() - lastCheckpoint >= CHECKPOINT_INTERVAL_MILLIS )
+				{
+					writeCheckpoint( total, done );
+					lastCheckpoint = System.currentTimeMillis();
+					double seconds = ( System.nanoTime() - start ) / 1e9;
+					logger.info( "{} of {} games, {} games/s", total.getGames(), nrOfGames, Math.round( gamesPlayed / seconds ) );
+				}
+			}
+			if( checkpoint != null )
+			{
+				writeCheckpoint( total, done );
+			}
+			return total;
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return The number of games played by the last run, the games of the checkpoint it resumed from excluded
+	 */
+	public long getGamesPlayed()
+	{
+		return gamesPlayed;
+	}
+
+	/**
+	 * Plays the games of the given chunk on the current thread
+	 */
+	private BalanceAccumulator playChunk( int chunk, ForkJoinPool pool )
+	{
+		ProgrammingStrategy[] strategies = new ProgrammingStrategy[nrOfBots];
+		Arrays.fill( strategies, strategy );
+		GameSimulator simulator = new GameSimulator( scenario, strategies, maxRounds, pool );
+		int[] positions = scenario.getBoardTemplate().getStartingPositions().keySet().stream().mapToInt( Integer::intValue ).toArray();
+
+		// mix the seed before adding the game number, so runs with neighbouring seeds do not play each other's games
+		long stream = new SplittableRandom( seed ).nextLong();
+		BalanceAccumulator accumulator = new BalanceAccumulator();
+		long end = Math.min( nrOfGames, (long) ( chunk + 1 ) * CHUNK_SIZE );
+		for( long game = (long) chunk * CHUNK_SIZE; game < end; game++ )
+		{
+			SplittableRandom random = new SplittableRandom( stream + game );
+			long gameSeed = random.nextLong();
+			int[] startingPositions = getStartingPositions( positions, nrOfBots, random );
+			accumulator.add( simulator.play( gameSeed, startingPositions ), startingPositions );
+		}
+		return accumulator;
+	}
+
+	/**
+	 * Returns the given number of starting positions picked at random, ascending
+	 */
+	private static int[] getStartingPositions( int[] positions, int nrOfBots, SplittableRandom random )
+	{
+		int[] shuffled = positions.clone();
+		for( int i = 0; i < nrOfBots; i++ )
+		{
+			int pick = i + random.nextInt( shuffled.length - i );
+			int position = shuffled[pick];
+			shuffled[pick] = shuffled[i];
+			shuffled[i] = position;
+		}
+		int[] result = Arrays.copyOf( shuffled, nrOfBots );
+		Arrays.sort( result );
+		return result;
+	}
+
+	private void writeCheckpoint( BalanceAccumulator total, BitSet done ) throws IOException
+	{
+		Path temp = checkpoint.resolveSibling( checkpoint.getFileName() + ".tmp" );
+		try( OutputStream out = Files.newOutputStream( temp ) )
+		{
+			DataOutputStream dataOut = new DataOutputStream( out );
+			dataOut.writeInt( MAGIC );
+			dataOut.writeShort( VERSION );
+			dataOut.writeUTF( getRunDescription() );
+			long[] words = done.toLongArray();
+			dataOut.writeInt( words.length );
+			for( long word : words )
+			{
+				dataOut.writeLong( word );
+			}
+			total.write( dataOut );
+			dataOut.flush();
+		}
+		Files.move( temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+	}
+
+	private BalanceAccumulator readCheckpoint( BitSet done ) throws IOException
+	{
+		try( InputStream in = Files.newInputStream( checkpoint ) )
+		{
+			DataInputStream dataIn = new DataInputStream( in );
+			if( dataIn.readInt() != MAGIC || dataIn.readShort() != VERSION )
+			{
+				throw new IllegalArgumentException( checkpoint + " is not a balance checkpoint of version " + VERSION );
+			}
+			String run = dataIn.readUTF();
+			if( ! run.equals( getRunDescription() ) )
+			{
+				throw new IllegalArgumentException( checkpoint + " is the checkpoint of another run: " + run );
+			}
+			long[] words = new long[dataIn.readInt()];
+			for( int i = 0; i < words.length; i++ )
+			{
+				words[i] = dataIn.readLong();
+			}
+			done.or( BitSet.valueOf( words ) );
+			return BalanceAccumulator.read( dataIn );
+		}
+	}
+
+	/**
+	 * Returns the arguments that determine the results, a checkpoint only fits a run with the same arguments
+	 */
+	private String getRunDescription()
+	{
+		return "scenario=" + scenario.name() + " bots=" + nrOfBots + " strategy=" + strategy.name() + " games=" + nrOfGames
+		     + " seed=" + seed + " maxRounds=" + maxRounds + " chunkSize=" + CHUNK_SIZE;
+	}
+
+	/**
+	 * Analyzes a scenario and prints the statistics per starting position
+	 *
+	 * @param args The scenario, the number of bots, the strategy, the number of games, the seed, and optionally the checkpoint file,
+	 *             the number of threads ( default a thread per core ) and the maximum number of rounds per game
+	 *
+	 * @throws IOException          If the checkpoint cannot be read or written
+	 * @throws InterruptedException If interrupted while waiting for the games
+	 */
+	public static void main( String[] args ) throws IOException, InterruptedException
+	{
+		if( args.length < 5 )
+		{
+			System.err.println( "Usage: BalanceAnalyzer <scenario> <bots> <strategy> <games> <seed> [checkpoint file] [threads] [max rounds]" );
+			System.err.println( "Strategies: " + Arrays.toString( ProgrammingStrategy.values() ) );
+			System.exit( 2 );
+		}
+		ImplementedScenario scenario = ImplementedScenario.valueOf( args[0] );
+		int nrOfBots = Integer.parseInt( args[1] );
+		ProgrammingStrategy strategy = ProgrammingStrategy.valueOf( args[2] );
+		long nrOfGames = Long.parseLong( args[3] );
+		long seed = Long.parseLong( args[4] );
+		Path checkpoint = args.length > 5 ? Paths.get( args[5] ) : null;
+		int nrOfThreads = args.length > 6 ? Integer.parseInt( args[6] ) : Runtime.getRuntime().availableProcessors();
+		int maxRounds = args.length > 7 ? Integer.parseInt( args[7] ) : BatchSimulator.DEFAULT_MAX_ROUNDS;
+
+		BalanceAnalyzer analyzer = new BalanceAnalyzer( scenario, nrOfBots, strategy, nrOfGames, seed, maxRounds, nrOfThreads, checkpoint );
+		long start = System.nanoTime();
+		BalanceAccumulator total = analyzer.run();
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+
+		System.out.println( scenario.name() + ", " + nrOfBots + " " + strategy + " bots on random starting positions" );
+		System.out.print( total.getReport( nrOfBots ) );
+		int nrOfCores = Math.min( nrOfThreads, Runtime.getRuntime().availableProcessors() );
+		System.out.println( String.format( "%.1f s on %d threads", seconds, nrOfThreads ) + ( seconds > 0 ? String.format( ", %.2f games/s/core this run", analyzer.getGamesPlayed() / seconds / nrOfCores ) : "" ) );
+	}
+}
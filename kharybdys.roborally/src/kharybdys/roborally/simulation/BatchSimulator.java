@@ -0,0 +1,199 @@
+package kharybdys.roborally.simulation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kharybdys.roborally.game.board.BoardVerifier;
+import kharybdys.roborally.game.board.ImplementedScenario;
+
+/**
+ * Plays many games of a scenario in parallel, see {@link GameSimulator}, for tournaments between programming strategies.
+ * The games run on a ForkJoinPool with a thread per core, the strategies searching in parallel share it.
+ *
+ * The results are streamed to a file as the games finish, a line per game ( see {@link GameResult#toLine()} ), after two header lines starting with #.
+ */
+public final class BatchSimulator
+{
+
+	private static final Logger logger = LoggerFactory.getLogger( BatchSimulator.class );
+
+	public static final int DEFAULT_MAX_ROUNDS = 100;
+
+	private final ImplementedScenario scenario;
+	private final ProgrammingStrategy[] strategies;
+	private final int maxRounds;
+	private final int nrOfThreads;
+
+	/**
+	 * Creates a batch simulator
+	 *
+	 * @param scenario    The scenario
+	 * @param strategies  The strategy per bot, so also the number of bots
+	 * @param maxRounds   The number of rounds after which a game ends without a winner
+	 * @param nrOfThreads The number of threads to play on
+	 */
+	public BatchSimulator( ImplementedScenario scenario, ProgrammingStrategy[] strategies, int maxRounds, int nrOfThreads )
+	{
+		if( strategies.length == 0 || strategies.length > BoardVerifier.NR_OF_STARTING_POSITIONS )
+		{
+			throw new IllegalArgumentException( "Cannot play with " + strategies.length + " bots" );
+		}
+		this.scenario = scenario;
+		this.strategies = strategies.clone();
+		this.maxRounds = maxRounds;
+		this.nrOfThreads = nrOfThreads;
+	}
+
+	/**
+	 * Returns the seed of every game of a batch, so each game can be replayed on its own
+	 *
+	 * @param seed      The seed of the batch
+	 * @param nrOfGames The number of games
+	 *
+	 * @return The seed per game
+	 */
+	public static long[] getGameSeeds( long seed, int nrOfGames )
+	{
+		SplittableRandom random = new SplittableRandom( seed );
+		long[] seeds = new long[nrOfGames];
+		for( int game = 0; game < nrOfGames; game++ )
+		{
+			seeds[game] = random.nextLong();
+		}
+		return seeds;
+	}
+
+	/**
+	 * Plays the games of a batch
+	 *
+	 * @param seeds   The seed per game
+	 * @param results Receives the result of every game as it finishes, on the calling thread
+	 *
+	 * @return The number of games that failed, each logged with its seed
+	 *
+	 * @throws InterruptedException If interrupted while waiting for a game
+	 */
+	public int run( long[] seeds, Consumer<GameResult> results ) throws InterruptedException
+	{
+		// computed here, as players waiting for it on the pool would run other games inside the one waiting
+		scenario.getBoardTemplate().getFlagDistanceTableAsync().join();
+		ForkJoinPool pool = new ForkJoinPool( nrOfThreads );
+		try
+		{
+			// a simulator per game, as simulators keep state of their own
+			CompletionService<GameResult> games = new ExecutorCompletionService<GameResult>( pool );
+			Map<Future<GameResult>, Long> submitted = new HashMap<Future<GameResult>, Long>();
+			for( long seed : seeds )
+			{
+				submitted.put( games.submit( () -> new GameSimulator( scenario, strategies, maxRounds, pool ).play( seed ) ), seed );
+			}
+			int failures = 0;
+			for( int game = 0; game < seeds.length; game++ )
+			{
+				Future<GameResult> result = games.take();
+				try
+				{
+					results.accept( result.get() );
+				}
+				catch( ExecutionException e )
+				{
+					failures++;
+					logger.error( "Game of {} with seed {} failed", scenario, submitted.get( result ), e.getCause() );
+				}
+			}
+			return failures;
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Plays a batch of games and writes their results to a file, printing the throughput when done
+	 *
+	 * @param args The scenario, the number of bots, the seed, the number of games, the strategies comma separated ( given to the bots in turn ),
+	 *             the output file, and optionally the number of threads ( default a thread per core ) and the maximum number of rounds per game
+	 *
+	 * @throws IOException          If the output file cannot be written
+	 * @throws InterruptedException If interrupted while waiting for a game
+	 */
+	public static void main( String[] args ) throws IOException, InterruptedException
+	{
+		if( args.length < 6 )
+		{
+			System.err.println( "Usage: BatchSimulator <scenario> <bots> <seed> <games> <strategy,strategy,...> <output file> [threads] [max rounds]" );
+			System.err.println( "Strategies: " + Arrays.toString( ProgrammingStrategy.values() ) );
+			System.exit( 2 );
+		}
+		ImplementedScenario scenario = ImplementedScenario.valueOf( args[0] );
+		int nrOfBots = Integer.parseInt( args[1] );
+		long seed = Long.parseLong( args[2] );
+		int nrOfGames = Integer.parseInt( args[3] );
+		String[] strategyNames = args[4].split( "," );
+		ProgrammingStrategy[] strategies = new ProgrammingStrategy[nrOfBots];
+		for( int slot = 0; slot < nrOfBots; slot++ )
+		{
+			strategies[slot] = ProgrammingStrategy.valueOf( strategyNames[slot % strategyNames.length].trim() );
+		}
+		int nrOfThreads = args.length > 6 ? Integer.parseInt( args[6] ) : Runtime.getRuntime().availableProcessors();
+		int maxRounds = args.length > 7 ? Integer.parseInt( args[7] ) : DEFAULT_MAX_ROUNDS;
+
+		BatchSimulator simulator = new BatchSimulator( scenario, strategies, maxRounds, nrOfThreads );
+		int failures;
+		int[] wins = new int[nrOfBots];
+		long start = System.nanoTime();
+		try( BufferedWriter output = Files.newBufferedWriter( Paths.get( args[5] ), StandardCharsets.UTF_8 ) )
+		{
+			output.write( "# scenario=" + scenario.name() + " bots=" + nrOfBots + " seed=" + seed + " games=" + nrOfGames + " maxRounds=" + maxRounds );
+			output.newLine();
+			output.write( "# strategies=" + String.join( ",", Arrays.stream( strategies ).map( Enum::name ).toArray( String[]::new ) ) );
+			output.newLine();
+			failures = simulator.run( getGameSeeds( seed, nrOfGames ), result -> {
+				if( result.getWinner() >= 0 )
+				{
+					wins[result.getWinner()]++;
+				}
+				try
+				{
+					output.write( result.toLine() );
+					output.newLine();
+				}
+				catch( IOException e )
+				{
+					throw new IllegalStateException( "Cannot write to " + args[5], e );
+				}
+			} );
+		}
+		double seconds = ( System.nanoTime() - start ) / 1e9;
+
+		for( int slot = 0; slot < nrOfBots; slot++ )
+		{
+			System.out.println( "Bot " + ( slot + 1 ) + " " + strategies[slot] + ": " + wins[slot] + " wins" );
+		}
+		int played = nrOfGames - failures;
+		int nrOfCores = Math.min( nrOfThreads, Runtime.getRuntime().availableProcessors() );
+		System.out.println( String.format( "%d games in %.1f s on %d threads: %.2f games/s/core", played, seconds, nrOfThreads, played / seconds / nrOfCores ) );
+		if( failures > 0 )
+		{
+			System.err.println( failures + " games failed" );
+			System.exit( 1 );
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package kharybdys.roborally.simulation;
+
+import kharybdys.roborally.game.GameEventType;
+
+/**
+ * Why a simulated bot died, from the events of the phase it died in
+ */
+public enum DeathCause
+{
+	/**
+	 * Fell into a hole or off the board by its own movement or the board's
+	 */
+	HOLE,
+	/**
+	 * Fell into a hole or off the board after another bot pushed it
+	 */
+	PUSHED,
+	/**
+	 * Took too much damage
+	 */
+	DAMAGE;
+
+	/**
+	 * Returns the cause of the given death event
+	 *
+	 * @param type   The type of the event, BOT_DIES_HOLE or BOT_DIES_DAMAGE
+	 * @param pushed Whether the bot was pushed earlier in the phase
+	 *
+	 * @return The cause, null if the event is not a death
+	 */
+	public static DeathCause of( GameEventType type, boolean pushed )
+	{
+		switch( type )
+		{
+			case BOT_DIES_HOLE:
+				return pushed ? PUSHED : HOLE;
+			case BOT_DIES_DAMAGE:
+				return DAMAGE;
+			default:
+				return null;
+		}
+	}
+}
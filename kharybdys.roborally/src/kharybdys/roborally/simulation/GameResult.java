@@ -0,0 +1,161 @@
+package kharybdys.roborally.simulation;
+
+/**
+ * The result of a simulated game, per bot by slot ( see {@link kharybdys.roborally.game.GameState} )
+ */
+public final class GameResult
+{
+
+	private final long seed;
+	private final int winner;
+	private final int rounds;
+	private final int[][] deaths;
+	private final int[][] flagRounds;
+
+	/**
+	 * @param seed       The seed of the game
+	 * @param winner     The slot of the bot that touched the last flag first, -1 if no bot did
+	 * @param rounds     The number of rounds played
+	 * @param deaths     Per bot and {@link DeathCause} ordinal, the number of deaths
+	 * @param flagRounds Per bot and flag, the round it touched the flag, 0 if it did not
+	 */
+	public GameResult( long seed, int winner, int rounds, int[][] deaths, int[][] flagRounds )
+	{
+		this.seed = seed;
+		this.winner = winner;
+		this.rounds = rounds;
+		this.deaths = deaths;
+		this.flagRounds = flagRounds;
+	}
+
+	public long getSeed()
+	{
+		return seed;
+	}
+
+	/**
+	 * @return The slot of the winner, -1 if the game ended without one
+	 */
+	public int getWinner()
+	{
+		return winner;
+	}
+
+	public int getRounds()
+	{
+		return rounds;
+	}
+
+	public int getNrOfBots()
+	{
+		return deaths.length;
+	}
+
+	/**
+	 * @param slot The slot of the bot
+	 *
+	 * @return The number of deaths of the bot
+	 */
+	public int getDeaths( int slot )
+	{
+		int total = 0;
+		for( int count : deaths[slot] )
+		{
+			total += count;
+		}
+		return total;
+	}
+
+	public int getDeaths( int slot, DeathCause cause )
+	{
+		return deaths[slot][cause.ordinal()];
+	}
+
+	/**
+	 * @param slot The slot of the bot
+	 * @param flag The number of the flag, from 1
+	 *
+	 * @return The round the bot touched the flag, 0 if it did not
+	 */
+	public int getFlagRound( int slot, int flag )
+	{
+		return flagRounds[slot][flag - 1];
+	}
+
+	/**
+	 * Returns the result as a line of the output of {@link BatchSimulator}:
+	 * tab separated the seed, winner, rounds, the deaths per bot and the flag rounds per bot.
+	 * The numbers of a bot are comma separated, bots are separated by a semicolon; the deaths of a bot are given per {@link DeathCause}.
+	 *
+	 * @return The line, without line separator
+	 */
+	public String toLine()
+	{
+		StringBuilder line = new StringBuilder( 32 + 16 * deaths.length );
+		line.append( seed ).append( '\t' ).append( winner ).append( '\t' ).append( rounds ).append( '\t' );
+		appendPerBot( line, deaths );
+		line.append( '\t' );
+		appendPerBot( line, flagRounds );
+		return line.toString();
+	}
+
+	private static void appendPerBot( StringBuilder line, int[][] values )
+	{
+		for( int slot = 0; slot < values.length; slot++ )
+		{
+			line.append( slot == 0 ? "" : ";" );
+			for( int i = 0; i < values[slot].length; i++ )
+			{
+				line.append( i == 0 ? "" : "," ).append( values[slot][i] );
+			}
+		}
+	}
+
+	private static int[][] parsePerBot( String field )
+	{
+		String[] botFields = field.split( ";", -1 );
+		int[][] values = new int[botFields.length][];
+		for( int slot = 0; slot < values.length; slot++ )
+		{
+			String[] valueFields = botFields[slot].split( "," );
+			values[slot] = new int[valueFields.length];
+			for( int i = 0; i < valueFields.length; i++ )
+			{
+				values[slot][i] = Integer.parseInt( valueFields[i] );
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Parses a line written by {@link #toLine()}
+	 *
+	 * @param line The line
+	 *
+	 * @return The result
+	 *
+	 * @throws IllegalArgumentException If the line is not a result
+	 */
+	public static GameResult fromLine( String line )
+	{
+		String[] fields = line.split( "\t" );
+		if( fields.length != 5 )
+		{
+			throw new IllegalArgumentException( "Not a game result: " + line );
+		}
+		try
+		{
+			int[][] deaths = parsePerBot( fields[3] );
+			int[][] flagRounds = parsePerBot( fields[4] );
+			if( deaths.length != flagRounds.length )
+			{
+				throw new IllegalArgumentException( "Not a game result: " + line );
+			}
+			return new GameResult( Long.parseLong( fields[0] ), Integer.parseInt( fields[1] ), Integer.parseInt( fields[2] ), deaths, flagRounds );
+		}
+		catch( NumberFormatException e )
+		{
+			throw new IllegalArgumentException( "Not a game result: " + line, e );
+		}
+	}
+}
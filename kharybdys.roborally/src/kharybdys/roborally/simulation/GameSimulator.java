@@ -0,0 +1,268 @@
+package kharybdys.roborally.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import kharybdys.roborally.game.Bot;
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.GameEventType;
+import kharybdys.roborally.game.GameState;
+import kharybdys.roborally.game.PhaseEngine;
+import kharybdys.roborally.game.board.BoardGrid;
+import kharybdys.roborally.game.board.GameBuilder;
+import kharybdys.roborally.game.board.ImplementedScenario;
+import kharybdys.roborally.game.definition.Direction;
+import kharybdys.roborally.game.movement.MovementBuffer;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+import kharybdys.roborally.game.movement.MovementCardTransformer;
+import kharybdys.roborally.game.movement.MovementDeck;
+
+/**
+ * Plays a whole game of a scenario in memory, on a {@link GameState}: no database, no images.
+ * The rounds follow the rules of the server: bots are dealt 9 cards minus their damage from a {@link MovementDeck},
+ * the registers from 10 minus the damage on stay locked with the card of the previous round, and the end of each round is resolved by
+ * {@link PhaseEngine#processEndOfRound(GameState)}, the same as on the server.
+ * The game ends when a bot touches the last flag, when no bot has lives left or after the maximum number of rounds.
+ *
+ * A game with the same scenario, strategies, seed and starting positions always plays the same. Not thread safe: a simulator per thread.
+ */
+public final class GameSimulator
+{
+
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final MovementCardDefinition[] CARDS = MovementCardDefinition.values();
+
+	private final ImplementedScenario scenario;
+	private final ProgrammingStrategy[] strategies;
+	private final int maxRounds;
+	private final ForkJoinPool pool;
+
+	private final MovementCardTransformer transformer = MovementCardTransformer.getDefaultMovementCardTransformer();
+	// the movements per card ordinal and facing, computed when first needed
+	private final MovementBuffer[] movements = new MovementBuffer[CARDS.length * DIRECTIONS.length];
+
+	/**
+	 * Creates a simulator
+	 *
+	 * @param scenario   The scenario
+	 * @param strategies The strategy per bot, so also the number of bots
+	 * @param maxRounds  The number of rounds after which the game ends without a winner
+	 * @param pool       The pool the games are played on, see {@link ProgrammingStrategy#createPlayer(Game, ForkJoinPool, SplittableRandom)}
+	 */
+	public GameSimulator( ImplementedScenario scenario, ProgrammingStrategy[] strategies, int maxRounds, ForkJoinPool pool )
+	{
+		this.scenario = scenario;
+		this.strategies = strategies.clone();
+		this.maxRounds = maxRounds;
+		this.pool = pool;
+	}
+
+	/**
+	 * Plays a game, the bots on the first starting positions
+	 *
+	 * @param seed The seed of the game: of the cards dealt and of the random numbers of the strategies
+	 *
+	 * @return The result
+	 */
+	public GameResult play( long seed )
+	{
+		int[] startingPositions = new int[strategies.length];
+		for( int slot = 0; slot < startingPositions.length; slot++ )
+		{
+			startingPositions[slot] = slot + 1;
+		}
+		return play( seed, startingPositions );
+	}
+
+	/**
+	 * Plays a game
+	 *
+	 * @param seed              The seed of the game: of the cards dealt and of the random numbers of the strategies
+	 * @param startingPositions The starting position per bot, ascending, as the bots are in the order of their order numbers
+	 *
+	 * @return The result
+	 */
+	public GameResult play( long seed, int[] startingPositions )
+	{
+		int nrOfBots = strategies.length;
+		if( startingPositions.length != nrOfBots )
+		{
+			throw new IllegalArgumentException( "Need " + nrOfBots + " starting positions, not " + startingPositions.length );
+		}
+		GameBuilder builder = scenario.getGameBuilder( true );
+		for( int slot = 0; slot < nrOfBots; slot++ )
+		{
+			if( slot > 0 && startingPositions[slot] <= startingPositions[slot - 1] )
+			{
+				throw new IllegalArgumentException( "Starting positions not ascending: " + Arrays.toString( startingPositions ) );
+			}
+			// the order number picks the starting position
+			builder.addBot( slot + 1, 0, 3, -1, -1, -1, -1, 0, startingPositions[slot], Direction.NORTH );
+		}
+		Game game = builder.asGame( -1, 0 );
+		PhaseEngine engine = new PhaseEngine( game );
+		GameState state = GameState.of( game );
+
+		SplittableRandom random = new SplittableRandom( seed );
+		ProgrammingStrategy.Player[] players = new ProgrammingStrategy.Player[nrOfBots];
+		for( int slot = 0; slot < nrOfBots; slot++ )
+		{
+			players[slot] = strategies[slot].createPlayer( game, pool, random.split() );
+		}
+
+		int nrOfFlags = scenario.getNrOfFlags();
+		int[][] deaths = new int[nrOfBots][DeathCause.values().length];
+		boolean[] pushed = new boolean[nrOfBots];
+		int[][] flagRounds = new int[nrOfBots][nrOfFlags];
+		MovementCardDefinition[][] programs = new MovementCardDefinition[nrOfBots][Game.MAX_PHASE];
+		MovementCardDefinition[][] locked = new MovementCardDefinition[nrOfBots][Game.MAX_PHASE];
+
+		int winner = -1;
+		int round = 0;
+		while( winner < 0 && round < maxRounds && hasBotsLeft( state ) )
+		{
+			round++;
+			lockRegisters( state, programs, locked );
+
+			MovementDeck deck = MovementDeck.forRound( seed, round );
+			for( MovementCardDefinition[] registers : locked )
+			{
+				for( MovementCardDefinition card : registers )
+				{
+					if( card != null )
+					{
+						deck.markUsed( card );
+					}
+				}
+			}
+			// dealt in slot order, like the server deals in order number order
+			List<List<MovementCardDefinition>> hands = new ArrayList<List<MovementCardDefinition>>( nrOfBots );
+			for( int slot = 0; slot < nrOfBots; slot++ )
+			{
+				List<MovementCardDefinition> hand = new ArrayList<MovementCardDefinition>();
+				if( state.getBotCell( slot ) != BoardGrid.NO_CELL )
+				{
+					for( int card = Bot.INITIAL_HEALTH - state.getBotDamage( slot ) - 1; card > 0; card-- )
+					{
+						hand.add( deck.deal() );
+					}
+				}
+				hands.add( hand );
+			}
+
+			state.clearRegisters();
+			for( int slot = 0; slot < nrOfBots; slot++ )
+			{
+				if( state.getBotCell( slot ) == BoardGrid.NO_CELL )
+				{
+					continue;
+				}
+				programs[slot] = players[slot].program( state, slot, hands.get( slot ), locked );
+				int facing = state.getBotFacing( slot );
+				for( int register = 0; register < Game.MAX_PHASE; register++ )
+				{
+					if( programs[slot][register] != null )
+					{
+						state.setRegister( slot, register + 1, getMovements( programs[slot][register], facing ) );
+					}
+				}
+			}
+
+			for( int phase = 1; phase <= Game.MAX_PHASE && winner < 0; phase++ )
+			{
+				state.setRoundAndPhase( round, phase );
+				engine.processPhase( state );
+				countDeaths( engine, startingPositions, deaths, pushed );
+				for( int slot = 0; slot < nrOfBots; slot++ )
+				{
+					int latestFlag = state.getBotLatestFlag( slot );
+					if( latestFlag > 0 && flagRounds[slot][latestFlag - 1] == 0 )
+					{
+						flagRounds[slot][latestFlag - 1] = round;
+					}
+					if( winner < 0 && latestFlag >= nrOfFlags )
+					{
+						winner = slot;
+					}
+				}
+			}
+			if( winner < 0 )
+			{
+				// repairs, dead bots back on their archive marker and flags back on theirs
+				engine.processEndOfRound( state );
+			}
+		}
+		return new GameResult( seed, winner, round, deaths, flagRounds );
+	}
+
+	/**
+	 * Counts the deaths among the events of the phase just resolved, by cause
+	 */
+	private static void countDeaths( PhaseEngine engine, int[] startingPositions, int[][] deaths, boolean[] pushed )
+	{
+		Arrays.fill( pushed, false );
+		for( int event = 0; event < engine.getNrOfEvents(); event++ )
+		{
+			GameEventType type = engine.getEventType( event );
+			if( type == GameEventType.BOT_PUSHES )
+			{
+				pushed[getSlot( engine.getEventVictim( event ), startingPositions )] = true;
+			}
+			DeathCause cause = DeathCause.of( type, false );
+			if( cause != null )
+			{
+				int slot = getSlot( engine.getEventVictim( event ), startingPositions );
+				deaths[slot][DeathCause.of( type, pushed[slot] ).ordinal()]++;
+			}
+		}
+	}
+
+	private static int getSlot( Bot bot, int[] startingPositions )
+	{
+		return Arrays.binarySearch( startingPositions, bot.getOrderNumber() );
+	}
+
+	private static boolean hasBotsLeft( GameState state )
+	{
+		for( int slot = 0; slot < state.getNrOfBots(); slot++ )
+		{
+			if( state.getBotCell( slot ) != BoardGrid.NO_CELL || state.getBotLives( slot ) > 0 )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Locks the registers the damage of the bots does not allow them to program, with the cards of the previous round
+	 */
+	private static void lockRegisters( GameState state, MovementCardDefinition[][] programs, MovementCardDefinition[][] locked )
+	{
+		for( int slot = 0; slot < state.getNrOfBots(); slot++ )
+		{
+			boolean onBoard = state.getBotCell( slot ) != BoardGrid.NO_CELL;
+			int firstLocked = Bot.INITIAL_HEALTH - state.getBotDamage( slot );
+			for( int register = 0; register < Game.MAX_PHASE; register++ )
+			{
+				locked[slot][register] = onBoard && register + 1 >= firstLocked ? programs[slot][register] : null;
+			}
+		}
+	}
+
+	private MovementBuffer getMovements( MovementCardDefinition card, int facing )
+	{
+		int index = card.ordinal() * DIRECTIONS.length + facing;
+		if( movements[index] == null )
+		{
+			MovementBuffer buffer = new MovementBuffer( PhaseEngine.MAX_MOVEMENTS );
+			transformer.addMovements( Collections.singletonList( card ), DIRECTIONS[facing], 0, buffer );
+			movements[index] = buffer;
+		}
+		return movements[index];
+	}
+}
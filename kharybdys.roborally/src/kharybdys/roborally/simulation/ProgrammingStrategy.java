@@ -0,0 +1,108 @@
+package kharybdys.roborally.simulation;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import kharybdys.roborally.game.Game;
+import kharybdys.roborally.game.GameState;
+import kharybdys.roborally.game.ProgramEvaluator;
+import kharybdys.roborally.game.ai.HeuristicProgrammer;
+import kharybdys.roborally.game.ai.MonteCarloProgrammer;
+import kharybdys.roborally.game.movement.MovementCardDefinition;
+import kharybdys.roborally.game.movement.MovementCardTransformer;
+
+/**
+ * The ways a simulated bot programs its registers
+ */
+public enum ProgrammingStrategy
+{
+	/**
+	 * Plays the cards in random order
+	 */
+	RANDOM,
+	/**
+	 * Plays the best of a few random programs, each tried with the bot on its own, see {@link HeuristicProgrammer}
+	 */
+	HEURISTIC,
+	/**
+	 * Plays the program that ends best for the bot on its own, see {@link ProgramEvaluator}
+	 */
+	GREEDY,
+	/**
+	 * Plays the program of a Monte Carlo tree search with a fixed number of iterations, see {@link MonteCarloProgrammer}
+	 */
+	MONTE_CARLO;
+
+	/**
+	 * The number of iterations of a Monte Carlo decision: fixed instead of timed, so simulations can be reproduced
+	 */
+	public static final int MONTE_CARLO_ITERATIONS = 500;
+
+	/**
+	 * The number of programs a heuristic decision tries
+	 */
+	public static final int HEURISTIC_SAMPLES = 12;
+
+	/**
+	 * Chooses the program of a bot
+	 */
+	public interface Player
+	{
+		/**
+		 * @param state  The state at the start of the round
+		 * @param slot   The slot of the bot
+		 * @param hand   The cards dealt to the bot
+		 * @param locked Per slot and register, the card locked in it, null for the registers to program
+		 *
+		 * @return The card per register, the locked cards included
+		 */
+		MovementCardDefinition[] program( GameState state, int slot, List<MovementCardDefinition> hand, MovementCardDefinition[][] locked );
+	}
+
+	/**
+	 * Creates a player with this strategy for a single game
+	 *
+	 * @param game   The game
+	 * @param pool   The pool the game is played on, for the strategies searching in parallel
+	 * @param random The random numbers of the player
+	 *
+	 * @return The player
+	 */
+	public Player createPlayer( Game game, ForkJoinPool pool, SplittableRandom random )
+	{
+		switch( this )
+		{
+			case GREEDY:
+				// evaluated on the pool of the games, so its tasks are picked up by whichever thread is free
+				ProgramEvaluator evaluator = new ProgramEvaluator( game, pool );
+				MovementCardTransformer transformer = MovementCardTransformer.getDefaultMovementCardTransformer();
+				return ( state, slot, hand, locked ) -> evaluator.getBestProgram( state, slot, hand, locked[slot], transformer, true ).getProgram().toArray( new MovementCardDefinition[0] );
+			case HEURISTIC:
+				HeuristicProgrammer heuristic = new HeuristicProgrammer( game );
+				return ( state, slot, hand, locked ) -> heuristic.program( state, slot, hand, locked[slot], HEURISTIC_SAMPLES, random );
+			case MONTE_CARLO:
+				MonteCarloProgrammer programmer = new MonteCarloProgrammer( game );
+				return ( state, slot, hand, locked ) -> programmer.program( state, slot, hand, locked, Long.MAX_VALUE, MONTE_CARLO_ITERATIONS, random );
+			case RANDOM:
+			default:
+				return ( state, slot, hand, locked ) -> {
+					MovementCardDefinition[] program = locked[slot].clone();
+					MovementCardDefinition[] cards = hand.toArray( new MovementCardDefinition[0] );
+					int dealt = 0;
+					for( int register = 0; register < program.length && dealt < cards.length; register++ )
+					{
+						if( program[register] == null )
+						{
+							int pick = dealt + random.nextInt( cards.length - dealt );
+							MovementCardDefinition card = cards[pick];
+							cards[pick] = cards[dealt];
+							cards[dealt++] = card;
+							program[register] = card;
+						}
+					}
+					return program;
+				};
+		}
+	}
+}
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 
 import kharybdys.roborally.adapters.RoborallyAdapterDefinitions;
 import kharybdys.roborally.functions.RoboRallyFunctionDefinitions;
+import kharybdys.roborally.game.board.BoardCatalogue;
 import navajoextension.AbstractCoreExtension;
 
 /**
@@ -56,6 +57,12 @@ public class Version extends AbstractCoreExtension {
 		// Add adapters
 		RoborallyAdapterDefinitions library = new RoborallyAdapterDefinitions();
 		registerAll(library);
+		// Load the board catalogue shipped in this bundle now rather than on the first game
+		try {
+			BoardCatalogue.initialize();
+		} catch (Throwable e) {
+			logger.error("Error loading board catalogue:", e);
+		}
 	}
 	
 